@@ -11,8 +11,8 @@ hljs.registerLanguage(
   function(e) {
     return {
       keywords: {
-        keyword1: "HttpService alias atom blocking break consumer continue else flag for function graph if immutable lazy match newtype node opaque provider repeat return root static var where while ",
-        keyword2: "and as cast contract copy endpoint_handlers fromJson getHttpClient implement in initializers instanceof mut not or requires sleep unwrap unwrappers ",
+        keyword1: "HttpService alias atom blocking break consumer continue else flag for function graph if immutable lazy match newtype node opaque parallel provider repeat return root static var where while ",
+        keyword2: "and as cast contract copy endpoint_handlers fromJson toJson getHttpClient implement in initializers instanceof mut not or requires sleep unwrap unwrappers ",
         keyword3: "Error HttpClient ParsedJson _ boolean char double float future int lambda long oneof string struct tuple ",
         keyword4: "case using",
         literal: "true false"
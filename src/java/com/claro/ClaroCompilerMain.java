@@ -4,10 +4,21 @@ import com.claro.compiler_backends.interpreted.Interpreter;
 import com.claro.compiler_backends.java_source.JavaSourceCompilerBackend;
 import com.claro.compiler_backends.repl.Repl;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 
 public class ClaroCompilerMain {
   public static void main(String[] args) throws Exception {
+    // Bazel launches persistent workers with this flag, in which case the actual args will arrive via WorkRequests.
+    if (args.length == 1 && args[0].equals("--persistent_worker")) {
+      ClaroPersistentWorker.run();
+      return;
+    }
+    args = expandParamFiles(args);
     // TODO(steving) Determine which backend to use based on args.
     String[] argsCopy = Arrays.copyOfRange(args, 1, args.length);
     String compilerBackend = args[0].substring(2);
@@ -30,4 +41,18 @@ public class ClaroCompilerMain {
         );
     }
   }
+
+  // When Bazel doesn't end up running the compiler as a persistent worker, args are passed via an "@<path>" param file
+  // containing one arg per line.
+  private static String[] expandParamFiles(String[] args) throws IOException {
+    ArrayList<String> res = new ArrayList<>(args.length);
+    for (String arg : args) {
+      if (arg.startsWith("@")) {
+        res.addAll(Files.readAllLines(Paths.get(arg.substring(1)), StandardCharsets.UTF_8));
+      } else {
+        res.add(arg);
+      }
+    }
+    return res.toArray(new String[0]);
+  }
 }
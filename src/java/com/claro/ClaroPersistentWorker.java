@@ -0,0 +1,120 @@
+package com.claro;
+
+import com.claro.compiler_backends.java_source.JavaSourceCompilerBackend;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs the Claro compiler as a Bazel persistent worker (using the JSON flavor of the worker protocol) so that the cost
+ * of JVM startup, and of loading and JIT-warming the compiler and all of its third-party deps, is paid once rather than
+ * once per compile action.
+ * <p>
+ * Every WorkRequest is compiled by the very same compiler classes, so the compiler's static state is explicitly reset
+ * via JavaSourceCompilerBackend.resetStaticState() after each one. The compiler signals failure via a
+ * CompilerExitException rather than System.exit() while running in this mode.
+ */
+public class ClaroPersistentWorker {
+
+  public static void run() throws IOException {
+    PrintStream workResponses = System.out;
+    // Anything that the compiler writes to stdout would corrupt the stream of WorkResponses.
+    System.setOut(System.err);
+    run(System.in, workResponses);
+  }
+
+  // Separated out from run() so that the worker can be driven from a test.
+  static void run(InputStream workRequestsIn, PrintStream workResponses) throws IOException {
+    JavaSourceCompilerBackend.throwOnExit = true;
+    Gson gson = new Gson();
+    JsonReader workRequests =
+        new JsonReader(new BufferedReader(new InputStreamReader(workRequestsIn, StandardCharsets.UTF_8)));
+    // Bazel writes WorkRequests back to back, so lenient mode is needed to read multiple top-level JSON values.
+    workRequests.setLenient(true);
+    while (workRequests.peek() != JsonToken.END_DOCUMENT) {
+      WorkRequest workRequest = gson.fromJson(workRequests, WorkRequest.class);
+      WorkResponse workResponse = handleWorkRequest(workRequest);
+      workResponses.println(gson.toJson(workResponse));
+      workResponses.flush();
+    }
+  }
+
+  private static WorkResponse handleWorkRequest(WorkRequest workRequest) {
+    PrintStream prevOut = System.out;
+    PrintStream prevErr = System.err;
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    PrintStream outputStream = new PrintStream(output, /*autoFlush=*/true, StandardCharsets.UTF_8);
+    System.setOut(outputStream);
+    System.setErr(outputStream);
+
+    int exitCode = 0;
+    try {
+      if (workRequest.inputs != null) {
+        JavaSourceCompilerBackend.workRequestInputDigestsByPath =
+            workRequest.inputs.stream()
+                .filter(input -> input.path != null && input.digest != null && !input.digest.isEmpty())
+                .collect(ImmutableMap.toImmutableMap(input -> input.path, input -> input.digest, (a, b) -> a));
+      }
+      ClaroCompilerMain.main(
+          Optional.ofNullable(workRequest.arguments).map(args -> args.toArray(new String[0])).orElse(new String[0]));
+    } catch (Exception e) {
+      Optional<JavaSourceCompilerBackend.CompilerExitException> compilerExit = getCompilerExit(e);
+      if (compilerExit.isPresent()) {
+        exitCode = compilerExit.get().exitCode;
+      } else {
+        e.printStackTrace(outputStream);
+        exitCode = 1;
+      }
+    } finally {
+      // --expect_errors has the compiler redirect its own output to a file, which must not be left open.
+      if (System.out != outputStream) {
+        System.out.close();
+      }
+      System.setOut(prevOut);
+      System.setErr(prevErr);
+      // This also tears down any dep module monomorphization still running on behalf of this request.
+      JavaSourceCompilerBackend.resetStaticState();
+    }
+
+    WorkResponse workResponse = new WorkResponse();
+    workResponse.exitCode = exitCode;
+    workResponse.output = new String(output.toByteArray(), StandardCharsets.UTF_8);
+    workResponse.requestId = workRequest.requestId;
+    return workResponse;
+  }
+
+  // The compiler may wrap the exit along the way (e.g. in exceptions thrown from parser actions).
+  static Optional<JavaSourceCompilerBackend.CompilerExitException> getCompilerExit(Throwable t) {
+    for (Throwable curr = t; curr != null; curr = curr.getCause()) {
+      if (curr instanceof JavaSourceCompilerBackend.CompilerExitException) {
+        return Optional.of((JavaSourceCompilerBackend.CompilerExitException) curr);
+      }
+    }
+    return Optional.empty();
+  }
+
+  // Only the subset of the worker protocol's WorkRequest/WorkResponse fields that this worker needs.
+  static final class WorkRequest {
+    List<String> arguments;
+    List<Input> inputs;
+    int requestId;
+  }
+
+  static final class Input {
+    String path;
+    // Bazel's digest of the input's contents, serialized as base64.
+    String digest;
+  }
+
+  static final class WorkResponse {
+    int exitCode;
+    String output;
+    int requestId;
+  }
+}
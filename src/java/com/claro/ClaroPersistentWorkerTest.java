@@ -0,0 +1,125 @@
+package com.claro;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drives a single in-process ClaroPersistentWorker through a sequence of WorkRequests, checking that failed compilations
+ * don't take down the worker, and that no static compiler state leaks from one request into the next. The latter is
+ * checked by compiling two different programs that declare conflicting types and procedures under the same names, and
+ * then compiling the first program again and checking that it produces identical codegen.
+ */
+public class ClaroPersistentWorkerTest {
+  private static final String FIRST_TEST_PROGRAM =
+      "newtype Foo : int\n" +
+      "function bar(f: Foo) -> int {\n" +
+      "  return unwrap(f) * 2;\n" +
+      "}\n" +
+      "var doubler = lambda (x: int) -> int { return x * 2; };\n" +
+      "var l = [doubler(x) | x in [1, 2, 3] where x > 1];\n" +
+      "var o: oneof<int, string> = bar(Foo(3));\n" +
+      "match (o) {\n" +
+      "  case _:int -> print(\"int: {l}\");\n" +
+      "  case _:string -> print(\"string\");\n" +
+      "}\n" +
+      "var c = copy(mut [l]);\n" +
+      "print(c);\n";
+  // Redeclares both names from the first program with an entirely different shape, which would be rejected as a
+  // duplicate declaration (or fail to type check) if any of the first program's symbols leaked into this compilation.
+  private static final String SECOND_TEST_PROGRAM =
+      "atom Foo\n" +
+      "function bar(s: string) -> string {\n" +
+      "  return \"{s}{s}\";\n" +
+      "}\n" +
+      "print(bar(\"hi\"));\n" +
+      "print(Foo);\n";
+
+  public static void main(String... args) throws Exception {
+    Path tmpDir = Files.createTempDirectory("claro_persistent_worker_test");
+    Path firstSrc = tmpDir.resolve("first_worker_test.claro");
+    Files.write(firstSrc, FIRST_TEST_PROGRAM.getBytes(StandardCharsets.UTF_8));
+    Path secondSrc = tmpDir.resolve("second_worker_test.claro");
+    Files.write(secondSrc, SECOND_TEST_PROGRAM.getBytes(StandardCharsets.UTF_8));
+    Path firstOut = tmpDir.resolve("first.java");
+    Path secondOut = tmpDir.resolve("second.java");
+    Path firstAgainOut = tmpDir.resolve("first_again.java");
+
+    Gson gson = new Gson();
+    StringBuilder workRequests = new StringBuilder()
+        .append(gson.toJson(workRequest(1, ImmutableList.of("--java_source"))))
+        .append(gson.toJson(workRequest(2, compileArgs("first_worker_test", firstSrc, firstOut))))
+        .append(gson.toJson(workRequest(3, compileArgs("second_worker_test", secondSrc, secondOut))))
+        .append(gson.toJson(workRequest(4, compileArgs("first_worker_test", firstSrc, firstAgainOut))))
+        .append(gson.toJson(workRequest(5, ImmutableList.of("--java_source", "--not_a_real_flag"))));
+
+    ByteArrayOutputStream workResponsesOut = new ByteArrayOutputStream();
+    ClaroPersistentWorker.run(
+        new ByteArrayInputStream(workRequests.toString().getBytes(StandardCharsets.UTF_8)),
+        new PrintStream(workResponsesOut, /*autoFlush=*/true, StandardCharsets.UTF_8)
+    );
+    List<ClaroPersistentWorker.WorkResponse> workResponses = new ArrayList<>();
+    for (String line : workResponsesOut.toString(StandardCharsets.UTF_8).split("\n")) {
+      workResponses.add(gson.fromJson(line, ClaroPersistentWorker.WorkResponse.class));
+    }
+
+    check(workResponses.size() == 5, "Expected 5 WorkResponses but got " + workResponses.size());
+    for (int i = 0; i < workResponses.size(); i++) {
+      check(workResponses.get(i).requestId == i + 1, "WorkResponse " + i + " has the wrong requestId.");
+    }
+    check(workResponses.get(0).exitCode != 0, "Compilation with missing args should have failed.");
+    check(workResponses.get(0).output.contains("are required args"), "Missing the error for missing args.");
+    check(workResponses.get(1).exitCode == 0, "First compilation failed:\n" + workResponses.get(1).output);
+    check(
+        workResponses.get(2).exitCode == 0,
+        "Compiling a second, different program failed, so state must have leaked from the first:\n" +
+        workResponses.get(2).output
+    );
+    String secondCodegen = Files.readString(secondOut);
+    check(secondCodegen.contains("class second_worker_test"), "Second compilation generated the wrong class.");
+    check(
+        !secondCodegen.contains("first_worker_test") && !secondCodegen.contains("doubler"),
+        "Second compilation's codegen includes codegen leaked from the first compilation."
+    );
+    check(workResponses.get(3).exitCode == 0, "Recompiling the first program failed:\n" + workResponses.get(3).output);
+    check(
+        Files.readString(firstOut).equals(Files.readString(firstAgainOut)),
+        "Recompiling the first program after a different one produced different codegen."
+    );
+    check(workResponses.get(4).exitCode == 2, "Unknown flags should fail with exit code 2.");
+    System.out.println("PASSED");
+  }
+
+  private static ImmutableList<String> compileArgs(String classname, Path src, Path out) {
+    return ImmutableList.of(
+        "--java_source",
+        "--silent",
+        "--classname", classname,
+        "--package", "claro.lang",
+        "--src", src.toString(),
+        "--output_file_path", out.toString()
+    );
+  }
+
+  private static ClaroPersistentWorker.WorkRequest workRequest(int requestId, ImmutableList<String> args) {
+    ClaroPersistentWorker.WorkRequest res = new ClaroPersistentWorker.WorkRequest();
+    res.requestId = requestId;
+    res.arguments = args;
+    return res;
+  }
+
+  private static void check(boolean condition, String failureMessage) {
+    if (!condition) {
+      System.err.println("FAILED: " + failureMessage);
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.claro;
+
+import com.claro.compiler_backends.java_source.JavaSourceCompilerBackend;
+import com.claro.compiler_backends.java_source.monomorphization.MonomorphizationCache;
+import com.google.common.collect.ImmutableList;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Compiles a program calling a dep module's generic procedure twice against the same monomorphization cache dir,
+ * checking that the first compilation populates the cache, and that the second is served from it while still producing
+ * identical codegen.
+ * <p>
+ * Each arg is a `<dep name>:<unique module name>:<path>` triple for a .claro_module that the test program depends on.
+ * The first names the dep module exporting the generic procedure, and the rest are the stdlib modules.
+ */
+public class MonomorphizationCacheTest {
+  private static final String TEST_PROGRAM =
+      "print(Dep::firstOf([1, 2, 3]));\n" +
+      "print(Dep::firstOf([\"a\", \"b\"]));\n";
+
+  public static void main(String... args) throws Exception {
+    Path tmpDir = Files.createTempDirectory("claro_monomorphization_cache_test");
+    Path src = tmpDir.resolve("monomorphization_cache_test.claro");
+    Files.write(src, TEST_PROGRAM.getBytes(StandardCharsets.UTF_8));
+    Path cacheDir = tmpDir.resolve("cache");
+    Path firstOut = tmpDir.resolve("first.java");
+    Path secondOut = tmpDir.resolve("second.java");
+
+    JavaSourceCompilerBackend.throwOnExit = true;
+
+    int firstCacheHits = compile(compileArgs(src, firstOut, cacheDir, args));
+    check(firstCacheHits == 0, "The first compilation can't have been served from an empty cache.");
+    check(countCacheEntries(cacheDir) > 0, "The first compilation didn't populate the monomorphization cache.");
+
+    int secondCacheHits = compile(compileArgs(src, secondOut, cacheDir, args));
+    check(secondCacheHits > 0, "The second compilation wasn't served from the monomorphization cache.");
+    check(
+        Files.readString(firstOut).equals(Files.readString(secondOut)),
+        "Compilation served from the monomorphization cache produced different codegen."
+    );
+    System.out.println("PASSED");
+  }
+
+  // Returns the number of dep module monomorphizations that the compilation was able to serve from the cache.
+  private static int compile(ImmutableList<String> args) throws Exception {
+    try {
+      ClaroCompilerMain.main(args.toArray(new String[0]));
+      check(false, "Compilation unexpectedly returned without exiting.");
+    } catch (Exception e) {
+      Optional<JavaSourceCompilerBackend.CompilerExitException> compilerExit = ClaroPersistentWorker.getCompilerExit(e);
+      if (!compilerExit.isPresent()) {
+        throw e;
+      }
+      check(compilerExit.get().exitCode == 0, "Compilation failed with exit code " + compilerExit.get().exitCode);
+    }
+    int res = MonomorphizationCache.getHitCount();
+    // This also tears down the dep module monomorphization subprocess, so that the next compilation would have to start
+    // a new one if it weren't served from the cache.
+    JavaSourceCompilerBackend.resetStaticState();
+    return res;
+  }
+
+  private static ImmutableList<String> compileArgs(Path src, Path out, Path cacheDir, String[] depModules) {
+    ImmutableList.Builder<String> res = ImmutableList.<String>builder().add(
+        "--java_source",
+        "--silent",
+        "--classname", "monomorphization_cache_test",
+        "--package", "claro.lang",
+        "--src", src.toString(),
+        "--output_file_path", out.toString(),
+        "--monomorphization_cache_dir", cacheDir.toString()
+    );
+    for (int i = 0; i < depModules.length; i++) {
+      String[] depModule = depModules[i].split(":", 3);
+      res.add("--dep", depModule[0] + ":" + depModule[2]);
+      if (i > 0) {
+        res.add("--stdlib_dep", depModule[0]);
+      }
+      res.add("--dep_graph_claro_module_by_unique_name", depModule[1] + ":" + depModule[2]);
+    }
+    return res.build();
+  }
+
+  private static long countCacheEntries(Path cacheDir) throws Exception {
+    try (Stream<Path> entries = Files.list(cacheDir)) {
+      return entries.count();
+    }
+  }
+
+  private static void check(boolean condition, String failureMessage) {
+    if (!condition) {
+      System.err.println("FAILED: " + failureMessage);
+      System.exit(1);
+    }
+  }
+}
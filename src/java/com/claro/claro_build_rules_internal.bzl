@@ -19,6 +19,13 @@ visibility([
 DEFAULT_CLARO_NAME = "claro"
 DEFAULT_PACKAGE_PREFIX = "com.claro"
 
+# Users opt in to prefetching srcs and dep modules on background threads via e.g.
+# `--define=claro_io_prefetch_threads=2`. Off by default since Bazel already runs many compile actions in parallel.
+_IO_PREFETCH_THREADS_DEFINE = "claro_io_prefetch_threads"
+# Users opt in to the persistent monomorphization cache via e.g.
+# `--define=claro_monomorphization_cache_dir=$HOME/.cache/claro_monomorphization` in their .bazelrc.
+_MONOMORPHIZATION_CACHE_DIR_DEFINE = "claro_monomorphization_cache_dir"
+
 CLARO_STDLIB_FILES = [
     "@claro-lang//stdlib:builtin_functions.claro_internal",
 ]
@@ -181,6 +188,24 @@ def _invoke_claro_compiler_impl(ctx):
                 "{0}:{1}".format(
                     transitive_subgraph_dep_module.unique_module_name,
                     transitive_subgraph_dep_module.path_to_claro_module_file.path))
+        # Optionally read srcs and deserialize dep modules in the background while the compiler parses and type checks.
+        io_prefetch_threads = ctx.var.get(_IO_PREFETCH_THREADS_DEFINE)
+        if io_prefetch_threads:
+            if not io_prefetch_threads.isdigit():
+                fail("--define={0}=<n> must be a non-negative integer, got: {1}".format(
+                    _IO_PREFETCH_THREADS_DEFINE, io_prefetch_threads))
+            args.add("--io_prefetch_threads", io_prefetch_threads)
+        # Only share dep module monomorphizations across compile actions if the user explicitly pointed the compiler at a
+        # cache dir outside of the output tree. The cache is content-addressed, keyed on every file that could influence
+        # a monomorphization, so it can never serve a stale result, and using it never changes the compiler's output.
+        # But it's necessarily an undeclared, shared path, so it only works for local actions that are allowed to write
+        # to it (e.g. persistent workers, or sandboxed actions given `--sandbox_writable_path=<dir>`).
+        monomorphization_cache_dir = ctx.var.get(_MONOMORPHIZATION_CACHE_DIR_DEFINE)
+        if monomorphization_cache_dir:
+            if not monomorphization_cache_dir.startswith("/"):
+                fail("--define={0}=<dir> must be an absolute path outside of the output tree, got: {1}".format(
+                    _MONOMORPHIZATION_CACHE_DIR_DEFINE, monomorphization_cache_dir))
+            args.add("--monomorphization_cache_dir", monomorphization_cache_dir)
 
     # Make sure to signal to the binary which (if any) optional stdlib modules have been used, because some (e.g. `http`)
     # may actually require some teardown in the main method.
@@ -192,6 +217,21 @@ def _invoke_claro_compiler_impl(ctx):
         for used_optional_stdlib_module in optional_stdlib_modules_used_in_transitive_closure.to_list():
             args.add("--optional_stdlib_module_used_in_transitive_closure", used_optional_stdlib_module)
 
+    execution_requirements = {}
+    # TODO(steving) Drop this condition once the "bootstrapping" version of the compiler also supports this.
+    if "bootstrapping" not in ctx.executable.claro_compiler.basename:
+        # Allow Bazel to run the compiler as a persistent worker so that thousands of compile actions don't each pay for
+        # a cold JVM. Workers receive their args via WorkRequests, which requires that all args go through a param file.
+        args.use_param_file("@%s", use_always = True)
+        args.set_param_file_format("multiline")
+        execution_requirements = {
+            "supports-workers": "1",
+            "requires-worker-protocol": "json",
+        }
+        if ctx.var.get(_MONOMORPHIZATION_CACHE_DIR_DEFINE):
+            # The cache dir only exists on this machine.
+            execution_requirements["no-remote-exec"] = "1"
+
     ctx.actions.run(
         inputs = depset(
             direct = srcs,
@@ -204,6 +244,8 @@ def _invoke_claro_compiler_impl(ctx):
         arguments = [args],
         progress_message = "Compiling Claro Program: " + ctx.outputs.compiler_out.path,
         executable = ctx.executable.claro_compiler,
+        mnemonic = "ClaroCompile",
+        execution_requirements = execution_requirements,
     )
 
     if is_module:
@@ -252,13 +294,52 @@ def _invoke_claro_compiler_impl(ctx):
     ]
 
 
-def claro_binary(name, main_file, srcs = [], deps = {}, resources = {}, optional_stdlib_deps = [], debug = False, visibility = None):
-    _claro_binary(name, main_file, "{0}.java".format(name), srcs, deps, resources, optional_stdlib_deps, debug, visibility)
+# `graph_executor` selects what Graph Functions run on at runtime. "fixed" (the default) uses a fixed pool of platform
+# threads sized to the number of available processors, while "virtual" runs every Graph Function node on its own JDK
+# virtual thread. Either can also be selected when running the binary via `--jvm_flag=-Dclaro.graph_executor=<mode>`.
+#
+# Note that "virtual" requires running on JDK 21+, and this repo's .bazelrc pins `--java_runtime_version=remotejdk_11`,
+# so under the default configuration "virtual" silently behaves exactly like "fixed" (the program logs a single warning
+# to stderr at startup when this happens). To actually get virtual threads, build with a JDK 21+ runtime, e.g.
+# `bazel run --java_runtime_version=remotejdk_21 //path/to:target`.
+#
+# Individual Graph Functions (including HTTP endpoint handlers, by endpoint name) can be isolated onto their own named
+# executors by declaring them in `graph_executors` (e.g. {"batch": "forkjoin:4", "endpoints": "fixed:16"}) and then
+# binding Graph Functions to them in `graph_executor_bindings` (e.g. {"buildReport": "batch"}). Bindings are keyed on
+# the Graph Function's name exactly as written in the source. See $GraphFunctionExecutors.java for the supported executor
+# specs.
+#
+# `http_server_eventloops` sets the number of eventloops that any HTTP servers started by the program will use, either
+# an explicit count or "cores" for one per available processor. Defaults to a single eventloop.
+#
+# `parallel_comprehension_threshold` sets the minimum size of list or set that a comprehension explicitly marked
+# `parallel` must iterate over in order to actually be evaluated on a fork-join parallel stream. Defaults to 1000.
+# Comprehensions that aren't marked `parallel` are always evaluated sequentially, regardless of this setting.
+def claro_binary(name, main_file, srcs = [], deps = {}, resources = {}, optional_stdlib_deps = [], debug = False, visibility = None, graph_executor = None, graph_executors = {}, graph_executor_bindings = {}, http_server_eventloops = None, parallel_comprehension_threshold = None):
+    _claro_binary(name, main_file, "{0}.java".format(name), srcs, deps, resources, optional_stdlib_deps, debug, visibility, graph_executor = graph_executor, graph_executors = graph_executors, graph_executor_bindings = graph_executor_bindings, http_server_eventloops = http_server_eventloops, parallel_comprehension_threshold = parallel_comprehension_threshold)
 
 def claro_expected_errors(name, main_file, srcs = [], deps = {}, resources = {}, optional_stdlib_deps = [], debug = False, visibility = None):
     _claro_binary(name, main_file, "{0}.errs".format(name), srcs, deps, resources, optional_stdlib_deps, debug, visibility, expect_errors = True)
 
-def _claro_binary(name, main_file, compiler_out, srcs = [], deps = {}, resources = {}, optional_stdlib_deps = [], debug = False, visibility = None, expect_errors = False):
+def _claro_binary(name, main_file, compiler_out, srcs = [], deps = {}, resources = {}, optional_stdlib_deps = [], debug = False, visibility = None, expect_errors = False, graph_executor = None, graph_executors = {}, graph_executor_bindings = {}, http_server_eventloops = None, parallel_comprehension_threshold = None):
+    if graph_executor not in [None, "fixed", "virtual"]:
+        fail("Unsupported graph_executor = \"{0}\". Expected one of: \"fixed\", \"virtual\".".format(graph_executor))
+    jvm_flags = []
+    if graph_executor:
+        jvm_flags.append("-Dclaro.graph_executor={0}".format(graph_executor))
+    if graph_executors:
+        jvm_flags.append("-Dclaro.graph_executors={0}".format(
+            ",".join(["{0}={1}".format(k, v) for k, v in graph_executors.items()])))
+    if graph_executor_bindings:
+        for executor in graph_executor_bindings.values():
+            if executor != "default" and executor not in graph_executors:
+                fail("graph_executor_bindings references undeclared executor \"{0}\". Declare it in graph_executors.".format(executor))
+        jvm_flags.append("-Dclaro.graph_executor_bindings={0}".format(
+            ",".join(["{0}={1}".format(k, v) for k, v in graph_executor_bindings.items()])))
+    if http_server_eventloops:
+        jvm_flags.append("-Dclaro.http_server_eventloops={0}".format(http_server_eventloops))
+    if parallel_comprehension_threshold != None:
+        jvm_flags.append("-Dclaro.parallel_comprehension_threshold={0}".format(parallel_comprehension_threshold))
     # Add optional stdlib dep targets since the user doesn't actually "know" the explicit Bazel target that implements it.
     deps = dict(**deps) # Make a copy of the frozen deps dict.
     for optional_stdlib_dep in optional_stdlib_deps:
@@ -292,6 +373,7 @@ def _claro_binary(name, main_file, compiler_out, srcs = [], deps = {}, resources
                 # Add the Stdlib Modules compiled java libs as default deps.
                 ["{0}_compiled_claro_module_java_lib".format(Label(stdlib_mod)) for stdlib_mod in CLARO_STDLIB_MODULES.values()],
             resources = resources.values(),
+            jvm_flags = jvm_flags,
         )
 
 def claro_module(name, module_api_file, srcs = ["@claro-lang//:empty_claro_src"], deps = {}, resources = {}, exports = [], optional_stdlib_deps = [], debug = False, **kwargs):
@@ -374,6 +456,10 @@ def _claro_module_internal(invoke_claro_compiler_rule, name, module_api_file, sr
         **{k:v for k,v in kwargs.items() if k not in ["stdlib_srcs", "claro_compiler", "override_claro_builtin_java_deps"]}
     )
 
+# Mirrors the unique_module_name that _claro_module_internal() derives from the target's package.
+def _unique_module_name(label):
+    return label.package.replace('/', '$') + '$' + label.name
+
 def _transpose_module_deps_dict(deps, allowDuplicateValues = True):
     res = {}
     for module_name, target in deps.items():
@@ -517,16 +603,53 @@ def gen_claro_compiler(name = DEFAULT_CLARO_NAME):
     native.java_library(
         name = name + "_compiler_main",
         srcs = [
-            "ClaroCompilerMain.java"
+            "ClaroCompilerMain.java",
+            "ClaroPersistentWorker.java",
         ],
         deps = [
             ":" + name + "_java_parser",
+            "@claro-lang//:gson",
+            "@claro-lang//:guava",
             "@claro-lang//src/java/com/claro/compiler_backends/interpreted:interpreter",
             "@claro-lang//src/java/com/claro/compiler_backends/java_source:java_source",
             "@claro-lang//src/java/com/claro/compiler_backends/repl:repl",
         ],
     )
 
+    # Not a JUnit test, the main method simply exits non-zero on failure.
+    native.java_test(
+        name = name + "_persistent_worker_test",
+        srcs = ["ClaroPersistentWorkerTest.java"],
+        main_class = DEFAULT_PACKAGE_PREFIX + ".ClaroPersistentWorkerTest",
+        use_testrunner = False,
+        deps = [
+            ":" + name + "_compiler_main",
+            "@claro-lang//:gson",
+            "@claro-lang//:guava",
+        ],
+    )
+
+    # Not a JUnit test either. Each arg is a `<dep name>:<unique module name>:<path>` triple for a .claro_module that the
+    # test program depends on, starting with the dep module whose generic procedure it calls, followed by the stdlib.
+    monomorphization_cache_test_deps = dict({"Dep": "@claro-lang//src/java/com/claro/testdata:generic_dep"}, **CLARO_STDLIB_MODULES)
+    native.java_test(
+        name = name + "_monomorphization_cache_test",
+        srcs = ["MonomorphizationCacheTest.java"],
+        main_class = DEFAULT_PACKAGE_PREFIX + ".MonomorphizationCacheTest",
+        use_testrunner = False,
+        data = ["{0}.claro_module".format(m) for m in monomorphization_cache_test_deps.values()],
+        args = [
+            "{0}:{1}:$(rootpath {2}.claro_module)".format(dep_name, _unique_module_name(Label(m)), m)
+            for dep_name, m in monomorphization_cache_test_deps.items()
+        ],
+        deps = [
+            ":" + name + "_compiler_main",
+            "@claro-lang//:guava",
+            "@claro-lang//src/java/com/claro/compiler_backends/java_source:java_source",
+            "@claro-lang//src/java/com/claro/compiler_backends/java_source/monomorphization:monomorphization_coordinator",
+        ],
+    )
+
     native.java_library(
         name = name + "_java_parser",
         srcs = [
@@ -9,7 +9,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.*;
 
 import java.util.*;
-import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 // TODO(steving) There should be a ScopedSymbolTable interface with 2 impls. 1: ScopedHeap used for Interpreter and
@@ -18,6 +18,17 @@ public class ScopedHeap {
 
   @VisibleForTesting
   public final Stack<Scope> scopeStack = new Stack<>();
+  // Indices from each identifier to the levels of all Scopes that currently have an entry for it in their
+  // scopedSymbolTable (or initializedIdentifiers respectively), so that resolving an identifier never needs to walk the
+  // entire scopeStack no matter how deeply nested the current Scope is.
+  private final HashMap<String, ScopeLevels> declaredScopeLevelsByIdentifier = new HashMap<>();
+  private final HashMap<String, ScopeLevels> initializedScopeLevelsByIdentifier = new HashMap<>();
+  // For each Scope level, the level of the innermost FUNCTION_SCOPE (or LAMBDA_SCOPE) enclosing it (inclusive), or -1.
+  private int[] innermostFunctionScopeLevels = new int[16];
+  private int[] innermostLambdaScopeLevels = new int[16];
+  // Global identifiers that haven't actually been put in the global Scope yet as they've never been looked up. This way,
+  // the (potentially many) symbols exported by dep modules are only ever materialized if they're actually referenced.
+  private final HashMap<String, LazyGlobalIdentifier> lazyGlobalIdentifiers = new HashMap<>();
   public boolean checkUnused = true;
   // A table<depModuleName, isUsed, descriptor> of dep module descriptors and whether or not they have been referenced.
   public static HashBasedTable<String, Boolean, SerializedClaroModule.UniqueModuleDescriptor> currProgramDepModules =
@@ -34,6 +45,13 @@ public class ScopedHeap {
   // file given the implication that these modules are implicit direct deps of every single claro_module() target.
   public static ImmutableSet<String> stdlibDepModules = ImmutableSet.of();
 
+  private static final ImmutableSet<BaseType> FUNCTION_BASE_TYPES =
+      ImmutableSet.of(BaseType.FUNCTION, BaseType.CONSUMER_FUNCTION, BaseType.PROVIDER_FUNCTION);
+  private static final ImmutableSet<BaseType> FUNCTION_SCOPE_VISIBLE_NON_FUNCTION_BASE_TYPES =
+      ImmutableSet.of(BaseType.MODULE, BaseType.$CONTRACT, BaseType.$CONTRACT_IMPLEMENTATION);
+  private static final ImmutableSet<BaseType> LAMBDA_SCOPE_UNCAPTURED_BASE_TYPES =
+      ImmutableSet.of(BaseType.$CONTRACT, BaseType.$CONTRACT_IMPLEMENTATION);
+
   public static String getDefiningModuleDisambiguator(Optional<String> optionalOriginatingDepModuleName) {
     String res;
     if (optionalOriginatingDepModuleName.isPresent()) {
@@ -96,7 +114,7 @@ public class ScopedHeap {
     identifierData.isAssignable = false;
     identifierData.isStaticValue = true;
     identifierData.isLazyValue = isLazy;
-    scopeStack.peek().scopedSymbolTable.put(identifier, identifierData);
+    putInScopedSymbolTable(scopeStack.size() - 1, identifier, identifierData);
   }
 
   public void observeIdentifierAllowingHiding(String identifier, Type type) {
@@ -114,13 +132,14 @@ public class ScopedHeap {
   // be a side-effect that propogates up to the scope-level of declaration.
   public void initializeIdentifier(String identifier) {
     // Mark it initialized only in this current code branch represented by this current scope level.
-    scopeStack.peek().initializedIdentifiers.add(identifier);
+    markIdentifierInitializedAtLevel(scopeStack.size() - 1, identifier);
   }
 
   public void markIdentifierAsTypeDefinition(String identifier) {
-    findIdentifierDeclaredScopeLevel(identifier).ifPresent(
-        level -> scopeStack.get(level).scopedSymbolTable.get(identifier).isTypeDefinition = true
-    );
+    int scopeLevel = findIdentifierDeclaredScopeLevel(identifier);
+    if (scopeLevel >= 0) {
+      scopeStack.get(scopeLevel).scopedSymbolTable.get(identifier).isTypeDefinition = true;
+    }
   }
 
   // This should honestly only be used by the Target.INTERPRETED path where the values will actually be known to the
@@ -132,15 +151,20 @@ public class ScopedHeap {
   // This should honestly only be used by the Target.INTERPRETED path where the values will actually be known to the
   // CompilerBackend itself.
   public void putIdentifierValue(String identifier, Type type, Object value) {
-    Optional<Integer> optionalIdentifierScopeLevel = findIdentifierDeclaredScopeLevel(identifier);
+    int identifierScopeLevel = findIdentifierDeclaredScopeLevel(identifier);
     putIdentifierValueAtLevel(
-        identifier, type, value, optionalIdentifierScopeLevel.orElse(scopeStack.size() - 1));
+        identifier, type, value, identifierScopeLevel >= 0 ? identifierScopeLevel : scopeStack.size() - 1);
   }
 
   public void putIdentifierValueAsTypeDef(String identifier, Type type, Object value) {
-    Optional<Integer> optionalIdentifierScopeLevel = findIdentifierDeclaredScopeLevel(identifier);
+    int identifierScopeLevel = findIdentifierDeclaredScopeLevel(identifier);
     putIdentifierValueAtLevel(
-        identifier, type, value, optionalIdentifierScopeLevel.orElse(scopeStack.size() - 1), /*isTypeDefinition=*/true);
+        identifier,
+        type,
+        value,
+        identifierScopeLevel >= 0 ? identifierScopeLevel : scopeStack.size() - 1,
+        /*isTypeDefinition=*/true
+    );
   }
 
   public void putIdentifierValueAtLevel(String identifier, Type type, Object value, int scopeLevel) {
@@ -152,27 +176,28 @@ public class ScopedHeap {
     if (isTypeDefinition) {
       identifierData.isTypeDefinition = true;
     }
-    scopeStack
-        .elementAt(scopeLevel)
-        .scopedSymbolTable
-        .put(identifier, identifierData);
+    putInScopedSymbolTable(scopeLevel, identifier, identifierData);
     if (value != null) {
-      scopeStack.peek().initializedIdentifiers.add(identifier);
+      markIdentifierInitializedAtLevel(scopeStack.size() - 1, identifier);
     }
   }
 
+  // Declares the given identifier in the global Scope, exactly as if it had been put there directly, except that the
+  // IdentifierData is only actually computed the first time that the identifier is looked up (if ever).
+  public void putLazyGlobalIdentifier(
+      String identifier, Supplier<IdentifierData> identifierData, boolean isInitialized) {
+    this.lazyGlobalIdentifiers.put(identifier, new LazyGlobalIdentifier(identifierData, isInitialized));
+  }
+
   // This is the same as the above ScopedHeap::putIdentifierValue, with the difference that it allows variable
   // hiding. I.e. if there is already a variable defined in an outer scope named `foo`, this method allows the
   // declaration of another new variable named `foo` in an inner scope that will hide the outer variable from
   // references within this scope since searching for declared identifiers will stop at the first found in a
   // bottom-up search.
   public void putIdentifierValueAllowingHiding(String identifier, Type type, Object value) {
-    scopeStack
-        .peek()
-        .scopedSymbolTable
-        .put(identifier, new IdentifierData(type, value, true));
+    putInScopedSymbolTable(scopeStack.size() - 1, identifier, new IdentifierData(type, value, true));
     if (value != null) {
-      scopeStack.peek().initializedIdentifiers.add(identifier);
+      markIdentifierInitializedAtLevel(scopeStack.size() - 1, identifier);
     }
   }
 
@@ -180,11 +205,7 @@ public class ScopedHeap {
   // intentional hiding of captured variables (e.g. for a lambda implicitly capturing outer variables).
   public void putCapturedIdentifierData(Map<String, IdentifierData> lambdaScopeCapturedIdentifierData) {
     lambdaScopeCapturedIdentifierData.forEach(
-        (identifier, identifierData) ->
-            scopeStack
-                .peek()
-                .scopedSymbolTable
-                .put(identifier, identifierData));
+        (identifier, identifierData) -> putInScopedSymbolTable(scopeStack.size() - 1, identifier, identifierData));
   }
 
   // Simply update the value but don't change any other metadata associated with the symbol.
@@ -194,15 +215,13 @@ public class ScopedHeap {
   }
 
   public void markIdentifierUsed(String identifier) {
-    Optional<Integer> identifierScopeLevel = findIdentifierDeclaredScopeLevel(identifier);
+    int identifierScopeLevel = findIdentifierDeclaredScopeLevel(identifier);
     Preconditions.checkArgument(
-        identifierScopeLevel.isPresent(),
-        String.format(
-            "Internal Compiler Error: attempting to mark usage of an undeclared identifier %s.",
-            identifier
-        )
+        identifierScopeLevel >= 0,
+        "Internal Compiler Error: attempting to mark usage of an undeclared identifier %s.",
+        identifier
     );
-    scopeStack.elementAt(identifierScopeLevel.get()).scopedSymbolTable.get(identifier).used = true;
+    scopeStack.elementAt(identifierScopeLevel).scopedSymbolTable.get(identifier).used = true;
   }
 
   public static void markDepModuleUsed(String depModule) {
@@ -216,10 +235,11 @@ public class ScopedHeap {
   }
 
   public void deleteIdentifierValue(String identifier) {
-    Optional<Integer> optionalIdentifierScopeLevel = findIdentifierDeclaredScopeLevel(identifier);
-    optionalIdentifierScopeLevel.ifPresent(
-        scopeLevel -> scopeStack.elementAt(scopeLevel).scopedSymbolTable.remove(identifier)
-    );
+    int identifierScopeLevel = findIdentifierDeclaredScopeLevel(identifier);
+    if (identifierScopeLevel >= 0) {
+      scopeStack.elementAt(identifierScopeLevel).scopedSymbolTable.remove(identifier);
+      removeIndexedScopeLevel(this.declaredScopeLevelsByIdentifier, identifier, identifierScopeLevel);
+    }
   }
 
   // For use only during the type-checking phase.
@@ -232,18 +252,20 @@ public class ScopedHeap {
     if (beginIdentifierInitializationBranchInspection) {
       scopeStack.peek().branchDetectionEnabled = true;
     }
-    scopeStack.push(new Scope(scopeType));
+    pushScope(scopeType);
   }
 
   public void exitCurrObservedScope(boolean finalizeIdentifiersInitializedInBranchGroup) {
     if (checkUnused) {
       checkAllIdentifiersInCurrScopeUsed();
     }
-    Scope exitedScope = scopeStack.pop();
+    Scope exitedScope = popScope();
     if (scopeStack.peek().branchDetectionEnabled) {
       scopeStack.peek().updateIdentifiersInitializedInBranchGroup(exitedScope);
       if (finalizeIdentifiersInitializedInBranchGroup) {
-        scopeStack.peek().finalizeIdentifiersInitializedInBranchGroup();
+        for (String identifier : scopeStack.peek().finalizeIdentifiersInitializedInBranchGroup()) {
+          markIdentifierInitializedAtLevel(scopeStack.size() - 1, identifier);
+        }
       }
     }
   }
@@ -253,154 +275,185 @@ public class ScopedHeap {
   }
 
   public void enterNewScope(Scope.ScopeType scopeType) {
-    scopeStack.push(new Scope(scopeType));
+    pushScope(scopeType);
   }
 
   public void exitCurrScope() {
     if (checkUnused) {
       checkAllIdentifiersInCurrScopeUsed();
     }
-    scopeStack.pop();
+    popScope();
   }
 
   public boolean isIdentifierDeclared(String identifier) {
-    Optional<Integer> identifierScopeLevel = findIdentifierDeclaredScopeLevel(identifier);
+    int identifierScopeLevel = findIdentifierDeclaredScopeLevel(identifier);
     return
-        identifierScopeLevel.isPresent() &&
-        scopeStack.elementAt(identifierScopeLevel.get()).scopedSymbolTable.get(identifier).declared;
+        identifierScopeLevel >= 0 &&
+        scopeStack.elementAt(identifierScopeLevel).scopedSymbolTable.get(identifier).declared;
   }
 
   public boolean isIdentifierInitialized(String identifier) {
-    return findIdentifierInitializedScopeLevel(identifier).isPresent();
+    materializeLazyGlobalIdentifier(identifier);
+    return findScopeStackLevel(this.initializedScopeLevelsByIdentifier, identifier) >= 0;
   }
 
   public IdentifierData getIdentifierData(String identifier) throws ClaroParserException {
-    Optional<Integer> optionalIdentifierScopeLevel = findIdentifierDeclaredScopeLevel(identifier);
-    if (optionalIdentifierScopeLevel.isPresent()) {
-      return scopeStack.elementAt(optionalIdentifierScopeLevel.get()).scopedSymbolTable.get(identifier);
+    int identifierScopeLevel = findIdentifierDeclaredScopeLevel(identifier);
+    if (identifierScopeLevel >= 0) {
+      return scopeStack.elementAt(identifierScopeLevel).scopedSymbolTable.get(identifier);
     }
     throw new ClaroParserException(String.format("No identifier <%s> within the current scope!", identifier));
   }
 
-  private Optional<Integer> findIdentifierDeclaredScopeLevel(String identifier) {
-    return findScopeStackLevel(scopeLevel -> scopeLevel.scopedSymbolTable.containsKey(identifier), identifier);
+  // Returns -1 if not found.
+  private int findIdentifierDeclaredScopeLevel(String identifier) {
+    materializeLazyGlobalIdentifier(identifier);
+    return findScopeStackLevel(this.declaredScopeLevelsByIdentifier, identifier);
   }
 
   public Optional<Integer> findIdentifierInitializedScopeLevel(String identifier) {
-    return findScopeStackLevel(scopeLevel -> scopeLevel.initializedIdentifiers.contains(identifier), identifier);
+    materializeLazyGlobalIdentifier(identifier);
+    int res = findScopeStackLevel(this.initializedScopeLevelsByIdentifier, identifier);
+    return res >= 0 ? Optional.of(res) : Optional.empty();
   }
 
-  // This method searches from the current Scope outwards, trying to find any scope that matches the given
-  // predicate. This method also takes responsibility of honoring the unique Scoping rules applicable to
-  // each Scope.ScopeType so this method's behavior differs based on the ScopeType of the current (and outer)
-  // Scopes to simulate visibility rules. Namely, once a FUNCTION_SCOPE is reached, it will ignore any
-  // non-Function-Type (or non-Contract-Type) identifiers that it finds outside.
-  private Optional<Integer> findScopeStackLevel(Function<Scope, Boolean> checkScopeLevelFn, String identifier) {
-    // Start searching first in the innermost scope, that is, the last map in our stack.
-    int scopeLevel = scopeStack.size();
-    Optional<Integer> pastFunctionScopeBoundary = Optional.empty();
-    Optional<Integer> pastLambdaScopeBoundary = Optional.empty();
-    while (--scopeLevel >= 0) {
-      Scope currScope = scopeStack.elementAt(scopeLevel);
-      Scope.ScopeType currScopeType = currScope.scopeType;
-      boolean checkScopeLevelFnResult = checkScopeLevelFn.apply(currScope);
-      switch (currScopeType) {
-        case DEFAULT_SCOPE:
-          if (checkScopeLevelFnResult) {
-            if (pastFunctionScopeBoundary.isPresent() || pastLambdaScopeBoundary.isPresent()) {
-              ImmutableSet<BaseType> functionBaseTypes =
-                  ImmutableSet.of(BaseType.FUNCTION, BaseType.CONSUMER_FUNCTION, BaseType.PROVIDER_FUNCTION);
-              IdentifierData identifierData = currScope.scopedSymbolTable.get(identifier);
-              if (identifierData.isTypeDefinition
-                  || identifierData.isStaticValue
-                  || (functionBaseTypes.contains(identifierData.type.baseType()) &&
-                      functionBaseTypes.contains(identifierData.type.getPossiblyOverridenBaseType()))) {
-                // In any of these cases, we should accept Function type references, Type definitions and static values.
-                return Optional.of(scopeLevel);
-              } else if (pastFunctionScopeBoundary.isPresent()) {
-                // Functions may also reference Modules or Contracts defined in outer scopes.
-                ImmutableSet<BaseType> allowedNonFunctionTypeReferences =
-                    ImmutableSet.of(BaseType.MODULE, BaseType.$CONTRACT, BaseType.$CONTRACT_IMPLEMENTATION);
-                if (allowedNonFunctionTypeReferences.contains(identifierData.type.baseType())) {
-                  return Optional.of(scopeLevel);
-                }
-                return Optional.empty();
-              } else {
-                // Lambdas can reference anything in outer scopes, but they need to re-declare a hiding variable
-                // copying the value from the outer scope. This method can handle that implicitly here adding
-                // a new hiding identifier at the scope level that the lambda was found at.
-                ImmutableSet<BaseType> ignoredIdentifierReferenceTypes =
-                    ImmutableSet.of(BaseType.$CONTRACT, BaseType.$CONTRACT_IMPLEMENTATION);
-                if (ignoredIdentifierReferenceTypes.contains(identifierData.type.baseType())) {
-                  // In this case we actually will allow the lambda to reference the original identifiers in the default
-                  // scope since we don't want lambdas to have to redeclare contracts.
-                  return Optional.of(scopeLevel);
-                } else {
-                  redeclareCaptureVariable(identifier, pastLambdaScopeBoundary.get(), identifierData);
-
-                  // Point the caller to the newly declared value rather than the one found in the outer scope
-                  // since that's been hidden and copied now.
-                  return pastLambdaScopeBoundary;
-                }
-              }
-            } else {
-              return Optional.of(scopeLevel);
-            }
-          }
-          break;
-        case FUNCTION_SCOPE:
-          if (checkScopeLevelFnResult) {
-            // Lambdas can reference anything in outer scopes, but they need to re-declare a hiding variable
-            // copying the value from the outer scope. This method can handle that implicitly here adding
-            // a new hiding identifier at the scope level that the lambda was found at.
-            pastLambdaScopeBoundary.ifPresent(
-                lambdaScopeLevel -> {
-                  ImmutableSet<BaseType> ignoredIdentifierReferenceTypes =
-                      ImmutableSet.of(BaseType.$CONTRACT, BaseType.$CONTRACT_IMPLEMENTATION);
-                  if (!ignoredIdentifierReferenceTypes.contains(currScope.scopedSymbolTable.get(identifier).type.baseType())) {
-                    redeclareCaptureVariable(
-                        identifier, lambdaScopeLevel, currScope.scopedSymbolTable.get(identifier));
-                  }
-                });
-            return Optional.of(scopeLevel);
-          } else {
-            // If we don't find what we're looking for before going outside the Function scope boundary,
-            // we have to mark that we just did that. Let's just make sure that we keep only the first one
-            // we come across in case I ever want to support nested Functions.
-            if (!pastFunctionScopeBoundary.isPresent()) {
-              pastFunctionScopeBoundary = Optional.of(scopeLevel);
-            }
-          }
-          break;
-        case LAMBDA_SCOPE:
-          if (checkScopeLevelFnResult) {
-            // Lambdas can reference anything in outer scopes, but they need to re-declare a hiding variable
-            // copying the value from the outer scope. This method can handle that implicitly here adding
-            // a new hiding identifier at the scope level that the lambda was found at.
-            pastLambdaScopeBoundary.ifPresent(
-                lambdaScopeLevel -> {
-                  ImmutableSet<BaseType> ignoredIdentifierReferenceTypes =
-                      ImmutableSet.of(BaseType.$CONTRACT, BaseType.$CONTRACT_IMPLEMENTATION);
-                  if (!ignoredIdentifierReferenceTypes.contains(currScope.scopedSymbolTable.get(identifier).type.baseType())) {
-                    redeclareCaptureVariable(
-                        identifier, lambdaScopeLevel, currScope.scopedSymbolTable.get(identifier));
-                  }
-                });
-            return Optional.of(scopeLevel);
-          } else {
-            // If we don't find what we're looking for before going outside the Lambda scope boundary,
-            // we have to mark that we just did that. Let's just make sure that we keep only the first one
-            // we come across.
-            if (!pastLambdaScopeBoundary.isPresent()) {
-              pastLambdaScopeBoundary = Optional.of(scopeLevel);
-            }
-          }
-          break;
-        default:
-          throw new ClaroParserException("Internal Compiler Error: Unsupported ScopeType " + currScopeType);
+  // Every single change to a Scope's scopedSymbolTable or initializedIdentifiers must go through the below methods so
+  // that the per-identifier scope level indices are kept in sync.
+
+  private void materializeLazyGlobalIdentifier(String identifier) {
+    if (this.lazyGlobalIdentifiers.isEmpty()) {
+      return;
+    }
+    LazyGlobalIdentifier lazyGlobalIdentifier = this.lazyGlobalIdentifiers.remove(identifier);
+    if (lazyGlobalIdentifier != null) {
+      putInScopedSymbolTable(0, identifier, lazyGlobalIdentifier.identifierData.get());
+      if (lazyGlobalIdentifier.isInitialized) {
+        markIdentifierInitializedAtLevel(0, identifier);
       }
     }
-    return Optional.empty(); // Not found.
+  }
+
+  private void putInScopedSymbolTable(int scopeLevel, String identifier, IdentifierData identifierData) {
+    if (scopeStack.elementAt(scopeLevel).scopedSymbolTable.put(identifier, identifierData) == null) {
+      addIndexedScopeLevel(this.declaredScopeLevelsByIdentifier, identifier, scopeLevel);
+    }
+  }
+
+  private void markIdentifierInitializedAtLevel(int scopeLevel, String identifier) {
+    if (scopeStack.elementAt(scopeLevel).initializedIdentifiers.add(identifier)) {
+      addIndexedScopeLevel(this.initializedScopeLevelsByIdentifier, identifier, scopeLevel);
+    }
+  }
+
+  private void pushScope(Scope.ScopeType scopeType) {
+    int scopeLevel = scopeStack.size();
+    if (scopeLevel == this.innermostFunctionScopeLevels.length) {
+      this.innermostFunctionScopeLevels = Arrays.copyOf(this.innermostFunctionScopeLevels, 2 * scopeLevel);
+      this.innermostLambdaScopeLevels = Arrays.copyOf(this.innermostLambdaScopeLevels, 2 * scopeLevel);
+    }
+    this.innermostFunctionScopeLevels[scopeLevel] =
+        scopeType == Scope.ScopeType.FUNCTION_SCOPE
+        ? scopeLevel
+        : (scopeLevel == 0 ? -1 : this.innermostFunctionScopeLevels[scopeLevel - 1]);
+    this.innermostLambdaScopeLevels[scopeLevel] =
+        scopeType == Scope.ScopeType.LAMBDA_SCOPE
+        ? scopeLevel
+        : (scopeLevel == 0 ? -1 : this.innermostLambdaScopeLevels[scopeLevel - 1]);
+    scopeStack.push(new Scope(scopeType));
+  }
+
+  private Scope popScope() {
+    int scopeLevel = scopeStack.size() - 1;
+    Scope res = scopeStack.pop();
+    for (String identifier : res.scopedSymbolTable.keySet()) {
+      removeIndexedScopeLevel(this.declaredScopeLevelsByIdentifier, identifier, scopeLevel);
+    }
+    for (String identifier : res.initializedIdentifiers) {
+      removeIndexedScopeLevel(this.initializedScopeLevelsByIdentifier, identifier, scopeLevel);
+    }
+    return res;
+  }
+
+  private static void addIndexedScopeLevel(
+      HashMap<String, ScopeLevels> scopeLevelsByIdentifier, String identifier, int scopeLevel) {
+    scopeLevelsByIdentifier.computeIfAbsent(identifier, unused -> new ScopeLevels()).add(scopeLevel);
+  }
+
+  private static void removeIndexedScopeLevel(
+      HashMap<String, ScopeLevels> scopeLevelsByIdentifier, String identifier, int scopeLevel) {
+    ScopeLevels scopeLevels = scopeLevelsByIdentifier.get(identifier);
+    if (scopeLevels != null && scopeLevels.remove(scopeLevel)) {
+      scopeLevelsByIdentifier.remove(identifier);
+    }
+  }
+
+  // This method looks up the innermost Scope in which the given index has an entry for the identifier. This method also
+  // takes responsibility of honoring the unique Scoping rules applicable to each Scope.ScopeType so this method's
+  // behavior differs based on the ScopeType of the current (and outer) Scopes to simulate visibility rules. Namely,
+  // once a FUNCTION_SCOPE is crossed, it will ignore any non-Function-Type (or non-Contract-Type) identifiers that it
+  // finds outside. Returns -1 if not found.
+  private int findScopeStackLevel(HashMap<String, ScopeLevels> scopeLevelsByIdentifier, String identifier) {
+    ScopeLevels scopeLevels = scopeLevelsByIdentifier.get(identifier);
+    if (scopeLevels == null) {
+      return -1; // Not found.
+    }
+    int scopeLevel = scopeLevels.innermost();
+    // Only the innermost Function/Lambda Scope boundaries nested strictly within the found Scope are relevant.
+    int currScopeLevel = scopeStack.size() - 1;
+    int pastFunctionScopeBoundary = this.innermostFunctionScopeLevels[currScopeLevel];
+    if (pastFunctionScopeBoundary <= scopeLevel) {
+      pastFunctionScopeBoundary = -1;
+    }
+    int pastLambdaScopeBoundary = this.innermostLambdaScopeLevels[currScopeLevel];
+    if (pastLambdaScopeBoundary <= scopeLevel) {
+      pastLambdaScopeBoundary = -1;
+    }
+
+    Scope scope = scopeStack.elementAt(scopeLevel);
+    IdentifierData identifierData = scope.scopedSymbolTable.get(identifier);
+    switch (scope.scopeType) {
+      case DEFAULT_SCOPE:
+        if (pastFunctionScopeBoundary < 0 && pastLambdaScopeBoundary < 0) {
+          return scopeLevel;
+        }
+        if (identifierData.isTypeDefinition
+            || identifierData.isStaticValue
+            || (FUNCTION_BASE_TYPES.contains(identifierData.type.baseType()) &&
+                FUNCTION_BASE_TYPES.contains(identifierData.type.getPossiblyOverridenBaseType()))) {
+          // In any of these cases, we should accept Function type references, Type definitions and static values.
+          return scopeLevel;
+        } else if (pastFunctionScopeBoundary >= 0) {
+          // Functions may also reference Modules or Contracts defined in outer scopes.
+          return FUNCTION_SCOPE_VISIBLE_NON_FUNCTION_BASE_TYPES.contains(identifierData.type.baseType())
+                 ? scopeLevel
+                 : -1;
+        } else if (LAMBDA_SCOPE_UNCAPTURED_BASE_TYPES.contains(identifierData.type.baseType())) {
+          // In this case we actually will allow the lambda to reference the original identifiers in the default
+          // scope since we don't want lambdas to have to redeclare contracts.
+          return scopeLevel;
+        } else {
+          // Lambdas can reference anything in outer scopes, but they need to re-declare a hiding variable
+          // copying the value from the outer scope. This method can handle that implicitly here adding
+          // a new hiding identifier at the scope level that the lambda was found at.
+          redeclareCaptureVariable(identifier, pastLambdaScopeBoundary, identifierData);
+
+          // Point the caller to the newly declared value rather than the one found in the outer scope
+          // since that's been hidden and copied now.
+          return pastLambdaScopeBoundary;
+        }
+      case FUNCTION_SCOPE:
+      case LAMBDA_SCOPE:
+        // Lambdas can reference anything in outer scopes, but they need to re-declare a hiding variable
+        // copying the value from the outer scope. This method can handle that implicitly here adding
+        // a new hiding identifier at the scope level that the lambda was found at.
+        if (pastLambdaScopeBoundary >= 0
+            && !LAMBDA_SCOPE_UNCAPTURED_BASE_TYPES.contains(identifierData.type.baseType())) {
+          redeclareCaptureVariable(identifier, pastLambdaScopeBoundary, identifierData);
+        }
+        return scopeLevel;
+      default:
+        throw new ClaroParserException("Internal Compiler Error: Unsupported ScopeType " + scope.scopeType);
+    }
   }
 
   // Need to re-declare a hiding variable copying the value from the outer scope. This method can
@@ -408,9 +461,7 @@ public class ScopedHeap {
   private void redeclareCaptureVariable(String identifier, int scopeLevel, IdentifierData identifierData) {
     IdentifierData redeclaredCaptureIdentifierData =
         new IdentifierData(identifierData.type, identifierData.interpretedValue, identifierData.declared);
-    scopeStack.get(scopeLevel)
-        .scopedSymbolTable
-        .put(identifier, redeclaredCaptureIdentifierData);
+    putInScopedSymbolTable(scopeLevel, identifier, redeclaredCaptureIdentifierData);
     // I need to mark this newly initialized capture variable.
     scopeStack.get(scopeLevel).lambdaScopeCapturedVariables.put(identifier, identifierData.type);
     // That implicit copy that we just did, definitely counts as "using" the identifier.
@@ -453,6 +504,16 @@ public class ScopedHeap {
     }
   }
 
+  private static final class LazyGlobalIdentifier {
+    final Supplier<IdentifierData> identifierData;
+    final boolean isInitialized;
+
+    LazyGlobalIdentifier(Supplier<IdentifierData> identifierData, boolean isInitialized) {
+      this.identifierData = identifierData;
+      this.isInitialized = isInitialized;
+    }
+  }
+
   public static class IdentifierData {
     public Type type;
     // This value is only meaningful in interpreted modes where values are tracked.
@@ -500,6 +561,45 @@ public class ScopedHeap {
     }
   }
 
+  // The ascending levels of the Scopes that currently have an entry for some identifier. Shadowing is rare, so this will
+  // almost always hold a single level.
+  private static final class ScopeLevels {
+    private int[] levels = new int[2];
+    private int size = 0;
+
+    int innermost() {
+      return this.levels[this.size - 1];
+    }
+
+    void add(int level) {
+      int i = this.size;
+      while (i > 0 && this.levels[i - 1] >= level) {
+        if (this.levels[i - 1] == level) {
+          return;
+        }
+        i--;
+      }
+      if (this.size == this.levels.length) {
+        this.levels = Arrays.copyOf(this.levels, 2 * this.size);
+      }
+      System.arraycopy(this.levels, i, this.levels, i + 1, this.size - i);
+      this.levels[i] = level;
+      this.size++;
+    }
+
+    // Returns true if there are no levels left.
+    boolean remove(int level) {
+      for (int i = this.size - 1; i >= 0; i--) {
+        if (this.levels[i] == level) {
+          System.arraycopy(this.levels, i + 1, this.levels, i, this.size - i - 1);
+          this.size--;
+          break;
+        }
+      }
+      return this.size == 0;
+    }
+  }
+
   @VisibleForTesting
   public static class Scope {
     // This is a map that contains all declared identifiers. An entry will be made in this map for every identifier
@@ -577,10 +677,13 @@ public class ScopedHeap {
       }
     }
 
-    void finalizeIdentifiersInitializedInBranchGroup() {
-      initializedIdentifiers.addAll(identifiersInitializedInBranchGroup);
+    // Returns the identifiers that are now known to be initialized in this Scope, which the caller is responsible for
+    // actually marking initialized.
+    HashSet<String> finalizeIdentifiersInitializedInBranchGroup() {
+      HashSet<String> res = identifiersInitializedInBranchGroup;
       branchDetectionEnabled = false;
       identifiersInitializedInBranchGroup = null;
+      return res;
     }
 
   }
@@ -6,15 +6,26 @@ import com.claro.ModuleApiParser;
 import com.claro.compiler_backends.CompilerBackend;
 import com.claro.compiler_backends.ParserUtil;
 import com.claro.compiler_backends.interpreted.ScopedHeap;
+import com.claro.compiler_backends.java_source.monomorphization.MonomorphizationCache;
 import com.claro.compiler_backends.java_source.monomorphization.MonomorphizationCoordinator;
 import com.claro.compiler_backends.java_source.monomorphization.proto.ipc_protos.IPCMessages;
 import com.claro.intermediate_representation.ModuleNode;
 import com.claro.intermediate_representation.ProgramNode;
 import com.claro.intermediate_representation.Target;
+import com.claro.intermediate_representation.expressions.ComprehensionExpr;
+import com.claro.intermediate_representation.expressions.CopyExpr;
 import com.claro.intermediate_representation.expressions.Expr;
+import com.claro.intermediate_representation.expressions.LambdaExpr;
+import com.claro.intermediate_representation.statements.AtomDefinitionStmt;
+import com.claro.intermediate_representation.statements.AutomaticErrorPropagationStmt;
+import com.claro.intermediate_representation.statements.GenericFunctionDefinitionStmt;
+import com.claro.intermediate_representation.statements.MatchStmt;
+import com.claro.intermediate_representation.statements.PipeChainStmt;
 import com.claro.intermediate_representation.statements.ProcedureDefinitionStmt;
+import com.claro.intermediate_representation.statements.ReturnStmt;
 import com.claro.intermediate_representation.statements.Stmt;
 import com.claro.intermediate_representation.statements.StmtListNode;
+import com.claro.intermediate_representation.statements.UsingBlockStmt;
 import com.claro.intermediate_representation.statements.contracts.ContractDefinitionStmt;
 import com.claro.intermediate_representation.statements.contracts.ContractImplementationStmt;
 import com.claro.intermediate_representation.statements.contracts.ContractProcedureImplementationStmt;
@@ -28,12 +39,19 @@ import com.claro.module_system.module_serialization.proto.SerializedClaroModule;
 import com.claro.module_system.module_serialization.proto.claro_types.TypeProtos;
 import com.claro.stdlib.StdLibUtil;
 import com.google.auto.value.AutoValue;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.*;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.CharSource;
+import com.google.common.util.concurrent.Futures;
 import com.google.devtools.common.options.OptionsParser;
+import com.google.devtools.common.options.OptionsParsingException;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
@@ -41,6 +59,9 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
@@ -60,6 +81,21 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
       depsClosureCodegendMonomorphizationsByModuleAndProc = ImmutableMap.of();
   // ***** END DEP MODULE MONOMORPHIZATION RELATED FIELDS *****
 
+  // The persistent worker runs many compilations in a single JVM, so it can't allow any one of them to System.exit().
+  // When set, compilation failures are instead signalled by throwing a CompilerExitException.
+  public static boolean throwOnExit = false;
+  // Set by the persistent worker to the digests that Bazel reported for the current WorkRequest's inputs, by path. Dep
+  // modules with a known digest are kept resident across WorkRequests, so that e.g. the stdlib modules that every single
+  // compilation depends on are only ever parsed once per worker.
+  public static ImmutableMap<String, String> workRequestInputDigestsByPath = ImmutableMap.of();
+  // Deliberately never cleared by resetStaticState(), since entries are keyed on file contents. Bounded by the total
+  // serialized size of the resident modules, evicting the least recently used.
+  private static final Cache<String, SerializedClaroModule> residentDepModulesByPathAndDigest =
+      CacheBuilder.newBuilder()
+          .maximumWeight(256L * 1024 * 1024)
+          .weigher((String pathAndDigest, SerializedClaroModule depModule) -> depModule.getSerializedSize())
+          .build();
+
   private final String[] COMMAND_LINE_ARGS;
   private final ImmutableMap<String, SrcFile> MODULE_DEPS;
   private final ImmutableSet<SrcFile> TRANSITIVE_MODULE_DEPS;
@@ -72,6 +108,10 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
   private final ImmutableList<SrcFile> SRCS;
   private final Optional<String> OPTIONAL_UNIQUE_MODULE_NAME;
   private final Optional<String> OPTIONAL_OUTPUT_FILE_PATH;
+  private final int IO_PREFETCH_THREADS;
+  // Populated when multiple compilation threads are requested, otherwise files are just read on demand.
+  private ImmutableMap<SrcFile, Future<String>> prefetchedSrcFileContents = ImmutableMap.of();
+  private ImmutableMap<SrcFile, Future<SerializedClaroModule>> prefetchedDepModules = ImmutableMap.of();
 
   public int ERR_EXIT_CODE = 1; // To be overridden in the case that a compilation err is expected.
 
@@ -82,11 +122,11 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
 
     if (options.java_package.isEmpty() || options.srcs.isEmpty()) {
       System.err.println("Error: --java_package and [--src ...]+ are required args.");
-      System.exit(ERR_EXIT_CODE);
+      exit(ERR_EXIT_CODE);
     }
     if (options.classname.isEmpty() == options.unique_module_name.isEmpty()) {
       System.err.println("Error: Exactly one of --unique_module_name and --classname should be set.");
-      System.exit(ERR_EXIT_CODE);
+      exit(ERR_EXIT_CODE);
     }
     if (!options.classname.isEmpty() // this is a claro_binary() with a main method.
         && options.optional_stdlib_modules_used_in_transitive_closure.contains("http")
@@ -101,7 +141,7 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
                          "\t\t\t...\n" +
                          "\t\t\toptional_stdlib_deps = [\"http\"],\n" +
                          "\t\t)");
-      System.exit(ERR_EXIT_CODE);
+      exit(ERR_EXIT_CODE);
     }
 
     this.SILENT = options.silent;
@@ -155,6 +195,7 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
     this.EXPORTS = options.exports.stream().collect(ImmutableSet.toImmutableSet());
     this.OPTIONAL_OUTPUT_FILE_PATH =
         Optional.ofNullable(options.output_file_path.isEmpty() ? null : options.output_file_path);
+    this.IO_PREFETCH_THREADS = Math.max(0, options.io_prefetch_threads);
 
     // Make sure that the MonomorphizationCoordinator knows paths to all .claro_module files that may be used for
     // monomorphization of generic procedures from direct and transitive dep modules.
@@ -167,6 +208,8 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
                   split -> split[1]
               ));
     }
+    MonomorphizationCoordinator.USE_HTTP_IPC = options.dep_module_monomorphization_http_ipc;
+    MonomorphizationCache.configure(options.monomorphization_cache_dir, options.monomorphization_cache_max_size_mb);
 
     if (options.expect_errors) {
       // Return a successful exit code since in this case the user expects the errors.
@@ -178,14 +221,21 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
         System.setErr(err);
       } catch (Exception e) {
         System.err.println("Failed to redirect err output to requested output file!");
-        System.exit(1);
+        exit(1);
       }
     }
   }
 
   private static JavaSourceCompilerBackendCLIOptions parseCLIOptions(String... args) {
     OptionsParser parser = OptionsParser.newOptionsParser(JavaSourceCompilerBackendCLIOptions.class);
-    parser.parseAndExitUponError(args);
+    try {
+      parser.parse(args);
+    } catch (OptionsParsingException e) {
+      // Mirrors OptionsParser.parseAndExitUponError(), which can't be used as it would always System.exit().
+      System.err.println("Error parsing command line: " + e.getMessage());
+      System.err.println("Try --help.");
+      exit(2);
+    }
     return parser.getOptions(JavaSourceCompilerBackendCLIOptions.class);
   }
 
@@ -193,6 +243,17 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
   // validation that you have exactly 0 or 1 .claro_module_api files and, if 1, then --classname is set to "".
   @Override
   public void run() throws Exception {
+    Optional<ExecutorService> optionalPrefetchExecutor =
+        this.IO_PREFETCH_THREADS > 0 ? Optional.of(startPrefetchingSrcFilesAndDepModules()) : Optional.empty();
+    try {
+      checkTypesAndGenJavaSource();
+    } finally {
+      // Anything still being prefetched at this point (e.g. if compilation failed early) is no longer needed.
+      optionalPrefetchExecutor.ifPresent(ExecutorService::shutdownNow);
+    }
+  }
+
+  private void checkTypesAndGenJavaSource() throws Exception {
     scopedHeap = new ScopedHeap();
     scopedHeap.enterNewScope();
     if (this.SRCS.size() == 1) {
@@ -227,9 +288,96 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
     }
   }
 
+  // Reading src files and deserializing dep .claro_modules is pure I/O and proto parsing, entirely independent of the
+  // symbol table, so it's done on background threads, overlapping with parsing and type checking. Those must stay
+  // sequential as AST construction and type checking lean heavily on shared static compiler state. Only the files that
+  // compilation unconditionally reads are prefetched, in the order that it reads them, and each is only awaited at the
+  // point where compilation would otherwise have read it itself. In particular, the dep graph's .claro_module files that
+  // are only ever read on demand for monomorphization (--dep_graph_claro_module_by_unique_name) are never prefetched.
+  private ExecutorService startPrefetchingSrcFilesAndDepModules() {
+    ExecutorService executor = Executors.newFixedThreadPool(
+        this.IO_PREFETCH_THREADS,
+        r -> {
+          Thread t = new Thread(r, "claro-compiler-prefetch");
+          // Compilation may exit without ever getting the chance to shut this executor down.
+          t.setDaemon(true);
+          return t;
+        }
+    );
+    LinkedHashMap<SrcFile, Future<String>> srcFileContents = new LinkedHashMap<>();
+    for (SrcFile srcFile : this.SRCS) {
+      srcFileContents.put(srcFile, executor.submit(() -> readFile(srcFile)));
+    }
+    // All transitive dep modules are read before any direct dep modules.
+    LinkedHashMap<SrcFile, Future<SerializedClaroModule>> depModules = new LinkedHashMap<>();
+    for (SrcFile depModuleFile : Iterables.concat(this.TRANSITIVE_MODULE_DEPS, this.MODULE_DEPS.values())) {
+      depModules.computeIfAbsent(depModuleFile, f -> executor.submit(() -> getResidentOrParseDepModule(f)));
+    }
+    this.prefetchedSrcFileContents = ImmutableMap.copyOf(srcFileContents);
+    this.prefetchedDepModules = ImmutableMap.copyOf(depModules);
+    return executor;
+  }
+
+  private String getSrcFileContents(SrcFile srcFile) {
+    Future<String> prefetched = this.prefetchedSrcFileContents.get(srcFile);
+    return prefetched == null ? readFile(srcFile) : Futures.getUnchecked(prefetched);
+  }
+
+  private SerializedClaroModule getDepModule(SrcFile depModuleFile) throws IOException {
+    Future<SerializedClaroModule> prefetched = this.prefetchedDepModules.get(depModuleFile);
+    return prefetched == null
+           ? getResidentOrParseDepModule(depModuleFile)
+           : Futures.getChecked(prefetched, IOException.class);
+  }
+
+  private static SerializedClaroModule getResidentOrParseDepModule(SrcFile depModuleFile) throws IOException {
+    String digest = workRequestInputDigestsByPath.get(depModuleFile.getPath());
+    if (digest == null) {
+      return parseDepModule(depModuleFile);
+    }
+    String pathAndDigest = depModuleFile.getPath() + '@' + digest;
+    SerializedClaroModule res = residentDepModulesByPathAndDigest.getIfPresent(pathAndDigest);
+    if (res == null) {
+      res = parseDepModule(depModuleFile);
+      residentDepModulesByPathAndDigest.put(pathAndDigest, res);
+    }
+    return res;
+  }
+
+  // The bulk of a .claro_module is typically its embedded srcs and its static codegen, neither of which is ever needed
+  // to compile against it as a dep. So, rather than deserializing the entire module, those fields are skipped directly in
+  // the wire format, without ever being copied out of the stream.
+  private static SerializedClaroModule parseDepModule(SrcFile depModuleFile) throws IOException {
+    try (InputStream depModuleInputStream = depModuleFile.getFileInputStream()) {
+      int firstByte = depModuleInputStream.read();
+      if (firstByte == -1) {
+        throw new IOException("Empty .claro_module: " + depModuleFile.getFilename());
+      }
+      CodedInputStream depModule =
+          CodedInputStream.newInstance(
+              ByteStreams.limit(
+                  depModuleInputStream, CodedInputStream.readRawVarint32(firstByte, depModuleInputStream)));
+      ByteArrayOutputStream retainedFields = new ByteArrayOutputStream();
+      CodedOutputStream retainedFieldsOutput = CodedOutputStream.newInstance(retainedFields);
+      int tag;
+      while ((tag = depModule.readTag()) != 0) {
+        switch (WireFormat.getTagFieldNumber(tag)) {
+          case SerializedClaroModule.STATIC_JAVA_CODEGEN_FIELD_NUMBER:
+          case SerializedClaroModule.MODULE_IMPL_FILES_FIELD_NUMBER:
+            depModule.skipField(tag);
+            break;
+          default:
+            depModule.skipField(tag, retainedFieldsOutput);
+        }
+      }
+      retainedFieldsOutput.flush();
+      return SerializedClaroModule.parseFrom(retainedFields.toByteArray());
+    }
+  }
+
   private ClaroParser getParserForSrcFile(SrcFile srcFile) {
     return ParserUtil.createParser(
-        readFile(srcFile),
+        getSrcFileContents(srcFile),
         srcFile.getFilename(),
         this.GENERATED_CLASSNAME.orElse(srcFile.getFilename()),
         srcFile.getUsesClaroInternalFileSuffix(),
@@ -238,7 +386,7 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
   }
 
   private ModuleApiParser getModuleApiParserForSrcFile(SrcFile srcFile, String uniqueModuleName) {
-    return getModuleApiParserForFileContents("$THIS_MODULE$", uniqueModuleName, readFile(srcFile));
+    return getModuleApiParserForFileContents("$THIS_MODULE$", uniqueModuleName, getSrcFileContents(srcFile));
   }
 
   private ModuleApiParser getModuleApiParserForFileContents(String moduleName, String uniqueModuleName, String moduleApiFileContents) {
@@ -297,8 +445,7 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
       {
         ImmutableList.Builder<SerializedClaroModule> transitiveModules = ImmutableList.builder();
         for (SrcFile transitiveDepModuleSrcFile : this.TRANSITIVE_MODULE_DEPS) {
-          SerializedClaroModule parsedModule =
-              SerializedClaroModule.parseDelimitedFrom(transitiveDepModuleSrcFile.getFileInputStream());
+          SerializedClaroModule parsedModule = getDepModule(transitiveDepModuleSrcFile);
           transitiveModules.add(parsedModule);
           importedContractDefinitionStmts.addAll(
               registerDepModuleExportedTypes(scopedHeap, Optional.empty(), parsedModule));
@@ -419,7 +566,12 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
       Expr.typeErrorsFound.forEach(e -> e.accept(mainSrcFileParser.generatedClassName));
       ProgramNode.miscErrorsFound.forEach(Runnable::run);
       warnNumErrorsFound(totalParserErrorsFound);
-      System.exit(ERR_EXIT_CODE);
+      // Dep module monomorphization may have already been triggered during type checking.
+      MonomorphizationCoordinator.shutdownDepModuleMonomorphization();
+      exit(ERR_EXIT_CODE);
+    } catch (CompilerExitException e) {
+      // All errors have already been reported.
+      throw e;
     } catch (ClaroParserException e) {
       ClaroParser.errorMessages.forEach(Runnable::run);
       Expr.typeErrorsFound.forEach(err -> err.accept(mainSrcFileParser.generatedClassName));
@@ -427,9 +579,10 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
       System.err.println(e.getMessage());
       warnNumErrorsFound(mainSrcFileParser.errorsFound
                          + nonMainSrcFileParsers.stream().map(p -> p.errorsFound).reduce(Integer::sum).orElse(0));
+      MonomorphizationCoordinator.shutdownDepModuleMonomorphization();
       if (this.SILENT) {
         // We found errors, there's no point to emit the generated code.
-        System.exit(ERR_EXIT_CODE);
+        exit(ERR_EXIT_CODE);
       } else {
         throw e;
       }
@@ -440,9 +593,10 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
       System.err.println(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
       warnNumErrorsFound(mainSrcFileParser.errorsFound
                          + nonMainSrcFileParsers.stream().map(p -> p.errorsFound).reduce(Integer::sum).orElse(0));
+      MonomorphizationCoordinator.shutdownDepModuleMonomorphization();
       if (this.SILENT) {
         // We found errors, there's no point to emit the generated code.
-        System.exit(ERR_EXIT_CODE);
+        exit(ERR_EXIT_CODE);
       } else {
         throw e;
       }
@@ -460,8 +614,7 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
     {
       ImmutableList.Builder<SerializedClaroModule> parsedModulesBuilder = ImmutableList.builder();
       for (Map.Entry<String, SrcFile> moduleDep : moduleDeps.entrySet()) {
-        SerializedClaroModule parsedModule =
-            SerializedClaroModule.parseDelimitedFrom(moduleDep.getValue().getFileInputStream());
+        SerializedClaroModule parsedModule = getDepModule(moduleDep.getValue());
         parsedModulesBuilder.add(parsedModule);
         parsedClaroModuleProtosBuilder.put(moduleDep.getKey(), parsedModule);
 
@@ -508,12 +661,18 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
                   name,
                   moduleDep.getValue().getModuleDescriptor().getUniqueModuleName()
               );
-          JavaSourceCompilerBackend.scopedHeap.observeStaticIdentifierValue(
+          JavaSourceCompilerBackend.scopedHeap.putLazyGlobalIdentifier(
               disambiguatedStaticValueIdentifier,
-              Types.parseTypeProto(type),
-              isLazy
+              () -> {
+                ScopedHeap.IdentifierData identifierData =
+                    new ScopedHeap.IdentifierData(Types.parseTypeProto(type), null, /*declared=*/true);
+                identifierData.isAssignable = false;
+                identifierData.isStaticValue = true;
+                identifierData.isLazyValue = isLazy;
+                return identifierData;
+              },
+              /*isInitialized=*/true
           );
-          JavaSourceCompilerBackend.scopedHeap.initializeIdentifier(disambiguatedStaticValueIdentifier);
         };
     for (Map.Entry<String, SerializedClaroModule> moduleDep : parsedClaroModuleProtos.entrySet()) {
       for (SerializedClaroModule.ExportedFlagDefinitions.ExportedFlag depExportedFlag :
@@ -535,14 +694,7 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
       // Setup the regular exported procedures.
       for (SerializedClaroModule.Procedure depExportedProc :
           moduleDep.getValue().getExportedProcedureDefinitionsList()) {
-        Types.ProcedureType procedureType = getProcedureTypeFromProto(depExportedProc);
-        scopedHeap.putIdentifierValue(
-            String.format("$DEP_MODULE$%s$%s", moduleDep.getKey(), depExportedProc.getName()),
-            procedureType,
-            // If this is a generic procedure, then the symbol table will hold a function that's used to register a
-            // concrete call, and get back the monomorphization's canonical name, otherwise, null.
-            maybeSetupGenericDepModuleProcedure(moduleDep.getKey(), depExportedProc, procedureType)
-        );
+        putLazyDepModuleProcedure(scopedHeap, moduleDep.getKey(), depExportedProc);
       }
       registerDepModuleExportedTypeInitializersAndUnwrappers(scopedHeap, Optional.of(moduleDep.getKey()), moduleDep.getValue());
       // Make note of any synthetic procedures generated by any HttpServiceDefStmts.
@@ -550,9 +702,11 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
           syntheticHttpServiceDef ->
               syntheticHttpServiceDef.getEndpointsList().forEach(
                   endpoint ->
-                      scopedHeap.putIdentifierValue(
+                      scopedHeap.putLazyGlobalIdentifier(
                           String.format("$DEP_MODULE$%s$%s", moduleDep.getKey(), endpoint.getEndpointName()),
-                          getProcedureTypeFromProto(endpoint.getProcedure())
+                          () -> new ScopedHeap.IdentifierData(
+                              getProcedureTypeFromProto(endpoint.getProcedure()), null, /*declared=*/true),
+                          /*isInitialized=*/false
                       )));
 
     }
@@ -595,6 +749,40 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
     return importedContractDefinitionStmts.build();
   }
 
+  // Dep modules may export far more procedures than this compilation unit actually calls, so each one is only actually
+  // deserialized and set up in the symbol table if it's referenced.
+  private static void putLazyDepModuleProcedure(
+      ScopedHeap scopedHeap, String depModuleName, SerializedClaroModule.Procedure depExportedProc) {
+    scopedHeap.putLazyGlobalIdentifier(
+        String.format("$DEP_MODULE$%s$%s", depModuleName, depExportedProc.getName()),
+        () -> {
+          Types.ProcedureType procedureType = getProcedureTypeFromProto(depExportedProc);
+          return new ScopedHeap.IdentifierData(
+              procedureType,
+              // If this is a generic procedure, then the symbol table will hold a function that's used to register a
+              // concrete call, and get back the monomorphization's canonical name, otherwise, null.
+              maybeSetupGenericDepModuleProcedure(depModuleName, depExportedProc, procedureType),
+              /*declared=*/true
+          );
+        },
+        // Identifiers are only marked initialized when they're given a value, i.e. only for generic procedures.
+        /*isInitialized=*/isGenericProcedure(depExportedProc)
+    );
+  }
+
+  private static boolean isGenericProcedure(SerializedClaroModule.Procedure procedureProto) {
+    switch (procedureProto.getProcedureTypeCase()) {
+      case FUNCTION:
+        return procedureProto.getFunction().getOptionalGenericTypeParamNamesCount() > 0;
+      case CONSUMER:
+        return procedureProto.getConsumer().getOptionalGenericTypeParamNamesCount() > 0;
+      case PROVIDER:
+        return procedureProto.getProvider().getOptionalGenericTypeParamNamesCount() > 0;
+      default:
+        return false;
+    }
+  }
+
   private static ProcedureDefinitionStmt syntheticProcedureDefStmt = null;
 
   private static BiFunction<ScopedHeap, ImmutableMap<Type, Type>, String> maybeSetupGenericDepModuleProcedure(
@@ -634,9 +822,8 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
                 .map(typeParams -> !typeParams.contains(orderedConcreteTypeParams))
                 .orElse(true)) {
               // Make note of this needed dep module monomorphization somewhere so that just before finalizing codegen
-              // we can trigger dep module monomorphization.
-              InternalStaticStateUtil.JavaSourceCompilerBackend_depModuleGenericMonomoprhizationsNeeded.put(
-                  depModuleName,
+              // we can collect the dep module monomorphization.
+              IPCMessages.MonomorphizationRequest monomorphizationRequest =
                   getMonomorphizationRequest(
                       depExportedProc,
                       orderedConcreteTypeParams,
@@ -651,8 +838,15 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
                               Map.Entry::getKey,
                               Map.Entry::getValue
                           ))
-                  )
-              );
+                  );
+              InternalStaticStateUtil.JavaSourceCompilerBackend_depModuleGenericMonomoprhizationsNeeded.put(
+                  depModuleName, monomorphizationRequest);
+              // Give the dep module's monomorphization subprocess a head start while type checking continues. When this
+              // is itself a dep module monomorphization subprocess, the request is instead returned to the coordinator.
+              if (!DEP_MODULE_MONOMORPHIZATION_ENABLED) {
+                MonomorphizationCoordinator.triggerDepModuleMonomorphization(
+                    ScopedHeap.getDefiningModuleDisambiguator(Optional.of(depModuleName)), monomorphizationRequest);
+              }
             }
             return monomorphizationName;
           };
@@ -793,16 +987,7 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
       optionalModuleName.ifPresent(
           moduleName ->
               initializerEntry.getValue().getProceduresList().forEach(
-                  p -> {
-                    Types.ProcedureType procedureType = getProcedureTypeFromProto(p);
-                    scopedHeap.putIdentifierValue(
-                        String.format("$DEP_MODULE$%s$%s", moduleName, p.getName()),
-                        procedureType,
-                        // If this is a generic procedure, then the symbol table will hold a function that's used to register a
-                        // concrete call, and get back the monomorphization's canonical name, otherwise, null.
-                        maybeSetupGenericDepModuleProcedure(moduleName, p, procedureType)
-                    );
-                  }));
+                  p -> putLazyDepModuleProcedure(scopedHeap, moduleName, p)));
       InternalStaticStateUtil.InitializersBlockStmt_initializersByInitializedTypeNameAndModuleDisambiguator
           .put(
               initializerEntry.getKey(),
@@ -824,16 +1009,7 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
       optionalModuleName.ifPresent(
           moduleName ->
               unwrapperEntry.getValue().getProceduresList().forEach(
-                  p -> {
-                    Types.ProcedureType procedureType = getProcedureTypeFromProto(p);
-                    scopedHeap.putIdentifierValue(
-                        String.format("$DEP_MODULE$%s$%s", moduleName, p.getName()),
-                        procedureType,
-                        // If this is a generic procedure, then the symbol table will hold a function that's used to register a
-                        // concrete call, and get back the monomorphization's canonical name, otherwise, null.
-                        maybeSetupGenericDepModuleProcedure(moduleName, p, procedureType)
-                    );
-                  }));
+                  p -> putLazyDepModuleProcedure(scopedHeap, moduleName, p)));
       InternalStaticStateUtil.UnwrappersBlockStmt_unwrappersByUnwrappedTypeNameAndModuleDisambiguator
           .put(
               unwrapperEntry.getKey(),
@@ -1092,7 +1268,7 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
       System.err.println("An error occurred while trying to open/create the specified output file: " +
                          this.OPTIONAL_OUTPUT_FILE_PATH.get());
       e.printStackTrace();
-      System.exit(ERR_EXIT_CODE);
+      exit(ERR_EXIT_CODE);
     }
     return outputFile;
   }
@@ -1516,4 +1692,77 @@ public class JavaSourceCompilerBackend implements CompilerBackend {
       }
     }
   }
+
+  private static void exit(int exitCode) {
+    if (throwOnExit) {
+      throw new CompilerExitException(exitCode);
+    }
+    System.exit(exitCode);
+  }
+
+  public static final class CompilerExitException extends RuntimeException {
+    public final int exitCode;
+
+    CompilerExitException(int exitCode) {
+      super("Claro compilation exited with code " + exitCode);
+      this.exitCode = exitCode;
+    }
+  }
+
+  // The compiler's state is spread across statics throughout the codebase, so before a single JVM can run another
+  // compilation, all of it must be put back exactly as it was at startup. Otherwise, codegen'd names (which come from
+  // static counters) would depend on whatever happened to be compiled previously, and stale symbols from one
+  // compilation could leak into the next. Any new static compiler state must also be reset here.
+  public static void resetStaticState() {
+    MonomorphizationCoordinator.resetStaticState();
+    MonomorphizationCache.reset();
+    InternalStaticStateUtil.reset();
+
+    JavaSourceCompilerBackend.DEP_MODULE_MONOMORPHIZATION_ENABLED = false;
+    JavaSourceCompilerBackend.scopedHeap = null;
+    JavaSourceCompilerBackend.mainSrcFileProgramNode = null;
+    JavaSourceCompilerBackend.javaSourceCompilerBackend = null;
+    JavaSourceCompilerBackend.depsClosureCodegendMonomorphizationsByModuleAndProc = ImmutableMap.of();
+    JavaSourceCompilerBackend.syntheticProcedureDefStmt = null;
+    JavaSourceCompilerBackend.workRequestInputDigestsByPath = ImmutableMap.of();
+
+    ClaroParser.errorMessages.clear();
+    ModuleApiParser.errorMessages.clear();
+    Expr.typeErrorsFound.clear();
+    Expr.validatingContractProcCallWithinGenericProc = false;
+    ProgramNode.miscErrorsFound.clear();
+    ProgramNode.nonMainFiles = ImmutableList.of();
+    ProgramNode.importedContractDefinitionStmts = null;
+    ProgramNode.moduleApiDef = Optional.empty();
+    ProgramNode.transitiveExportedFlags = null;
+    ProgramNode.resourcesByName = null;
+    ScopedHeap.currProgramDepModules = HashBasedTable.create();
+    ScopedHeap.currProgramDepModuleExportedTypes = ImmutableMap.of();
+    ScopedHeap.transitiveExportedDepModules = ImmutableSet.of();
+    ScopedHeap.stdlibDepModules = ImmutableSet.of();
+    Types.UserDefinedType.$resolvedWrappedTypes.clear();
+    Types.UserDefinedType.$typeParamNames.clear();
+    Types.UserDefinedType.resetStaticState();
+    Types.$GenericTypeParam.concreteTypeMappingsForBetterErrorMessages = Optional.empty();
+    Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen = Optional.empty();
+    ReturnStmt.withinProcedureScope = Optional.empty();
+    ReturnStmt.supportReturnStmt = false;
+    UsingBlockStmt.currentlyUsedBindings = Sets.newHashSet();
+    UsingBlockStmt.currentlyUsedModules = Sets.newHashSet();
+    GenericFunctionDefinitionStmt.monomorphizations.clear();
+    GenericFunctionDefinitionStmt.alreadyCodegendMonomorphizations.clear();
+    GenericFunctionDefinitionStmt.genericFunctionDefStmtsByName.clear();
+    ContractDefinitionStmt.contractImplementationsByContractName.clear();
+    ContractImplementationStmt.resetStaticState();
+
+    // Counters used to give codegen'd Java unique names.
+    Stmt.resetStaticState();
+    AtomDefinitionStmt.resetStaticState();
+    AutomaticErrorPropagationStmt.resetStaticState();
+    MatchStmt.resetStaticState();
+    PipeChainStmt.resetStaticState();
+    ComprehensionExpr.resetStaticState();
+    CopyExpr.resetStaticState();
+    LambdaExpr.resetStaticState();
+  }
 }
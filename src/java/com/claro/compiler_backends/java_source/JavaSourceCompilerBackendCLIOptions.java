@@ -131,6 +131,30 @@ public class JavaSourceCompilerBackendCLIOptions extends OptionsBase {
   )
   public List<String> dep_graph_claro_module_by_unique_name;
 
+  @Option(
+      name = "dep_module_monomorphization_http_ipc",
+      help = "Communicate with dep module monomorphization subprocesses over the legacy HTTP transport rather than by " +
+             "exchanging length-delimited protos over each subprocess's stdin/stdout pipes.",
+      defaultValue = "false"
+  )
+  public boolean dep_module_monomorphization_http_ipc;
+
+  @Option(
+      name = "monomorphization_cache_dir",
+      help = "A directory in which to persist dep module monomorphizations across compilations so that identical " +
+             "monomorphization requests don't need to be recomputed by a dep module subprocess. May be shared by " +
+             "concurrent compilations. Disabled when unset.",
+      defaultValue = ""
+  )
+  public String monomorphization_cache_dir;
+
+  @Option(
+      name = "monomorphization_cache_max_size_mb",
+      help = "The size bound for --monomorphization_cache_dir, beyond which least recently used entries are evicted.",
+      defaultValue = "512"
+  )
+  public int monomorphization_cache_max_size_mb;
+
   @Option(
       name = "output_file_path",
       help = "The path to the output file to put the generated Java.",
@@ -138,6 +162,15 @@ public class JavaSourceCompilerBackendCLIOptions extends OptionsBase {
   )
   public String output_file_path;
 
+  @Option(
+      name = "io_prefetch_threads",
+      help = "The number of threads to use for prefetching, i.e. reading src files and deserializing dep .claro_module " +
+             "files in the background, overlapping with parsing and type checking. This only parallelizes I/O and " +
+             "proto parsing, type checking and codegen always run sequentially. Defaults to no prefetching.",
+      defaultValue = "0"
+  )
+  public int io_prefetch_threads;
+
   @Option(
       name = "expect_errors",
       help = "Internal Only! This is used to indicate that errors are expected and so stderr will be redirected to " +
@@ -3,6 +3,7 @@ package com.claro.compiler_backends.java_source.monomorphization;
 import com.claro.ClaroCompilerMain;
 import com.claro.compiler_backends.java_source.JavaSourceCompilerBackend;
 import com.claro.compiler_backends.java_source.monomorphization.ipc.MonomorphizationRequestProcessing;
+import com.claro.compiler_backends.java_source.monomorphization.proto.ipc_protos.IPCMessages.MonomorphizationRequest;
 import com.claro.intermediate_representation.ProgramNode;
 import com.claro.intermediate_representation.statements.GenericFunctionDefinitionStmt;
 import com.claro.intermediate_representation.statements.Stmt;
@@ -18,6 +19,12 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.devtools.common.options.OptionsParser;
 
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
@@ -37,12 +44,27 @@ public class DepModuleMonomorphization {
 
     // First thing first, parse the specified .claro_module to discover the unique module name as well as the cli args
     // to restart compilation with.
-    SerializedClaroModule parsedModule =
-        SerializedClaroModule.parseDelimitedFrom(
-            Files.newInputStream(FileSystems.getDefault().getPath(options.depModuleFilePath), StandardOpenOption.READ));
+    SerializedClaroModule parsedModule = parseDepModule(options.depModuleFilePath);
 
     String uniqueModuleName = parsedModule.getModuleDescriptor().getUniqueModuleName();
 
+    if (options.pipeIpc) {
+      // The coordinator talks to this process directly over its stdin/stdout, so there's no need to bring up any HTTP
+      // server or client at all. Just reserve stdout for IPC frames so that nothing else (e.g. compiler warnings) can
+      // corrupt the stream.
+      OutputStream ipcOut = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out));
+      System.setOut(System.err);
+      new DepModuleMonomorphization(
+          /*server=*/null,
+          /*coordinatorClient=*/null,
+          ImmutableList.copyOf(parsedModule.getCommandLineArgsList())
+      ).runModuleCompilationPreworkBeforeMonomorphizationWorkPossible();
+      serveMonomorphizationRequestsOverPipe(ipcOut);
+      // The coordinator closed this process's stdin, signalling that it's done with all monomorphizations from this dep
+      // module (or that it was killed). Either way, exit explicitly so that no lingering threads keep this alive.
+      System.exit(0);
+    }
+
     // Here I need to immediately trigger the server to startup so that I can be ready to receive monomorphization reqs
     // from the coordinator compilation unit.
     DepModuleMonomorphization monomorphizer;
@@ -80,6 +102,24 @@ public class DepModuleMonomorphization {
     }
   }
 
+  private static SerializedClaroModule parseDepModule(String depModuleFilePath) throws IOException {
+    try (InputStream in =
+             Files.newInputStream(FileSystems.getDefault().getPath(depModuleFilePath), StandardOpenOption.READ)) {
+      return SerializedClaroModule.parseDelimitedFrom(in);
+    }
+  }
+
+  // Requests are only read once all of the compilation prework is done, so there's no need for any explicit "ready"
+  // signal, the coordinator's first request simply waits in the pipe until this process gets to it.
+  private static void serveMonomorphizationRequestsOverPipe(OutputStream ipcOut) throws IOException {
+    MonomorphizationRequest monomorphizationRequest;
+    // parseDelimitedFrom() returns null once the coordinator closes this process's stdin.
+    while ((monomorphizationRequest = MonomorphizationRequest.parseDelimitedFrom(System.in)) != null) {
+      MonomorphizationRequestProcessing.handleMonomorphizationRequest(monomorphizationRequest).writeDelimitedTo(ipcOut);
+      ipcOut.flush();
+    }
+  }
+
   // I'll make an instance of this literally just so I can have final variables.
   private DepModuleMonomorphization(
       $ClaroHttpServer server, DepModuleCoordinatorService coordinatorClient, ImmutableList<String> recompilationArgs) {
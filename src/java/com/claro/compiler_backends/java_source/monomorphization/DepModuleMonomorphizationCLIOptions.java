@@ -28,4 +28,12 @@ public class DepModuleMonomorphizationCLIOptions extends OptionsBase {
       defaultValue = ""
   )
   public String depModuleFilePath;
+
+  @Option(
+      name = "pipe_ipc",
+      help = "Receive MonomorphizationRequests as length-delimited protos on stdin and write MonomorphizationResponses " +
+             "to stdout, rather than starting an HTTP server and registering it with the coordinator.",
+      defaultValue = "false"
+  )
+  public boolean pipeIpc;
 }
@@ -0,0 +1,181 @@
+package com.claro.compiler_backends.java_source.monomorphization;
+
+import com.claro.compiler_backends.java_source.monomorphization.proto.ipc_protos.IPCMessages;
+import com.claro.compiler_backends.java_source.monomorphization.proto.ipc_protos.IPCMessages.MonomorphizationRequest;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// A content-addressed, on-disk cache of MonomorphizationResponses that outlives any single compilation so that
+// downstream modules don't each need to spin up a dep module monomorphization subprocess just to re-request the exact
+// same monomorphizations over and over again. Entries are keyed on the content of every file that could influence the
+// response (the dep module monomorphization subprocess binary, the dep module's .claro_module, which embeds the
+// module's srcs, and the .claro_module of every module in its transitive closure) plus the serialized
+// MonomorphizationRequest itself. The cache is bounded in size, evicting the least recently used entries first, where
+// "use" is tracked via each entry's last modified time.
+//
+// Note that it's the caller's responsibility to only put() MonomorphizationResponses that are complete in isolation.
+// Dep module subprocesses intentionally avoid re-sending codegen that they've already sent in a prior response, so only
+// the first response from any given subprocess is actually safe to cache.
+public class MonomorphizationCache {
+  private static final String CACHE_ENTRY_SUFFIX = ".monomorphization";
+  // Once the cache grows beyond its bound, evict down to this fraction of the bound so that eviction isn't happening
+  // on literally every single subsequent compilation.
+  private static final double EVICTION_TARGET_FRACTION = 0.9;
+
+  private static Optional<Path> cacheDir = Optional.empty();
+  private static long maxSizeBytes = 0;
+  private static boolean anyEntriesWritten = false;
+  private static int hitCount = 0;
+  private static final ConcurrentHashMap<Path, HashCode> fileContentHashes = new ConcurrentHashMap<>();
+
+  public static void configure(String cacheDirPath, long maxSizeMb) {
+    if (cacheDirPath.isEmpty() || maxSizeMb <= 0) {
+      return;
+    }
+    try {
+      MonomorphizationCache.cacheDir = Optional.of(Files.createDirectories(Paths.get(cacheDirPath)));
+      MonomorphizationCache.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    } catch (IOException e) {
+      // The cache is purely an optimization, so just carry on without it.
+      System.err.println("Warning: Unable to use monomorphization cache dir " + cacheDirPath + ": " + e.getMessage());
+    }
+  }
+
+  public static synchronized void reset() {
+    MonomorphizationCache.cacheDir = Optional.empty();
+    MonomorphizationCache.maxSizeBytes = 0;
+    MonomorphizationCache.anyEntriesWritten = false;
+    MonomorphizationCache.hitCount = 0;
+    // Cache key files may legitimately change between compilations.
+    MonomorphizationCache.fileContentHashes.clear();
+  }
+
+  public static boolean isEnabled() {
+    return cacheDir.isPresent();
+  }
+
+  // The number of monomorphizations served from the cache so far in the current compilation.
+  public static synchronized int getHitCount() {
+    return hitCount;
+  }
+
+  public static Optional<IPCMessages.MonomorphizationResponse> get(
+      ImmutableList<Path> keyFiles, MonomorphizationRequest req) {
+    if (!isEnabled()) {
+      return Optional.empty();
+    }
+    Path entry = getCacheEntryPath(keyFiles, req);
+    try (InputStream in = Files.newInputStream(entry)) {
+      IPCMessages.MonomorphizationResponse res = IPCMessages.MonomorphizationResponse.parseDelimitedFrom(in);
+      if (res == null) {
+        return Optional.empty();
+      }
+      // Mark this entry as recently used.
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+      synchronized (MonomorphizationCache.class) {
+        hitCount++;
+      }
+      return Optional.of(res);
+    } catch (IOException e) {
+      // Treat any missing, corrupted or concurrently evicted entry as a miss.
+      return Optional.empty();
+    }
+  }
+
+  public static void put(
+      ImmutableList<Path> keyFiles, MonomorphizationRequest req, IPCMessages.MonomorphizationResponse res) {
+    if (!isEnabled()) {
+      return;
+    }
+    Path entry = getCacheEntryPath(keyFiles, req);
+    try {
+      // Write to a temp file first and then atomically move it into place so that concurrent compilations sharing this
+      // cache never observe a partially written entry.
+      Path tmp = Files.createTempFile(cacheDir.get(), "tmp", CACHE_ENTRY_SUFFIX + ".tmp");
+      try (OutputStream out = Files.newOutputStream(tmp)) {
+        res.writeDelimitedTo(out);
+      }
+      Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      synchronized (MonomorphizationCache.class) {
+        anyEntriesWritten = true;
+      }
+    } catch (IOException e) {
+      System.err.println("Warning: Unable to write monomorphization cache entry: " + e.getMessage());
+    }
+  }
+
+  // Should be called once at the end of compilation so that the cost of checking the cache's size is only paid once.
+  public static synchronized void evictIfNecessary() {
+    if (!isEnabled() || !anyEntriesWritten) {
+      return;
+    }
+    anyEntriesWritten = false;
+    List<Path> entries = new ArrayList<>();
+    long totalSizeBytes = 0;
+    try (Stream<Path> files = Files.list(cacheDir.get())) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        if (file.getFileName().toString().endsWith(CACHE_ENTRY_SUFFIX)) {
+          entries.add(file);
+          totalSizeBytes += Files.size(file);
+        }
+      }
+      if (totalSizeBytes <= maxSizeBytes) {
+        return;
+      }
+      entries.sort(Comparator.comparing(MonomorphizationCache::getLastModifiedTimeOrEpoch));
+      long targetSizeBytes = (long) (maxSizeBytes * EVICTION_TARGET_FRACTION);
+      for (Path file : entries) {
+        if (totalSizeBytes <= targetSizeBytes) {
+          break;
+        }
+        long size = Files.size(file);
+        // Another compilation may have beaten us to evicting this entry, that's fine.
+        if (Files.deleteIfExists(file)) {
+          totalSizeBytes -= size;
+        }
+      }
+    } catch (IOException e) {
+      System.err.println("Warning: Unable to evict from monomorphization cache: " + e.getMessage());
+    }
+  }
+
+  private static Path getCacheEntryPath(ImmutableList<Path> keyFiles, MonomorphizationRequest req) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (Path keyFile : keyFiles) {
+      hasher.putBytes(fileContentHashes.computeIfAbsent(keyFile, MonomorphizationCache::hashFileContents).asBytes());
+    }
+    hasher.putBytes(req.toByteArray());
+    return cacheDir.get().resolve(hasher.hash() + CACHE_ENTRY_SUFFIX);
+  }
+
+  private static HashCode hashFileContents(Path file) {
+    try {
+      return MoreFiles.asByteSource(file).hash(Hashing.sha256());
+    } catch (IOException e) {
+      throw new RuntimeException("Internal Compiler Error! Unable to read " + file + " for monomorphization cache key.", e);
+    }
+  }
+
+  private static FileTime getLastModifiedTimeOrEpoch(Path file) {
+    try {
+      return Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+}
@@ -3,27 +3,42 @@ package com.claro.compiler_backends.java_source.monomorphization;
 import com.claro.compiler_backends.java_source.monomorphization.ipc_coordinator.SubprocessRegistration;
 import com.claro.compiler_backends.java_source.monomorphization.proto.ipc_protos.IPCMessages;
 import com.claro.compiler_backends.java_source.monomorphization.proto.ipc_protos.IPCMessages.MonomorphizationRequest;
+import com.claro.module_system.module_serialization.proto.SerializedClaroModule;
 import com.claro.runtime_utilities.ClaroRuntimeUtilities;
 import com.claro.runtime_utilities.http.$ClaroHttpServer;
 import com.claro.runtime_utilities.http.$HttpUtil;
 import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.io.BaseEncoding;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.devtools.build.runfiles.AutoBazelRepository;
 import com.google.devtools.build.runfiles.Runfiles;
 import com.google.protobuf.InvalidProtocolBufferException;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 
 import static claro.lang.src$java$com$claro$compiler_backends$java_source$monomorphization$ipc$main_compilation_unit_monomorphization_ipc.DepModuleMonomorphizationService;
 import static claro.lang.src$java$com$claro$compiler_backends$java_source$monomorphization$ipc$main_compilation_unit_monomorphization_ipc.sendMessageToSubprocess_TriggerMonomorphization;
@@ -31,8 +46,9 @@ import static claro.lang.src$java$com$claro$compiler_backends$java_source$monomo
 import static claro.lang.src$java$com$claro$compiler_backends$java_source$monomorphization$ipc_coordinator$monomorphization_ipc_coordinator.startCoordinatorServerAndAwaitShutdown;
 
 // This class contains some quite complex subprocess orchestration logic that should be hidden from the compiler logic
-// itself. Hence the only publicly exposed function here is the single getDepModuleMonomorphization() function that
-// should be called to opaquely retrieve the monomorphization for an arbitrary dep module monomorphization request.
+// itself. Hence the only publicly exposed functions here are triggerDepModuleMonomorphization(), which should be called
+// to opaquely request the monomorphization for an arbitrary dep module monomorphization request, and
+// awaitAllDepModuleMonomorphizations() which should be called once before consuming the results.
 // Unless you're actually working on modifying the dep module monomorphization subprocess coordination architecture, you
 // really shouldn't bother spending too much effort fully grocking the multiprocessing that's actually going on under
 // the hood here.
@@ -46,8 +62,28 @@ public class MonomorphizationCoordinator {
   // this compilation unit's codegen.
   public static final HashBasedTable<String, MonomorphizationRequest, String>
       monomorphizationsByModuleAndRequestCache = HashBasedTable.create();
+  // Central work registry of every dep module monomorphization triggered so far. Entries are added concurrently from
+  // type checking and from the callbacks handling transitive dep module monomorphization requests.
+  private static final ConcurrentHashMap<Map.Entry<String, MonomorphizationRequest>, ListenableFuture<Void>>
+      triggeredMonomorphizationsByModuleAndRequest = new ConcurrentHashMap<>();
+  // Used to queue up requests to each dep module's subprocess so that it only handles a single request at a time.
+  private static final HashMap<String, ListenableFuture<?>> latestMonomorphizationByModule = Maps.newHashMap();
+
+  // By default, MonomorphizationRequests/Responses are exchanged as raw length-delimited protos over each dep module
+  // subprocess's stdin/stdout, avoiding both the base64 encoding overhead and the cost of bringing up an HTTP stack in
+  // every subprocess. The original HTTP transport is kept around as a fallback.
+  public static boolean USE_HTTP_IPC = false;
+  private static final HashMap<String, PipeIPCSubprocess> pipeIPCSubprocessesByUniqueModuleName = Maps.newHashMap();
+  // Pipe IPC is blocking, so it must happen off of the main compilation thread. Daemon threads so that these can never
+  // keep the compiler alive.
+  private static final ListeningExecutorService PIPE_IPC_EXECUTOR =
+      MoreExecutors.listeningDecorator(
+          Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true).build()));
 
   public static ImmutableMap<String, String> DEP_GRAPH_CLARO_MODULE_PATHS_BY_UNIQUE_MODULE_NAME;
+  // Computing a dep module's cache key requires parsing its .claro_module, so only do that once per dep module.
+  private static final ConcurrentHashMap<String, ImmutableList<Path>> monomorphizationCacheKeyFilesByUniqueModuleName =
+      new ConcurrentHashMap<>();
   public static Map<String, String> RUNFILES_ENV_VARS;
 
   // Static iniitialization happening here b/c preloading Bazel's runfiles is notably an expensive operation that should
@@ -69,66 +105,207 @@ public class MonomorphizationCoordinator {
     }
   }
 
-  // TODO(steving) In the future, assuming this "simple" implementation works, I should actually be able to potentially
-  //   optimize this process via some parallelization via some clever scheme to immediately trigger monomorphization the
-  //   second it's recognized during type checking. This would give the subprocesses a head start of starting up earlier
-  //   than they do in the current approach where they don't startup until codegen. And since they don't necessarily
-  //   depend on each other, they could actually be running in parallel rather than a single subprocess actively
-  //   processing MonomorphizationRequests at any given time. This could potentially help to alleviate some of the
-  //   overhead of Dep Module Monomorphization, so I should circle back to this when I get a chance. (Impl note: I think
-  //   it'd center around a Caffeine loading cache w/ infinite timeout so that multiple threads could be updating
-  //   essentially a central work registry safely; triggering monomorphization would just be calling get() on the cache).
-  public static void getDepModuleMonomorphization(String module, MonomorphizationRequest depModuleMonomorphizationReq) {
+  // Dep module monomorphization is triggered eagerly, the moment that type checking recognizes that some dep module
+  // generic procedure needs to be monomorphized. This gives the subprocesses a head start, starting up while the rest of
+  // this compilation unit is still being type checked. Since requests to distinct dep modules don't depend on each other,
+  // they're processed in parallel, while requests to the same dep module are queued so that each subprocess is only ever
+  // processing a single MonomorphizationRequest at a time. Codegen must call awaitAllDepModuleMonomorphizations() before
+  // consuming monomorphizationsByModuleAndRequestCache.
+  public static void triggerDepModuleMonomorphization(String module, MonomorphizationRequest depModuleMonomorphizationReq) {
     // See if the IPC req can be skipped in the case that this monomorphization has already been retrieved previously.
-    if (monomorphizationsByModuleAndRequestCache.get(module, depModuleMonomorphizationReq) != null) {
-      return;
+    synchronized (monomorphizationsByModuleAndRequestCache) {
+      if (monomorphizationsByModuleAndRequestCache.contains(module, depModuleMonomorphizationReq)) {
+        return;
+      }
+    }
+    // Only the first caller to register this request actually sends it, all others share the same pending result.
+    SettableFuture<Void> pendingMonomorphization = SettableFuture.create();
+    if (triggeredMonomorphizationsByModuleAndRequest.putIfAbsent(
+        Maps.immutableEntry(module, depModuleMonomorphizationReq), pendingMonomorphization) == null) {
+      // Avoid starting up the dep module's subprocess at all if some prior compilation already did this exact work.
+      Optional<IPCMessages.MonomorphizationResponse> cachedMonomorphizationRes =
+          MonomorphizationCache.isEnabled()
+          ? MonomorphizationCache.get(getMonomorphizationCacheKeyFiles(module), depModuleMonomorphizationReq)
+          : Optional.empty();
+      if (cachedMonomorphizationRes.isPresent()) {
+        try {
+          handleMonomorphizationResponse(module, depModuleMonomorphizationReq, cachedMonomorphizationRes.get());
+          pendingMonomorphization.set(null);
+        } catch (RuntimeException e) {
+          pendingMonomorphization.setException(e);
+        }
+        return;
+      }
+      pendingMonomorphization.setFuture(enqueueDepModuleMonomorphization(module, depModuleMonomorphizationReq));
     }
+  }
 
-    try {
-      // Make a blocking IPC call to the dep module monomorphization subprocess.
-      IPCMessages.MonomorphizationResponse monomorphizationRes =
-          IPCMessages.MonomorphizationResponse.parseFrom(
-              BaseEncoding.base64Url().decode(
-                  Futures.transform(
-                      getDepModuleMonomorphizationSubprocessClient(module),
-                      depModuleMonomorphizationService ->
-                          sendMessageToSubprocess_TriggerMonomorphization.apply(
-                              depModuleMonomorphizationService,
-                              BaseEncoding.base64Url().encode(depModuleMonomorphizationReq.toByteArray())
-                          ).get(),
-                      MoreExecutors.directExecutor()
-                  ).get()));
-      if (!monomorphizationRes.getOptionalErrorMessage().isEmpty()) {
+  // Blocks until every dep module monomorphization triggered so far (including any transitive dep module
+  // monomorphizations that they in turn requested) has been stored in monomorphizationsByModuleAndRequestCache.
+  public static void awaitAllDepModuleMonomorphizations() {
+    // Transitive requests are only registered as responses come back, so keep waiting until no new work shows up. Each
+    // response registers its transitive requests before its own future completes, so this terminates.
+    int awaitedCount = -1;
+    while (awaitedCount != triggeredMonomorphizationsByModuleAndRequest.size()) {
+      ImmutableList<ListenableFuture<Void>> pending =
+          ImmutableList.copyOf(triggeredMonomorphizationsByModuleAndRequest.values());
+      awaitedCount = pending.size();
+      try {
+        Futures.allAsList(pending).get();
+      } catch (ExecutionException e) {
         shutdownDepModuleMonomorphization();
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new RuntimeException("Internal Compiler Error! Failed to get dep module monomorphization from subprocess.", e);
+      } catch (InterruptedException e) {
+        shutdownDepModuleMonomorphization();
+        throw new RuntimeException("Internal Compiler Error! Failed to get dep module monomorphization from subprocess.", e);
+      }
+    }
+    MonomorphizationCache.evictIfNecessary();
+  }
+
+  private static synchronized ListenableFuture<Void> enqueueDepModuleMonomorphization(
+      String module, MonomorphizationRequest depModuleMonomorphizationReq) {
+    // Dep module subprocesses never re-send codegen that they already sent in some prior response, so only the very
+    // first response from each subprocess is complete enough in isolation to be cached for future compilations.
+    boolean isFirstRequestToSubprocess = !latestMonomorphizationByModule.containsKey(module);
+    ListenableFuture<?> prevModuleMonomorphization =
+        latestMonomorphizationByModule.getOrDefault(module, Futures.immediateVoidFuture());
+    // Wait for the previous request to this dep module to finish, regardless of whether it failed.
+    Futures.FutureCombiner<?> afterPrevModuleMonomorphization = Futures.whenAllComplete(prevModuleMonomorphization);
+    ListenableFuture<IPCMessages.MonomorphizationResponse> monomorphizationRes;
+    if (USE_HTTP_IPC) {
+      monomorphizationRes =
+          Futures.transform(
+              Futures.transformAsync(
+                  afterPrevModuleMonomorphization.callAsync(
+                      () -> getDepModuleMonomorphizationSubprocessClient(module), MoreExecutors.directExecutor()),
+                  depModuleMonomorphizationService ->
+                      sendMessageToSubprocess_TriggerMonomorphization.apply(
+                          depModuleMonomorphizationService,
+                          BaseEncoding.base64Url().encode(depModuleMonomorphizationReq.toByteArray())
+                      ),
+                  MoreExecutors.directExecutor()
+              ),
+              MonomorphizationCoordinator::parseBase64MonomorphizationResponse,
+              MoreExecutors.directExecutor()
+          );
+    } else {
+      monomorphizationRes =
+          afterPrevModuleMonomorphization.call(
+              () -> getDepModulePipeIPCSubprocess(module).sendMonomorphizationRequest(depModuleMonomorphizationReq),
+              PIPE_IPC_EXECUTOR
+          );
+    }
+    ListenableFuture<Void> res =
+        Futures.transform(
+            monomorphizationRes,
+            r -> {
+              handleMonomorphizationResponse(module, depModuleMonomorphizationReq, r);
+              if (isFirstRequestToSubprocess && MonomorphizationCache.isEnabled()) {
+                MonomorphizationCache.put(
+                    getMonomorphizationCacheKeyFiles(module), depModuleMonomorphizationReq, r);
+              }
+              return null;
+            },
+            MoreExecutors.directExecutor()
+        );
+    latestMonomorphizationByModule.put(module, res);
+    return res;
+  }
+
+  // A dep module's monomorphizations are codegen'd by recompiling it against its own deps, so the response depends not
+  // only on the dep module's own .claro_module, but on every .claro_module in its transitive closure.
+  private static ImmutableList<Path> getMonomorphizationCacheKeyFiles(String uniqueModuleName) {
+    return monomorphizationCacheKeyFilesByUniqueModuleName.computeIfAbsent(
+        uniqueModuleName,
+        m -> {
+          ImmutableList.Builder<Path> res =
+              ImmutableList.<Path>builder()
+                  .add(Paths.get(DEP_MODULE_MONOMORPHIZATION_SUBPROCESS_BINARY_PATH))
+                  .add(Paths.get(DEP_GRAPH_CLARO_MODULE_PATHS_BY_UNIQUE_MODULE_NAME.get(m)));
+          // Sorted so that the key doesn't depend on the order that the dep module happened to list its deps in.
+          getTransitiveDepUniqueModuleNames(m).stream()
+              .sorted()
+              .forEach(dep -> res.add(Paths.get(DEP_GRAPH_CLARO_MODULE_PATHS_BY_UNIQUE_MODULE_NAME.get(dep))));
+          return res.build();
+        }
+    );
+  }
+
+  // Each .claro_module records the command line args that it was compiled with, which in turn list the unique names of
+  // every module in its transitive dep graph.
+  private static ImmutableSet<String> getTransitiveDepUniqueModuleNames(String uniqueModuleName) {
+    SerializedClaroModule depModule;
+    try (InputStream in =
+             Files.newInputStream(Paths.get(DEP_GRAPH_CLARO_MODULE_PATHS_BY_UNIQUE_MODULE_NAME.get(uniqueModuleName)))) {
+      depModule = SerializedClaroModule.parseDelimitedFrom(in);
+    } catch (IOException e) {
+      throw new RuntimeException(
+          "Internal Compiler Error! Unable to read .claro_module for dep module: " + uniqueModuleName, e);
+    }
+    ImmutableSet.Builder<String> res = ImmutableSet.builder();
+    List<String> args = depModule.getCommandLineArgsList();
+    for (int i = 0; i < args.size(); i++) {
+      String depGraphEntry;
+      if (args.get(i).equals("--dep_graph_claro_module_by_unique_name") && i + 1 < args.size()) {
+        depGraphEntry = args.get(++i);
+      } else if (args.get(i).startsWith("--dep_graph_claro_module_by_unique_name=")) {
+        depGraphEntry = args.get(i).substring("--dep_graph_claro_module_by_unique_name=".length());
+      } else {
+        continue;
+      }
+      String depUniqueModuleName = depGraphEntry.split(":")[0];
+      if (!DEP_GRAPH_CLARO_MODULE_PATHS_BY_UNIQUE_MODULE_NAME.containsKey(depUniqueModuleName)) {
+        // Every module in a dep's transitive closure is necessarily also in this compilation unit's dep graph.
         throw new RuntimeException(
-            "Internal Compiler Error! Dep Module Monomorphization Failed for Module: " + module
-            + " for current MonomorphizationRequest:\n" + depModuleMonomorphizationReq
-            + "\nHere's the stacktrace from the dep module subprocess:\n" +
-            monomorphizationRes.getOptionalErrorMessage());
+            "Internal Compiler Error! Dep module " + uniqueModuleName + " depends on " + depUniqueModuleName +
+            ", which is missing from this compilation unit's dep graph.");
       }
-      // Store all local monomorphizations returned by the dep module subprocess, they'll need to be included in the
-      // module's codegen.
+      res.add(depUniqueModuleName);
+    }
+    return res.build();
+  }
+
+  private static IPCMessages.MonomorphizationResponse parseBase64MonomorphizationResponse(
+      String encodedMonomorphizationRes) {
+    try {
+      return IPCMessages.MonomorphizationResponse.parseFrom(BaseEncoding.base64Url().decode(encodedMonomorphizationRes));
+    } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+      throw new RuntimeException("Internal Compiler Error! Failed to parse MonomorphizationResponse proto.", e);
+    }
+  }
+
+  private static void handleMonomorphizationResponse(
+      String module,
+      MonomorphizationRequest depModuleMonomorphizationReq,
+      IPCMessages.MonomorphizationResponse monomorphizationRes) {
+    if (!monomorphizationRes.getOptionalErrorMessage().isEmpty()) {
+      throw new RuntimeException(
+          "Internal Compiler Error! Dep Module Monomorphization Failed for Module: " + module
+          + " for current MonomorphizationRequest:\n" + depModuleMonomorphizationReq
+          + "\nHere's the stacktrace from the dep module subprocess:\n" +
+          monomorphizationRes.getOptionalErrorMessage());
+    }
+    // Store all local monomorphizations returned by the dep module subprocess, they'll need to be included in the
+    // module's codegen.
+    synchronized (monomorphizationsByModuleAndRequestCache) {
       for (IPCMessages.MonomorphizationResponse.Monomorphization monomorphization : monomorphizationRes.getLocalModuleMonomorphizationsList()) {
         // Cache the result so that we can avoid duplicate calls in the future.
         monomorphizationsByModuleAndRequestCache.put(
             module, monomorphization.getMonomorphizationRequest(), monomorphization.getMonomorphizationCodegen());
       }
-      // Handle any transitive dep module monomorphizations that were requested by the dep module subprocess.
-      for (IPCMessages.MonomorphizationResponse.TransitiveDepModuleMonomorphizationRequest
-          transitiveDepModuleMonomorphizationReq : monomorphizationRes.getTransitiveDepModuleMonomorphizationRequestsList()) {
-        // I want to have the current module's compilation process move in as much of a straight line as possible, so
-        // for now, I'm going to immediately request the monomorphization from this transitive dep module.
-        getDepModuleMonomorphization(
-            transitiveDepModuleMonomorphizationReq.getUniqueModuleName(),
-            transitiveDepModuleMonomorphizationReq.getMonomorphizationRequest()
-        );
-      }
-    } catch (InterruptedException | ExecutionException e) {
-      shutdownDepModuleMonomorphization();
-      throw new RuntimeException("Internal Compiler Error! Failed to get dep module monomorphization from subprocess.", e);
-    } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
-      shutdownDepModuleMonomorphization();
-      throw new RuntimeException("Internal Compiler Error! Failed to parse MonomorphizationResponse proto.", e);
+    }
+    // Handle any transitive dep module monomorphizations that were requested by the dep module subprocess. These are
+    // triggered immediately so that they're processed in parallel with whatever else is still outstanding.
+    for (IPCMessages.MonomorphizationResponse.TransitiveDepModuleMonomorphizationRequest
+        transitiveDepModuleMonomorphizationReq : monomorphizationRes.getTransitiveDepModuleMonomorphizationRequestsList()) {
+      triggerDepModuleMonomorphization(
+          transitiveDepModuleMonomorphizationReq.getUniqueModuleName(),
+          transitiveDepModuleMonomorphizationReq.getMonomorphizationRequest()
+      );
     }
   }
 
@@ -163,7 +340,7 @@ public class MonomorphizationCoordinator {
     }).start();
   }
 
-  private static ListenableFuture<DepModuleMonomorphizationService> getDepModuleMonomorphizationSubprocessClient(
+  private static synchronized ListenableFuture<DepModuleMonomorphizationService> getDepModuleMonomorphizationSubprocessClient(
       String uniqueModuleName) {
     // If a subprocess has already been triggered for this dep module, then I can just return the future client that'll
     // be marked ready once it can respond to monomorphization requests.
@@ -172,39 +349,85 @@ public class MonomorphizationCoordinator {
     if (!registry.containsKey(uniqueModuleName)) {
       // Otherwise, we'll need to actually trigger the subprocess for the dep module and register it.
       registry.put(uniqueModuleName, SubprocessRegistration.DepModuleMonomorphizationSubprocessState.create());
-      try {
-        if (!Files.exists(Paths.get(DEP_MODULE_MONOMORPHIZATION_SUBPROCESS_BINARY_PATH))) {
-          MonomorphizationCoordinator.shutdownDepModuleMonomorphization();
-          throw new RuntimeException(
-              "Internal Compiler Error! Dep Module Monomorphization Subprocess binary not found at: " +
-              DEP_MODULE_MONOMORPHIZATION_SUBPROCESS_BINARY_PATH);
-        }
-        ProcessBuilder depModuleSubprocess =
-            new ProcessBuilder()
-                .command("java", "-jar", DEP_MODULE_MONOMORPHIZATION_SUBPROCESS_BINARY_PATH,
-                         "--coordinator_port", String.valueOf(coordinatorPort),
-                         "--dep_module_file_path", DEP_GRAPH_CLARO_MODULE_PATHS_BY_UNIQUE_MODULE_NAME.get(uniqueModuleName),
-                         // TODO(steving) DELETE THIS, The uniqe name should be looked up in the .claro_module.
-                         "--dep_module_unique_name", uniqueModuleName
-                )
-                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
-                .redirectError(ProcessBuilder.Redirect.INHERIT);
-        depModuleSubprocess.environment().putAll(RUNFILES_ENV_VARS);
-        depModuleSubprocess.start();
-      } catch (IOException e) {
+      startDepModuleMonomorphizationSubprocess(
+          uniqueModuleName,
+          ImmutableList.of("--coordinator_port", String.valueOf(coordinatorPort)),
+          ProcessBuilder.Redirect.INHERIT
+      );
+    }
+    return registry.get(uniqueModuleName).getReadyClient();
+  }
+
+  private static synchronized PipeIPCSubprocess getDepModulePipeIPCSubprocess(String uniqueModuleName) {
+    PipeIPCSubprocess res = pipeIPCSubprocessesByUniqueModuleName.get(uniqueModuleName);
+    if (res == null) {
+      res = new PipeIPCSubprocess(
+          uniqueModuleName,
+          startDepModuleMonomorphizationSubprocess(
+              uniqueModuleName, ImmutableList.of("--pipe_ipc"), ProcessBuilder.Redirect.PIPE));
+      pipeIPCSubprocessesByUniqueModuleName.put(uniqueModuleName, res);
+    }
+    return res;
+  }
+
+  private static Process startDepModuleMonomorphizationSubprocess(
+      String uniqueModuleName, ImmutableList<String> ipcArgs, ProcessBuilder.Redirect stdout) {
+    try {
+      if (!Files.exists(Paths.get(DEP_MODULE_MONOMORPHIZATION_SUBPROCESS_BINARY_PATH))) {
+        MonomorphizationCoordinator.shutdownDepModuleMonomorphization();
         throw new RuntimeException(
-            "Internal Compiler Error! Unable to start dep module monomorphization subprocess for module: " +
-            uniqueModuleName, e);
+            "Internal Compiler Error! Dep Module Monomorphization Subprocess binary not found at: " +
+            DEP_MODULE_MONOMORPHIZATION_SUBPROCESS_BINARY_PATH);
       }
+      ProcessBuilder depModuleSubprocess =
+          new ProcessBuilder()
+              .command(
+                  ImmutableList.<String>builder()
+                      .add("java", "-jar", DEP_MODULE_MONOMORPHIZATION_SUBPROCESS_BINARY_PATH)
+                      .addAll(ipcArgs)
+                      .add("--dep_module_file_path", DEP_GRAPH_CLARO_MODULE_PATHS_BY_UNIQUE_MODULE_NAME.get(uniqueModuleName))
+                      // TODO(steving) DELETE THIS, The uniqe name should be looked up in the .claro_module.
+                      .add("--dep_module_unique_name", uniqueModuleName)
+                      .build()
+              )
+              .redirectOutput(stdout)
+              .redirectError(ProcessBuilder.Redirect.INHERIT);
+      depModuleSubprocess.environment().putAll(RUNFILES_ENV_VARS);
+      return depModuleSubprocess.start();
+    } catch (IOException e) {
+      throw new RuntimeException(
+          "Internal Compiler Error! Unable to start dep module monomorphization subprocess for module: " +
+          uniqueModuleName, e);
     }
-    return registry.get(uniqueModuleName).getReadyClient();
   }
 
-  public static void shutdownDepModuleMonomorphization() {
+  public static synchronized void shutdownDepModuleMonomorphization() {
+    // Closing each pipe IPC subprocess's stdin signals it to exit.
+    pipeIPCSubprocessesByUniqueModuleName.values().forEach(PipeIPCSubprocess::close);
+    pipeIPCSubprocessesByUniqueModuleName.clear();
     if (!Objects.isNull(MonomorphizationCoordinator.coordinatorServer)) {
       terminateAllDepModuleMonomorphizationSubprocesses();
       MonomorphizationCoordinator.coordinatorServer.shutdown();
+      // Now that monomorphization may be triggered during type checking, shutdown may be requested from multiple exit
+      // paths, so make sure that it only happens once.
+      MonomorphizationCoordinator.coordinatorServer = null;
+    }
+  }
+
+  // Tears down any dep module monomorphization left over from a prior compilation in this JVM and forgets everything
+  // that it learned. The class bytes and shared ClassLoader for in-process dep modules are deliberately kept, as they
+  // only depend on the dep module monomorphization binary itself.
+  public static synchronized void resetStaticState() {
+    shutdownDepModuleMonomorphization();
+    MonomorphizationCoordinator.coordinatorPort = -1;
+    synchronized (monomorphizationsByModuleAndRequestCache) {
+      monomorphizationsByModuleAndRequestCache.clear();
     }
+    triggeredMonomorphizationsByModuleAndRequest.clear();
+    latestMonomorphizationByModule.clear();
+    monomorphizationCacheKeyFilesByUniqueModuleName.clear();
+    DEP_GRAPH_CLARO_MODULE_PATHS_BY_UNIQUE_MODULE_NAME = null;
+    SubprocessRegistration.registeredMonomorphizationSubprocessesByUniqueModuleName = SettableFuture.create();
   }
 
   // Each dep module monomorphization subprocess has been configured to block indefinitely on a call to
@@ -213,4 +436,37 @@ public class MonomorphizationCoordinator {
         depModuleMonomorphizationSubprocessState -> depModuleMonomorphizationSubprocessState.getDoneFuture().set("true")
     );
   }
+
+  private static final class PipeIPCSubprocess {
+    private final String uniqueModuleName;
+    private final OutputStream requests;
+    private final InputStream responses;
+
+    PipeIPCSubprocess(String uniqueModuleName, Process process) {
+      this.uniqueModuleName = uniqueModuleName;
+      this.requests = new BufferedOutputStream(process.getOutputStream());
+      this.responses = new BufferedInputStream(process.getInputStream());
+    }
+
+    // Callers must ensure that only a single request is in flight at a time for any given subprocess.
+    IPCMessages.MonomorphizationResponse sendMonomorphizationRequest(MonomorphizationRequest req) throws IOException {
+      req.writeDelimitedTo(this.requests);
+      this.requests.flush();
+      IPCMessages.MonomorphizationResponse res = IPCMessages.MonomorphizationResponse.parseDelimitedFrom(this.responses);
+      if (res == null) {
+        throw new RuntimeException(
+            "Internal Compiler Error! Dep module monomorphization subprocess for module " + this.uniqueModuleName +
+            " exited before responding to MonomorphizationRequest:\n" + req);
+      }
+      return res;
+    }
+
+    void close() {
+      try {
+        this.requests.close();
+      } catch (IOException ignored) {
+        // The subprocess is already gone, nothing left to signal.
+      }
+    }
+  }
 }
@@ -34,13 +34,20 @@ public class MonomorphizationRequestProcessing {
   public static String handleMonomorphizationRequest(String base64EncodedMonomorphizationRequest) {
     MonomorphizationRequest monomorphizationRequest;
     try {
-      try {
-        monomorphizationRequest = MonomorphizationRequest.parseFrom(
-            BaseEncoding.base64Url().decode(base64EncodedMonomorphizationRequest));
-      } catch (InvalidProtocolBufferException e) {
-        throw new RuntimeException("Internal Compiler Error! Failed to parse MonomorphizationRequest!", e);
-      }
+      monomorphizationRequest = MonomorphizationRequest.parseFrom(
+          BaseEncoding.base64Url().decode(base64EncodedMonomorphizationRequest));
+    } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+      return BaseEncoding.base64Url().encode(
+          getErrorMonomorphizationResponse(
+              new RuntimeException("Internal Compiler Error! Failed to parse MonomorphizationRequest!", e))
+              .toByteArray());
+    }
+    return BaseEncoding.base64Url().encode(handleMonomorphizationRequest(monomorphizationRequest).toByteArray());
+  }
 
+  public static IPCMessages.MonomorphizationResponse handleMonomorphizationRequest(
+      MonomorphizationRequest monomorphizationRequest) {
+    try {
       // First things first, this monomorphization may need its GenericFunctionDefinition type checked as setup in case
       // this is the first monomorphization request coming in for this particular procedure.
       if (!alreadyTypeCheckedGenericFunctionDefinitionStmts.contains(monomorphizationRequest.getProcedureName())) {
@@ -50,39 +57,41 @@ public class MonomorphizationRequestProcessing {
         alreadyTypeCheckedGenericFunctionDefinitionStmts.add(monomorphizationRequest.getProcedureName());
       }
 
-      return BaseEncoding.base64Url().encode(
-          IPCMessages.MonomorphizationResponse.newBuilder()
-              .addAllLocalModuleMonomorphizations(
-                  getLocalMonomorphizationsForMonomorphizationRequest(monomorphizationRequest))
-              .addAllTransitiveDepModuleMonomorphizationRequests(
-                  InternalStaticStateUtil.JavaSourceCompilerBackend_depModuleGenericMonomoprhizationsNeeded.entries()
-                      .stream()
-                      .map(e ->
-                               IPCMessages.MonomorphizationResponse.TransitiveDepModuleMonomorphizationRequest
-                                   .newBuilder()
-                                   .setUniqueModuleName(
-                                       ScopedHeap.getDefiningModuleDisambiguator(Optional.of(e.getKey())))
-                                   .setMonomorphizationRequest(e.getValue())
-                                   .build())
-                      .collect(Collectors.toList()))
-              .build().toByteArray());
+      return IPCMessages.MonomorphizationResponse.newBuilder()
+          .addAllLocalModuleMonomorphizations(
+              getLocalMonomorphizationsForMonomorphizationRequest(monomorphizationRequest))
+          .addAllTransitiveDepModuleMonomorphizationRequests(
+              InternalStaticStateUtil.JavaSourceCompilerBackend_depModuleGenericMonomoprhizationsNeeded.entries()
+                  .stream()
+                  .map(e ->
+                           IPCMessages.MonomorphizationResponse.TransitiveDepModuleMonomorphizationRequest
+                               .newBuilder()
+                               .setUniqueModuleName(
+                                   ScopedHeap.getDefiningModuleDisambiguator(Optional.of(e.getKey())))
+                               .setMonomorphizationRequest(e.getValue())
+                               .build())
+                  .collect(Collectors.toList()))
+          .build();
     } catch (Exception e) {
-      // If there's any sort of exception during the actual compilation logic itself, I really need some way to diagnose
-      // that in the main coordinator process as debugging the dep module processes is a painful process. So, instead,
-      // I'll format an error message here and convey the problem to the coordinator via a proper error field in the
-      // MonomorphizationResponse, leaving everything else unset. The coordinator should then check for errors before
-      // proceeding.
-      return BaseEncoding.base64Url().encode(
-          IPCMessages.MonomorphizationResponse.newBuilder()
-              .setOptionalErrorMessage(
-                  "Internal Compiler Error! Exception thrown during MonomorphizationRequest handling: "
-                  + e.getMessage() + "\n\t" + Joiner.on("\n\t").join(e.getStackTrace())
-                  + "\n\tCaused by:\n\t" + Optional.ofNullable(e.getCause())
-                      .map(cause -> Joiner.on("\n\t").join(cause.getStackTrace())).orElse("N/a"))
-              .build().toByteArray());
+      return getErrorMonomorphizationResponse(e);
     }
   }
 
+  // If there's any sort of exception during the actual compilation logic itself, I really need some way to diagnose
+  // that in the main coordinator process as debugging the dep module processes is a painful process. So, instead,
+  // I'll format an error message here and convey the problem to the coordinator via a proper error field in the
+  // MonomorphizationResponse, leaving everything else unset. The coordinator should then check for errors before
+  // proceeding.
+  private static IPCMessages.MonomorphizationResponse getErrorMonomorphizationResponse(Exception e) {
+    return IPCMessages.MonomorphizationResponse.newBuilder()
+        .setOptionalErrorMessage(
+            "Internal Compiler Error! Exception thrown during MonomorphizationRequest handling: "
+            + e.getMessage() + "\n\t" + Joiner.on("\n\t").join(e.getStackTrace())
+            + "\n\tCaused by:\n\t" + Optional.ofNullable(e.getCause())
+                .map(cause -> Joiner.on("\n\t").join(cause.getStackTrace())).orElse("N/a"))
+        .build();
+  }
+
   @SuppressWarnings("unchecked")
   public static ImmutableList<IPCMessages.MonomorphizationResponse.Monomorphization>
   getLocalMonomorphizationsForMonomorphizationRequest(
@@ -3,6 +3,7 @@ package com.claro.intermediate_representation;
 import com.claro.compiler_backends.interpreted.ScopedHeap;
 import com.claro.compiler_backends.java_source.monomorphization.MonomorphizationCoordinator;
 import com.claro.compiler_backends.java_source.monomorphization.proto.ipc_protos.IPCMessages;
+import com.claro.intermediate_representation.expressions.CopyExpr;
 import com.claro.intermediate_representation.expressions.Expr;
 import com.claro.intermediate_representation.expressions.procedures.functions.StructuralConcreteGenericTypeValidationUtil;
 import com.claro.intermediate_representation.statements.*;
@@ -35,6 +36,10 @@ public class ProgramNode {
       transitiveExportedFlags;
   public static ImmutableMap<String, String> resourcesByName;
 
+  // Generated Java source is measured rather than bytecode, but it's a conservative proxy in practice since each
+  // bytecode instruction generally comes from several chars of source.
+  private static final int MAX_MAIN_METHOD_CHUNK_JAVA_SOURCE_LENGTH = 8000;
+
   // By default, don't support any StdLib.
   private Function<ScopedHeap, ImmutableList<Stmt>> setupStdLibFn = s -> ImmutableList.of();
 
@@ -247,8 +252,10 @@ public class ProgramNode {
       }
       // Now do codegen on this current program, implied to be the "main" src file. Do NOT throw away the javaSourceBody
       // on this main src file as this is the actual "program" that the programmer wants to be able to run.
-      programJavaSource =
-          programJavaSource.createMerged(stmtListNode.generateJavaSourceOutput(scopedHeap, this.generatedClassName));
+      programJavaSource = programJavaSource.createMerged(
+          ProgramNode.moduleApiDef.isPresent()
+          ? stmtListNode.generateJavaSourceOutput(scopedHeap, this.generatedClassName)
+          : generateMainStmtsJavaSource(scopedHeap));
       // Just before committing to this codegen result, in the case that this is actually a Module definition being
       // compiled, the "main" file is actually a dummy file, so drop its main stmts.
       if (ProgramNode.moduleApiDef.isPresent()) {
@@ -265,24 +272,32 @@ public class ProgramNode {
       //  sophisticated approach that avoids code duplication while maintaining build incrementality will be necessary
       //  to get Claro to a more practically useful place.
       if (!InternalStaticStateUtil.JavaSourceCompilerBackend_depModuleGenericMonomoprhizationsNeeded.isEmpty()) {
-        // Sequentially trigger all dep module monomorphizations. Register all of the monomorphizations first and then
-        // collect them afterwards. It's necessary to do it this way since each monomorphization request may actually
-        // trigger an unknown chain of other monomorphization requests even from transitive dep modules, so a single
+        // Trigger all dep module monomorphizations. Register all of the monomorphizations first and then collect them
+        // afterwards. It's necessary to do it this way since each monomorphization request may actually trigger an
+        // unknown chain of other monomorphization requests even from transitive dep modules, so a single
         // monomorphization request doesn't actually correspond directly to something I can immediately append to codegen.
+        // Note that these will generally have already been triggered during type checking, so this is just a cheap
+        // lookup in the coordinator's work registry.
         for (Map.Entry<String, IPCMessages.MonomorphizationRequest> depModuleMonomorphization :
             InternalStaticStateUtil.JavaSourceCompilerBackend_depModuleGenericMonomoprhizationsNeeded.entries()) {
           // Under the hood this call is abstracting away a massive amount of multiprocessing complexity.
-          MonomorphizationCoordinator.getDepModuleMonomorphization(
+          MonomorphizationCoordinator.triggerDepModuleMonomorphization(
               ScopedHeap.getDefiningModuleDisambiguator(Optional.of(depModuleMonomorphization.getKey())),
               depModuleMonomorphization.getValue()
           );
         }
+        MonomorphizationCoordinator.awaitAllDepModuleMonomorphizations();
         res.append("\n// Dep Module Monomorphizations Generated Below:\n");
-        for (String depModule : MonomorphizationCoordinator.monomorphizationsByModuleAndRequestCache.rowKeySet()) {
+        // Monomorphizations land in the cache in whatever order the concurrent monomorphizations happen to finish, so
+        // they're sorted by dep module and generated procedure name to keep codegen reproducible from build to build, as
+        // Bazel's remote caching depends on.
+        ImmutableList<String> sortedDepModules =
+            ImmutableList.sortedCopyOf(MonomorphizationCoordinator.monomorphizationsByModuleAndRequestCache.rowKeySet());
+        for (String depModule : sortedDepModules) {
+          TreeMap<String, String> monomorphizationCodegenByGenProcName = new TreeMap<>();
           for (Map.Entry<IPCMessages.MonomorphizationRequest, String> entry
               : MonomorphizationCoordinator.monomorphizationsByModuleAndRequestCache.row(depModule).entrySet()) {
             IPCMessages.MonomorphizationRequest monomorphizationRequest = entry.getKey();
-            String monomorphizationCodegen = entry.getValue();
             String genProcName =
                 String.format(
                     "%s__%s",
@@ -295,13 +310,16 @@ public class ProgramNode {
                             monomorphizationRequest.getProcedureName()
                         ))
                 );
+            monomorphizationCodegenByGenProcName.put(genProcName, entry.getValue());
+          }
+          for (Map.Entry<String, String> entry : monomorphizationCodegenByGenProcName.entrySet()) {
             res.append("/*MONOMORPHIZATION: ").append(depModule).append("*/\n")
                 .append("final class $MONO$")
                 .append(Hashing.sha256().hashUnencodedChars(depModule))
                 .append('$')
-                .append(genProcName)
+                .append(entry.getKey())
                 .append(" {\n");
-            res.append(monomorphizationCodegen).append("\n");
+            res.append(entry.getValue()).append("\n");
             res.append("\n}\n");
           }
         }
@@ -811,6 +829,67 @@ public class ProgramNode {
   // TODO(steving) Take a higher order structure than just a list for the body, allow the java generation steps to
   // TODO(steving) specify code gen for different parts of the gen'd java file. This is just necessary for hacking
   // TODO(steving) java's nuances as our underlying VM.
+  // Codegen for the top-level stmts of the "main" src file, which will make up the body of the program's main method.
+  // HotSpot won't JIT compile any method over 8000 bytes of bytecode (see -XX:-DontCompileHugeMethods), and javac won't
+  // compile one over 64KB at all, so large programs have their top-level stmts spread across as many separate methods
+  // as necessary to keep each of them reasonably sized, with main() simply calling each in turn.
+  private Node.GeneratedJavaSource generateMainStmtsJavaSource(ScopedHeap scopedHeap) {
+    List<StringBuilder> stmtJavaSourceBodies = new ArrayList<>();
+    List<Optional<DeclarationStmt>> stmtTopLevelDeclarations = new ArrayList<>();
+    StringBuilder staticDefinitions = new StringBuilder();
+    StringBuilder staticPreambleStmts = new StringBuilder();
+    int totalJavaSourceBodyLength = 0;
+    // Not recursing over the StmtListNode for the same reason that StmtListNode's own codegen doesn't.
+    for (StmtListNode curr = this.stmtListNode; curr != null; curr = curr.tail) {
+      Stmt currStmt = (Stmt) curr.getChildren().get(0);
+      Node.GeneratedJavaSource currStmtJavaSource =
+          currStmt.generateJavaSourceOutput(scopedHeap, this.generatedClassName);
+      currStmtJavaSource.optionalStaticDefinitions().ifPresent(staticDefinitions::append);
+      currStmtJavaSource.optionalStaticPreambleStmts().ifPresent(staticPreambleStmts::append);
+      stmtJavaSourceBodies.add(currStmtJavaSource.javaSourceBody());
+      totalJavaSourceBodyLength += currStmtJavaSource.javaSourceBody().length();
+
+      if (currStmt instanceof PipeChainStmt) {
+        currStmt = ((PipeChainStmt) currStmt).getSinkStmt();
+      }
+      stmtTopLevelDeclarations.add(
+          currStmt instanceof DeclarationStmt ? Optional.of((DeclarationStmt) currStmt) : Optional.empty());
+    }
+
+    StringBuilder mainJavaSourceBody = new StringBuilder();
+    if (totalJavaSourceBodyLength <= MAX_MAIN_METHOD_CHUNK_JAVA_SOURCE_LENGTH) {
+      stmtJavaSourceBodies.forEach(mainJavaSourceBody::append);
+    } else {
+      // Top-level variables can't remain locals once the stmts referencing them are spread across multiple methods, so
+      // they're hoisted to static fields of the same class as those methods.
+      StringBuilder mainChunksClass = new StringBuilder("private static final class $MainChunks {\n");
+      List<StringBuilder> chunks = new ArrayList<>();
+      StringBuilder currChunk = new StringBuilder();
+      for (int i = 0; i < stmtJavaSourceBodies.size(); i++) {
+        StringBuilder currStmtJavaSourceBody = stmtJavaSourceBodies.get(i);
+        if (stmtTopLevelDeclarations.get(i).isPresent()) {
+          mainChunksClass.append(stmtTopLevelDeclarations.get(i).get().hoistToStaticField(currStmtJavaSourceBody));
+        }
+        // Individual stmts are never split, so a single stmt that's too large on its own simply gets its own method.
+        if (currChunk.length() > 0
+            && currChunk.length() + currStmtJavaSourceBody.length() > MAX_MAIN_METHOD_CHUNK_JAVA_SOURCE_LENGTH) {
+          chunks.add(currChunk);
+          currChunk = new StringBuilder();
+        }
+        currChunk.append(currStmtJavaSourceBody);
+      }
+      chunks.add(currChunk);
+      for (int i = 0; i < chunks.size(); i++) {
+        mainChunksClass.append("static void $chunk").append(i).append("() {\n")
+            .append(chunks.get(i))
+            .append("}\n");
+        mainJavaSourceBody.append("$MainChunks.$chunk").append(i).append("();\n");
+      }
+      staticDefinitions.append(mainChunksClass.append("}\n"));
+    }
+    return Node.GeneratedJavaSource.create(mainJavaSourceBody, staticDefinitions, staticPreambleStmts);
+  }
+
   private StringBuilder genJavaSource(Node.GeneratedJavaSource stmtListJavaSource) {
     String mainMethodCodegen;
     if (ProgramNode.moduleApiDef.isPresent()) {
@@ -827,6 +906,7 @@ public class ProgramNode {
           "      // Because Claro has native support for Graph Functions which execute concurrently/asynchronously,\n" +
           "      // we also need to make sure to shutdown the executor service at the end of the run to clean up.\n" +
           "      ClaroRuntimeUtilities.$shutdownAndAwaitTermination(ClaroRuntimeUtilities.DEFAULT_EXECUTOR_SERVICE);\n" +
+          "      com.claro.runtime_utilities.$GraphFunctionExecutors.shutdownAndAwaitTermination();\n" +
           "%s" +
           "    }\n" +
           "  }\n\n",
@@ -849,6 +929,8 @@ public class ProgramNode {
         m -> m.exportedStaticValueDefs.forEach(
             s -> s.generateStaticInitialization(staticValueInitialization)
         ));
+    // Only now that all codegen for this class is done are all of the interned types that it references known.
+    StringBuilder internedTypeFieldDefinitions = Types.UserDefinedType.consumeInternedTypeFieldDefinitions();
     return new StringBuilder(
         String.format(
             "/*******AUTO-GENERATED: DO NOT MODIFY*******/\n\n" +
@@ -896,11 +978,15 @@ public class ProgramNode {
             "@SuppressWarnings(\"unchecked\")\n" +
             "public class %s {\n" +
             "\n" +
+            "// Interned user-defined types referenced throughout this class, defined before anything that uses them.\n" +
+            "%s\n" +
             "// This class will be populated with the definition of any flags that are defined to be parsed\n" +
             "// anywhere in the overall program.\n" +
             "%s\n" +
             "// Setup the atom cache so that all atoms are singleton.\n" +
             "public static final $ClaroAtom[] ATOM_CACHE = new $ClaroAtom[]{%s};\n\n" +
+            "// Specialized copy() methods shared across all call sites.\n" +
+            "%s\n" +
             "// Static preamble statements first thing.\n" +
             "%s\n\n" +
             "// Static Initializers.\n" +
@@ -912,6 +998,7 @@ public class ProgramNode {
             "}\n",
             this.packageString,
             this.generatedClassName,
+            internedTypeFieldDefinitions,
             // Only do flag parsing related codegen if we actually need to parse cli flags.
             !ProgramNode.moduleApiDef.isPresent() && !transitiveExportedFlags.isEmpty()
             ? ProgramNode.transitiveExportedFlags.values().stream()
@@ -927,6 +1014,7 @@ public class ProgramNode {
                 ))
             : "",
             AtomDefinitionStmt.codegenAtomCacheInit(),
+            CopyExpr.consumeCopyMethodDefinitions(),
             stmtListJavaSource.optionalStaticPreambleStmts().orElse(new StringBuilder()),
             staticValueInitialization,
             stmtListJavaSource.optionalStaticDefinitions().orElse(new StringBuilder()),
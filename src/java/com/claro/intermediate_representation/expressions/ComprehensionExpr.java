@@ -2,11 +2,13 @@ package com.claro.intermediate_representation.expressions;
 
 import com.claro.compiler_backends.interpreted.ScopedHeap;
 import com.claro.intermediate_representation.expressions.term.IdentifierReferenceTerm;
+import com.claro.intermediate_representation.expressions.term.PipeChainBackreferenceTerm;
 import com.claro.intermediate_representation.statements.Stmt;
 import com.claro.intermediate_representation.types.BaseType;
 import com.claro.intermediate_representation.types.ClaroTypeException;
 import com.claro.intermediate_representation.types.Type;
 import com.claro.intermediate_representation.types.Types;
+import com.claro.intermediate_representation.types.impls.builtins_impls.collections.ClaroList;
 import com.claro.internal_static_state.InternalStaticStateUtil;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -38,6 +40,7 @@ public class ComprehensionExpr extends Expr {
   private Type assertedExprType;
   private boolean isOutermostNestedComprehension;
   private boolean requiresNestedCodegenHandling = false;
+  private boolean isParallel = false;
   private HashSet<String> nestedComprehensionIdentifierReferencesForCodegen;
   private HashSet<String> outermostNestedComprehensionCollectionExprIdentifierRefs = null;
 
@@ -67,6 +70,13 @@ public class ComprehensionExpr extends Expr {
     this.uniqueId = ComprehensionExpr.TOTAL_COMPREHENSIONS_COUNT++;
   }
 
+  // Claro can't prove that a comprehension's mapping and filtering are free of side effects, so evaluating it on a
+  // parallel stream is strictly opt-in per comprehension via a `parallel` prefix, e.g. `parallel [f(x) | x in l]`.
+  public ComprehensionExpr markParallel() {
+    this.isParallel = true;
+    return this;
+  }
+
   @Override
   public void assertExpectedExprType(ScopedHeap scopedHeap, Type expectedExprType) throws ClaroTypeException {
     this.assertedExprType = expectedExprType;
@@ -238,50 +248,11 @@ public class ComprehensionExpr extends Expr {
           this.nestedComprehensionIdentifierReferencesForCodegen;
     }
 
-    GeneratedJavaSource res = this.collectionExpr.generateJavaSourceOutput(scopedHeap);
-    // Now start streaming.
-    res.javaSourceBody().append(".stream()");
-    // From now, everything will depend on the itemName var.
-    scopedHeap.putIdentifierValue(this.itemName.identifier, this.validatedItemType);
-    scopedHeap.initializeIdentifier(this.itemName.identifier);
-    // If it's possible that we have a filter clause to handle.
-    if (this.whereClauseExpr.isPresent()) {
-      res.javaSourceBody().append(".filter(")
-          .append(this.itemName.identifier)
-          .append(" -> ");
-      res = res.createMerged(this.whereClauseExpr.get().generateJavaSourceOutput(scopedHeap));
-      res.javaSourceBody().append(")");
-    }
-    // Now apply the mapping.
-    res.javaSourceBody().append(".map(")
-        .append(this.itemName.identifier)
-        .append(" -> ");
-    if (ImmutableSet.of(BaseType.LIST, BaseType.SET).contains(this.comprehensionResultBaseType)) {
-      // If we're mapping to a set or list we just accept the map expr as is.
-      res = res.createMerged(this.mappedItemExpr.generateJavaSourceOutput(scopedHeap));
-    } else {
-      // For a map, we actually need to convert their key value into a ClaroTuple to be added to the map.
-      res.javaSourceBody()
-          .append("new ClaroTuple(")
-          .append(
-              Types.TupleType.forValueTypes(
-                  ImmutableList.of(
-                      this.validatedComprehensionResultType.parameterizedTypeArgs()
-                          .get(Types.MapType.PARAMETERIZED_TYPE_KEYS),
-                      this.validatedComprehensionResultType.parameterizedTypeArgs()
-                          .get(Types.MapType.PARAMETERIZED_TYPE_VALUES)
-                  ),
-                  /*isMutable=*/false
-              ).getJavaSourceClaroType())
-          .append(", ");
-      res = res.createMerged(this.mappedItemKeyExpr.generateJavaSourceOutput(scopedHeap));
-      res.javaSourceBody().append(", ");
-      res = res.createMerged(this.mappedItemValExpr.generateJavaSourceOutput(scopedHeap));
-      res.javaSourceBody().append(')');
-    }
-    res.javaSourceBody().append(").collect(");
-    // Finally, just need to add each streamed value to the result collection!
+    GeneratedJavaSource res = generateStreamJavaSource(scopedHeap, this.isParallel);
+    // Finally, just need to add each streamed value to the result collection! Lists are handled separately below so that
+    // the stream can be drained directly into the result list.
     if (this.comprehensionResultBaseType.equals(BaseType.MAP)) {
+      res.javaSourceBody().append(".collect(");
       // In the case of collecting to a map, I actually need to unpack the Tuple and put the key/val into the map.
       res.javaSourceBody()
           .append("ImmutableMap.toImmutableMap(")
@@ -295,21 +266,57 @@ public class ComprehensionExpr extends Expr {
                       .get(Types.MapType.PARAMETERIZED_TYPE_VALUES)
                       .getJavaSourceType())
           .append(") t.getElement(1))))");
-    } else {
-      res.javaSourceBody().append("Collectors.toList()))");
+    } else if (this.comprehensionResultBaseType.equals(BaseType.SET)) {
+      res.javaSourceBody().append(".collect(Collectors.toList()))");
     }
 
-    // Now we're done with the synthetic iterm variable.
-    scopedHeap.deleteIdentifierValue(this.itemName.identifier);
-
-    // The entire streamed collection needs to be passed into the corresponding ClaroCollection class.
-    res = GeneratedJavaSource.forJavaSourceBody(
-            new StringBuilder("new Claro")
-                .append(ComprehensionExpr.baseTypeToJavaCodegenName(this.comprehensionResultBaseType))
-                .append("(")
-                .append(this.validatedComprehensionResultType.getJavaSourceClaroType())
-                .append(", "))
-        .createMerged(res);
+    if (this.comprehensionResultBaseType.equals(BaseType.LIST)
+        && ClaroList.isPrimitiveElementType((Types.ListType) this.validatedComprehensionResultType)) {
+      // Lists of primitives drain a primitive stream directly into the list's unboxed storage. Claro's codegen still
+      // models each mapped item as a boxed value, so this unboxes each element exactly once on its way into the list.
+      String primitiveName =
+          ListExpr.getPrimitiveListImplName(
+              ((Types.ListType) this.validatedComprehensionResultType).getElementType().baseType());
+      String boxedJavaType =
+          ((Types.ListType) this.validatedComprehensionResultType).getElementType().getJavaSourceType();
+      res = GeneratedJavaSource.forJavaSourceBody(
+              new StringBuilder("Claro").append(primitiveName).append("List.collectTo").append(primitiveName)
+                  .append("List(")
+                  .append(this.validatedComprehensionResultType.getJavaSourceClaroType())
+                  .append(", "))
+          .createMerged(res);
+      // There's no FloatStream, so floats are (losslessly) widened to doubles on the way through.
+      String mapToPrimitiveStreamMethod =
+          primitiveName.equals("Int") || primitiveName.equals("Long")
+          ? ".mapTo" + primitiveName + "("
+          : ".mapToDouble(";
+      res.javaSourceBody()
+          .append(mapToPrimitiveStreamMethod)
+          .append(boxedJavaType)
+          .append(".class::cast))");
+    } else if (this.comprehensionResultBaseType.equals(BaseType.LIST)) {
+      // Drain the stream straight into a ClaroList rather than collecting to an intermediate List just to copy it all
+      // over again.
+      res = GeneratedJavaSource.forJavaSourceBody(
+              new StringBuilder("ClaroList.collectToList(")
+                  .append(this.validatedComprehensionResultType.getJavaSourceClaroType())
+                  .append(", "))
+          .createMerged(res);
+      res.javaSourceBody().append(")");
+    } else {
+      // The entire streamed collection needs to be passed into the corresponding ClaroCollection's factory, so that
+      // sets and maps keyed on `int`/`long`/`string` get their open-addressing impl.
+      String baseTypeCodegenName = ComprehensionExpr.baseTypeToJavaCodegenName(this.comprehensionResultBaseType);
+      res = GeneratedJavaSource.forJavaSourceBody(
+              new StringBuilder("Claro")
+                  .append(baseTypeCodegenName)
+                  .append(".for")
+                  .append(baseTypeCodegenName)
+                  .append("Type(")
+                  .append(this.validatedComprehensionResultType.getJavaSourceClaroType())
+                  .append(", "))
+          .createMerged(res);
+    }
 
     // Before returning, in the case that there was nesting, I need to be careful to actually do all of this within a
     // `Function` where we pass in the references to potentially non-final internally referenced variables via a hack
@@ -362,6 +369,98 @@ public class ComprehensionExpr extends Expr {
     return res;
   }
 
+  // Generates a Stream over this comprehension's mapped items, without collecting them anywhere. When this comprehension
+  // is itself iterating over a list comprehension (whether directly nested, or via a single backreference to the prior
+  // stage of a pipe chain), the two are fused into one stream so that the intermediate list is never materialized. A
+  // fused stream may only be parallel if every one of the comprehensions fused into it was marked `parallel`.
+  private GeneratedJavaSource generateStreamJavaSource(ScopedHeap scopedHeap, boolean parallel) {
+    GeneratedJavaSource res;
+    Optional<ComprehensionExpr> fusedSourceComprehension = getFusableSourceComprehension();
+    if (fusedSourceComprehension.isPresent()) {
+      res = fusedSourceComprehension.get()
+          .generateStreamJavaSource(scopedHeap, parallel && fusedSourceComprehension.get().isParallel);
+    } else if (parallel && !this.validatedCollectionExprType.baseType().equals(BaseType.MAP)) {
+      // Only lists and sets are actually worth streaming in parallel, see ClaroRuntimeUtilities.
+      res = GeneratedJavaSource.forJavaSourceBody(
+              new StringBuilder("ClaroRuntimeUtilities.$parallelComprehensionStream("))
+          .createMerged(this.collectionExpr.generateJavaSourceOutput(scopedHeap));
+      res.javaSourceBody().append(")");
+    } else {
+      res = this.collectionExpr.generateJavaSourceOutput(scopedHeap);
+      res.javaSourceBody().append(".stream()");
+    }
+    // From now, everything will depend on the itemName var.
+    scopedHeap.putIdentifierValue(this.itemName.identifier, this.validatedItemType);
+    scopedHeap.initializeIdentifier(this.itemName.identifier);
+    // If it's possible that we have a filter clause to handle.
+    if (this.whereClauseExpr.isPresent()) {
+      res.javaSourceBody().append(".filter(")
+          .append(this.itemName.identifier)
+          .append(" -> ");
+      res = res.createMerged(this.whereClauseExpr.get().generateJavaSourceOutput(scopedHeap));
+      res.javaSourceBody().append(")");
+    }
+    // Now apply the mapping.
+    res.javaSourceBody().append(".");
+    if (this.comprehensionResultBaseType.equals(BaseType.LIST)) {
+      // Explicitly state the mapped type in case this stream gets fused into some outer comprehension, whose item var
+      // must have exactly the list's element type, rather than whatever narrower type Java would infer for the items.
+      res.javaSourceBody()
+          .append("<")
+          .append(((Types.ListType) this.validatedComprehensionResultType).getElementType().getJavaSourceType())
+          .append(">");
+    }
+    res.javaSourceBody().append("map(")
+        .append(this.itemName.identifier)
+        .append(" -> ");
+    if (ImmutableSet.of(BaseType.LIST, BaseType.SET).contains(this.comprehensionResultBaseType)) {
+      // If we're mapping to a set or list we just accept the map expr as is.
+      res = res.createMerged(this.mappedItemExpr.generateJavaSourceOutput(scopedHeap));
+    } else {
+      // For a map, we actually need to convert their key value into a ClaroTuple to be added to the map.
+      res.javaSourceBody()
+          .append("new ClaroTuple(")
+          .append(
+              Types.TupleType.forValueTypes(
+                  ImmutableList.of(
+                      this.validatedComprehensionResultType.parameterizedTypeArgs()
+                          .get(Types.MapType.PARAMETERIZED_TYPE_KEYS),
+                      this.validatedComprehensionResultType.parameterizedTypeArgs()
+                          .get(Types.MapType.PARAMETERIZED_TYPE_VALUES)
+                  ),
+                  /*isMutable=*/false
+              ).getJavaSourceClaroType())
+          .append(", ");
+      res = res.createMerged(this.mappedItemKeyExpr.generateJavaSourceOutput(scopedHeap));
+      res.javaSourceBody().append(", ");
+      res = res.createMerged(this.mappedItemValExpr.generateJavaSourceOutput(scopedHeap));
+      res.javaSourceBody().append(')');
+    }
+    res.javaSourceBody().append(")");
+    // Now we're done with the synthetic iterm variable.
+    scopedHeap.deleteIdentifierValue(this.itemName.identifier);
+    return res;
+  }
+
+  private Optional<ComprehensionExpr> getFusableSourceComprehension() {
+    Expr source = this.collectionExpr;
+    if (source instanceof PipeChainBackreferenceTerm) {
+      source = ((PipeChainBackreferenceTerm) source).getInlinedBackreferencedExpr().orElse(null);
+    }
+    if (!(source instanceof ComprehensionExpr)) {
+      return Optional.empty();
+    }
+    ComprehensionExpr sourceComprehension = (ComprehensionExpr) source;
+    // Only list comprehensions are safe to fuse, as iterating a set or map comprehension's result would first require
+    // deduplicating its items. Comprehensions that need their codegen wrapped in a synthetic lambda (to capture non-final
+    // variables) are left alone as they can't be spliced into the middle of some other stream.
+    if (!sourceComprehension.comprehensionResultBaseType.equals(BaseType.LIST)
+        || (sourceComprehension.isOutermostNestedComprehension && sourceComprehension.requiresNestedCodegenHandling)) {
+      return Optional.empty();
+    }
+    return Optional.of(sourceComprehension);
+  }
+
   private static String baseTypeToJavaCodegenName(BaseType baseType) {
     switch (baseType) {
       case LIST:
@@ -382,4 +481,8 @@ public class ComprehensionExpr extends Expr {
     // TODO(steving) Eventually need to impl comprehensions when I come back to adding support for the interpreted backend.
     throw new RuntimeException("Internal Compiler Error! Claro doesn't support comprehensions in the interpreted backend just yet!");
   }
+
+  public static void resetStaticState() {
+    ComprehensionExpr.TOTAL_COMPREHENSIONS_COUNT = 0;
+  }
 }
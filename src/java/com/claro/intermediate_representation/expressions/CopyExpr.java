@@ -3,11 +3,11 @@ package com.claro.intermediate_representation.expressions;
 import com.claro.compiler_backends.interpreted.ScopedHeap;
 import com.claro.intermediate_representation.expressions.procedures.functions.StructuralConcreteGenericTypeValidationUtil;
 import com.claro.intermediate_representation.types.*;
+import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -15,6 +15,12 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 public class CopyExpr extends Expr {
+  // Every distinct copy() gets a single statically-typed copy method that's shared across all call sites.
+  private static final HashBasedTable<Type, Type, String> copyMethodNamesByCopiedAndCoercedType =
+      HashBasedTable.create();
+  private static StringBuilder copyMethodDefinitions = new StringBuilder();
+  private static int copyMethodCount = 0;
+
   private final Expr copiedExpr;
   private Type validatedCopiedExprType;
   private Optional<Type> assertedCopyResultType = Optional.empty();
@@ -59,472 +65,385 @@ public class CopyExpr extends Expr {
   @Override
   public GeneratedJavaSource generateJavaSourceOutput(ScopedHeap scopedHeap) {
     GeneratedJavaSource copiedExprJavaSource = this.copiedExpr.generateJavaSourceOutput(scopedHeap);
-    return getCopyJavaSource(copiedExprJavaSource, this.validatedCopiedExprType, this.assertedCopyResultType.orElse(this.validatedCopiedExprType), /*nestingLevel=*/0).orElse(copiedExprJavaSource);
+    return getCopyJavaSource(copiedExprJavaSource, this.validatedCopiedExprType, this.assertedCopyResultType.orElse(this.validatedCopiedExprType)).orElse(copiedExprJavaSource);
+  }
+
+  public static Optional<GeneratedJavaSource> getCopyJavaSource(GeneratedJavaSource copiedExprJavaSource, Type copiedExprType, Type coercedType) {
+    return getCopyMethodName(copiedExprType, coercedType).map(
+        copyMethodName -> {
+          GeneratedJavaSource res =
+              GeneratedJavaSource.forJavaSourceBody(new StringBuilder(copyMethodName).append("("))
+                  .createMerged(copiedExprJavaSource);
+          res.javaSourceBody().append(")");
+          return res;
+        });
+  }
+
+  // Must be called once all codegen for the current compilation unit is complete (or, in a dep module monomorphization
+  // subprocess, once codegen for the current monomorphization is complete) to get the definitions of all the copy
+  // methods referenced by that codegen. These definitions must be placed at the top of the class that they're referenced
+  // from, so that they're initialized before any static initialization that might want to copy() something.
+  public static StringBuilder consumeCopyMethodDefinitions() {
+    StringBuilder res = copyMethodDefinitions;
+    copyMethodNamesByCopiedAndCoercedType.clear();
+    copyMethodDefinitions = new StringBuilder();
+    copyMethodCount = 0;
+    return res;
+  }
+
+  // Returns the name of the statically-typed method that copies values of the given type (possibly under mutability
+  // coercion), generating it, and any others that it depends on, the first time that it's needed. Returns
+  // Optional.empty() if values of this type are deeply-immutable and so can simply be shared rather than copied.
+  private static Optional<String> getCopyMethodName(Type copiedExprType, Type coercedType) {
+    if (copyMethodNamesByCopiedAndCoercedType.contains(copiedExprType, coercedType)) {
+      return Optional.of(copyMethodNamesByCopiedAndCoercedType.get(copiedExprType, coercedType));
+    }
+    // Claim a unique name and record it up front, before generating any of the copy methods that this one depends on.
+    // This way, when copying a recursive type, the nested reference back to this same type resolves to this very method
+    // which then recurses at runtime, rather than the compiler recursing forever at compile time. This means that
+    // copying a recursive type will copy it even if it happens to be deeply-immutable, which is harmless.
+    String copyMethodName = "$copy" + copyMethodCount++;
+    copyMethodNamesByCopiedAndCoercedType.put(copiedExprType, coercedType, copyMethodName);
+    if (!generateCopyMethod(copiedExprType, coercedType, copyMethodName)) {
+      copyMethodNamesByCopiedAndCoercedType.remove(copiedExprType, coercedType);
+      return Optional.empty();
+    }
+    return Optional.of(copyMethodName);
   }
 
-  public static Optional<GeneratedJavaSource> getCopyJavaSource(GeneratedJavaSource copiedExprJavaSource, Type copiedExprType, Type coercedType, long nestingLevel) {
-    //!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!
-    // !!!WARNING!!!!
-    // IF YOU UPDATE THIS CONDITION, YOU MUST ALSO UPDATE THE CONDITION CODEGEN'D FOR ONEOF HANDLING BELOW!
-    // !!!WARNING!!!!
-    //!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!
-    if (copiedExprType instanceof SupportsMutableVariant ||
-        copiedExprType.baseType().equals(BaseType.USER_DEFINED_TYPE)) {
-      // Here I have some structured type that actually has internal values to be copied. First let's find out if those
-      // values are deeply-immutable (returns Optional.empty()) or if we get back some codegen that'll copy the nested
-      // elements inside this collection.
-      switch (copiedExprType.baseType()) {
-        case LIST:
-          Optional<GeneratedJavaSource> optionalElementCopyCodegen =
-              getCopyJavaSource(
-                  GeneratedJavaSource.forJavaSourceBody(
-                      new StringBuilder("$elem")
-                          .append(nestingLevel + 1)),
-                  ((Types.ListType) copiedExprType).getElementType(),
-                  ((Types.ListType) coercedType).getElementType(),
-                  nestingLevel + 1
+  // Appends the definition of the named copy method to copyMethodDefinitions, returning false instead if it turns out
+  // that values of this type don't need to be copied at all.
+  private static boolean generateCopyMethod(Type copiedExprType, Type coercedType, String copyMethodName) {
+    StringBuilder copyMethodBody = new StringBuilder();
+    // Each copy method may need some Claro types at runtime, which are only constructed once, up front.
+    StringBuilder claroTypeFields = new StringBuilder();
+    switch (copiedExprType.baseType()) {
+      case LIST:
+      case SET:
+        String collectionKind = copiedExprType.baseType().equals(BaseType.LIST) ? "List" : "Set";
+        Type elemType =
+            copiedExprType.baseType().equals(BaseType.LIST)
+            ? ((Types.ListType) copiedExprType).getElementType()
+            : copiedExprType.parameterizedTypeArgs().get(Types.SetType.PARAMETERIZED_TYPE);
+        Optional<String> elemCopyMethodName =
+            getCopyMethodName(
+                elemType,
+                coercedType.baseType().equals(BaseType.LIST)
+                ? ((Types.ListType) coercedType).getElementType()
+                : coercedType.parameterizedTypeArgs().get(Types.SetType.PARAMETERIZED_TYPE)
+            );
+        if (!elemCopyMethodName.isPresent()
+            && !((SupportsMutableVariant<?>) copiedExprType).isMutable()
+            && !((SupportsMutableVariant<?>) coercedType).isMutable()) {
+          return false;
+        }
+        appendClaroTypeField(
+            claroTypeFields, "Types." + collectionKind + "Type", copyMethodName + "$type", coercedType.getJavaSourceClaroType());
+        if (elemCopyMethodName.isPresent()) {
+          // Here we've found some elements that aren't deeply-immutable, so we need to copy them.
+          copyMethodBody
+              .append("\t").append(coercedType.getJavaSourceType()).append(" $res = Claro").append(collectionKind)
+              .append(".for").append(collectionKind).append("Type(").append(copyMethodName).append("$type, $v.size());\n")
+              .append("\tfor (").append(elemType.getJavaSourceType()).append(" $elem : $v) {\n")
+              .append("\t\t$res.add(").append(elemCopyMethodName.get()).append("($elem));\n")
+              .append("\t}\n")
+              .append("\treturn $res;\n");
+        } else {
+          // The elements themselves can be shared, this is only a shallow copy for the sake of mutability.
+          copyMethodBody
+              .append("\treturn Claro").append(collectionKind).append(".for").append(collectionKind).append("Type(")
+              .append(copyMethodName).append("$type, $v);\n");
+        }
+        break;
+      case MAP:
+        Type keyType = copiedExprType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_KEYS);
+        Type valueType = copiedExprType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_VALUES);
+        Optional<String> keyCopyMethodName =
+            getCopyMethodName(keyType, coercedType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_KEYS));
+        Optional<String> valueCopyMethodName =
+            getCopyMethodName(valueType, coercedType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_VALUES));
+        if (!(keyCopyMethodName.isPresent() || valueCopyMethodName.isPresent())
+            && !((Types.MapType) copiedExprType).isMutable()
+            && !((Types.MapType) coercedType).isMutable()) {
+          return false;
+        }
+        appendClaroTypeField(
+            claroTypeFields, "Types.MapType", copyMethodName + "$type", coercedType.getJavaSourceClaroType());
+        if (keyCopyMethodName.isPresent() || valueCopyMethodName.isPresent()) {
+          // Here we've found some entries that aren't deeply-immutable, so we need to copy them.
+          copyMethodBody
+              .append("\t").append(coercedType.getJavaSourceType()).append(" $res = ClaroMap.forMapType(")
+              .append(copyMethodName).append("$type, $v.size());\n")
+              .append("\tfor (java.util.Map.Entry<").append(keyType.getJavaSourceType()).append(", ")
+              .append(valueType.getJavaSourceType()).append("> $entry : $v.entrySet()) {\n")
+              .append("\t\t$res.set(")
+              .append(keyCopyMethodName.map(m -> m + "($entry.getKey())").orElse("$entry.getKey()"))
+              .append(", ")
+              .append(valueCopyMethodName.map(m -> m + "($entry.getValue())").orElse("$entry.getValue()"))
+              .append(");\n")
+              .append("\t}\n")
+              .append("\treturn $res;\n");
+        } else {
+          // The entries themselves can be shared, this is only a shallow copy for the sake of mutability.
+          copyMethodBody
+              .append("\treturn ClaroMap.forMapType(").append(copyMethodName).append("$type, $v);\n");
+        }
+        break;
+      case TUPLE:
+      case STRUCT:
+        boolean isTuple = copiedExprType.baseType().equals(BaseType.TUPLE);
+        int elementCount =
+            isTuple
+            ? copiedExprType.parameterizedTypeArgs().size()
+            : ((Types.StructType) copiedExprType).getFieldTypes().size();
+        ImmutableList.Builder<Optional<String>> elementCopyMethodNamesBuilder = ImmutableList.builder();
+        for (int i = 0; i < elementCount; i++) {
+          elementCopyMethodNamesBuilder.add(
+              isTuple
+              ? getCopyMethodName(
+                  copiedExprType.parameterizedTypeArgs().get(String.format("$%s", i)),
+                  coercedType.parameterizedTypeArgs().get(String.format("$%s", i))
+              )
+              : getCopyMethodName(
+                  ((Types.StructType) copiedExprType).getFieldTypes().get(i),
+                  ((Types.StructType) coercedType).getFieldTypes().get(i)
+              ));
+        }
+        ImmutableList<Optional<String>> elementCopyMethodNames = elementCopyMethodNamesBuilder.build();
+        if (elementCopyMethodNames.stream().noneMatch(Optional::isPresent)
+            && !((SupportsMutableVariant<?>) copiedExprType).isMutable()
+            && !((SupportsMutableVariant<?>) coercedType).isMutable()) {
+          return false;
+        }
+        appendClaroTypeField(
+            claroTypeFields,
+            isTuple ? "Types.TupleType" : "Types.StructType",
+            copyMethodName + "$type",
+            coercedType.getJavaSourceClaroType()
+        );
+        copyMethodBody.append("\treturn new Claro").append(isTuple ? "Tuple" : "Struct").append("(")
+            .append(copyMethodName).append("$type, ");
+        if (!isTuple && elementCopyMethodNames.stream().noneMatch(Optional::isPresent)) {
+          // The fields themselves can be shared, this is only a shallow copy for the sake of mutability.
+          copyMethodBody.append("$v.values.clone()");
+        } else {
+          copyMethodBody.append("new Object[] {");
+          for (int i = 0; i < elementCount; i++) {
+            String elementJavaSource;
+            if (isTuple) {
+              elementJavaSource = String.format("$v.getElement(%s)", i);
+            } else {
+              elementJavaSource = String.format(
+                  "((%s) $v.values[%s])",
+                  ((Types.StructType) copiedExprType).getFieldTypes().get(i).getJavaSourceType(),
+                  i
               );
-          GeneratedJavaSource res = GeneratedJavaSource.forJavaSourceBody(
-              new StringBuilder("new ClaroList(")
-                  .append(coercedType.getJavaSourceClaroType())
-                  .append(", ")
-          );
-          if (optionalElementCopyCodegen.isPresent()) {
-            // Here we've found some elements that aren't deeply-immutable, so we need to copy them.
-            copiedExprJavaSource.javaSourceBody()
-                .append(".stream().map($elem").append(nestingLevel + 1).append(" -> ")
-                .append(optionalElementCopyCodegen.get().javaSourceBody().toString())
-                .append(").collect(Collectors.toList()))");
-          } else {
-            if (!((Types.ListType) copiedExprType).isMutable() && !((Types.ListType) coercedType).isMutable()) {
-              return Optional.empty();
             }
-            copiedExprJavaSource.javaSourceBody()
-                .append(")");
+            copyMethodBody.append(i > 0 ? ", " : "")
+                .append(elementCopyMethodNames.get(i).map(m -> m + "(" + elementJavaSource + ")").orElse(elementJavaSource));
           }
-          res = res.createMerged(copiedExprJavaSource);
-          return Optional.of(res);
-        case SET:
-          optionalElementCopyCodegen =
-              getCopyJavaSource(
-                  GeneratedJavaSource.forJavaSourceBody(
-                      new StringBuilder("$elem").append(nestingLevel + 1)),
-                  copiedExprType.parameterizedTypeArgs().get(Types.SetType.PARAMETERIZED_TYPE),
-                  coercedType.parameterizedTypeArgs().get(Types.SetType.PARAMETERIZED_TYPE),
-                  nestingLevel + 1
-              );
-          res = GeneratedJavaSource.forJavaSourceBody(
-              new StringBuilder("new ClaroSet(")
-                  .append(coercedType.getJavaSourceClaroType())
-                  .append(", ")
-          );
-          if (optionalElementCopyCodegen.isPresent()) {
-            // Here we've found some elements that aren't deeply-immutable, so we need to copy them.
-            copiedExprJavaSource.javaSourceBody()
-                .append(".stream().map($elem").append(nestingLevel + 1).append(" -> ")
-                .append(optionalElementCopyCodegen.get().javaSourceBody().toString())
-                .append(").collect(Collectors.toList()))");
+          copyMethodBody.append("}");
+        }
+        copyMethodBody.append(");\n");
+        break;
+      case USER_DEFINED_TYPE:
+        Types.UserDefinedType copiedExprUserDefinedType = (Types.UserDefinedType) copiedExprType;
+        // User defined types are represented in a somewhat complex way when parameterized. So in that case, set the
+        // GenericTypeParam's type mapping before codegen here to refer to this UserDefinedType's concrete types.
+        Optional<Map<Type, Type>> originalGenTypeCodegenMappings
+            = Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen;
+        try {
+          Type wrappedType;
+          Type wrappedCoercedType;
+          if (!copiedExprUserDefinedType.parameterizedTypeArgs().isEmpty()) {
+            ImmutableList<String> typeParamNames =
+                Types.UserDefinedType.$typeParamNames.get(
+                    String.format(
+                        "%s$%s",
+                        copiedExprUserDefinedType.getTypeName(),
+                        copiedExprUserDefinedType.getDefiningModuleDisambiguator()
+                    ));
+            Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen =
+                Optional.of(
+                    IntStream.range(0, copiedExprUserDefinedType.parameterizedTypeArgs().size()).boxed()
+                        .collect(ImmutableMap.toImmutableMap(
+                            i -> Types.$GenericTypeParam.forTypeParamName(typeParamNames.get(i)),
+                            i -> copiedExprUserDefinedType.parameterizedTypeArgs().get(i.toString())
+                        )));
+            wrappedType =
+                StructuralConcreteGenericTypeValidationUtil.validateArgExprsAndExtractConcreteGenericTypeParams(
+                    Maps.newHashMap(Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen.get()),
+                    Types.UserDefinedType.$resolvedWrappedTypes.get(
+                        String.format("%s$%s", copiedExprUserDefinedType.getTypeName(), copiedExprUserDefinedType.getDefiningModuleDisambiguator())),
+                    Types.UserDefinedType.$resolvedWrappedTypes.get(
+                        String.format("%s$%s", copiedExprUserDefinedType.getTypeName(), copiedExprUserDefinedType.getDefiningModuleDisambiguator())),
+                    true
+                );
+            Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen =
+                Optional.of(
+                    IntStream.range(0, coercedType.parameterizedTypeArgs().size()).boxed()
+                        .collect(ImmutableMap.toImmutableMap(
+                            i -> Types.$GenericTypeParam.forTypeParamName(typeParamNames.get(i)),
+                            i -> coercedType.parameterizedTypeArgs().get(i.toString())
+                        )));
+            wrappedCoercedType =
+                StructuralConcreteGenericTypeValidationUtil.validateArgExprsAndExtractConcreteGenericTypeParams(
+                    Maps.newHashMap(Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen.get()),
+                    Types.UserDefinedType.$resolvedWrappedTypes.get(
+                        String.format(
+                            "%s$%s",
+                            ((Types.UserDefinedType) coercedType).getTypeName(),
+                            ((Types.UserDefinedType) coercedType).getDefiningModuleDisambiguator()
+                        )),
+                    Types.UserDefinedType.$resolvedWrappedTypes.get(
+                        String.format(
+                            "%s$%s",
+                            ((Types.UserDefinedType) coercedType).getTypeName(),
+                            ((Types.UserDefinedType) coercedType).getDefiningModuleDisambiguator()
+                        )),
+                    true
+                );
           } else {
-            if (!((Types.SetType) copiedExprType).isMutable() && !((Types.SetType) coercedType).isMutable()) {
-              return Optional.empty();
-            }
-            copiedExprJavaSource.javaSourceBody()
-                .append(")");
+            wrappedType = Types.UserDefinedType.$resolvedWrappedTypes.get(
+                String.format("%s$%s", copiedExprUserDefinedType.getTypeName(), copiedExprUserDefinedType.getDefiningModuleDisambiguator()));
+            wrappedCoercedType =
+                Types.UserDefinedType.$resolvedWrappedTypes.get(
+                    String.format(
+                        "%s$%s",
+                        ((Types.UserDefinedType) coercedType).getTypeName(),
+                        ((Types.UserDefinedType) coercedType).getDefiningModuleDisambiguator()
+                    ));
           }
-          res = res.createMerged(copiedExprJavaSource);
-          return Optional.of(res);
-        case MAP:
-          StringBuilder tupToKey =
-              new StringBuilder("((")
-                  .append(
-                      copiedExprType.parameterizedTypeArgs()
-                          .get(Types.MapType.PARAMETERIZED_TYPE_KEYS)
-                          .getJavaSourceType())
-                  .append(") $t").append(nestingLevel + 1).append(".getElement(0))");
-          Optional<GeneratedJavaSource> optionalKeyCopyCodegen =
-              getCopyJavaSource(
-                  GeneratedJavaSource.forJavaSourceBody(tupToKey),
-                  copiedExprType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_KEYS),
-                  coercedType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_KEYS),
-                  nestingLevel + 1
-              );
-          StringBuilder tupToVal =
-              new StringBuilder("((")
-                  .append(
-                      copiedExprType.parameterizedTypeArgs()
-                          .get(Types.MapType.PARAMETERIZED_TYPE_VALUES)
-                          .getJavaSourceType())
-                  .append(") $t").append(nestingLevel + 1).append(".getElement(1))");
-          Optional<GeneratedJavaSource> optionalValCopyCodegen =
-              getCopyJavaSource(
-                  GeneratedJavaSource.forJavaSourceBody(tupToVal),
-                  copiedExprType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_VALUES),
-                  coercedType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_VALUES),
-                  nestingLevel + 1
-              );
-          res = GeneratedJavaSource.forJavaSourceBody(
-              new StringBuilder("new ClaroMap(")
-                  .append(coercedType.getJavaSourceClaroType())
-                  .append(", ")
-          );
-          if (!(optionalKeyCopyCodegen.isPresent() || optionalValCopyCodegen.isPresent())) {
-            if (!((Types.MapType) copiedExprType).isMutable() && !((Types.MapType) coercedType).isMutable()) {
-              return Optional.empty();
-            }
-            copiedExprJavaSource.javaSourceBody()
-                .append(")");
-          } else {
-            // Here we've found some elements that aren't deeply-immutable, so we need to copy them.
-            copiedExprJavaSource.javaSourceBody()
-                .append(".stream().collect(ImmutableMap.toImmutableMap($t").append(nestingLevel + 1).append(" -> ")
-                .append(optionalKeyCopyCodegen
-                            .orElse(GeneratedJavaSource.forJavaSourceBody(tupToKey))
-                            .javaSourceBody()
-                            .toString())
-                .append(", $t").append(nestingLevel + 1).append(" -> ")
-                .append(optionalValCopyCodegen
-                            .orElse(GeneratedJavaSource.forJavaSourceBody(tupToVal))
-                            .javaSourceBody()
-                            .toString())
-                .append(")))");
+          Optional<String> wrappedValueCopyMethodName = getCopyMethodName(wrappedType, wrappedCoercedType);
+          // It seems a bit odd, but in some way all User Defined Types are inherently immutable. The only way to
+          // "change" one is to unwrap it and then wrap it again, but that rewrap creates a new $UserDefinedType
+          // instance.
+          if (!wrappedValueCopyMethodName.isPresent()) {
+            return false;
           }
-          res = res.createMerged(copiedExprJavaSource);
-          return Optional.of(res);
-        case TUPLE:
-        case STRUCT:
-          String copiedTupleValSyntheticVar = "$t_" + (nestingLevel + 1);
-          ImmutableList<Optional<GeneratedJavaSource>> optionalElementCopyCodegens =
-              IntStream.range(
-                      0,
-                      copiedExprType.baseType().equals(BaseType.TUPLE)
-                      ? copiedExprType.parameterizedTypeArgs().size()
-                      : ((Types.StructType) copiedExprType).getFieldTypes().size()
-                  )
-                  .boxed()
-                  .map(
-                      i -> {
-                        Type currElementType =
-                            copiedExprType.baseType().equals(BaseType.TUPLE)
-                            ? copiedExprType.parameterizedTypeArgs().get(String.format("$%s", i))
-                            : ((Types.StructType) copiedExprType).getFieldTypes().get(i);
-                        Type currCoercedElementType =
-                            coercedType.baseType().equals(BaseType.TUPLE)
-                            ? coercedType.parameterizedTypeArgs().get(String.format("$%s", i))
-                            : ((Types.StructType) coercedType).getFieldTypes().get(i);
-                        return getCopyJavaSource(
-                            GeneratedJavaSource.forJavaSourceBody(
-                                new StringBuilder("((")
-                                    .append(currElementType.getJavaSourceType())
-                                    .append(") ")
-                                    .append(copiedTupleValSyntheticVar)
-                                    .append(copiedExprType.baseType().equals(BaseType.TUPLE)
-                                            ? ".getElement("
-                                            : ".values[")
-                                    .append(i)
-                                    .append(copiedExprType.baseType().equals(BaseType.TUPLE) ? ")" : "]")
-                                    .append(")")),
-                            currElementType,
-                            currCoercedElementType,
-                            nestingLevel + 1
-                        );
-                      }).collect(ImmutableList.toImmutableList());
-          res = GeneratedJavaSource.forJavaSourceBody(
-              new StringBuilder("new Claro")
-                  .append(coercedType.baseType().equals(BaseType.TUPLE) ? "Tuple" : "Struct")
-                  .append("(")
-                  .append(coercedType.getJavaSourceClaroType())
-                  .append(", ")
+          // Depending on whether this type def was parsed from a dep module, this may have been named with a
+          // disambiguating prefix like "$DEP_MODULE$module$". For the sake of codegen'd values containing consistent
+          // names everywhere, I need to strip any prefixing here so that instances of this type created ANYWHERE will
+          // definitely evaluate as having the same type.
+          String canonicalizedTypeName = copiedExprUserDefinedType.getTypeName()
+              .substring(copiedExprUserDefinedType.getTypeName().lastIndexOf("$") + 1);
+          appendClaroTypeField(
+              claroTypeFields,
+              "ImmutableList<Type>",
+              copyMethodName + "$typeArgs",
+              copiedExprUserDefinedType.parameterizedTypeArgs().values().stream()
+                  .map(Type::getJavaSourceClaroType)
+                  .collect(Collectors.joining(", ", "ImmutableList.of(", ")"))
           );
-          if (optionalElementCopyCodegens.stream().noneMatch(Optional::isPresent)
-              && !((SupportsMutableVariant<?>) copiedExprType).isMutable() &&
-              !((SupportsMutableVariant<?>) coercedType).isMutable()) {
-            return Optional.empty();
-          }
-          // Here we've found some elements that aren't deeply-immutable, so we need to copy them.
-          res.javaSourceBody()
-              .append("((Function<")
-              .append(copiedExprType.getJavaSourceType())
-              .append(", Object[]>) ")
-              .append(copiedTupleValSyntheticVar)
-              .append(" -> new Object[] {")
-              .append(
-                  IntStream.range(
-                          0,
-                          copiedExprType.baseType().equals(BaseType.TUPLE)
-                          ? copiedExprType.parameterizedTypeArgs().size()
-                          : ((Types.StructType) copiedExprType).getFieldTypes().size()
-                      )
-                      .boxed()
-                      .map(
-                          i -> optionalElementCopyCodegens.get(i)
-                              .map(GeneratedJavaSource::javaSourceBody)
-                              .orElseGet(() ->
-                                             new StringBuilder(
-                                                 String.format(
-                                                     copiedExprType.baseType().equals(BaseType.TUPLE)
-                                                     ? "%s.getElement(%s)"
-                                                     : "%s.values[%s]",
-                                                     copiedTupleValSyntheticVar,
-                                                     i
-                                                 )))
-                      )
-                      .collect(Collectors.joining(", "))
-              )
-              .append("}).apply(");
-          copiedExprJavaSource.javaSourceBody()
-              .append("))");
-          res = res.createMerged(copiedExprJavaSource);
-          return Optional.of(res);
-        case USER_DEFINED_TYPE:
-          Types.UserDefinedType copiedExprUserDefinedType = (Types.UserDefinedType) copiedExprType;
-          // User defined types are represented in a somewhat complex way when parameterized. So in that case, set the
-          // GenericTypeParam's type mapping before codegen here to refer to this UserDefinedType's concrete types.
-          Optional<Map<Type, Type>> originalGenTypeCodegenMappings
-              = Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen;
-          Type wrappedType;
-          Type wrappedCoercedType;
-          try {
-            if (!copiedExprUserDefinedType.parameterizedTypeArgs().isEmpty()) {
-              ImmutableList<String> typeParamNames =
-                  Types.UserDefinedType.$typeParamNames.get(
+          appendClaroTypeField(
+              claroTypeFields,
+              "Type",
+              copyMethodName + "$wrappedType",
+              Types.UserDefinedType.$resolvedWrappedTypes.get(
                       String.format(
                           "%s$%s",
                           copiedExprUserDefinedType.getTypeName(),
                           copiedExprUserDefinedType.getDefiningModuleDisambiguator()
-                      ));
-              Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen =
-                  Optional.of(
-                      IntStream.range(0, copiedExprUserDefinedType.parameterizedTypeArgs().size()).boxed()
-                          .collect(ImmutableMap.toImmutableMap(
-                              i -> Types.$GenericTypeParam.forTypeParamName(typeParamNames.get(i)),
-                              i -> copiedExprUserDefinedType.parameterizedTypeArgs().get(i.toString())
-                          )));
-              wrappedType =
-                  StructuralConcreteGenericTypeValidationUtil.validateArgExprsAndExtractConcreteGenericTypeParams(
-                      Maps.newHashMap(Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen.get()),
-                      Types.UserDefinedType.$resolvedWrappedTypes.get(
-                          String.format("%s$%s", copiedExprUserDefinedType.getTypeName(), copiedExprUserDefinedType.getDefiningModuleDisambiguator())),
-                      Types.UserDefinedType.$resolvedWrappedTypes.get(
-                          String.format("%s$%s", copiedExprUserDefinedType.getTypeName(), copiedExprUserDefinedType.getDefiningModuleDisambiguator())),
-                      true
-                  );
-              Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen =
-                  Optional.of(
-                      IntStream.range(0, coercedType.parameterizedTypeArgs().size()).boxed()
-                          .collect(ImmutableMap.toImmutableMap(
-                              i -> Types.$GenericTypeParam.forTypeParamName(typeParamNames.get(i)),
-                              i -> coercedType.parameterizedTypeArgs().get(i.toString())
-                          )));
-              wrappedCoercedType =
-                  StructuralConcreteGenericTypeValidationUtil.validateArgExprsAndExtractConcreteGenericTypeParams(
-                      Maps.newHashMap(Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen.get()),
-                      Types.UserDefinedType.$resolvedWrappedTypes.get(
-                          String.format(
-                              "%s$%s",
-                              ((Types.UserDefinedType) coercedType).getTypeName(),
-                              ((Types.UserDefinedType) coercedType).getDefiningModuleDisambiguator()
-                          )),
-                      Types.UserDefinedType.$resolvedWrappedTypes.get(
-                          String.format(
-                              "%s$%s",
-                              ((Types.UserDefinedType) coercedType).getTypeName(),
-                              ((Types.UserDefinedType) coercedType).getDefiningModuleDisambiguator()
-                          )),
-                      true
-                  );
-            } else {
-              wrappedType = Types.UserDefinedType.$resolvedWrappedTypes.get(
-                  String.format("%s$%s", copiedExprUserDefinedType.getTypeName(), copiedExprUserDefinedType.getDefiningModuleDisambiguator()));
-              wrappedCoercedType =
-                  Types.UserDefinedType.$resolvedWrappedTypes.get(
-                      String.format(
-                          "%s$%s",
-                          ((Types.UserDefinedType) coercedType).getTypeName(),
-                          ((Types.UserDefinedType) coercedType).getDefiningModuleDisambiguator()
-                      ));
-            }
-          } catch (ClaroTypeException e) {
-            throw new RuntimeException("Internal Compiler Error! This should be unreachable. Type validation should've already caught this mismatch.", e);
-          }
-          Optional<GeneratedJavaSource> optionalWrappedValCopyCodegen =
-              getCopyJavaSource(
-                  GeneratedJavaSource.forJavaSourceBody(
-                      new StringBuilder(copiedExprJavaSource.javaSourceBody().toString())
-                          .append(".wrappedValue")),
-                  wrappedType,
-                  wrappedCoercedType,
-                  nestingLevel + 1
-              );
-
-          // It seems a bit odd, but in some way all User Defined Types are inherently immutable. The only way to
-          // "change" one is to unwrap it and then wrap it again, but that rewrap creates a new $UserDefinedType
-          // instance.
-          Optional<GeneratedJavaSource> copyUserDefinedTypeCodegenRes =
-              optionalWrappedValCopyCodegen
-                  .map(
-                      generatedJavaSource -> {
-                        // Depending on whether this type def was parsed from a dep module, this may have been named with a
-                        // disambiguating prefix like "$DEP_MODULE$module$". For the sake of codegen'd values containing consistent
-                        // names everywhere, I need to strip any prefixing here so that instances of this type created ANYWHERE will
-                        // definitely evaluate as having the same type.
-                        String canonicalizedTypeName = copiedExprUserDefinedType.getTypeName()
-                            .substring(copiedExprUserDefinedType.getTypeName().lastIndexOf("$") + 1);
-                        return GeneratedJavaSource.forJavaSourceBody(
-                            new StringBuilder("new $UserDefinedType(\"")
-                                .append(canonicalizedTypeName)
-                                .append("\", \"")
-                                .append(copiedExprUserDefinedType.getDefiningModuleDisambiguator())
-                                .append("\", ")
-                                .append(copiedExprUserDefinedType.parameterizedTypeArgs().values().stream()
-                                            .map(Type::getJavaSourceClaroType)
-                                            .collect(Collectors.joining(", ", "ImmutableList.of(", "), ")))
-                                .append(
-                                    Types.UserDefinedType.$resolvedWrappedTypes.get(
-                                            String.format(
-                                                "%s$%s",
-                                                copiedExprUserDefinedType.getTypeName(),
-                                                copiedExprUserDefinedType.getDefiningModuleDisambiguator()
-                                            ))
-                                        .getJavaSourceClaroType())
-                                .append(", ")
-                                .append(generatedJavaSource.javaSourceBody())
-                                .append(")")
-                        );
-                      });
-
+                      ))
+                  .getJavaSourceClaroType()
+          );
+          copyMethodBody
+              .append("\treturn new $UserDefinedType(\"")
+              .append(canonicalizedTypeName)
+              .append("\", \"")
+              .append(copiedExprUserDefinedType.getDefiningModuleDisambiguator())
+              .append("\", ")
+              .append(copyMethodName).append("$typeArgs, ")
+              .append(copyMethodName).append("$wrappedType, ")
+              .append(wrappedValueCopyMethodName.get())
+              .append("((")
+              .append(wrappedType.getJavaSourceType())
+              .append(") $v.wrappedValue));\n");
+        } catch (ClaroTypeException e) {
+          throw new RuntimeException("Internal Compiler Error! This should be unreachable. Type validation should've already caught this mismatch.", e);
+        } finally {
           // Reset GenericTypeParam state.
-          if (!copiedExprUserDefinedType.parameterizedTypeArgs().isEmpty()) {
-            Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen = originalGenTypeCodegenMappings;
-          }
-          return copyUserDefinedTypeCodegenRes;
-        default:
-          throw new RuntimeException("Internal Compiler Error: Unsupported structured type found in CopyExpr!");
-      }
-    } else {
-      if (copiedExprType.baseType().equals(BaseType.ONEOF)) {
+          Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen = originalGenTypeCodegenMappings;
+        }
+        break;
+      case ONEOF:
         // Oneofs aren't "structured" per se, but the variants within may be, so gen logic to detect which variant type
         // you actually have so that you can handle it properly.
-
-        String syntheticOneofVar = "$oneofVal_" + (nestingLevel + 1);
-        ImmutableMap<Type, GeneratedJavaSource> variantCopyCodegens =
-            IntStream.range(0, ((Types.OneofType) copiedExprType).getVariantTypes().size()).boxed()
-                .collect(
-                    ImmutableMap.toImmutableMap(
-                        i -> ((Types.OneofType) copiedExprType).getVariantTypes().asList().get(i),
-                        i -> {
-                          Type variant = ((Types.OneofType) copiedExprType).getVariantTypes().asList().get(i);
-                          Type coercedVariant = ((Types.OneofType) coercedType).getVariantTypes().asList().get(i);
-                          return getCopyJavaSource(
-                              GeneratedJavaSource.forJavaSourceBody(
-                                  new StringBuilder("((")
-                                      .append(variant.getJavaSourceType())
-                                      .append(") ")
-                                      .append(syntheticOneofVar)
-                                      .append(")")),
-                              variant,
-                              coercedVariant,
-                              nestingLevel + 1
-                          );
-                        }
-                    )).entrySet().stream()
-                // Just make sure that this map *only* contains entries that *actually* require deep copying.
-                .filter(entry -> entry.getValue().isPresent())
-                .collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, entry -> entry.getValue().get()));
-
-        // A few different things might happen to try to slightly optimize gen'd code handling oneofs (not trying to be
-        // perfect here, just trying to avoid obviously dumb code). Try not to generate unnecessary checks.
-
-        if (variantCopyCodegens.isEmpty()) {
+        ImmutableList<Type> variantTypes = ((Types.OneofType) copiedExprType).getVariantTypes().asList();
+        ImmutableList<Type> coercedVariantTypes = ((Types.OneofType) coercedType).getVariantTypes().asList();
+        ImmutableList.Builder<Optional<String>> variantCopyMethodNamesBuilder = ImmutableList.builder();
+        for (int i = 0; i < variantTypes.size(); i++) {
+          variantCopyMethodNamesBuilder.add(getCopyMethodName(variantTypes.get(i), coercedVariantTypes.get(i)));
+        }
+        ImmutableList<Optional<String>> variantCopyMethodNames = variantCopyMethodNamesBuilder.build();
+        if (variantCopyMethodNames.stream().noneMatch(Optional::isPresent)) {
           // Here, this means that none of the variants *actually* require deep copying, and we can just signal that the
           // original value should be re-referenced.
-          return Optional.empty();
-        }
-        String syntheticOneofTypeVar = "$oneofType_" + (nestingLevel + 1);
-        GeneratedJavaSource res =
-            GeneratedJavaSource.forJavaSourceBody(
-                new StringBuilder()
-                    .append("((Function<")
-                    .append(copiedExprType.getJavaSourceType())
-                    .append(", ")
-                    .append(copiedExprType.getJavaSourceType())
-                    .append(">) (")
-                    .append(syntheticOneofVar)
-                    .append(") -> { Type ")
-                    .append(syntheticOneofTypeVar)
-                    .append(" = ClaroRuntimeUtilities.getClaroType(")
-                    .append(syntheticOneofVar)
-                    .append("); "));
-
-        // If all variants required deep-copying, then we wouldn't need to check for the case where we just return the
-        // original reference, so only codegen that check if it's possible to go either way.
-        if (variantCopyCodegens.size() < ((Types.OneofType) copiedExprType).getVariantTypes().size()) {
-          res.javaSourceBody()
-              .append("if (")
-              .append(syntheticOneofTypeVar)
-              .append(" instanceof SupportsMutableVariant || ")
-              .append(syntheticOneofTypeVar)
-              .append(".baseType().equals(BaseType.USER_DEFINED_TYPE)) { ");
+          return false;
         }
-
-        // Now, to handle the case where deep-copying is necessary, again do some minor optimization to at least drop
-        // a conditional if there's only a single variant requiring deep-copying.
-        if (variantCopyCodegens.size() == 1) {
-          res.javaSourceBody()
-              .append("return ")
-              .append(variantCopyCodegens.values().stream().findFirst().get().javaSourceBody())
-              .append(";");
-        } else {
-          // Unfortunately there are multiple potential variants that would require deep-copying, so we'll need to
-          // codegen some conditionals.
-          // TODO(steving) In the future, it may be possible to optimize this further to avoid all of these if-stmts.
-          //   For example, it might be possible to do a switch over the hashcodes of the variant types...the issue w/
-          //   that specific idea is that the hashcode impl for Claro's Types would have to be extremely stable in order
-          //   to avoid invalidating compatibility btwn code generated by Claro versions before/after hashcode impl
-          //   change. I'll admit I genuinely don't understand the implications of that yet, so I'll avoid the mess as
-          //   I'm not ready to claim I am prepared for the consequences or that the hashcode impls are already perfect.
-          List<Map.Entry<Type, GeneratedJavaSource>> variantCopyCodegensList = variantCopyCodegens.entrySet().asList();
-          res.javaSourceBody()
-              .append(
-                  IntStream.range(0, variantCopyCodegens.size() - 1)
-                      .boxed()
-                      .map(
-                          i ->
-                              new StringBuilder()
-                                  .append("if (")
-                                  .append(syntheticOneofTypeVar)
-                                  .append(".equals(")
-                                  .append(variantCopyCodegensList.get(i).getKey().getJavaSourceClaroType())
-                                  .append(")) { return ")
-                                  .append(variantCopyCodegensList.get(i).getValue().javaSourceBody())
-                                  .append("; } ")
-                                  .toString()
-                      )
-                      .collect(Collectors.joining(" else ")))
-              .append(" else { return ")
-              .append(variantCopyCodegensList.get(variantCopyCodegensList.size() - 1).getValue().javaSourceBody())
-              .append("; }");
-        }
-
-        // If all variants required deep-copying, then we wouldn't need to check for the case where we just return the
-        // original reference, so only codegen that check if it's possible to go either way.
-        if (variantCopyCodegens.size() < ((Types.OneofType) copiedExprType).getVariantTypes().size()) {
-          res.javaSourceBody()
-              .append(" } else { return ")
-              .append(syntheticOneofVar)
-              .append("; }");
+        for (int i = 0; i < variantTypes.size(); i++) {
+          if (!variantCopyMethodNames.get(i).isPresent()) {
+            continue;
+          }
+          Type variantType = variantTypes.get(i);
+          String variantRuntimeClass = getCopiedVariantRuntimeClass(variantType);
+          copyMethodBody.append("\tif ($v instanceof ").append(variantRuntimeClass);
+          // Only fall back to checking the value's actual Claro type if there's some other variant that'd be
+          // represented by the same runtime class (e.g. `oneof<[int], [string]>`).
+          if (variantTypes.stream()
+                  .filter(t -> t.baseType().equals(variantType.baseType())
+                               || (t.baseType().equals(BaseType.USER_DEFINED_TYPE)
+                                   && variantType.baseType().equals(BaseType.USER_DEFINED_TYPE)))
+                  .count() > 1) {
+            String variantTypeField = copyMethodName + "$variant" + i;
+            appendClaroTypeField(claroTypeFields, "Type", variantTypeField, variantType.getJavaSourceClaroType());
+            copyMethodBody.append(" && ClaroRuntimeUtilities.getClaroType($v).equals(").append(variantTypeField).append(")");
+          }
+          copyMethodBody.append(") {\n")
+              .append("\t\treturn ").append(variantCopyMethodNames.get(i).get())
+              .append("((").append(variantType.getJavaSourceType()).append(") $v);\n")
+              .append("\t}\n");
         }
+        copyMethodBody.append("\treturn $v;\n");
+        break;
+      default:
+        // This isn't a structured type that actually "requires" copying, signal to just reference the original value.
+        return false;
+    }
 
-        res.javaSourceBody()
-            .append("}).apply(");
-        res = res.createMerged(copiedExprJavaSource);
-        res.javaSourceBody()
-            .append(")");
+    // Now that it's known that this copy method is needed, actually define it.
+    copyMethodDefinitions.append(claroTypeFields);
+    copyMethodDefinitions
+        .append("// copy(): ").append(copiedExprType).append(" -> ").append(coercedType).append("\n")
+        .append("static ").append(coercedType.getJavaSourceType()).append(" ").append(copyMethodName).append("(")
+        .append(copiedExprType.getJavaSourceType()).append(" $v) {\n")
+        .append(copyMethodBody)
+        .append("}\n");
+    return true;
+  }
 
-        return Optional.of(res);
-      }
+  private static void appendClaroTypeField(
+      StringBuilder claroTypeFields, String javaType, String fieldName, String claroTypeJavaSource) {
+    claroTypeFields.append("private static final ").append(javaType).append(" ").append(fieldName).append(" = ")
+        .append(claroTypeJavaSource).append(";\n");
+  }
 
-      // This isn't a structured type that actually "requires" copying, signal to just reference the original value.
-      return Optional.empty();
+  private static String getCopiedVariantRuntimeClass(Type variantType) {
+    switch (variantType.baseType()) {
+      case LIST:
+        return "ClaroList";
+      case SET:
+        return "ClaroSet";
+      case MAP:
+        return "ClaroMap";
+      case TUPLE:
+        return "ClaroTuple";
+      case STRUCT:
+        return "ClaroStruct";
+      case USER_DEFINED_TYPE:
+        return "$UserDefinedType";
+      default:
+        throw new RuntimeException("Internal Compiler Error: Unsupported structured type found in CopyExpr!");
     }
   }
 
@@ -533,4 +452,10 @@ public class CopyExpr extends Expr {
     // TODO(steving) Eventually need to impl copy when I come back to adding support for the interpreted backend.
     throw new RuntimeException("Internal Compiler Error! Claro doesn't support copy() in the interpreted backend just yet!");
   }
+
+  public static void resetStaticState() {
+    CopyExpr.copyMethodNamesByCopiedAndCoercedType.clear();
+    CopyExpr.copyMethodDefinitions = new StringBuilder();
+    CopyExpr.copyMethodCount = 0;
+  }
 }
@@ -12,12 +12,14 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 
 import java.util.HashMap;
-import java.util.function.BiFunction;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class FromJsonExpr extends Expr {
+  static final String GSON_TOKEN = "com.google.gson.stream.JsonToken";
+
   private final Expr parsedExpr;
   private Type assertedParsedResultType;
   private Type assertedTargetType;
@@ -75,6 +77,18 @@ public class FromJsonExpr extends Expr {
   }
 
   private void validateJSONParsingIsPossible(Type type) throws ClaroTypeException {
+    validateJSONCodegenIsPossible(
+        type,
+        () -> ClaroTypeException.forIllegalParseFromJSONForUnsupportedType(this.assertedTargetType),
+        oneofType -> ClaroTypeException.forIllegalParseFromJSONForUnsupportedOneofType(oneofType, this.assertedTargetType)
+    );
+  }
+
+  // Shared by toJson() so that every type that Claro can serialize to JSON can also be parsed right back from it.
+  static void validateJSONCodegenIsPossible(
+      Type type,
+      Supplier<ClaroTypeException> unsupportedTypeException,
+      Function<Type, ClaroTypeException> unsupportedOneofTypeException) throws ClaroTypeException {
     switch (type.baseType()) {
       case ATOM:
         if (((Types.AtomType) type).getName().equals("Nothing")
@@ -83,18 +97,19 @@ public class FromJsonExpr extends Expr {
                 .equals(StdLibModuleRegistry.STDLIB_MODULE_DISAMBIGUATOR)) {
           return; // OK.
         }
-        throw ClaroTypeException.forIllegalParseFromJSONForUnsupportedOneofType(type, this.assertedTargetType);
+        throw unsupportedOneofTypeException.apply(type);
       case BOOLEAN:
       case INTEGER:
       case FLOAT:
       case STRING:
         return;
       case LIST:
-        validateJSONParsingIsPossible(((Types.ListType) type).getElementType());
+        validateJSONCodegenIsPossible(
+            ((Types.ListType) type).getElementType(), unsupportedTypeException, unsupportedOneofTypeException);
         return;
       case STRUCT:
         for (Type fieldType : ((Types.StructType) type).getFieldTypes()) {
-          validateJSONParsingIsPossible(fieldType);
+          validateJSONCodegenIsPossible(fieldType, unsupportedTypeException, unsupportedOneofTypeException);
         }
         return;
       case ONEOF:
@@ -103,10 +118,10 @@ public class FromJsonExpr extends Expr {
         // backtracking parser, so instead, if it wouldn't be trivial to distinguish all variants from one another using
         // a single JsonToken that Gson provides via JsonReader::peek(), then I'll reject the format. This essentially
         // can be boiled down to the simple restriction that your oneof may only have up to a single list type and up to
-        // a single struct type - and additionally it cannot have both an int and float variant as the single
-        // JsonToken::NUMBER is used to represent both.
+        // a single struct or map type (as both are JSON objects) - and additionally it cannot have both an int and float
+        // variant as the single JsonToken::NUMBER is used to represent both.
         for (Type variantType : ((Types.OneofType) type).getVariantTypes()) {
-          validateJSONParsingIsPossible(variantType);
+          validateJSONCodegenIsPossible(variantType, unsupportedTypeException, unsupportedOneofTypeException);
         }
         if (((Types.OneofType) type).getVariantTypes()
                 .stream()
@@ -114,33 +129,68 @@ public class FromJsonExpr extends Expr {
                 .count() > 1
             || ((Types.OneofType) type).getVariantTypes()
                    .stream()
-                   .filter(t -> t.baseType().equals(BaseType.STRUCT))
+                   .filter(t -> t.baseType().equals(BaseType.STRUCT) || t.baseType().equals(BaseType.MAP))
                    .count() > 1) {
-          throw ClaroTypeException.forIllegalParseFromJSONForUnsupportedOneofType(type, this.assertedTargetType);
+          throw unsupportedOneofTypeException.apply(type);
         }
         if (((Types.OneofType) type).getVariantTypes().containsAll(ImmutableList.of(Types.INTEGER, Types.FLOAT))) {
-          throw ClaroTypeException.forIllegalParseFromJSONForUnsupportedOneofType(type, this.assertedTargetType);
+          throw unsupportedOneofTypeException.apply(type);
         }
         return;
       case MAP:
         if (type.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_KEYS).equals(Types.STRING)) {
-          validateJSONParsingIsPossible(type.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_VALUES));
+          validateJSONCodegenIsPossible(
+              type.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_VALUES),
+              unsupportedTypeException,
+              unsupportedOneofTypeException
+          );
           return;
         }
       default:
-        throw ClaroTypeException.forIllegalParseFromJSONForUnsupportedType(this.assertedTargetType);
+        throw unsupportedTypeException.get();
     }
   }
 
   @Override
   public GeneratedJavaSource generateJavaSourceOutput(ScopedHeap scopedHeap) {
+    // Every distinct type reachable from the target type gets a single parse method on one anonymous parser object, and
+    // each of those methods parses directly into the final Claro value. Any mismatch between the JSON and the target
+    // type bails out of the entire parse at once, so there's no need to allocate an intermediate ParsedJson (or a
+    // Supplier lambda to produce it) for every nested value along the way.
+    LinkedHashMap<Type, String> parseMethodNames = Maps.newLinkedHashMap();
+    StringBuilder parseMethods = new StringBuilder();
+    String parseTargetJavaSource = getParseJSONJavaSource(this.assertedTargetType, parseMethodNames, parseMethods);
     GeneratedJavaSource res = GeneratedJavaSource.forJavaSourceBody(
         new StringBuilder("((Function<String, ")
             .append(this.assertedParsedResultType.getJavaSourceType()) // ParsedJson<TargetType>
             .append(">) $jsonString -> {\n")
             .append("\tcom.google.gson.stream.JsonReader $jsonReader = new com.google.gson.stream.JsonReader(new StringReader($jsonString));\n")
-            .append(getParseJSONJavaSource(this.assertedTargetType, 0, /*alreadyPeekedType=*/ false))
-            .append("\n}).apply("));
+            .append("\ttry {\n")
+            .append("\t\treturn ClaroRuntimeUtilities.$getSuccessParsedJson(")
+            .append(this.assertedTargetType.getJavaSourceClaroType())
+            .append(", new Object() {\n")
+            .append(getTypeFieldsJavaSource(parseMethodNames))
+            .append("\t\t\tObject $parse(com.google.gson.stream.JsonReader $jsonReader) throws java.io.IOException {\n")
+            .append("\t\t\t\treturn ").append(parseTargetJavaSource).append(";\n")
+            .append("\t\t\t}\n")
+            .append("\t\t\tcom.google.gson.stream.JsonReader $expect(com.google.gson.stream.JsonReader $jsonReader, ")
+            .append(GSON_TOKEN)
+            .append(" $token) throws java.io.IOException {\n")
+            // Gson would otherwise happily coerce e.g. a JSON string "1" to a number or vice versa.
+            .append("\t\t\t\tif ($jsonReader.peek() != $token) {\n")
+            .append("\t\t\t\t\tthrow ClaroRuntimeUtilities.$JsonParseFailure.INSTANCE;\n")
+            .append("\t\t\t\t}\n")
+            .append("\t\t\t\treturn $jsonReader;\n")
+            .append("\t\t\t}\n")
+            .append(parseMethods)
+            .append("\t\t}.$parse($jsonReader), $jsonString);\n")
+            // Gson signals malformed JSON via IOException, and a token of the wrong type via IllegalStateException.
+            .append("\t} catch (java.io.IOException | java.lang.IllegalStateException | java.lang.NumberFormatException e) {\n")
+            .append("\t\treturn ClaroRuntimeUtilities.$getErrorParsedJson(")
+            .append(this.assertedTargetType.getJavaSourceClaroType())
+            .append(", $jsonReader.getPath(), $jsonString);\n")
+            .append("\t}\n")
+            .append("}).apply("));
     // TODO(steving) Consider some way to handle the "non-execute Prefix"
     //  https://www.javadoc.io/doc/com.google.code.gson/gson/2.8.0/com/google/gson/stream/JsonReader.html#nonexecuteprefix
     //  Gson's builtin setLenient(true) is too permissive in that it'll allow malformed JSON.
@@ -150,385 +200,225 @@ public class FromJsonExpr extends Expr {
     return res;
   }
 
-  private static StringBuilder getParseJSONJavaSource(Type type, int nestingLevel, boolean alreadyPeekedType) {
-    final String GSON_TOKEN = "com.google.gson.stream.JsonToken";
-    StringBuilder res = new StringBuilder()
-        .append("try {\n");
-    if (!alreadyPeekedType) {
-      res.append(GSON_TOKEN).append(" $peeked").append(nestingLevel).append(" = $jsonReader.peek();\n");
-    }
-    BiFunction<Type, Boolean, StringBuilder> getFieldParserForType = (fieldType, _alreadyPeeked) ->
-        new StringBuilder()
-            .append("((Supplier<$UserDefinedType<ClaroStruct>>) () -> {\n")
-            .append("\t\t")
-            .append(getParseJSONJavaSource(fieldType, nestingLevel + 1, /*alreadyPeekedType=*/ _alreadyPeeked))
-            .append("\t}).get();");
+  // Returns a Java expression that parses the next JSON value from `$jsonReader` as the given type, generating any parse
+  // methods that it depends on along the way. Scalars are parsed inline so that they never need to be boxed on their
+  // way into a specialized primitive list.
+  private static String getParseJSONJavaSource(
+      Type type, LinkedHashMap<Type, String> parseMethodNames, StringBuilder parseMethods) {
     switch (type.baseType()) {
       case BOOLEAN:
-        if (!alreadyPeekedType) {
-          res.append("if (").append(GSON_TOKEN).append(".BOOLEAN.equals($peeked").append(nestingLevel).append(")) {\n");
-        }
-        res.append("\treturn ClaroRuntimeUtilities.$getSuccessParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(", $jsonReader.nextBoolean(), $jsonString);\n");
-        if (!alreadyPeekedType) {
-          res.append("} ");
-        }
-        break;
+        return "$jsonReader.nextBoolean()";
       case INTEGER:
-        if (!alreadyPeekedType) {
-          res.append("if (").append(GSON_TOKEN).append(".NUMBER.equals($peeked").append(nestingLevel).append(")) {\n");
-        }
-        res.append("\ttry {\n")
-            .append("\treturn ClaroRuntimeUtilities.$getSuccessParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(", $jsonReader.nextInt(), $jsonString);\n")
-            .append("\t} catch (java.lang.NumberFormatException e) {\n")
-            .append("\t\treturn ClaroRuntimeUtilities.$getErrorParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(", $jsonReader.getPath(), $jsonString);\n")
-            .append("\t}\n");
-        if (!alreadyPeekedType) {
-          res.append("}");
-        }
-        break;
+        return "$expect($jsonReader, " + GSON_TOKEN + ".NUMBER).nextInt()";
       case FLOAT:
-        if (!alreadyPeekedType) {
-          res.append("if (").append(GSON_TOKEN).append(".NUMBER.equals($peeked").append(nestingLevel).append(")) {\n");
-        }
-        res.append("\ttry {\n")
-            .append("\treturn ClaroRuntimeUtilities.$getSuccessParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(", $jsonReader.nextDouble(), $jsonString);\n")
-            .append("\t} catch (java.lang.NumberFormatException e) {\n")
-            .append("\t\treturn ClaroRuntimeUtilities.$getErrorParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(" $jsonReader.getPath(), $jsonString);\n")
-            .append("\t}\n");
-        if (!alreadyPeekedType) {
-          res.append("}");
-        }
-        break;
+        return "(float) $expect($jsonReader, " + GSON_TOKEN + ".NUMBER).nextDouble()";
       case STRING:
-        if (!alreadyPeekedType) {
-          res.append("if (").append(GSON_TOKEN).append(".STRING.equals($peeked").append(nestingLevel).append(")) {\n");
-        }
-        res.append("\treturn ClaroRuntimeUtilities.$getSuccessParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(", $jsonReader.nextString(), $jsonString);\n");
-        if (!alreadyPeekedType) {
-          res.append("} ");
-        }
-        break;
+        return "$expect($jsonReader, " + GSON_TOKEN + ".STRING).nextString()";
       case ATOM:
-        if (((Types.AtomType) type).getName().equals("Nothing")
-            &&
-            ((Types.AtomType) type).getDefiningModuleDisambiguator()
-                .equals(StdLibModuleRegistry.STDLIB_MODULE_DISAMBIGUATOR)) {
-          if (!alreadyPeekedType) {
-            res.append("if (").append(GSON_TOKEN).append(".NULL.equals($peeked").append(nestingLevel).append(")) {\n");
-          }
-          // Here it turns out that we actually need to codegen a lookup into the ATOM CACHE of the stdlib module
-          // defining this builtin type.
-          res.append("\t$jsonReader.nextNull();\n")
-              .append("\treturn ClaroRuntimeUtilities.$getSuccessParsedJson(")
-              .append(type.getJavaSourceClaroType())
-              .append(", ")
-              .append(
-                  String.format(
-                      "%s.%s.ATOM_CACHE[%s]",
-                      StdLibModuleRegistry.STDLIB_MODULE_PACKAGE,
-                      StdLibModuleRegistry.STDLIB_MODULE_DISAMBIGUATOR,
-                      InternalStaticStateUtil.AtomDefinition_CACHE_INDEX_BY_MODULE_AND_ATOM_NAME.build().get(
-                          StdLibModuleRegistry.STDLIB_MODULE_DISAMBIGUATOR,
-                          String.format("Nothing$%s", StdLibModuleRegistry.STDLIB_MODULE_DISAMBIGUATOR)
-                      )
-                  ))
-              .append(", $jsonString);");
-          if (!alreadyPeekedType) {
-            res.append("} ");
-          }
-          break;
+      case LIST:
+      case STRUCT:
+      case MAP:
+      case ONEOF:
+        if (!parseMethodNames.containsKey(type)) {
+          String parseMethodName = "$parse" + parseMethodNames.size();
+          parseMethodNames.put(type, parseMethodName);
+          parseMethods.append(getParseMethodJavaSource(type, parseMethodName, parseMethodNames, parseMethods));
         }
+        return parseMethodNames.get(type) + "($jsonReader)";
+      default:
         throw new RuntimeException("Internal Compiler Error: Should be unreachable! " + type);
+    }
+  }
+
+  private static StringBuilder getParseMethodJavaSource(
+      Type type, String parseMethodName, LinkedHashMap<Type, String> parseMethodNames, StringBuilder parseMethods) {
+    String claroTypeField = getTypeFieldName(parseMethodName);
+    StringBuilder res = new StringBuilder("\t\t\t")
+        .append(type.getJavaSourceType())
+        .append(" ")
+        .append(parseMethodName)
+        .append("(com.google.gson.stream.JsonReader $jsonReader) throws java.io.IOException {\n");
+    switch (type.baseType()) {
+      case ATOM:
+        // Validation has already ensured that the only atom that can be parsed from JSON is std::Nothing. Here it turns
+        // out that we actually need to codegen a lookup into the ATOM CACHE of the stdlib module defining this builtin
+        // type.
+        res.append("\t\t\t\t$jsonReader.nextNull();\n")
+            .append("\t\t\t\treturn ")
+            .append(
+                String.format(
+                    "%s.%s.ATOM_CACHE[%s]",
+                    StdLibModuleRegistry.STDLIB_MODULE_PACKAGE,
+                    StdLibModuleRegistry.STDLIB_MODULE_DISAMBIGUATOR,
+                    InternalStaticStateUtil.AtomDefinition_CACHE_INDEX_BY_MODULE_AND_ATOM_NAME.build().get(
+                        StdLibModuleRegistry.STDLIB_MODULE_DISAMBIGUATOR,
+                        String.format("Nothing$%s", StdLibModuleRegistry.STDLIB_MODULE_DISAMBIGUATOR)
+                    )
+                ))
+            .append(";\n");
+        break;
       case LIST:
         Type elemType = ((Types.ListType) type).getElementType();
-        if (!alreadyPeekedType) {
-          res.append("if (")
-              .append(GSON_TOKEN)
-              .append(".BEGIN_ARRAY.equals($peeked")
-              .append(nestingLevel)
-              .append(")) {\n");
+        // Lists of ints and floats are built directly into their specialized unboxed representation.
+        Optional<String> primitiveListClass = Optional.empty();
+        if (elemType.baseType().equals(BaseType.INTEGER)) {
+          primitiveListClass = Optional.of("Int");
+        } else if (elemType.baseType().equals(BaseType.FLOAT)) {
+          primitiveListClass = Optional.of("Float");
         }
-        res.append("\t$jsonReader.beginArray();\n")
-            // This is a fascinating example of a compiler superpower that the users don't have access to. Here,
-            // regardless of whether the list is being parsed to a mutable/immutable list, I'm going to append to the
-            // ClaroList because I know that I'm the sole owner of this list as I, the compiler, just created it.
-            .append("\tClaroList<")
-            .append(elemType.getJavaSourceType())
-            .append("> $listBuilder")
-            .append(nestingLevel)
-            .append(" = new ClaroList(")
-            .append(type.getJavaSourceClaroType())
-            .append(");\n")
-            .append("\tfinal Supplier<$UserDefinedType<ClaroStruct>> $parseElement")
-            .append(nestingLevel)
-            .append(" = () -> {\n")
-            .append("\t\t")
-            .append(getParseJSONJavaSource(elemType, nestingLevel + 1, /*alreadyPeekedType=*/ false))
-            .append("\t};\n")
-            .append("\twhile ($jsonReader.hasNext()) {\n")
-            .append("\t\t$UserDefinedType<ClaroStruct> $parsedElem")
-            .append(nestingLevel)
-            .append(" = $parseElement")
-            .append(nestingLevel)
-            .append(".get();\n")
-            .append("\t\tif ($parsedElem")
-            .append(nestingLevel)
-            .append(".wrappedValue.values[0] instanceof $UserDefinedType) { // It's necessarily an Error<string> since Claro can't parse user-defined types from JSON automatically.\n")
-            .append("\t\t\treturn $parsedElem")
-            .append(nestingLevel)
-            .append(";\n")
-            .append("\t\t}\n")
-            .append("\t\t$listBuilder")
-            .append(nestingLevel)
-            .append(".add((")
-            .append(elemType.getJavaSourceType())
-            .append(") $parsedElem")
-            .append(nestingLevel)
-            .append(".wrappedValue.values[0]);\n")
-            .append("\t}\n")
-            .append("\t$jsonReader.endArray();\n")
-            .append("\treturn ClaroRuntimeUtilities.$getSuccessParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(", $listBuilder")
-            .append(nestingLevel)
-            .append(", $jsonString);\n");
-        if (!alreadyPeekedType) {
-          res.append("} ");
+        String elemParseJavaSource = getParseJSONJavaSource(elemType, parseMethodNames, parseMethods);
+        res.append("\t\t\t\t$jsonReader.beginArray();\n");
+        // This is a fascinating example of a compiler superpower that the users don't have access to. Here,
+        // regardless of whether the list is being parsed to a mutable/immutable list, I'm going to append to the
+        // ClaroList because I know that I'm the sole owner of this list as I, the compiler, just created it.
+        if (primitiveListClass.isPresent()) {
+          res.append("\t\t\t\tClaro").append(primitiveListClass.get()).append("List $res = new Claro")
+              .append(primitiveListClass.get()).append("List(").append(claroTypeField).append(");\n")
+              .append("\t\t\t\twhile ($jsonReader.hasNext()) {\n")
+              .append("\t\t\t\t\t$res.add").append(primitiveListClass.get()).append("(")
+              .append(elemParseJavaSource).append(");\n");
+        } else {
+          res.append("\t\t\t\t").append(type.getJavaSourceType()).append(" $res = ClaroList.forListType(")
+              .append(claroTypeField).append(");\n")
+              .append("\t\t\t\twhile ($jsonReader.hasNext()) {\n")
+              .append("\t\t\t\t\t$res.add(").append(elemParseJavaSource).append(");\n");
         }
+        res.append("\t\t\t\t}\n")
+            .append("\t\t\t\t$jsonReader.endArray();\n")
+            .append("\t\t\t\treturn $res;\n");
         break;
       case STRUCT:
         Types.StructType structType = (Types.StructType) type;
-        if (!alreadyPeekedType) {
-          res.append("if (")
-              .append(GSON_TOKEN)
-              .append(".BEGIN_OBJECT.equals($peeked")
-              .append(nestingLevel)
-              .append(")) {\n");
-        }
-        res.append("\t$jsonReader.beginObject();\n")
+        res.append("\t\t\t\t$jsonReader.beginObject();\n")
             // This is a fascinating example of a compiler superpower that the users don't have access to. Here,
             // regardless of whether the struct is being parsed to mutable/immutable, I'm going to modify the
             // array because I know that I'm the sole owner of this struct as I, the compiler, just created it.
-            .append("\tClaroStruct $structBuilder")
-            .append(nestingLevel)
-            .append(" = new ClaroStruct(")
-            .append(type.getJavaSourceClaroType())
-            .append(", ")
-            .append(IntStream.range(0, structType.getFieldTypes().size())
-                        .boxed()
-                        .map(i -> "(Object) null")
-                        .collect(Collectors.joining(", ")))
-            .append(");\n")
-            .append("\twhile ($jsonReader.hasNext()) {\n")
-            .append("\t\t$UserDefinedType<ClaroStruct> $parsedField")
-            .append(nestingLevel)
-            .append(";\n")
-            .append("\t\tswitch($jsonReader.nextName()) {\n");
-        IntStream.range(0, structType.getFieldTypes().size()).boxed().forEach(
-            i -> res
-                .append("\t\t\tcase \"")
-                .append(structType.getFieldNames().get(i))
-                .append("\":\n")
-                .append("\t\t\t\t$parsedField")
-                .append(nestingLevel)
-                .append(" = ")
-                .append(getFieldParserForType.apply(structType.getFieldTypes().get(i), /*_alreadyPeaked=*/ false))
-                // This is just to save some lines of code, but here I'm going to optimistically put whatever we parsed
-                // into the struct builder, though we may not end up using it.
-                .append("\n\t\t\t\t$structBuilder")
-                .append(nestingLevel)
-                .append(".values[")
-                .append(i)
-                .append("] = $parsedField")
-                .append(nestingLevel)
-                .append(".wrappedValue.values[0];\n")
-                .append("\t\t\t\tbreak;\n")
-        );
-        res.append("\t\t\tdefault: // This is some unexpected field.\n")
-            .append("\t\t\t\treturn ClaroRuntimeUtilities.$getErrorParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(", $jsonReader.getPath(), $jsonString);\n")
-            .append("\t\t}\n")
-            .append("\t\tif ($parsedField")
-            .append(nestingLevel)
-            .append(".wrappedValue.values[0] instanceof $UserDefinedType) { // It's necessarily an Error<string> since Claro can't parse user-defined types from JSON automatically.\n")
-            .append("\t\t\treturn $parsedField")
-            .append(nestingLevel)
-            .append(";\n")
-            .append("\t\t}\n")
-            .append("\t}\n")
-            .append("\t$jsonReader.endObject();\n")
+            .append("\t\t\t\tClaroStruct $res = new ClaroStruct(")
+            .append(claroTypeField)
+            .append(", new Object[")
+            .append(structType.getFieldTypes().size())
+            .append("]);\n")
+            .append("\t\t\t\twhile ($jsonReader.hasNext()) {\n")
+            .append("\t\t\t\t\tswitch ($jsonReader.nextName()) {\n");
+        for (int i = 0; i < structType.getFieldTypes().size(); i++) {
+          res.append("\t\t\t\t\t\tcase \"")
+              .append(structType.getFieldNames().get(i))
+              .append("\":\n")
+              .append("\t\t\t\t\t\t\t$res.values[")
+              .append(i)
+              .append("] = ")
+              .append(getParseJSONJavaSource(structType.getFieldTypes().get(i), parseMethodNames, parseMethods))
+              .append(";\n")
+              .append("\t\t\t\t\t\t\tbreak;\n");
+        }
+        res.append("\t\t\t\t\t\tdefault: // This is some unexpected field.\n")
+            .append("\t\t\t\t\t\t\tthrow ClaroRuntimeUtilities.$JsonParseFailure.INSTANCE;\n")
+            .append("\t\t\t\t\t}\n")
+            .append("\t\t\t\t}\n")
+            .append("\t\t\t\t$jsonReader.endObject();\n")
             // Make sure that we validate that *all* required fields were actually set, otherwise the json parsing is
             // considered a failure. Even if the missing field types were `oneof<..., Nothing>`, Nothing only
             // maps to `null` in the JSON representation, a missing field is an error, not auto-coerced to null.
-            .append("\tfor (int $i = 0; $i < ")
-            .append(structType.getFieldNames().size())
-            .append("; ++$i) {\n")
-            .append("\t\tif ($structBuilder")
-            .append(nestingLevel)
-            .append(".values[$i] == null) {\n")
-            .append("\t\t\treturn ClaroRuntimeUtilities.$getErrorParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(", $jsonReader.getPath(), $jsonString);\n")
-            .append("\t\t}")
-            .append("\t}")
-            .append("\treturn ClaroRuntimeUtilities.$getSuccessParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(", $structBuilder")
-            .append(nestingLevel)
-            .append(", $jsonString);\n");
-        if (!alreadyPeekedType) {
-          res.append("} ");
-        }
+            .append("\t\t\t\tfor (Object $field : $res.values) {\n")
+            .append("\t\t\t\t\tif ($field == null) {\n")
+            .append("\t\t\t\t\t\tthrow ClaroRuntimeUtilities.$JsonParseFailure.INSTANCE;\n")
+            .append("\t\t\t\t\t}\n")
+            .append("\t\t\t\t}\n")
+            .append("\t\t\t\treturn $res;\n");
         break;
       case MAP:
-        Types.MapType mapType = (Types.MapType) type;
-        if (!alreadyPeekedType) {
-          res.append("if (")
-              .append(GSON_TOKEN)
-              .append(".BEGIN_OBJECT.equals($peeked")
-              .append(nestingLevel)
-              .append(")) {\n");
-        }
-        res.append("\t$jsonReader.beginObject();\n")
+        String valueParseJavaSource =
+            getParseJSONJavaSource(
+                type.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_VALUES), parseMethodNames, parseMethods);
+        res.append("\t\t\t\t$jsonReader.beginObject();\n")
             // This is a fascinating example of a compiler superpower that the users don't have access to. Here,
             // regardless of whether the map is being parsed to mutable/immutable, I'm going to modify the
             // map because I know that I'm the sole owner of this map as I, the compiler, just created it.
-            .append("\tClaroMap $mapBuilder")
-            .append(nestingLevel)
-            .append(" = new ClaroMap(")
-            .append(type.getJavaSourceClaroType())
-            .append(");\n")
-            .append("\tfinal Supplier<$UserDefinedType<ClaroStruct>> $parseElement")
-            .append(nestingLevel)
-            .append(" = () -> {\n")
-            .append("\t\t")
-            .append(getParseJSONJavaSource(
-                mapType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_VALUES),
-                nestingLevel + 1, /*alreadyPeekedType=*/ false
-            ))
-            .append("\t};\n")
-            .append("\twhile ($jsonReader.hasNext()) {\n")
-            .append("\t\tString $key")
-            .append(nestingLevel)
-            .append(" = $jsonReader.nextName();\n")
-            .append("\t\t$UserDefinedType<ClaroStruct> $parsedElem")
-            .append(nestingLevel)
-            .append(" = $parseElement")
-            .append(nestingLevel)
-            .append(".get();\n")
-            .append("\t\tif ($parsedElem")
-            .append(nestingLevel)
-            .append(".wrappedValue.values[0] instanceof $UserDefinedType) { // It's necessarily an Error<string> since Claro can't parse user-defined types from JSON automatically.\n")
-            .append("\t\t\treturn $parsedElem")
-            .append(nestingLevel)
-            .append(";\n")
-            .append("\t\t}\n")
-            .append("\t\t$mapBuilder")
-            .append(nestingLevel)
-            .append(".set($key")
-            .append(nestingLevel)
-            .append(", (")
-            .append(mapType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_VALUES).getJavaSourceType())
-            .append(") $parsedElem")
-            .append(nestingLevel)
-            .append(".wrappedValue.values[0]);\n")
-            .append("\t}\n")
-            .append("\t$jsonReader.endObject();\n")
-            .append("\treturn ClaroRuntimeUtilities.$getSuccessParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(", $mapBuilder")
-            .append(nestingLevel)
-            .append(", $jsonString);\n");
-        if (!alreadyPeekedType) {
-          res.append("} ");
-        }
+            .append("\t\t\t\t").append(type.getJavaSourceType()).append(" $res = ClaroMap.forMapType(")
+            .append(claroTypeField).append(");\n")
+            .append("\t\t\t\twhile ($jsonReader.hasNext()) {\n")
+            .append("\t\t\t\t\t$res.set($jsonReader.nextName(), ").append(valueParseJavaSource).append(");\n")
+            .append("\t\t\t\t}\n")
+            .append("\t\t\t\t$jsonReader.endObject();\n")
+            .append("\t\t\t\treturn $res;\n");
         break;
       case ONEOF:
         // Claro can support a very limited lookahead for parsing oneofs. Here we'll assume that validation has already
         // completed so we know that this oneof's variants can be disambiguated with a single peek().
-        Types.OneofType oneofType = (Types.OneofType) type;
-        res.append("\t$UserDefinedType<ClaroStruct> $parsedOneof").append(nestingLevel).append(";\n")
-            .append("\tswitch($peeked").append(nestingLevel).append(") {\n");
-        IntStream.range(0, oneofType.getVariantTypes().size()).boxed().forEach(
-            i -> {
-              res.append("\t\tcase ");
-              Type currType;
-              switch ((currType = oneofType.getVariantTypes().asList().get(i)).baseType()) {
-                case BOOLEAN:
-                  res.append("BOOLEAN:\n");
-                  break;
-                case INTEGER:
-                case FLOAT:
-                  res.append("NUMBER:\n");
-                  break;
-                case STRING:
-                  res.append("STRING:\n");
-                  break;
-                case ATOM:
-                  if (((Types.AtomType) currType).getName().equals("Nothing")
-                      && ((Types.AtomType) currType).getDefiningModuleDisambiguator()
-                          .equals(StdLibModuleRegistry.STDLIB_MODULE_DISAMBIGUATOR)) {
-                    res.append("NULL:\n");
-                    break;
-                  }
-                  throw new RuntimeException("Internal Compiler Error! Should be unreachable." + currType);
-                case LIST:
-                  res.append("BEGIN_ARRAY:\n");
-                  break;
-                case STRUCT:
-                  res.append("BEGIN_OBJECT:\n");
-                  break;
-              }
-              res.append("\t\t\t$parsedOneof").append(nestingLevel).append(" = ")
-                  .append(getFieldParserForType.apply(oneofType.getVariantTypes()
-                                                          .asList()
-                                                          .get(i), /*_alreadyPeeked=*/ true))
-                  .append("\n\t\t\tbreak;\n");
-            }
-        );
-        res.append("\t\tdefault: // This is some unexpected field.\n")
-            .append("\t\t\treturn ClaroRuntimeUtilities.$getErrorParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(", $jsonReader.getPath(), $jsonString);\n")
-            .append("\t}\n")
-            .append("\tif ($parsedOneof")
-            .append(nestingLevel)
-            .append(".wrappedValue.values[0] instanceof $UserDefinedType) { // It's necessarily an Error<string> since Claro can't parse user-defined types from JSON automatically.\n")
-            .append("\t\treturn $parsedOneof")
-            .append(nestingLevel)
-            .append(";\n")
-            .append("\t} else {\n")
-            .append("\t\treturn ClaroRuntimeUtilities.$getSuccessParsedJson(")
-            .append(type.getJavaSourceClaroType())
-            .append(", $parsedOneof")
-            .append(nestingLevel)
-            .append(".wrappedValue.values[0], $jsonString);\n")
-            .append("\t} ");
+        res.append("\t\t\t\tswitch ($jsonReader.peek()) {\n");
+        for (Type variantType : ((Types.OneofType) type).getVariantTypes()) {
+          res.append("\t\t\t\t\tcase ")
+              .append(getJsonTokenForType(variantType))
+              .append(":\n")
+              .append("\t\t\t\t\t\treturn ")
+              .append(getParseJSONJavaSource(variantType, parseMethodNames, parseMethods))
+              .append(";\n");
+        }
+        res.append("\t\t\t\t\tdefault:\n")
+            .append("\t\t\t\t\t\tthrow ClaroRuntimeUtilities.$JsonParseFailure.INSTANCE;\n")
+            .append("\t\t\t\t}\n");
         break;
       default:
         throw new RuntimeException("Internal Compiler Error: Should be unreachable! " + type);
     }
-    if (!alreadyPeekedType && !type.baseType().equals(BaseType.ONEOF)) {
-      res.append("else { $jsonReader.skipValue(); return ClaroRuntimeUtilities.$getErrorParsedJson(")
-          .append(type.getJavaSourceClaroType())
-          .append(", $jsonReader.getPath(), $jsonString); }\n");
+    return res.append("\t\t\t}\n");
+  }
+
+  // The JsonToken that any JSON value of the given type must necessarily start with.
+  static String getJsonTokenForType(Type type) {
+    switch (type.baseType()) {
+      case BOOLEAN:
+        return "BOOLEAN";
+      case INTEGER:
+      case FLOAT:
+        return "NUMBER";
+      case STRING:
+        return "STRING";
+      case ATOM:
+        return "NULL";
+      case LIST:
+        return "BEGIN_ARRAY";
+      case STRUCT:
+      case MAP:
+        return "BEGIN_OBJECT";
+      default:
+        throw new RuntimeException("Internal Compiler Error! Should be unreachable." + type);
     }
-    return res.append("} catch (java.io.IOException e) {\n\treturn ClaroRuntimeUtilities.$getErrorParsedJson(")
-        .append(type.getJavaSourceClaroType())
-        .append(", $jsonReader.getPath(), $jsonString); }\n");
+  }
+
+  // Claro types are constructed once per parse/serialization rather than once per parsed/serialized value.
+  static String getTypeFieldName(String methodName) {
+    return "$type" + methodName.replaceAll("[^0-9]", "");
+  }
+
+  static StringBuilder getTypeFieldsJavaSource(LinkedHashMap<Type, String> methodNames) {
+    StringBuilder res = new StringBuilder();
+    methodNames.forEach(
+        (type, methodName) -> {
+          String claroTypeClass;
+          switch (type.baseType()) {
+            case LIST:
+              claroTypeClass = "Types.ListType";
+              break;
+            case STRUCT:
+              claroTypeClass = "Types.StructType";
+              break;
+            case MAP:
+              claroTypeClass = "Types.MapType";
+              break;
+            default:
+              // Only collections need their Claro type at runtime.
+              return;
+          }
+          res.append("\t\t\tprivate final ")
+              .append(claroTypeClass)
+              .append(" ")
+              .append(getTypeFieldName(methodName))
+              .append(" = ")
+              .append(type.getJavaSourceClaroType())
+              .append(";\n");
+        });
+    return res;
   }
 
   @Override
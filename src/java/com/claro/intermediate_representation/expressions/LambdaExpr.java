@@ -253,4 +253,8 @@ public class LambdaExpr extends Expr {
     // Now I can just use IdentifierReferenceTerm's interpreted output implementation to get this reference to work.
     return lambdaReferenceTerm.generateInterpretedOutput(scopedHeap);
   }
+
+  public static void resetStaticState() {
+    LambdaExpr.lambdaExprCount = 0;
+  }
 }
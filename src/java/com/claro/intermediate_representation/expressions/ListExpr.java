@@ -107,7 +107,16 @@ public class ListExpr extends Expr {
     AtomicReference<GeneratedJavaSource> initializerValsGenJavaSource =
         new AtomicReference<>(GeneratedJavaSource.forJavaSourceBody(new StringBuilder()));
 
-    String listFormatString = "ClaroList.initializeList(%s%s)";
+    String listFormatString;
+    if (ClaroList.isPrimitiveElementType((Types.ListType) this.validatedListType)) {
+      // Lists of primitives get a primitive-array-backed impl whose initializer takes the primitive varargs directly, so
+      // literal elements never get boxed at all.
+      String primitiveName =
+          getPrimitiveListImplName(((Types.ListType) this.validatedListType).getElementType().baseType());
+      listFormatString = String.format("Claro%1$sList.initialize%1$sList(%%s%%s)", primitiveName);
+    } else {
+      listFormatString = "ClaroList.initializeList(%s%s)";
+    }
     String initializerArgs;
     if (initializerArgExprsList.isEmpty()) {
       initializerArgs = "";
@@ -129,6 +138,21 @@ public class ListExpr extends Expr {
         .createMerged(initializerValsGenJavaSource.get());
   }
 
+  static String getPrimitiveListImplName(BaseType elementBaseType) {
+    switch (elementBaseType) {
+      case INTEGER:
+        return "Int";
+      case LONG:
+        return "Long";
+      case FLOAT:
+        return "Float";
+      case DOUBLE:
+        return "Double";
+      default:
+        throw new RuntimeException("Internal Compiler Error! No primitive list impl for: " + elementBaseType);
+    }
+  }
+
   @Override
   public Object generateInterpretedOutput(ScopedHeap scopedHeap) {
     return ClaroList.initializeList(
@@ -87,7 +87,7 @@ public class MapExpr extends Expr {
     GeneratedJavaSource res = GeneratedJavaSource.forJavaSourceBody(
         new StringBuilder(
             String.format(
-                "new ClaroMap<%s, %s>(%s)",
+                "ClaroMap.<%s, %s>forMapType(%s)",
                 this.validatedMapType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_KEYS)
                     .getJavaSourceType(),
                 this.validatedMapType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_VALUES)
@@ -120,7 +120,7 @@ public class MapExpr extends Expr {
 
   @Override
   public Object generateInterpretedOutput(ScopedHeap scopedHeap) {
-    ClaroMap<Object, Object> res = new ClaroMap<>(this.validatedMapType);
+    ClaroMap<Object, Object> res = ClaroMap.forMapType(this.validatedMapType);
     this.initializerKeyValPairs.forEach(
         kv -> res.put(kv.get(0).generateInterpretedOutput(scopedHeap), kv.get(1)
             .generateInterpretedOutput(scopedHeap)));
@@ -71,8 +71,9 @@ public class SetExpr extends Expr {
     StringBuilder resJavaSourceBody =
         new StringBuilder(
             String.format(
-                "new %s(%s)",
-                validatedType.getJavaSourceType(),
+                // Explicit type arg since javac can't infer it through the chained `.add(...)` below.
+                "ClaroSet.<%s>forSetType(%s)",
+                validatedType.parameterizedTypeArgs().get(Types.SetType.PARAMETERIZED_TYPE).getJavaSourceType(),
                 validatedType.getJavaSourceClaroType()
             ));
     if (initializerValues.isEmpty()) {
@@ -104,9 +105,9 @@ public class SetExpr extends Expr {
   @Override
   public Object generateInterpretedOutput(ScopedHeap scopedHeap) {
     if (!initializerValues.isPresent()) {
-      return new ClaroSet<Object>((Types.SetType) this.optionalAssertedType.get());
+      return ClaroSet.forSetType((Types.SetType) this.optionalAssertedType.get());
     }
-    return new ClaroSet<Object>((Types.SetType) this.optionalAssertedType.get())
+    return ClaroSet.<Object>forSetType((Types.SetType) this.optionalAssertedType.get())
         .add(
             this.initializerValues.get().stream()
                 .map(expr -> expr.generateInterpretedOutput(scopedHeap))
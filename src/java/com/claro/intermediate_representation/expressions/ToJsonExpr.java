@@ -0,0 +1,243 @@
+package com.claro.intermediate_representation.expressions;
+
+import com.claro.compiler_backends.interpreted.ScopedHeap;
+import com.claro.intermediate_representation.types.BaseType;
+import com.claro.intermediate_representation.types.ClaroTypeException;
+import com.claro.intermediate_representation.types.Type;
+import com.claro.intermediate_representation.types.Types;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+
+public class ToJsonExpr extends Expr {
+  private final Expr serializedExpr;
+  private Type validatedSerializedExprType;
+
+  public ToJsonExpr(Expr serializedExpr, Supplier<String> currentLine, int currentLineNumber, int startCol, int endCol) {
+    super(ImmutableList.of(), currentLine, currentLineNumber, startCol, endCol);
+    this.serializedExpr = serializedExpr;
+  }
+
+  @Override
+  public Type getValidatedExprType(ScopedHeap scopedHeap) throws ClaroTypeException {
+    this.validatedSerializedExprType = this.serializedExpr.getValidatedExprType(scopedHeap);
+
+    // Claro will only serialize types that fromJson() would be able to parse right back again, so that toJson() and
+    // fromJson() can always be relied upon to round-trip.
+    try {
+      FromJsonExpr.validateJSONCodegenIsPossible(
+          this.validatedSerializedExprType,
+          () -> ClaroTypeException.forIllegalToJSONForUnsupportedType(this.validatedSerializedExprType),
+          oneofType ->
+              ClaroTypeException.forIllegalToJSONForUnsupportedOneofType(oneofType, this.validatedSerializedExprType)
+      );
+    } catch (ClaroTypeException e) {
+      this.logTypeError(e);
+    }
+
+    return Types.STRING;
+  }
+
+  @Override
+  public GeneratedJavaSource generateJavaSourceOutput(ScopedHeap scopedHeap) {
+    // Mirrors fromJson()'s codegen. Every distinct type reachable from the serialized type gets a single write method on
+    // one anonymous serializer object, and each of those methods streams its value straight into the JsonWriter
+    // without building any intermediate representation of the JSON along the way.
+    LinkedHashMap<Type, String> writeMethodNames = Maps.newLinkedHashMap();
+    StringBuilder writeMethods = new StringBuilder();
+    String writeTargetJavaSource =
+        getWriteJSONJavaSource(this.validatedSerializedExprType, "$jsonValue", writeMethodNames, writeMethods);
+    GeneratedJavaSource res = GeneratedJavaSource.forJavaSourceBody(
+        new StringBuilder("((Function<")
+            .append(this.validatedSerializedExprType.getJavaSourceType())
+            .append(", String>) $jsonValue -> {\n")
+            .append("\tjava.io.StringWriter $jsonOut = new java.io.StringWriter();\n")
+            .append("\tcom.google.gson.stream.JsonWriter $jsonWriter = new com.google.gson.stream.JsonWriter($jsonOut);\n")
+            // Strict JSON has no representation for NaN or +/-Infinity, and in strict mode Gson would throw an
+            // IllegalArgumentException on them. Lenient mode instead writes them as the NaN, Infinity, and -Infinity
+            // literals that many JSON parsers accept. Otherwise, the output is exactly the same as in strict mode.
+            .append("\t$jsonWriter.setLenient(true);\n")
+            .append("\ttry {\n")
+            .append("\t\tnew Object() {\n")
+            .append(FromJsonExpr.getTypeFieldsJavaSource(writeMethodNames))
+            .append("\t\t\tvoid $write(com.google.gson.stream.JsonWriter $jsonWriter, ")
+            .append(this.validatedSerializedExprType.getJavaSourceType())
+            .append(" $jsonValue) throws java.io.IOException {\n")
+            .append("\t\t\t\t").append(writeTargetJavaSource).append("\n")
+            .append("\t\t\t}\n")
+            .append(writeMethods)
+            .append("\t\t}.$write($jsonWriter, $jsonValue);\n")
+            .append("\t} catch (java.io.IOException e) {\n")
+            .append("\t\t// Should be unreachable as a StringWriter never actually throws.\n")
+            .append("\t\tthrow new java.io.UncheckedIOException(e);\n")
+            .append("\t}\n")
+            .append("\treturn $jsonOut.toString();\n")
+            .append("}).apply("));
+    res = res.createMerged(this.serializedExpr.generateJavaSourceOutput(scopedHeap));
+    res.javaSourceBody().append(")");
+    return res;
+  }
+
+  // Returns a Java statement that writes the given value, whose static Java type must already match the given Claro
+  // type, to `$jsonWriter`, generating any write methods that it depends on along the way.
+  private static String getWriteJSONJavaSource(
+      Type type, String value, LinkedHashMap<Type, String> writeMethodNames, StringBuilder writeMethods) {
+    switch (type.baseType()) {
+      case BOOLEAN:
+      case STRING:
+        return "$jsonWriter.value(" + value + ");";
+      case INTEGER:
+        return "$jsonWriter.value((long) " + value + ");";
+      case FLOAT:
+        return "$jsonWriter.value((float) " + value + ");";
+      case ATOM:
+        // Validation has already ensured that the only atom that can be serialized to JSON is std::Nothing.
+        return "$jsonWriter.nullValue();";
+      case LIST:
+      case STRUCT:
+      case MAP:
+      case ONEOF:
+        if (!writeMethodNames.containsKey(type)) {
+          String writeMethodName = "$write" + writeMethodNames.size();
+          writeMethodNames.put(type, writeMethodName);
+          writeMethods.append(getWriteMethodJavaSource(type, writeMethodName, writeMethodNames, writeMethods));
+        }
+        return writeMethodNames.get(type) + "($jsonWriter, " + value + ");";
+      default:
+        throw new RuntimeException("Internal Compiler Error: Should be unreachable! " + type);
+    }
+  }
+
+  private static StringBuilder getWriteMethodJavaSource(
+      Type type, String writeMethodName, LinkedHashMap<Type, String> writeMethodNames, StringBuilder writeMethods) {
+    StringBuilder res = new StringBuilder("\t\t\tvoid ")
+        .append(writeMethodName)
+        .append("(com.google.gson.stream.JsonWriter $jsonWriter, ")
+        .append(type.getJavaSourceType())
+        .append(" $v) throws java.io.IOException {\n");
+    switch (type.baseType()) {
+      case LIST:
+        Type elemType = ((Types.ListType) type).getElementType();
+        res.append("\t\t\t\t$jsonWriter.beginArray();\n");
+        // Lists of ints and floats are usually in their specialized unboxed representation, in which case the elements
+        // can be written without ever boxing them.
+        String primitiveListClass = null;
+        if (elemType.baseType().equals(BaseType.INTEGER)) {
+          primitiveListClass = "Int";
+        } else if (elemType.baseType().equals(BaseType.FLOAT)) {
+          primitiveListClass = "Float";
+        }
+        if (primitiveListClass != null) {
+          res.append("\t\t\t\tif ($v instanceof Claro").append(primitiveListClass).append("List) {\n")
+              .append("\t\t\t\t\tClaro").append(primitiveListClass).append("List $primitiveList = (Claro")
+              .append(primitiveListClass).append("List) $v;\n")
+              .append("\t\t\t\t\tfor (int $i = 0, $size = $primitiveList.size(); $i < $size; ++$i) {\n")
+              .append("\t\t\t\t\t\t")
+              .append(getWriteJSONJavaSource(
+                  elemType, "$primitiveList.get" + primitiveListClass + "($i)", writeMethodNames, writeMethods))
+              .append("\n")
+              .append("\t\t\t\t\t}\n")
+              .append("\t\t\t\t} else {\n");
+        }
+        res.append("\t\t\t\tfor (")
+            .append(elemType.getJavaSourceType())
+            .append(" $elem : $v) {\n")
+            .append("\t\t\t\t\t")
+            .append(getWriteJSONJavaSource(elemType, "$elem", writeMethodNames, writeMethods))
+            .append("\n")
+            .append("\t\t\t\t}\n");
+        if (primitiveListClass != null) {
+          res.append("\t\t\t\t}\n");
+        }
+        res.append("\t\t\t\t$jsonWriter.endArray();\n");
+        break;
+      case STRUCT:
+        Types.StructType structType = (Types.StructType) type;
+        res.append("\t\t\t\t$jsonWriter.beginObject();\n");
+        for (int i = 0; i < structType.getFieldTypes().size(); i++) {
+          Type fieldType = structType.getFieldTypes().get(i);
+          res.append("\t\t\t\t$jsonWriter.name(\"")
+              .append(structType.getFieldNames().get(i))
+              .append("\");\n")
+              .append("\t\t\t\t")
+              .append(getWriteJSONJavaSource(
+                  fieldType,
+                  String.format("((%s) $v.values[%s])", fieldType.getJavaSourceType(), i),
+                  writeMethodNames,
+                  writeMethods
+              ))
+              .append("\n");
+        }
+        res.append("\t\t\t\t$jsonWriter.endObject();\n");
+        break;
+      case MAP:
+        Type valueType = type.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_VALUES);
+        res.append("\t\t\t\t$jsonWriter.beginObject();\n")
+            .append("\t\t\t\tfor (java.util.Map.Entry<String, ")
+            .append(valueType.getJavaSourceType())
+            .append("> $entry : $v.entrySet()) {\n")
+            .append("\t\t\t\t\t$jsonWriter.name($entry.getKey());\n")
+            .append("\t\t\t\t\t")
+            .append(getWriteJSONJavaSource(valueType, "$entry.getValue()", writeMethodNames, writeMethods))
+            .append("\n")
+            .append("\t\t\t\t}\n")
+            .append("\t\t\t\t$jsonWriter.endObject();\n");
+        break;
+      case ONEOF:
+        // Validation has already ensured that each variant has a distinct runtime representation.
+        res.append("\t\t\t\t");
+        for (Type variantType : ((Types.OneofType) type).getVariantTypes()) {
+          res.append("if ($v instanceof ")
+              .append(getRuntimeClassForType(variantType))
+              .append(") {\n")
+              .append("\t\t\t\t\t")
+              .append(getWriteJSONJavaSource(
+                  variantType,
+                  String.format("((%s) $v)", variantType.getJavaSourceType()),
+                  writeMethodNames,
+                  writeMethods
+              ))
+              .append("\n")
+              .append("\t\t\t\t} else ");
+        }
+        res.append("{\n")
+            .append("\t\t\t\t\tthrow new IllegalStateException(\"Internal Error! Unexpected oneof variant: \" + $v);\n")
+            .append("\t\t\t\t}\n");
+        break;
+      default:
+        throw new RuntimeException("Internal Compiler Error: Should be unreachable! " + type);
+    }
+    return res.append("\t\t\t}\n");
+  }
+
+  private static String getRuntimeClassForType(Type type) {
+    switch (type.baseType()) {
+      case BOOLEAN:
+        return "Boolean";
+      case INTEGER:
+        return "Integer";
+      case FLOAT:
+        return "Float";
+      case STRING:
+        return "String";
+      case ATOM:
+        return "$ClaroAtom";
+      case LIST:
+        return "ClaroList";
+      case STRUCT:
+        return "ClaroStruct";
+      case MAP:
+        return "ClaroMap";
+      default:
+        throw new RuntimeException("Internal Compiler Error! Should be unreachable." + type);
+    }
+  }
+
+  @Override
+  public Object generateInterpretedOutput(ScopedHeap scopedHeap) {
+    // TODO(steving) Eventually need to impl toJson when I come back to adding support for the interpreted backend.
+    throw new RuntimeException("Internal Compiler Error! Claro doesn't support toJson() in the interpreted backend just yet!");
+  }
+}
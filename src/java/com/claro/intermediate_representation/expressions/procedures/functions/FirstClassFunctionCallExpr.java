@@ -133,7 +133,11 @@ public class FirstClassFunctionCallExpr extends Expr {
             .collect(Collectors.joining(", "));
     GeneratedJavaSource functionCallJavaSourceBody = this.functionExpr.generateJavaSourceOutput(scopedHeap);
     functionCallJavaSourceBody.javaSourceBody()
-        .append(String.format(".apply(%s)", exprsJavaSourceBodyCodegen));
+        .append(String.format(
+            ".%s(%s)",
+            Types.ProcedureType.getJavaSourceApplyMethodName(this.argExprs.size()),
+            exprsJavaSourceBodyCodegen
+        ));
 
     // We definitely don't want to be throwing away the static definitions and preambles required for the exprs
     // passed as args to this function call, so ensure that they're correctly collected and passed on here.
@@ -802,7 +802,9 @@ public class FunctionCallExpr extends Expr {
         functionCallJavaSourceBody = GeneratedJavaSource.forJavaSourceBody(
             new StringBuilder(
                 String.format(
-                    this.staticDispatchCodegen ? "%s%s(%s%s)" : "%s%s.apply(%s%s)",
+                    this.staticDispatchCodegen
+                    ? "%s%s(%s%s)"
+                    : "%s%s." + Types.ProcedureType.getJavaSourceApplyMethodName(this.argExprs.size()) + "(%s%s)",
                     optionalNormalizedOriginatingDepModulePrefix.orElse(""),
                     this.optionalOriginatingDepModuleName
                         .map(depMod -> this.name.replace(String.format("$DEP_MODULE$%s$", depMod), ""))
@@ -2,10 +2,12 @@ package com.claro.intermediate_representation.expressions.term;
 
 import com.claro.ClaroParserException;
 import com.claro.compiler_backends.interpreted.ScopedHeap;
+import com.claro.intermediate_representation.expressions.Expr;
 import com.claro.intermediate_representation.types.ClaroTypeException;
 import com.claro.intermediate_representation.types.Type;
 import com.claro.internal_static_state.InternalStaticStateUtil;
 
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
@@ -17,6 +19,7 @@ public class PipeChainBackreferenceTerm extends Term {
   // identifier reference, otherwise, if there's just a single backreference in this stage, then this will be a proper
   // codegen call to the previous expr.
   private AtomicReference<BiFunction<ScopedHeap, Boolean, Object>> prevPipeChainStageBackreferenceCodegenFn;
+  private AtomicReference<Object> prevPipeChainStageInlinedExpr;
 
   public PipeChainBackreferenceTerm(
       Supplier<String> currentLine, int currentLineNumber, int startCol, int endCol) {
@@ -32,6 +35,7 @@ public class PipeChainBackreferenceTerm extends Term {
     InternalStaticStateUtil.PipeChainStmt_backreferenceUsagesCount++;
     prevPipeChainStageBackreferenceCodegenFn =
         InternalStaticStateUtil.PipeChainStmt_backreferencedPipeChainStageCodegenFn;
+    prevPipeChainStageInlinedExpr = InternalStaticStateUtil.PipeChainStmt_backreferencedPipeChainStageInlinedExpr;
     try {
       return InternalStaticStateUtil.PipeChainStmt_backreferencedPipeChainStageType.get();
     } catch (NullPointerException e) {
@@ -45,6 +49,12 @@ public class PipeChainBackreferenceTerm extends Term {
     }
   }
 
+  // Present only if this backreference's codegen will simply be the backreferenced stage's own codegen inlined in place,
+  // rather than a reference to some intermediate variable.
+  public Optional<Expr> getInlinedBackreferencedExpr() {
+    return Optional.ofNullable((Expr) prevPipeChainStageInlinedExpr.get());
+  }
+
   @Override
   public GeneratedJavaSource generateJavaSourceOutput(ScopedHeap scopedHeap) {
     // We lookup the backreferenced expr again since the PipeChainStmt might be swapping out the Expr between
@@ -90,4 +90,8 @@ public class AtomDefinitionStmt extends Stmt {
     // Nothing to codegen for an atom def.
     return null;
   }
+
+  public static void resetStaticState() {
+    AtomDefinitionStmt.globalAtomCount = 0;
+  }
 }
@@ -192,4 +192,8 @@ public class AutomaticErrorPropagationStmt {
   public Object generateInterpretedOutput(ScopedHeap scopedHeap) {
     throw new RuntimeException("Internal Compiler Error: Automatic Error Propagation via `?` operator is not yet supported in the interpreted backend.");
   }
+
+  public static void resetStaticState() {
+    AutomaticErrorPropagationStmt.autoCheckedVariableCount = 0;
+  }
 }
@@ -42,7 +42,8 @@ public class BreakStmt extends Stmt {
 
   @Override
   public GeneratedJavaSource generateJavaSourceOutput(ScopedHeap scopedHeap) {
-    return GeneratedJavaSource.forJavaSourceBody(new StringBuilder("break;\n"));
+    return GeneratedJavaSource.forJavaSourceBody(
+        new StringBuilder(InternalStaticStateUtil.getBreakStmtCodegen()));
   }
 
   @Override
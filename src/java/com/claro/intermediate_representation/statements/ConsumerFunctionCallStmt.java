@@ -317,7 +317,9 @@ public class ConsumerFunctionCallStmt extends Stmt {
       consumerFnGenJavaSource = GeneratedJavaSource.forJavaSourceBody(
           new StringBuilder(
               String.format(
-                  this.staticDispatchCodegen ? "%s%s(%s%s);\n" : "%s%s.apply(%s%s);\n",
+                  this.staticDispatchCodegen
+                  ? "%s%s(%s%s);\n"
+                  : "%s%s." + Types.ProcedureType.getJavaSourceApplyMethodName(this.argExprs.size()) + "(%s%s);\n",
                   optionalNormalizedOriginatingDepModulePrefix.orElse(""),
                   this.optionalOriginatingDepModuleName
                       .map(depMod -> this.consumerName.replace(String.format("$DEP_MODULE$%s$", depMod), ""))
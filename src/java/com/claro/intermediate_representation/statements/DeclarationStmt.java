@@ -26,6 +26,11 @@ public class DeclarationStmt extends Stmt {
   // Determine whether this is a blocking declaration statement, in which case we'll alter the type checking to expect
   // a future and generate some additional Future::get call to unwrap the future.
   private final boolean blocking;
+  // Recorded during codegen so that, if this turns out to declare a top-level variable in a program large enough that
+  // its top-level stmts get split across multiple methods, the declaration can be hoisted to a static field after the
+  // fact. See hoistToStaticField().
+  private String generatedJavaSourceLocalDeclaration;
+  private int generatedJavaSourceBodyLength;
 
   // Constructor for var initialization requesting type inference.
   public DeclarationStmt(String identifier, Expr e) {
@@ -192,7 +197,9 @@ public class DeclarationStmt extends Stmt {
             .resolveType(scopedHeap);
 
     // First time we're seeing the variable, so declare it.
-    res.append(String.format("%s %s", identifierValidatedType.getJavaSourceType(), this.IDENTIFIER));
+    this.generatedJavaSourceLocalDeclaration =
+        String.format("%s %s", identifierValidatedType.getJavaSourceType(), this.IDENTIFIER);
+    res.append(this.generatedJavaSourceLocalDeclaration);
     scopedHeap.putIdentifierValue(this.IDENTIFIER, identifierValidatedType);
 
     GeneratedJavaSource exprGeneratedJavaSource = GeneratedJavaSource.forJavaSourceBody(new StringBuilder());
@@ -220,10 +227,33 @@ public class DeclarationStmt extends Stmt {
       exprGeneratedJavaSource.javaSourceBody().setLength(0);
     }
     res.append(";\n");
+    this.generatedJavaSourceBodyLength = res.length();
 
     return GeneratedJavaSource.forJavaSourceBody(res).createMerged(exprGeneratedJavaSource);
   }
 
+  // Rewrites this stmt's already generated local variable declaration into a plain assignment to a static field of the
+  // same name, returning the field's declaration. The given StringBuilder must be the body generated for the enclosing
+  // top-level stmt, which always ends with the codegen for this declaration (anything that sub-exprs needed to generate
+  // beforehand will have been prepended).
+  public String hoistToStaticField(StringBuilder enclosingStmtJavaSourceBody) {
+    int declarationStart = enclosingStmtJavaSourceBody.length() - this.generatedJavaSourceBodyLength;
+    Preconditions.checkState(
+        enclosingStmtJavaSourceBody.indexOf(this.generatedJavaSourceLocalDeclaration, declarationStart)
+        == declarationStart,
+        "Internal Compiler Error! Unable to locate the codegen for the declaration of `%s`.", this.IDENTIFIER
+    );
+    if (this.getChildren().isEmpty()) {
+      // There's nothing to assign yet, so the declaration can just be dropped altogether.
+      enclosingStmtJavaSourceBody.delete(
+          declarationStart, declarationStart + this.generatedJavaSourceLocalDeclaration.length() + 1);
+    } else {
+      enclosingStmtJavaSourceBody.replace(
+          declarationStart, declarationStart + this.generatedJavaSourceLocalDeclaration.length(), this.IDENTIFIER);
+    }
+    return String.format("static %s;\n", this.generatedJavaSourceLocalDeclaration);
+  }
+
   @Override
   public Object generateInterpretedOutput(ScopedHeap scopedHeap) {
     if (!this.errorProp) {
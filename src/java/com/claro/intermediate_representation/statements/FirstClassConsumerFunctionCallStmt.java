@@ -118,7 +118,11 @@ public class FirstClassConsumerFunctionCallStmt extends Stmt {
             .collect(Collectors.joining(", "));
     GeneratedJavaSource functionCallJavaSourceBody = this.functionExpr.generateJavaSourceOutput(scopedHeap);
     functionCallJavaSourceBody.javaSourceBody()
-        .append(String.format(".apply(%s);\n", exprsJavaSourceBodyCodegen));
+        .append(String.format(
+            ".%s(%s);\n",
+            Types.ProcedureType.getJavaSourceApplyMethodName(this.argExprs.size()),
+            exprsJavaSourceBodyCodegen
+        ));
 
     // We definitely don't want to be throwing away the static definitions and preambles required for the exprs
     // passed as args to this function call, so ensure that they're correctly collected and passed on here.
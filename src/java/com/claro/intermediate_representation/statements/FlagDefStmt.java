@@ -97,7 +97,7 @@ public class FlagDefStmt extends Stmt {
     String javaParsedOptionTypeCast =
         String.format("(%s)", getJavaSourceParsedOptionType(this.resolvedType, /*primitiveValueTypes=*/false));
     if (this.resolvedType.baseType().equals(BaseType.LIST)) {
-      res.append("new ClaroList(")
+      res.append("ClaroList.forListType(")
           .append(this.resolvedType.getJavaSourceClaroType())
           .append(", ")
           .append(javaParsedOptionTypeCast)
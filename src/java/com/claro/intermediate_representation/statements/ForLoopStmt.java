@@ -11,6 +11,8 @@ import com.claro.internal_static_state.InternalStaticStateUtil;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
+import java.util.Optional;
+
 public class ForLoopStmt extends Stmt {
 
   private static final ImmutableSet<BaseType> SUPPORTED_COLLECTION_TYPES =
@@ -98,14 +100,17 @@ public class ForLoopStmt extends Stmt {
     scopedHeap.enterNewScope();
     scopedHeap.putIdentifierValue(this.itemName.identifier, this.validatedItemType);
     scopedHeap.initializeIdentifier(this.itemName.identifier);
+    InternalStaticStateUtil.enterLoopBodyCodegen();
     GeneratedJavaSource bodyStmtListJavaSource = this.stmtListNode.generateJavaSourceOutput(scopedHeap);
+    Optional<String> optionalLoopLabel = InternalStaticStateUtil.exitLoopBodyCodegen();
     scopedHeap.exitCurrScope();
 
     GeneratedJavaSource resGenJavaSource =
         bodyStmtListJavaSource.withNewJavaSourceBody(
             new StringBuilder(
                 String.format(
-                    "for (%s %s : %s) {\n%s\n}\n",
+                    "%sfor (%s %s : %s) {\n%s\n}\n",
+                    optionalLoopLabel.map(l -> l + ": ").orElse(""),
                     this.validatedItemType.getJavaSourceType(),
                     this.itemName.identifier,
                     iteratedExprJavaSource.javaSourceBody().toString(),
@@ -1,6 +1,7 @@
 package com.claro.intermediate_representation.statements;
 
 import com.claro.compiler_backends.interpreted.ScopedHeap;
+import com.claro.intermediate_representation.expressions.CopyExpr;
 import com.claro.intermediate_representation.statements.contracts.ContractImplementationStmt;
 import com.claro.intermediate_representation.statements.contracts.ContractProcedureImplementationStmt;
 import com.claro.intermediate_representation.types.*;
@@ -476,7 +477,8 @@ public class GenericFunctionDefinitionStmt extends Stmt {
       monomorphization.procedureName = currGenericProcedureName + "__" + Hashing.sha256()
           .hashUnencodedChars(monomorphization.procedureName)
           .toString();
-      monomorphizationsCodeGen = monomorphization.generateJavaSourceOutput(scopedHeap);
+      monomorphizationsCodeGen = withDepModuleMonomorphizationCopyMethods(
+          monomorphization.generateJavaSourceOutput(scopedHeap));
     } else {
       // Need to drop the "$ContractName::<Concrete,Types>___" prefix to make it callable.
       monomorphization.procedureName =
@@ -485,7 +487,8 @@ public class GenericFunctionDefinitionStmt extends Stmt {
           + "__" + Hashing.sha256()
               .hashUnencodedChars(monomorphization.procedureName)
               .toString();
-      GeneratedJavaSource currMonomorphizationCodeGen = monomorphization.generateJavaSourceOutput(scopedHeap);
+      GeneratedJavaSource currMonomorphizationCodeGen =
+          withDepModuleMonomorphizationCopyMethods(monomorphization.generateJavaSourceOutput(scopedHeap));
       InternalStaticStateUtil.GenericProcedureDefinitionStmt_alreadyCodegenedContractProcedureMonomorphizations
           .put(currGenericProcedureName, concreteTypeParams, currMonomorphizationCodeGen);
 
@@ -507,6 +510,21 @@ public class GenericFunctionDefinitionStmt extends Stmt {
     return monomorphizationsCodeGen;
   }
 
+  // Dep module monomorphizations are each codegen'd into their own class in the requesting compilation unit, so they
+  // need to carry along the definitions of whatever copy() methods and interned types they reference. Otherwise,
+  // ProgramNode places them in the current compilation unit's class.
+  private static GeneratedJavaSource withDepModuleMonomorphizationCopyMethods(GeneratedJavaSource monomorphizationCodeGen) {
+    if (!InternalStaticStateUtil.DEP_MODULE_MONOMORPHIZATION_ENABLED) {
+      return monomorphizationCodeGen;
+    }
+    StringBuilder copyMethodDefinitions = CopyExpr.consumeCopyMethodDefinitions();
+    return GeneratedJavaSource.forStaticDefinitionsAndPreamble(
+            new StringBuilder(),
+            Types.UserDefinedType.consumeInternedTypeFieldDefinitions().append(copyMethodDefinitions)
+        )
+        .createMerged(monomorphizationCodeGen);
+  }
+
   @Override
   public Object generateInterpretedOutput(ScopedHeap scopedHeap) {
     return null;
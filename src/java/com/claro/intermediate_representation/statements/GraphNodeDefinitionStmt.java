@@ -1,8 +1,12 @@
 package com.claro.intermediate_representation.statements;
 
 import com.claro.compiler_backends.interpreted.ScopedHeap;
-import com.claro.intermediate_representation.expressions.Expr;
+import com.claro.intermediate_representation.Node;
+import com.claro.intermediate_representation.expressions.*;
+import com.claro.intermediate_representation.expressions.bool.*;
+import com.claro.intermediate_representation.expressions.numeric.*;
 import com.claro.intermediate_representation.expressions.procedures.functions.FunctionCallExpr;
+import com.claro.intermediate_representation.expressions.term.*;
 import com.claro.intermediate_representation.types.*;
 import com.claro.internal_static_state.InternalStaticStateUtil;
 import com.google.common.base.Preconditions;
@@ -14,6 +18,45 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 public class GraphNodeDefinitionStmt extends Stmt {
+  // Nodes built exclusively from these Exprs do nothing more than shuffle around and combine already-computed values,
+  // so hopping over to the executor to run them would cost far more than the work itself. Such nodes are instead run
+  // directly on whichever thread completes their last upstream dep, effectively fusing them into that upstream node's
+  // task. Note that this is an allowlist of exact classes, and every one of these registers all of its operands as
+  // children, so that a walk over Node::getChildren is guaranteed to see any nested procedure call.
+  private static final ImmutableSet<Class<? extends Expr>> TRIVIALLY_CHEAP_EXPR_CLASSES =
+      ImmutableSet.of(
+          // References and literals.
+          GraphNodeReferenceExpr.class,
+          IdentifierReferenceTerm.class,
+          IntegerTerm.class,
+          LongTerm.class,
+          FloatTerm.class,
+          DoubleTerm.class,
+          StringTerm.class,
+          CharTerm.class,
+          TrueTerm.class,
+          FalseTerm.class,
+          // Arithmetic.
+          AddNumericExpr.class,
+          SubtractNumericExpr.class,
+          MultiplyNumericExpr.class,
+          DivideNumericExpr.class,
+          ModulusNumericExpr.class,
+          NegateNumericExpr.class,
+          // Boolean logic and numeric comparisons.
+          AndBoolExpr.class,
+          OrBoolExpr.class,
+          NotBoolExpr.class,
+          LessThanBoolExpr.class,
+          LessThanOrEqualToBoolExpr.class,
+          GreaterThanBoolExpr.class,
+          GreaterThanOrEqualToBoolExpr.class,
+          // Misc O(1) accesses.
+          ParenthesizedExpr.class,
+          CollectionSubscriptExpr.class,
+          LenExpr.class,
+          CastExpr.class
+      );
 
   protected final String nodeName;
   private final Expr nodeExpr;
@@ -29,6 +72,7 @@ public class GraphNodeDefinitionStmt extends Stmt {
 
   // We'll validate that graph functions are acyclic by verifying that each node is only type-checked exactly once.
   private boolean alreadyValidated = false;
+  private Optional<Boolean> optionalIsTriviallyCheap = Optional.empty();
 
   public GraphNodeDefinitionStmt(String nodeName, Expr nodeExpr) {
     super(ImmutableList.of());
@@ -391,11 +435,11 @@ public class GraphNodeDefinitionStmt extends Stmt {
                   .collect(Collectors.joining(
                       ",\n", "", propagatedGraphFunctionArgsAndInjectedKeysValues.length() > 1 ? ",\n" : "")))
           .append(propagatedGraphFunctionArgsAndInjectedKeysValues)
-          // Always schedule the transformation to take place on the configured ExecutorService otherwise there would be a
-          // chance that some heavy work would be done on the thread that called the transform (which could easily be the
-          // request thread that we never want to block).
+          // Unless this node is trivially cheap, always schedule the transformation to take place on the configured
+          // ExecutorService otherwise there would be a chance that some heavy work would be done on the thread that
+          // called the transform (which could easily be the request thread that we never want to block).
           .append(
-              ",\n\t\t\t\tClaroRuntimeUtilities.DEFAULT_EXECUTOR_SERVICE));\n");
+              String.format(",\n\t\t\t\t%s));\n", getNodeExecutorJavaSource()));
     } else {
       String upstreamLazyProviderDeps = this.upstreamGraphNodeProviderReferences.stream()
           .map(
@@ -449,11 +493,13 @@ public class GraphNodeDefinitionStmt extends Stmt {
       } else {
         res.append(
             String.format(
-                "\t\t\tnew ClaroFuture(%s, ClaroRuntimeUtilities.DEFAULT_EXECUTOR_SERVICE\n" +
-                "\t\t\t\t.submit(() -> $%s_nodeImpl(\n%s));\n",
+                "\t\t\tnew ClaroFuture(%s, Futures.submit(\n" +
+                "\t\t\t\t() -> $%s_nodeImpl(\n%s,\n" +
+                "\t\t\t\t%s));\n",
                 this.actualNodeType.getJavaSourceClaroType(),
                 this.nodeName,
-                upstreamLazyProviderDeps + propagatedGraphFunctionArgsAndInjectedKeysValues
+                upstreamLazyProviderDeps + propagatedGraphFunctionArgsAndInjectedKeysValues,
+                getNodeExecutorJavaSource()
             ));
       }
     }
@@ -474,6 +520,35 @@ public class GraphNodeDefinitionStmt extends Stmt {
     return res;
   }
 
+  private String getNodeExecutorJavaSource() {
+    return isTriviallyCheap()
+           ? "com.google.common.util.concurrent.MoreExecutors.directExecutor()"
+           // Initialized by the enclosing GraphProcedureDefinitionStmt's codegen.
+           : "$graphExecutor";
+  }
+
+  private boolean isTriviallyCheap() {
+    if (!this.optionalIsTriviallyCheap.isPresent()) {
+      this.optionalIsTriviallyCheap =
+          Optional.of(
+              // Graph consumer root nodes are always a consumer call, so certainly have real work to do.
+              !this.actualNodeType.equals(Types.UNDECIDED) && isTriviallyCheapExpr(this.nodeExpr));
+    }
+    return this.optionalIsTriviallyCheap.get();
+  }
+
+  private static boolean isTriviallyCheapExpr(Node node) {
+    if (!TRIVIALLY_CHEAP_EXPR_CLASSES.contains(node.getClass())) {
+      return false;
+    }
+    for (Node child : node.getChildren()) {
+      if (!isTriviallyCheapExpr(child)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private StringBuilder generatePropagatedFunctionArgsAndInjectedKeys(ScopedHeap scopedHeap) {
     return new StringBuilder()
         .append(
@@ -291,9 +291,16 @@ public class GraphProcedureDefinitionStmt extends ProcedureDefinitionStmt {
 
     // Need to wrap the functions generated for the nodes in an internal helper class so that the graph function may be
     // called multiple times concurrently without the cache being accidentally reused.
+    // Each Graph Function resolves the executor that its nodes should run on exactly once, when first called. Endpoint
+    // handlers are bound by their endpoint's name.
     GeneratedJavaSource res = GeneratedJavaSource.forJavaSourceBody(
         new StringBuilder()
-            .append("\tprivate static class $GraphAsyncImpl {\n"));
+            .append("\tprivate static class $GraphAsyncImpl {\n")
+            .append(String.format(
+                "\t\tprivate static final java.util.concurrent.Executor $graphExecutor =\n" +
+                "\t\t\tcom.claro.runtime_utilities.$GraphFunctionExecutors.forGraphFunction(\"%s\");\n",
+                this.procedureName.replace("$EndpointHandler", "")
+            )));
 
     res = res.createMerged(rootNode.generateJavaSourceOutput(scopedHeap));
     for (GraphNodeDefinitionStmt node : nonRootNodes) {
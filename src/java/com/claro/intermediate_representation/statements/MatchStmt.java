@@ -7,6 +7,7 @@ import com.claro.intermediate_representation.expressions.procedures.functions.Fu
 import com.claro.intermediate_representation.expressions.procedures.functions.StructuralConcreteGenericTypeValidationUtil;
 import com.claro.intermediate_representation.expressions.term.*;
 import com.claro.intermediate_representation.types.*;
+import com.claro.internal_static_state.InternalStaticStateUtil;
 import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -24,6 +25,10 @@ import java.util.stream.IntStream;
 
 public class MatchStmt extends Stmt {
   private static long globalMatchCount = 0;
+  // Matches over at least this many distinct type literals will `switch` on a dense int tag looked up from a static
+  // table, rather than via a linear chain of `if (ClaroRuntimeUtilities.getClaroType(...).equals(<type>))` checks.
+  private static final int MIN_TYPE_LITERALS_FOR_TYPE_TAG_DISPATCH = 3;
+  private static long globalTypeTagTableCount = 0;
   private final Expr matchedExpr;
   private ImmutableList<ImmutableList<Object>> cases;
   private final ImmutableList<ImmutableList<Object>> originalCases;
@@ -1520,6 +1525,8 @@ public class MatchStmt extends Stmt {
         ((ImmutableList<MaybeWildcardPrimitivePattern>) switchGroup.peek().get(0)).get(startInd);
     Type firstGroupCasePatternImpliedType = firstGroupCasePattern.toImpliedType(scopedHeap);
     boolean needExtraRCurly = false;
+    Optional<ImmutableList<Type>> optionalTypeTagCases = Optional.empty();
+    boolean isJavaSwitch = false;
     String currMatchedValIdentifier = String.format("$%sv%s", currMatchedValIdentifierPrefix, startInd);
 
     if (firstGroupCasePatternImpliedType.equals(Types.BOOLEAN)) {
@@ -1529,19 +1536,40 @@ public class MatchStmt extends Stmt {
       }
     } else if (firstGroupCasePattern.getOptionalExpr().isPresent()
                && firstGroupCasePattern.getOptionalExpr().get() instanceof TypeProvider) {
-      // TODO(steving) At some point I can probably gain a tiny optimization by just switching over the type's hashcode
-      //   instead of doing a series of if-stmts. To be safe, I should of course first put in a sanity check that for
-      //   this current oneof's variants, all hashcodes are *actually* different. In the case that they're not, probably
-      //   would be simplest to just maintain this current if-stmt approach (Maybe just for the collisions? i.e.
-      //   encoding the dynamic logic of a hashtable lookup in the static codegen..). For now, I don't necessarily want
-      //   to commit to this as I'm not 100% sure of all implications relating to what happens if hashcode impls change
-      //   over time in relation to already compiled code....since Claro doesn't have a module system yet, I don't want
-      //   to pretend that I know those implications in advance.
-      res.get().javaSourceBody().append("if (ClaroRuntimeUtilities.getClaroType(")
-          .append(currMatchedValIdentifier)
-          .append(").equals(")
-          .append(firstGroupCasePatternImpliedType.getJavaSourceClaroType())
-          .append(")");
+      // Matches over enough distinct type literals dispatch on a per-match type tag rather than a chain of Type equality
+      // checks. The tag table is keyed on the Types themselves rather than on their hashcodes, so codegen never depends on
+      // hashcode impls staying stable across separately compiled modules.
+      optionalTypeTagCases = getTypeTagCases(switchGroup, startInd, scopedHeap);
+      if (optionalTypeTagCases.isPresent()) {
+        ImmutableList<Type> typeTagCases = optionalTypeTagCases.get();
+        // Each matched type gets a dense int tag local to this match so that dispatch is a real `switch` over the tag.
+        long typeTagTableId = globalTypeTagTableCount++;
+        res.updateAndGet(codegen -> codegen.createMerged(GeneratedJavaSource.forStaticDefinitions(
+            new StringBuilder("private static final ClaroRuntimeUtilities.$TypeTagTable $Match")
+                .append(matchId)
+                .append("_typeTagTable")
+                .append(typeTagTableId)
+                .append(" =\n    new ClaroRuntimeUtilities.$TypeTagTable(ImmutableList.of(")
+                .append(typeTagCases.stream()
+                            .map(t -> "\n        " + t.getJavaSourceClaroType())
+                            .collect(Collectors.joining(",")))
+                .append("));\n"))));
+        res.get().javaSourceBody()
+            .append("switch ($Match")
+            .append(matchId)
+            .append("_typeTagTable")
+            .append(typeTagTableId)
+            .append(".getCaseTag(ClaroRuntimeUtilities.getTypeTag(")
+            .append(currMatchedValIdentifier)
+            .append("))");
+        isJavaSwitch = true;
+      } else {
+        res.get().javaSourceBody().append("if (ClaroRuntimeUtilities.getClaroType(")
+            .append(currMatchedValIdentifier)
+            .append(").equals(")
+            .append(firstGroupCasePatternImpliedType.getJavaSourceClaroType())
+            .append(")");
+      }
     } else if (firstGroupCasePattern.isOneofTypeVariantValueLiteralSentinel()) {
       if (((OneofTypeVariantsMatchedSentinel) firstGroupCasePattern.getOptionalExpr().get())
               .getOneofTypeVariantsMatched().size() == 1) {
@@ -1671,13 +1699,19 @@ public class MatchStmt extends Stmt {
           .append(") ")
           .append(currMatchedValIdentifier);
       needExtraRCurly = true;
+      isJavaSwitch = true;
     } else {
       res.get()
           .javaSourceBody()
           .append("switch (")
           .append(currMatchedValIdentifier);
+      isJavaSwitch = true;
     }
     res.get().javaSourceBody().append(") {\n");
+    // Any `break` stmt in a case action must now label the loop it targets to avoid only exiting this `switch`.
+    if (isJavaSwitch) {
+      InternalStaticStateUtil.MatchStmt_openJavaSwitchCount++;
+    }
     while (!switchGroup.isEmpty()) {
       Optional<Object> currCase =
           ((ImmutableList<MaybeWildcardPrimitivePattern>) switchGroup.peek().get(0)).get(startInd).getOptionalExpr();
@@ -1714,7 +1748,8 @@ public class MatchStmt extends Stmt {
           firstGroupCasePattern = null; // I'm a monster.
         }
       } else if (firstGroupCasePattern.getOptionalExpr().isPresent()
-                 && firstGroupCasePattern.getOptionalExpr().get() instanceof TypeProvider) {
+                 && firstGroupCasePattern.getOptionalExpr().get() instanceof TypeProvider
+                 && !optionalTypeTagCases.isPresent()) {
         codegenDestructuredSequenceMatch(
             caseGroup, flattenedPatternTypes,
             startInd + 1, res, matchedValIdentifier, scopedHeap, matchId, currMatchedValIdentifierPrefix
@@ -1733,7 +1768,9 @@ public class MatchStmt extends Stmt {
         }
       } else {
         String formattedCaseValue = currCase.get().toString();
-        if (currCase.get() instanceof String) {
+        if (optionalTypeTagCases.isPresent()) {
+          formattedCaseValue = String.valueOf(optionalTypeTagCases.get().indexOf(currCase.get()));
+        } else if (currCase.get() instanceof String) {
           formattedCaseValue = String.format("\"%s\"", formattedCaseValue);
         } else if (currCase.get() instanceof Character) {
           formattedCaseValue = String.format("'%s'", formattedCaseValue);
@@ -1755,11 +1792,32 @@ public class MatchStmt extends Stmt {
     }
 
     res.get().javaSourceBody().append("}\n");
+    if (isJavaSwitch) {
+      InternalStaticStateUtil.MatchStmt_openJavaSwitchCount--;
+    }
     if (needExtraRCurly) {
       res.get().javaSourceBody().append("}\n");
     }
   }
 
+  // Collects the distinct type literals matched by this switch group, in the order that their cases will be codegen'd,
+  // only if there are enough of them to make dispatching on a type tag worthwhile.
+  private static Optional<ImmutableList<Type>> getTypeTagCases(
+      Stack<ImmutableList<Object>> switchGroup, int startInd, ScopedHeap scopedHeap) {
+    LinkedHashSet<Type> typeTagCases = new LinkedHashSet<>();
+    // The switch group is consumed from the top of the stack down.
+    for (int i = switchGroup.size() - 1; i >= 0; i--) {
+      typeTagCases.add(
+          ((TypeProvider)
+               ((ImmutableList<MaybeWildcardPrimitivePattern>) switchGroup.get(i).get(0))
+                   .get(startInd).getOptionalExpr().get())
+              .resolveType(scopedHeap));
+    }
+    return typeTagCases.size() >= MIN_TYPE_LITERALS_FOR_TYPE_TAG_DISPATCH
+           ? Optional.of(ImmutableList.copyOf(typeTagCases))
+           : Optional.empty();
+  }
+
   private static int countWildcardFromInd(ImmutableList<MaybeWildcardPrimitivePattern> l, int i) {
     int count = 0;
     while (i < l.size() && !l.get(i).getOptionalExpr().isPresent()) {
@@ -2060,4 +2118,10 @@ public class MatchStmt extends Stmt {
       return this.getMatchedTypeProvider().resolveType(scopedHeap);
     }
   }
+
+  public static void resetStaticState() {
+    MatchStmt.globalMatchCount = 0;
+    MatchStmt.globalTypeTagTableCount = 0;
+    MaybeWildcardPrimitivePattern.globalWildcardCount = 0;
+  }
 }
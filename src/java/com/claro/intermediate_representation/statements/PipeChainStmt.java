@@ -30,6 +30,12 @@ public class PipeChainStmt extends Stmt {
     this.sinkStmt = sinkStmt;
   }
 
+  // The sink is the only part of a pipe chain that may declare a variable that remains visible after the chain, and
+  // its codegen always comes last.
+  public Stmt getSinkStmt() {
+    return this.sinkStmt;
+  }
+
   @Override
   public void assertExpectedExprTypes(ScopedHeap scopedHeap) throws ClaroTypeException {
     InternalStaticStateUtil.PipeChainStmt_withinPipeChainContext = true;
@@ -56,6 +62,7 @@ public class PipeChainStmt extends Stmt {
       // Reset the codegen fn so that we can feed codegen to just the backreference exprs from this curr stage.
       InternalStaticStateUtil.PipeChainStmt_backreferencedPipeChainStageCodegenFn =
           new AtomicReference<>();
+      InternalStaticStateUtil.PipeChainStmt_backreferencedPipeChainStageInlinedExpr = new AtomicReference<>();
       // Validate the current stage based on the previous stage's type, and then update the tracked previous stage type
       // to be the type of the currChainStage so the next stage is ready to validate against it.
       InternalStaticStateUtil.PipeChainStmt_backreferencedPipeChainStageType
@@ -84,6 +91,7 @@ public class PipeChainStmt extends Stmt {
     // Reset the codegen fn so that we can feed codegen to just the backreference exprs from this curr stage.
     InternalStaticStateUtil.PipeChainStmt_backreferencedPipeChainStageCodegenFn =
         new AtomicReference<>();
+    InternalStaticStateUtil.PipeChainStmt_backreferencedPipeChainStageInlinedExpr = new AtomicReference<>();
     // Do type validation of the sink and have sink collect the codegen fn.
     sinkStmt.assertExpectedExprTypes(scopedHeap);
 
@@ -121,6 +129,7 @@ public class PipeChainStmt extends Stmt {
                   shouldJavaSourceCodeGen
                   ? backreferencedPipeStageExpr.generateJavaSourceOutput(scopedHeap)
                   : backreferencedPipeStageExpr.generateInterpretedOutput(scopedHeap));
+      InternalStaticStateUtil.PipeChainStmt_backreferencedPipeChainStageInlinedExpr.set(backreferencedPipeStageExpr);
     }
   }
 
@@ -170,4 +179,8 @@ public class PipeChainStmt extends Stmt {
         currStageNum
     );
   }
+
+  public static void resetStaticState() {
+    PipeChainStmt.globalPipeChainCount = 0;
+  }
 }
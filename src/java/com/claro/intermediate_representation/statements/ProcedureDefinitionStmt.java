@@ -19,6 +19,7 @@ import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class ProcedureDefinitionStmt extends Stmt {
 
@@ -700,6 +701,29 @@ public class ProcedureDefinitionStmt extends Stmt {
     return Optional.empty();
   }
 
+  // The generated `apply(Object... $args)` just forwards to the fixed-arity `applyN(...)` that holds the real impl.
+  private StringBuilder getForwardToFixedArityApplyJavaSource(int argCount) {
+    return new StringBuilder(this.resolvedProcedureType.hasReturnValue() ? "return " : "")
+        .append(Types.ProcedureType.getJavaSourceApplyMethodName(argCount))
+        .append("(")
+        .append(IntStream.range(0, argCount).mapToObj(i -> "$args[" + i + "]").collect(Collectors.joining(", ")))
+        .append(");\n");
+  }
+
+  private StringBuilder getFixedArityApplyJavaSource(int argCount, StringBuilder body) {
+    return new StringBuilder("@Override\npublic ")
+        .append(this.resolvedProcedureType.hasReturnValue()
+                ? this.resolvedProcedureType.getReturnType().getJavaSourceType()
+                : "void")
+        .append(" ")
+        .append(Types.ProcedureType.getJavaSourceApplyMethodName(argCount))
+        .append("(")
+        .append(IntStream.range(0, argCount).mapToObj(i -> "Object $arg" + i).collect(Collectors.joining(", ")))
+        .append(") {\n")
+        .append(body)
+        .append("}\n");
+  }
+
   @Override
   public GeneratedJavaSource generateJavaSourceOutput(ScopedHeap scopedHeap) {
     if (this.isLambdaType) {
@@ -714,6 +738,12 @@ public class ProcedureDefinitionStmt extends Stmt {
         isLambdaType ? ScopedHeap.Scope.ScopeType.LAMBDA_SCOPE : ScopedHeap.Scope.ScopeType.FUNCTION_SCOPE
     );
 
+    // Procedures with few enough args get the real arg unpacking done in a fixed-arity `applyN(Object $arg0, ...)`
+    // method so that first-class calls can skip allocating the `Object... $args` array altogether.
+    int argCount = this.optionalArgTypesByNameMap.map(ImmutableMap::size).orElse(0);
+    boolean useFixedArityApply =
+        argCount > 0 && argCount <= Types.ProcedureType.MAX_SPECIALIZED_APPLY_ARITY;
+
     BiFunction</*isArgsMap*/Boolean, ImmutableMap<String, Type>, StringBuilder> initializeIdentifiers =
         (isArgsMap, identifierTypesByNameMap) -> {
           ImmutableSet<Map.Entry<String, Type>> argTypesByNameEntrySet = identifierTypesByNameMap.entrySet();
@@ -738,7 +768,7 @@ public class ProcedureDefinitionStmt extends Stmt {
                     argName,
                     argJavaSourceType,
                     isArgsMap
-                    ? String.format("$args[%s];\n", i)
+                    ? String.format(useFixedArityApply ? "$arg%s;\n" : "$args[%s];\n", i)
                     : String.format(
                         "Injector.bindings.get(Key.create(\"%s\", %s));\n",
                         optionalInjectedKeysToAliasMap.get().keySet().asList().get(i).getName(),
@@ -776,11 +806,21 @@ public class ProcedureDefinitionStmt extends Stmt {
         ((StmtListNode) this.getChildren().get(0)).generateJavaSourceOutput(scopedHeap);
     String javaSourceOutput;
     if (isLambdaType) {
+      StringBuilder lambdaBody =
+          optionalJavaSourceBodyBuilder.orElse(new StringBuilder())
+              .append(procedureBodyGeneratedJavaSource.javaSourceBody());
       javaSourceOutput =
-          this.resolvedProcedureType.getJavaNewTypeDefinitionStmtForLambda(
+          useFixedArityApply
+          ? this.resolvedProcedureType.getJavaNewTypeDefinitionStmtForLambda(
+              this.procedureName,
+              getForwardToFixedArityApplyJavaSource(argCount),
+              Optional.of(getFixedArityApplyJavaSource(argCount, lambdaBody)),
+              this.lambdaScopeCapturedVariables
+          )
+          : this.resolvedProcedureType.getJavaNewTypeDefinitionStmtForLambda(
               this.procedureName,
-              optionalJavaSourceBodyBuilder.orElse(new StringBuilder())
-                  .append(procedureBodyGeneratedJavaSource.javaSourceBody()),
+              lambdaBody,
+              Optional.empty(),
               this.lambdaScopeCapturedVariables
           );
     } else {
@@ -796,22 +836,27 @@ public class ProcedureDefinitionStmt extends Stmt {
                         staticPreambleDefs.append(helperGeneratedJavaSource.optionalStaticPreambleStmts()));
           });
 
+      StringBuilder callStaticProcedureBody =
+          optionalJavaSourceBodyBuilder.orElse(new StringBuilder())
+              .append(this.resolvedProcedureType.hasReturnValue() ? "return " : "")
+              .append(this.procedureName)
+              .append("(")
+              .append(
+                  this.optionalArgTypesByNameMap
+                      .map(argMap -> String.join(", ", argMap.keySet()))
+                      .orElse(""))
+              .append(");\n");
       javaSourceOutput =
           this.resolvedProcedureType.getJavaNewTypeDefinitionStmt(
               this.procedureName,
-              optionalJavaSourceBodyBuilder.orElse(new StringBuilder())
-                  .append(this.resolvedProcedureType.hasReturnValue() ? "return " : "")
-                  .append(this.procedureName)
-                  .append("(")
-                  .append(
-                      this.optionalArgTypesByNameMap
-                          .map(argMap -> String.join(", ", argMap.keySet()))
-                          .orElse(""))
-                  .append(");\n"),
+              useFixedArityApply ? getForwardToFixedArityApplyJavaSource(argCount) : callStaticProcedureBody,
               // Non-lambdas all generate a static procedure implementation that will be called in all cases where the
               // call isn't done via a first-class reference in the .claro src.
               Optional.of(
-                  new StringBuilder("\npublic static ")
+                  (useFixedArityApply
+                   ? getFixedArityApplyJavaSource(argCount, callStaticProcedureBody)
+                   : new StringBuilder())
+                      .append("\npublic static ")
                       .append(this.resolvedProcedureType.hasReturnValue()
                               ? this.resolvedProcedureType.getReturnType().getJavaSourceType()
                               : "void")
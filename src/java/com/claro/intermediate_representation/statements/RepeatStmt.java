@@ -7,6 +7,8 @@ import com.claro.intermediate_representation.types.Types;
 import com.claro.internal_static_state.InternalStaticStateUtil;
 import com.google.common.collect.ImmutableList;
 
+import java.util.Optional;
+
 public class RepeatStmt extends Stmt {
   private final Expr expr;
   private final StmtListNode stmtListNode;
@@ -43,8 +45,13 @@ public class RepeatStmt extends Stmt {
     res.javaSourceBody().append("; ++$repeatCounter) {\n");
 
     scopedHeap.enterNewScope();
+    InternalStaticStateUtil.enterLoopBodyCodegen();
     res = res.createMerged(this.stmtListNode.generateJavaSourceOutput(scopedHeap));
     res.javaSourceBody().append("}\n");
+    Optional<String> optionalLoopLabel = InternalStaticStateUtil.exitLoopBodyCodegen();
+    if (optionalLoopLabel.isPresent()) {
+      res.javaSourceBody().insert(0, optionalLoopLabel.get() + ": ");
+    }
     scopedHeap.exitCurrScope();
 
     return res;
@@ -59,4 +59,8 @@ public abstract class Stmt extends Node {
     Stmt.prefixJavaSourceStmts = new StringBuilder();
     return res;
   }
+
+  public static void resetStaticState() {
+    Stmt.prefixJavaSourceStmts = new StringBuilder();
+  }
 }
@@ -7,6 +7,8 @@ import com.claro.intermediate_representation.types.Types;
 import com.claro.internal_static_state.InternalStaticStateUtil;
 import com.google.common.collect.ImmutableList;
 
+import java.util.Optional;
+
 public class WhileStmt extends Stmt {
 
   public WhileStmt(Expr expr, StmtListNode stmtListNode) {
@@ -41,14 +43,17 @@ public class WhileStmt extends Stmt {
 
     // Body of the while
     scopedHeap.enterNewScope();
+    InternalStaticStateUtil.enterLoopBodyCodegen();
     GeneratedJavaSource bodyStmtListJavaSource = getChildren().get(1).generateJavaSourceOutput(scopedHeap);
+    Optional<String> optionalLoopLabel = InternalStaticStateUtil.exitLoopBodyCodegen();
     scopedHeap.exitCurrScope();
 
     GeneratedJavaSource resGenJavaSource =
         bodyStmtListJavaSource.withNewJavaSourceBody(
             new StringBuilder(
                 String.format(
-                    "while ( %s ) {\n%s\n}\n",
+                    "%swhile ( %s ) {\n%s\n}\n",
+                    optionalLoopLabel.map(l -> l + ": ").orElse(""),
                     conditionJavaSource.javaSourceBody().toString(),
                     bodyStmtListJavaSource.javaSourceBody().toString()
                 ))
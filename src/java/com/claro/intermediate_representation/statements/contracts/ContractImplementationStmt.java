@@ -328,4 +328,9 @@ public class ContractImplementationStmt extends Stmt {
   public Object generateInterpretedOutput(ScopedHeap scopedHeap) {
     return null;
   }
+
+  public static void resetStaticState() {
+    ContractImplementationStmt.dependencyGenericProcedureDefCodegenJavaSource =
+        GeneratedJavaSource.forJavaSourceBody(new StringBuilder());
+  }
 }
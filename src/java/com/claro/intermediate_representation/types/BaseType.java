@@ -84,6 +84,7 @@ public enum BaseType {
       "  public %s apply(Object... $args) {\n" +
       "%s\n" +
       "  }\n" +
+      "\n%s\n" +
       "  @Override\n" +
       "  public Type getClaroType() {\n" +
       "    return claroType;\n" +
@@ -137,6 +138,7 @@ public enum BaseType {
       "  public void apply(Object... $args) {\n" +
       "%s\n" +
       "  }\n" +
+      "\n%s\n" +
       "  @Override\n" +
       "  public Type getClaroType() {\n" +
       "    return claroType;\n" +
@@ -191,6 +193,7 @@ public enum BaseType {
       "  public %s apply() {\n" +
       "%s\n" +
       "  }\n" +
+      "\n%s\n" +
       "  @Override\n" +
       "  public Type getClaroType() {\n" +
       "    return claroType;\n" +
@@ -332,7 +332,7 @@ public class ClaroTypeException extends Exception {
       "\t\t%s";
   private static final String ILLEGAL_PARSE_FROM_JSON_FOR_UNSUPPORTED_TARGET_ONEOF_TYPE =
       "Illegal Attempt To Parse JSON String to Target Type Containing Unsupported Oneof: Claro's builtin JSON Parser currently supports only a limited single-token lookahead and does no recursive backtracking" +
-      " so it can only generate Automatic JSON parsing code for oneof types with <= 1 list and <= 1 struct each in its variants set, and as long as both int and float do not appear together:\n" +
+      " so it can only generate Automatic JSON parsing code for oneof types with <= 1 list and <= 1 struct or map each in its variants set, and as long as both int and float do not appear together:\n" +
       "\tFor the give target type:\n" +
       "\t\t%s" +
       "\tFound the following unsupported oneof type definition:\n" +
@@ -344,6 +344,18 @@ public class ClaroTypeException extends Exception {
       "\t\tvar parsed = fromJson(\"...\");\n" +
       "\tProvide some target type instead:\n" +
       "\t\tvar parsed: TargetType = fromJson(\"...\");";
+  private static final String ILLEGAL_TO_JSON_FOR_UNSUPPORTED_TYPE =
+      "Illegal Attempt To Serialize Unsupported Type to JSON: Claro can only generate Automatic JSON serialization code for types structurally matching the following (pseudocode) type definition:\n" +
+      "\t\tnewtype JSON : oneof<Nothing, boolean, int, float, string, [JSON], struct{field1: JSON, ..., fieldN: JSON}, {string: JSON}>\n" +
+      "\tFound the following type:\n" +
+      "\t\t%s";
+  private static final String ILLEGAL_TO_JSON_FOR_UNSUPPORTED_ONEOF_TYPE =
+      "Illegal Attempt To Serialize Type Containing Unsupported Oneof to JSON: Claro only generates Automatic JSON serialization code for types that its builtin JSON Parser could parse right back again," +
+      " so oneof types must have <= 1 list and <= 1 struct or map each in its variants set, and both int and float must not appear together:\n" +
+      "\tFor the given type:\n" +
+      "\t\t%s" +
+      "\tFound the following unsupported oneof type definition:\n" +
+      "\t\t%s";
   private static final String INVALID_ENDPOINT_HANDLERS_BLOCK_FOR_HTTP_SERVICE_UNDEFINED =
       "Invalid Endpoint Handlers Block for Undefined HttpService: No HttpService named `%s` declared within the current scope!";
   private static final String INVALID_ENDPOINT_HANDLERS_BLOCK_FOR_NON_HTTP_SERVICE =
@@ -1498,6 +1510,20 @@ public class ClaroTypeException extends Exception {
     return new ClaroTypeException(ILLEGAL_PARSE_FROM_JSON_WITH_NO_TARGET_TYPE_ASSERTION);
   }
 
+  public static ClaroTypeException forIllegalToJSONForUnsupportedType(Type serializedType) {
+    return new ClaroTypeException(String.format(ILLEGAL_TO_JSON_FOR_UNSUPPORTED_TYPE, serializedType));
+  }
+
+  public static ClaroTypeException forIllegalToJSONForUnsupportedOneofType(Type type, Type serializedType) {
+    return new ClaroTypeException(
+        String.format(
+            ILLEGAL_TO_JSON_FOR_UNSUPPORTED_ONEOF_TYPE,
+            serializedType,
+            type
+        )
+    );
+  }
+
   public static ClaroTypeException forInvalidEndpointHandlersBlockForHttpServiceUndefined() {
     return new ClaroTypeException(INVALID_ENDPOINT_HANDLERS_BLOCK_FOR_HTTP_SERVICE_UNDEFINED);
   }
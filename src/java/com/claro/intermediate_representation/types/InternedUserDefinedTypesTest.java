@@ -0,0 +1,100 @@
+package com.claro.intermediate_representation.types;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Optional;
+
+/**
+ * Generated code references each distinct user-defined type through a static constant. A generic user-defined type
+ * like Foo<T> is codegen'd once per concrete instantiation by remapping its $GenericTypeParams, so this checks that
+ * each instantiation gets its own constant rather than all of them sharing whichever was codegen'd first.
+ */
+public class InternedUserDefinedTypesTest {
+  private static final Types.$GenericTypeParam T = Types.$GenericTypeParam.forTypeParamName("T");
+
+  public static void main(String... args) {
+    testGenericInstantiationsGetDistinctFields();
+    testNestedTypeArgsAreDefinedFirst();
+    testRuntimeInterning();
+    System.out.println("PASSED");
+  }
+
+  private static void testGenericInstantiationsGetDistinctFields() {
+    Types.UserDefinedType.resetStaticState();
+    Types.UserDefinedType fooOfT =
+        Types.UserDefinedType.forTypeNameAndParameterizedTypes("Foo", "", ImmutableList.of(T));
+
+    String fooOfIntField = codegenWithMapping(fooOfT, Types.INTEGER);
+    String fooOfStringField = codegenWithMapping(fooOfT, Types.STRING);
+    check(!fooOfIntField.equals(fooOfStringField), "Foo<int> and Foo<string> must not share a field");
+    check(fooOfIntField.equals(codegenWithMapping(fooOfT, Types.INTEGER)), "Foo<int> should reuse its field");
+    check(
+        fooOfStringField.equals(
+            Types.UserDefinedType.forTypeNameAndParameterizedTypes("Foo", "", ImmutableList.of(Types.STRING))
+                .getJavaSourceClaroType()),
+        "Foo<string> should share its field with the same type codegen'd without any mapping"
+    );
+
+    String defs = Types.UserDefinedType.consumeInternedTypeFieldDefinitions().toString();
+    check(defs.split("\n").length == 2, "Expected exactly 2 field definitions, got:\n" + defs);
+    check(defs.contains(fooOfIntField + " = ") && defs.contains("BaseType.INTEGER"), "Missing Foo<int>:\n" + defs);
+    check(defs.contains(fooOfStringField + " = ") && defs.contains("BaseType.STRING"), "Missing Foo<string>:\n" + defs);
+  }
+
+  private static void testNestedTypeArgsAreDefinedFirst() {
+    Types.UserDefinedType.resetStaticState();
+    Types.UserDefinedType barOfFooOfT =
+        Types.UserDefinedType.forTypeNameAndParameterizedTypes(
+            "Bar", "", ImmutableList.of(
+                Types.UserDefinedType.forTypeNameAndParameterizedTypes("Foo", "", ImmutableList.of(T))));
+
+    String barOfFooOfIntField = codegenWithMapping(barOfFooOfT, Types.INTEGER);
+    String barOfFooOfStringField = codegenWithMapping(barOfFooOfT, Types.STRING);
+    check(!barOfFooOfIntField.equals(barOfFooOfStringField), "Bar<Foo<int>> and Bar<Foo<string>> must not share");
+
+    String[] defs = Types.UserDefinedType.consumeInternedTypeFieldDefinitions().toString().split("\n");
+    check(defs.length == 4, "Expected exactly 4 field definitions, got:\n" + String.join("\n", defs));
+    // Each Foo<_> is defined immediately before the Bar<Foo<_>> that references it.
+    check(defs[0].contains("\"Foo\"") && defs[1].startsWith(fieldDecl(barOfFooOfIntField)), String.join("\n", defs));
+    check(defs[2].contains("\"Foo\"") && defs[3].startsWith(fieldDecl(barOfFooOfStringField)), String.join("\n", defs));
+  }
+
+  private static void testRuntimeInterning() {
+    Types.UserDefinedType fooOfInt =
+        Types.UserDefinedType.internedForTypeNameAndParameterizedTypes("Foo", "", ImmutableList.of(Types.INTEGER));
+    Types.UserDefinedType fooOfString =
+        Types.UserDefinedType.internedForTypeNameAndParameterizedTypes("Foo", "", ImmutableList.of(Types.STRING));
+    check(!fooOfInt.equals(fooOfString), "Foo<int> and Foo<string> must be distinct types");
+    check(
+        fooOfInt == Types.UserDefinedType.internedForTypeNameAndParameterizedTypes(
+            "Foo", "", ImmutableList.of(Types.INTEGER)),
+        "Foo<int> should be interned"
+    );
+    check(
+        Types.UserDefinedType.internedForTypeNameAndDisambiguator("Baz", "")
+        == Types.UserDefinedType.internedForTypeNameAndDisambiguator("Baz", ""),
+        "Baz should be interned"
+    );
+  }
+
+  private static String codegenWithMapping(Types.UserDefinedType type, Type concreteT) {
+    Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen =
+        Optional.of(ImmutableMap.<Type, Type>of(T, concreteT));
+    try {
+      return type.getJavaSourceClaroType();
+    } finally {
+      Types.$GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen = Optional.empty();
+    }
+  }
+
+  private static String fieldDecl(String fieldName) {
+    return "private static final Types.UserDefinedType " + fieldName + " = ";
+  }
+
+  private static void check(boolean condition, String message) {
+    if (!condition) {
+      throw new AssertionError(message);
+    }
+  }
+}
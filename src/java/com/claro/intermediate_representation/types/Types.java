@@ -12,6 +12,7 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -682,7 +683,19 @@ public final class Types {
         String procedureName, StringBuilder body, Optional<StringBuilder> optionalHelperMethods);
 
     public abstract String getJavaNewTypeDefinitionStmtForLambda(
-        String procedureName, StringBuilder body, ImmutableMap<String, Type> capturedVariables);
+        String procedureName,
+        StringBuilder body,
+        Optional<StringBuilder> optionalHelperMethods,
+        ImmutableMap<String, Type> capturedVariables);
+
+    // Procedures taking up to this many args get a fixed-arity `applyN(...)` entry point generated alongside the usual
+    // `apply(Object... $args)` so that calls through first-class references can avoid allocating the varargs array.
+    // Keep in sync with the defaults declared on ClaroFunction/ClaroConsumerFunction.
+    public static final int MAX_SPECIALIZED_APPLY_ARITY = 4;
+
+    public static String getJavaSourceApplyMethodName(int argCount) {
+      return argCount > 0 && argCount <= MAX_SPECIALIZED_APPLY_ARITY ? "apply" + argCount : "apply";
+    }
 
     public String getStaticFunctionReferenceDefinitionStmt(String procedureName) {
       return String.format(
@@ -842,7 +855,11 @@ public final class Types {
       }
 
       @Override
-      public String getJavaNewTypeDefinitionStmtForLambda(String functionName, StringBuilder body, ImmutableMap<String, Type> capturedVariables) {
+      public String getJavaNewTypeDefinitionStmtForLambda(
+          String functionName,
+          StringBuilder body,
+          Optional<StringBuilder> optionalHelperMethods,
+          ImmutableMap<String, Type> capturedVariables) {
         return String.format(
             this.autoValueIgnoredOptionalOverrideBaseType.get()
                 .orElse(this.baseType())
@@ -863,6 +880,7 @@ public final class Types {
                 .map(s -> String.format("    this.%s = %s;\n", s, s)).collect(Collectors.joining()),
             getReturnType().getJavaSourceType(),
             body,
+            optionalHelperMethods.orElse(new StringBuilder()),
             this,
             functionName,
             functionName,
@@ -1073,7 +1091,10 @@ public final class Types {
 
       @Override
       public String getJavaNewTypeDefinitionStmtForLambda(
-          String providerName, StringBuilder body, ImmutableMap<String, Type> capturedVariables) {
+          String providerName,
+          StringBuilder body,
+          Optional<StringBuilder> optionalHelperMethods,
+          ImmutableMap<String, Type> capturedVariables) {
         String returnTypeJavaSource = getReturnType().getJavaSourceType();
         return String.format(
             this.autoValueIgnoredOptionalOverrideBaseType.get()
@@ -1095,6 +1116,7 @@ public final class Types {
                 .map(s -> String.format("    this.%s = %s;\n", s, s)).collect(Collectors.joining()),
             returnTypeJavaSource,
             body,
+            optionalHelperMethods.orElse(new StringBuilder()),
             this,
             providerName,
             providerName,
@@ -1336,7 +1358,10 @@ public final class Types {
 
       @Override
       public String getJavaNewTypeDefinitionStmtForLambda(
-          String consumerName, StringBuilder body, ImmutableMap<String, Type> capturedVariables) {
+          String consumerName,
+          StringBuilder body,
+          Optional<StringBuilder> optionalHelperMethods,
+          ImmutableMap<String, Type> capturedVariables) {
         return String.format(
             this.autoValueIgnoredOptionalOverrideBaseType.get().get().getJavaNewTypeDefinitionStmtFmtStr(),
             consumerName,
@@ -1353,6 +1378,7 @@ public final class Types {
             capturedVariables.keySet().stream()
                 .map(s -> String.format("    this.%s = %s;\n", s, s)).collect(Collectors.joining()),
             body,
+            optionalHelperMethods.orElse(new StringBuilder()),
             this.toString(),
             consumerName,
             consumerName,
@@ -1556,25 +1582,100 @@ public final class Types {
       );
     }
 
+    // Runtime intern tables so that generated code (and $UserDefinedType values) all share a single canonical Type
+    // instance per user-defined type. This way the runtime type checks done by `match`, dynamic dispatch, and casts
+    // mostly devolve to the identity check at the top of AutoValue's equals() rather than rebuilding and deeply
+    // comparing fresh Type instances every time. These are only ever used by generated code, never by the compiler
+    // itself, as the compiler does mutate some autoValueIgnored state on Types during type checking.
+    private static final ConcurrentHashMap<String, ConcurrentHashMap<String, UserDefinedType>>
+        $internedTypesByDisambiguatorAndName = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<UserDefinedType, UserDefinedType> $internedParameterizedTypes =
+        new ConcurrentHashMap<>();
+
+    public static UserDefinedType internedForTypeNameAndDisambiguator(
+        String typeName, String definingModuleDisambiguator) {
+      // Two-level lookup so that the common case of a hit doesn't need to allocate any key (or capturing lambda) at all.
+      ConcurrentHashMap<String, UserDefinedType> internedTypesByName =
+          $internedTypesByDisambiguatorAndName.get(definingModuleDisambiguator);
+      if (internedTypesByName != null) {
+        UserDefinedType res = internedTypesByName.get(typeName);
+        if (res != null) {
+          return res;
+        }
+      }
+      return $internedTypesByDisambiguatorAndName
+          .computeIfAbsent(definingModuleDisambiguator, unused -> new ConcurrentHashMap<>())
+          .computeIfAbsent(typeName, unused -> forTypeNameAndDisambiguator(typeName, definingModuleDisambiguator));
+    }
+
+    public static UserDefinedType internedForTypeNameAndParameterizedTypes(
+        String typeName, String definingModuleDisambiguator, ImmutableList<Type> parameterizedTypes) {
+      if (parameterizedTypes.isEmpty()) {
+        return internedForTypeNameAndDisambiguator(typeName, definingModuleDisambiguator);
+      }
+      UserDefinedType res =
+          forTypeNameAndParameterizedTypes(typeName, definingModuleDisambiguator, parameterizedTypes);
+      UserDefinedType prev = $internedParameterizedTypes.putIfAbsent(res, res);
+      return prev == null ? res : prev;
+    }
+
+    // Generated code references each distinct user-defined type through a static constant, so that it only pays for the
+    // intern table lookup once, during class initialization. These are the constants referenced by codegen since the
+    // last call to consumeInternedTypeFieldDefinitions(), with their definitions in dependency order.
+    // Keyed on the generated Java source rather than on the UserDefinedType itself, since a type whose args are
+    // $GenericTypeParams only resolves to a concrete type at codegen time via
+    // $GenericTypeParam.concreteTypeMappingsForParameterizedTypeCodegen, so the same UserDefinedType may name several
+    // distinct runtime types (e.g. the wrapped type of a generic Foo<T> codegen'd for both Foo<int> and Foo<string>).
+    private static final HashMap<String, String> $internedTypeFieldNames = Maps.newHashMap();
+    private static StringBuilder $internedTypeFieldDefinitions = new StringBuilder();
+
+    // Must be called once all codegen for the current compilation unit is complete (or, in a dep module monomorphization
+    // subprocess, once codegen for the current monomorphization is complete) to get the definitions of all the interned
+    // type constants referenced by that codegen. These definitions must be placed at the very top of the class that
+    // they're referenced from, so that they're initialized before any other static initialization that references them.
+    public static StringBuilder consumeInternedTypeFieldDefinitions() {
+      StringBuilder res = $internedTypeFieldDefinitions;
+      $internedTypeFieldNames.clear();
+      $internedTypeFieldDefinitions = new StringBuilder();
+      return res;
+    }
+
+    public static void resetStaticState() {
+      $internedTypeFieldNames.clear();
+      $internedTypeFieldDefinitions = new StringBuilder();
+    }
+
     @Override
     public String getJavaSourceClaroType() {
+      String internedTypeJavaSource;
       if (this.parameterizedTypeArgs().isEmpty()) {
-        return String.format(
-            "Types.UserDefinedType.forTypeNameAndDisambiguator(\"%s\", \"%s\")",
+        internedTypeJavaSource = String.format(
+            "Types.UserDefinedType.internedForTypeNameAndDisambiguator(\"%s\", \"%s\")",
             this.getTypeName(),
             this.getDefiningModuleDisambiguator()
         );
+      } else {
+        // Any type args that are themselves user-defined types get their own constants defined first.
+        internedTypeJavaSource = String.format(
+            "Types.UserDefinedType.internedForTypeNameAndParameterizedTypes(\"%s\", \"%s\", ImmutableList.of(%s))",
+            this.getTypeName(),
+            this.getDefiningModuleDisambiguator(),
+            this.parameterizedTypeArgs()
+                .values()
+                .stream()
+                .map(Type::getJavaSourceClaroType)
+                .collect(Collectors.joining(", "))
+        );
       }
-      return String.format(
-          "Types.UserDefinedType.forTypeNameAndParameterizedTypes(\"%s\", \"%s\", ImmutableList.of(%s))",
-          this.getTypeName(),
-          this.getDefiningModuleDisambiguator(),
-          this.parameterizedTypeArgs()
-              .values()
-              .stream()
-              .map(Type::getJavaSourceClaroType)
-              .collect(Collectors.joining(", "))
-      );
+      String fieldName = $internedTypeFieldNames.get(internedTypeJavaSource);
+      if (fieldName != null) {
+        return fieldName;
+      }
+      fieldName = "$internedType" + $internedTypeFieldNames.size();
+      $internedTypeFieldNames.put(internedTypeJavaSource, fieldName);
+      $internedTypeFieldDefinitions.append("private static final Types.UserDefinedType ").append(fieldName).append(" = ")
+          .append(internedTypeJavaSource).append(";\n");
+      return fieldName;
     }
 
     @Override
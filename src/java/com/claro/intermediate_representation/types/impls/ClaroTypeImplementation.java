@@ -7,4 +7,9 @@ import com.claro.intermediate_representation.types.Type;
 // is a top-level priority for Claro, so some special handling may be needed to make that interop possible.
 public interface ClaroTypeImplementation {
   Type getClaroType();
+
+  // This value's tag from TypeTags, for match stmts to dispatch on. Implementations whose Type is fixed may cache this.
+  default int typeTag() {
+    return TypeTags.forType(getClaroType());
+  }
 }
@@ -0,0 +1,26 @@
+package com.claro.intermediate_representation.types.impls;
+
+import com.claro.intermediate_representation.types.Type;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Assigns every distinct runtime Type a dense int tag, in the order that tags are first requested, so that match stmts
+// can dispatch on a value's Type with a `switch` instead of a chain of deep Type equality checks.
+public final class TypeTags {
+  private static final ConcurrentHashMap<Type, Integer> tagsByType = new ConcurrentHashMap<>();
+
+  private TypeTags() {
+  }
+
+  // Equal Types always get the same tag.
+  public static int forType(Type type) {
+    Integer res = tagsByType.get(type);
+    if (res == null) {
+      // Tags are only ever assigned under the map's lock so that they stay dense.
+      synchronized (tagsByType) {
+        res = tagsByType.computeIfAbsent(type, unused -> tagsByType.size());
+      }
+    }
+    return res;
+  }
+}
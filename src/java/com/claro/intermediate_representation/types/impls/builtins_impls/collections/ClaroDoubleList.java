@@ -0,0 +1,115 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.collections;
+
+import com.claro.intermediate_representation.types.Types;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+/**
+ * A `[double]` backed by a contiguous `double[]` rather than an array of references to individually boxed `Double`s.
+ * <p>
+ * Code that knows statically that it's dealing with a `[double]` can use the `*Double` methods to avoid boxing
+ * entirely, everything else just sees a plain ClaroList<Double>.
+ */
+public final class ClaroDoubleList extends ClaroPrimitiveList<Double> {
+  private static final double[] EMPTY = new double[0];
+
+  private double[] elements;
+
+  public ClaroDoubleList(Types.ListType claroType) {
+    super(claroType);
+    this.elements = EMPTY;
+  }
+
+  public ClaroDoubleList(Types.ListType claroType, int initialSize) {
+    super(claroType);
+    if (initialSize < 0) {
+      throw new IllegalArgumentException("Illegal Capacity: " + initialSize);
+    }
+    this.elements = initialSize == 0 ? EMPTY : new double[initialSize];
+  }
+
+  public ClaroDoubleList(Types.ListType claroType, java.util.Collection<Double> from) {
+    this(claroType, from.size());
+    this.addAll(from);
+  }
+
+  public static ClaroDoubleList initializeDoubleList(Types.ListType claroType, double... args) {
+    ClaroDoubleList res = new ClaroDoubleList(claroType);
+    // Varargs always hands us a fresh array that no one else references, so just adopt it rather than copying.
+    res.elements = args;
+    res.size = args.length;
+    return res;
+  }
+
+  // Used by list comprehension codegen to drain the comprehension's stream straight into the unboxed storage.
+  public static ClaroDoubleList collectToDoubleList(Types.ListType claroType, DoubleStream stream) {
+    ClaroDoubleList res = new ClaroDoubleList(claroType);
+    stream.forEachOrdered(res::addDouble);
+    return res;
+  }
+
+  public double getDouble(int i) {
+    checkIndex(i);
+    return this.elements[i];
+  }
+
+  public void setDouble(int i, double value) {
+    checkIndex(i);
+    this.elements[i] = value;
+  }
+
+  public void addDouble(double value) {
+    this.elements[reserve(1)] = value;
+    this.size++;
+  }
+
+  public double[] toDoubleArray() {
+    return Arrays.copyOf(this.elements, this.size);
+  }
+
+  @Override
+  protected Object storage() {
+    return this.elements;
+  }
+
+  @Override
+  protected int capacity() {
+    return this.elements.length;
+  }
+
+  @Override
+  protected void resizeStorage(int newCapacity) {
+    this.elements = Arrays.copyOf(this.elements, newCapacity);
+  }
+
+  @Override
+  protected Double boxedAt(int i) {
+    return this.elements[i];
+  }
+
+  @Override
+  protected void storeBoxed(int i, Double value) {
+    this.elements[i] = value;
+  }
+
+  @Override
+  protected boolean elementEquals(int i, Object o) {
+    return o instanceof Double && Double.doubleToLongBits(this.elements[i]) == Double.doubleToLongBits((Double) o);
+  }
+
+  @Override
+  protected int elementHashCode(int i) {
+    return Double.hashCode(this.elements[i]);
+  }
+
+  @Override
+  protected void sortRange(int fromInclusive, int toExclusive) {
+    Arrays.sort(this.elements, fromInclusive, toExclusive);
+  }
+
+  @Override
+  protected void detachStorage() {
+    this.elements = this.elements.clone();
+  }
+}
@@ -0,0 +1,116 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.collections;
+
+import com.claro.intermediate_representation.types.Types;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+/**
+ * A `[float]` backed by a contiguous `float[]` rather than an array of references to individually boxed `Float`s.
+ * <p>
+ * Code that knows statically that it's dealing with a `[float]` can use the `*Float` methods to avoid boxing
+ * entirely, everything else just sees a plain ClaroList<Float>.
+ */
+public final class ClaroFloatList extends ClaroPrimitiveList<Float> {
+  private static final float[] EMPTY = new float[0];
+
+  private float[] elements;
+
+  public ClaroFloatList(Types.ListType claroType) {
+    super(claroType);
+    this.elements = EMPTY;
+  }
+
+  public ClaroFloatList(Types.ListType claroType, int initialSize) {
+    super(claroType);
+    if (initialSize < 0) {
+      throw new IllegalArgumentException("Illegal Capacity: " + initialSize);
+    }
+    this.elements = initialSize == 0 ? EMPTY : new float[initialSize];
+  }
+
+  public ClaroFloatList(Types.ListType claroType, java.util.Collection<Float> from) {
+    this(claroType, from.size());
+    this.addAll(from);
+  }
+
+  public static ClaroFloatList initializeFloatList(Types.ListType claroType, float... args) {
+    ClaroFloatList res = new ClaroFloatList(claroType);
+    // Varargs always hands us a fresh array that no one else references, so just adopt it rather than copying.
+    res.elements = args;
+    res.size = args.length;
+    return res;
+  }
+
+  // Used by list comprehension codegen to drain the comprehension's stream straight into the unboxed storage. There's
+  // no FloatStream, but widening to double and back is lossless.
+  public static ClaroFloatList collectToFloatList(Types.ListType claroType, DoubleStream stream) {
+    ClaroFloatList res = new ClaroFloatList(claroType);
+    stream.forEachOrdered(v -> res.addFloat((float) v));
+    return res;
+  }
+
+  public float getFloat(int i) {
+    checkIndex(i);
+    return this.elements[i];
+  }
+
+  public void setFloat(int i, float value) {
+    checkIndex(i);
+    this.elements[i] = value;
+  }
+
+  public void addFloat(float value) {
+    this.elements[reserve(1)] = value;
+    this.size++;
+  }
+
+  public float[] toFloatArray() {
+    return Arrays.copyOf(this.elements, this.size);
+  }
+
+  @Override
+  protected Object storage() {
+    return this.elements;
+  }
+
+  @Override
+  protected int capacity() {
+    return this.elements.length;
+  }
+
+  @Override
+  protected void resizeStorage(int newCapacity) {
+    this.elements = Arrays.copyOf(this.elements, newCapacity);
+  }
+
+  @Override
+  protected Float boxedAt(int i) {
+    return this.elements[i];
+  }
+
+  @Override
+  protected void storeBoxed(int i, Float value) {
+    this.elements[i] = value;
+  }
+
+  @Override
+  protected boolean elementEquals(int i, Object o) {
+    return o instanceof Float && Float.floatToIntBits(this.elements[i]) == Float.floatToIntBits((Float) o);
+  }
+
+  @Override
+  protected int elementHashCode(int i) {
+    return Float.hashCode(this.elements[i]);
+  }
+
+  @Override
+  protected void sortRange(int fromInclusive, int toExclusive) {
+    Arrays.sort(this.elements, fromInclusive, toExclusive);
+  }
+
+  @Override
+  protected void detachStorage() {
+    this.elements = this.elements.clone();
+  }
+}
@@ -0,0 +1,115 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.collections;
+
+import com.claro.intermediate_representation.types.Types;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A `[int]` backed by a contiguous `int[]` rather than an array of references to individually boxed `Integer`s.
+ * <p>
+ * Code that knows statically that it's dealing with a `[int]` can use the `*Int` methods to avoid boxing
+ * entirely, everything else just sees a plain ClaroList<Integer>.
+ */
+public final class ClaroIntList extends ClaroPrimitiveList<Integer> {
+  private static final int[] EMPTY = new int[0];
+
+  private int[] elements;
+
+  public ClaroIntList(Types.ListType claroType) {
+    super(claroType);
+    this.elements = EMPTY;
+  }
+
+  public ClaroIntList(Types.ListType claroType, int initialSize) {
+    super(claroType);
+    if (initialSize < 0) {
+      throw new IllegalArgumentException("Illegal Capacity: " + initialSize);
+    }
+    this.elements = initialSize == 0 ? EMPTY : new int[initialSize];
+  }
+
+  public ClaroIntList(Types.ListType claroType, java.util.Collection<Integer> from) {
+    this(claroType, from.size());
+    this.addAll(from);
+  }
+
+  public static ClaroIntList initializeIntList(Types.ListType claroType, int... args) {
+    ClaroIntList res = new ClaroIntList(claroType);
+    // Varargs always hands us a fresh array that no one else references, so just adopt it rather than copying.
+    res.elements = args;
+    res.size = args.length;
+    return res;
+  }
+
+  // Used by list comprehension codegen to drain the comprehension's stream straight into the unboxed storage.
+  public static ClaroIntList collectToIntList(Types.ListType claroType, IntStream stream) {
+    ClaroIntList res = new ClaroIntList(claroType);
+    stream.forEachOrdered(res::addInt);
+    return res;
+  }
+
+  public int getInt(int i) {
+    checkIndex(i);
+    return this.elements[i];
+  }
+
+  public void setInt(int i, int value) {
+    checkIndex(i);
+    this.elements[i] = value;
+  }
+
+  public void addInt(int value) {
+    this.elements[reserve(1)] = value;
+    this.size++;
+  }
+
+  public int[] toIntArray() {
+    return Arrays.copyOf(this.elements, this.size);
+  }
+
+  @Override
+  protected Object storage() {
+    return this.elements;
+  }
+
+  @Override
+  protected int capacity() {
+    return this.elements.length;
+  }
+
+  @Override
+  protected void resizeStorage(int newCapacity) {
+    this.elements = Arrays.copyOf(this.elements, newCapacity);
+  }
+
+  @Override
+  protected Integer boxedAt(int i) {
+    return this.elements[i];
+  }
+
+  @Override
+  protected void storeBoxed(int i, Integer value) {
+    this.elements[i] = value;
+  }
+
+  @Override
+  protected boolean elementEquals(int i, Object o) {
+    return o instanceof Integer && this.elements[i] == (Integer) o;
+  }
+
+  @Override
+  protected int elementHashCode(int i) {
+    return Integer.hashCode(this.elements[i]);
+  }
+
+  @Override
+  protected void sortRange(int fromInclusive, int toExclusive) {
+    Arrays.sort(this.elements, fromInclusive, toExclusive);
+  }
+
+  @Override
+  protected void detachStorage() {
+    this.elements = this.elements.clone();
+  }
+}
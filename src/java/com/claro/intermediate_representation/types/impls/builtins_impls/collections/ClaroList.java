@@ -5,6 +5,7 @@ import com.claro.intermediate_representation.types.Types;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.stream.Stream;
 
 public class ClaroList<T> extends ArrayList<T> implements Collection {
   private final Types.ListType claroType;
@@ -26,11 +27,65 @@ public class ClaroList<T> extends ArrayList<T> implements Collection {
 
   @SafeVarargs // https://docs.oracle.com/javase/specs/jls/se7/html/jls-9.html#jls-9.6.3.7
   public static <T> ClaroList<T> initializeList(Types.ListType claroType, T... args) {
-    ClaroList<T> arrayList = new ClaroList<>(claroType, args.length);
+    ClaroList<T> arrayList = forListType(claroType, args.length);
     Collections.addAll(arrayList, args);
     return arrayList;
   }
 
+  // Prefer these factories over the constructors anywhere that the list's element type isn't statically known to be
+  // non-primitive, so that lists of primitives consistently get their primitive-array-backed impl.
+  public static <T> ClaroList<T> forListType(Types.ListType claroType) {
+    if (isPrimitiveElementType(claroType)) {
+      return forListType(claroType, 0);
+    }
+    // Deliberately not passing an initial size so that ArrayList's lazy default capacity kicks in.
+    return new ClaroList<>(claroType);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> ClaroList<T> forListType(Types.ListType claroType, int initialSize) {
+    switch (claroType.getElementType().baseType()) {
+      case INTEGER:
+        return (ClaroList<T>) new ClaroIntList(claroType, initialSize);
+      case LONG:
+        return (ClaroList<T>) new ClaroLongList(claroType, initialSize);
+      case FLOAT:
+        return (ClaroList<T>) new ClaroFloatList(claroType, initialSize);
+      case DOUBLE:
+        return (ClaroList<T>) new ClaroDoubleList(claroType, initialSize);
+      default:
+        return new ClaroList<>(claroType, initialSize);
+    }
+  }
+
+  public static boolean isPrimitiveElementType(Types.ListType claroType) {
+    switch (claroType.getElementType().baseType()) {
+      case INTEGER:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  // The following are deliberately raw, exactly like the `new ClaroList(...)` calls that they replaced in generated code,
+  // since codegen'd (nested) copies and comprehensions can't always spell out their element types to javac.
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public static ClaroList forListType(Types.ListType claroType, java.util.Collection from) {
+    ClaroList res = forListType(claroType, from.size());
+    res.addAll(from);
+    return res;
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public static ClaroList collectToList(Types.ListType claroType, Stream stream) {
+    ClaroList res = forListType(claroType);
+    stream.forEachOrdered(res::add);
+    return res;
+  }
+
   @Override
   public String toString() {
     return (this.claroType.isMutable() ? "mut " : "") + super.toString();
@@ -0,0 +1,115 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.collections;
+
+import com.claro.intermediate_representation.types.Types;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * A `[long]` backed by a contiguous `long[]` rather than an array of references to individually boxed `Long`s.
+ * <p>
+ * Code that knows statically that it's dealing with a `[long]` can use the `*Long` methods to avoid boxing
+ * entirely, everything else just sees a plain ClaroList<Long>.
+ */
+public final class ClaroLongList extends ClaroPrimitiveList<Long> {
+  private static final long[] EMPTY = new long[0];
+
+  private long[] elements;
+
+  public ClaroLongList(Types.ListType claroType) {
+    super(claroType);
+    this.elements = EMPTY;
+  }
+
+  public ClaroLongList(Types.ListType claroType, int initialSize) {
+    super(claroType);
+    if (initialSize < 0) {
+      throw new IllegalArgumentException("Illegal Capacity: " + initialSize);
+    }
+    this.elements = initialSize == 0 ? EMPTY : new long[initialSize];
+  }
+
+  public ClaroLongList(Types.ListType claroType, java.util.Collection<Long> from) {
+    this(claroType, from.size());
+    this.addAll(from);
+  }
+
+  public static ClaroLongList initializeLongList(Types.ListType claroType, long... args) {
+    ClaroLongList res = new ClaroLongList(claroType);
+    // Varargs always hands us a fresh array that no one else references, so just adopt it rather than copying.
+    res.elements = args;
+    res.size = args.length;
+    return res;
+  }
+
+  // Used by list comprehension codegen to drain the comprehension's stream straight into the unboxed storage.
+  public static ClaroLongList collectToLongList(Types.ListType claroType, LongStream stream) {
+    ClaroLongList res = new ClaroLongList(claroType);
+    stream.forEachOrdered(res::addLong);
+    return res;
+  }
+
+  public long getLong(int i) {
+    checkIndex(i);
+    return this.elements[i];
+  }
+
+  public void setLong(int i, long value) {
+    checkIndex(i);
+    this.elements[i] = value;
+  }
+
+  public void addLong(long value) {
+    this.elements[reserve(1)] = value;
+    this.size++;
+  }
+
+  public long[] toLongArray() {
+    return Arrays.copyOf(this.elements, this.size);
+  }
+
+  @Override
+  protected Object storage() {
+    return this.elements;
+  }
+
+  @Override
+  protected int capacity() {
+    return this.elements.length;
+  }
+
+  @Override
+  protected void resizeStorage(int newCapacity) {
+    this.elements = Arrays.copyOf(this.elements, newCapacity);
+  }
+
+  @Override
+  protected Long boxedAt(int i) {
+    return this.elements[i];
+  }
+
+  @Override
+  protected void storeBoxed(int i, Long value) {
+    this.elements[i] = value;
+  }
+
+  @Override
+  protected boolean elementEquals(int i, Object o) {
+    return o instanceof Long && this.elements[i] == (Long) o;
+  }
+
+  @Override
+  protected int elementHashCode(int i) {
+    return Long.hashCode(this.elements[i]);
+  }
+
+  @Override
+  protected void sortRange(int fromInclusive, int toExclusive) {
+    Arrays.sort(this.elements, fromInclusive, toExclusive);
+  }
+
+  @Override
+  protected void detachStorage() {
+    this.elements = this.elements.clone();
+  }
+}
@@ -9,6 +9,7 @@ import com.google.common.collect.Streams;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -30,6 +31,31 @@ public class ClaroMap<K, V> extends HashMap<K, V> implements ClaroBuiltinTypeImp
     this.claroType = claroType;
   }
 
+  // Prefer these factories over the constructors anywhere that the map's key type isn't statically known to be
+  // unsupported, so that maps keyed on `int`/`long`/`string` consistently get their open-addressing impl.
+  public static <K, V> ClaroMap<K, V> forMapType(Types.MapType claroType) {
+    return forMapType(claroType, 0);
+  }
+
+  public static <K, V> ClaroMap<K, V> forMapType(Types.MapType claroType, int initialSize) {
+    Optional<OpenAddressingTable<K>> table =
+        OpenAddressingTable.forKeyType(
+            claroType.parameterizedTypeArgs().get(Types.MapType.PARAMETERIZED_TYPE_KEYS), initialSize);
+    if (table.isPresent()) {
+      return new ClaroOpenAddressingMap<>(claroType, table.get());
+    }
+    return initialSize == 0 ? new ClaroMap<>(claroType) : new ClaroMap<>(claroType, initialSize);
+  }
+
+  // Deliberately raw, exactly like the `new ClaroMap(...)` calls that it replaced in generated code, since codegen'd
+  // (nested) copies can't always spell out their key/value types to javac.
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public static ClaroMap forMapType(Types.MapType claroType, Map from) {
+    ClaroMap res = forMapType(claroType, from.size());
+    res.putAll(from);
+    return res;
+  }
+
   public V getElement(K k) {
     return super.get(k);
   }
@@ -0,0 +1,364 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.collections;
+
+import com.claro.intermediate_representation.types.Types;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A ClaroMap whose entries live in an OpenAddressingTable keyed on unboxed `int`/`long`/`string` keys, rather than in
+ * HashMap's per-entry Nodes. Use ClaroMap.forMapType() rather than constructing this directly.
+ * <p>
+ * This still extends ClaroMap (and therefore HashMap) so that generated code and the stdlib's inline-Java can continue
+ * treating it as a plain ClaroMap. As a result, *every* HashMap method that would touch HashMap's own (always-empty)
+ * table MUST be overridden here.
+ */
+public final class ClaroOpenAddressingMap<K, V> extends ClaroMap<K, V> {
+  private final OpenAddressingTable<K> table;
+
+  ClaroOpenAddressingMap(Types.MapType claroType, OpenAddressingTable<K> table) {
+    super(claroType, 0);
+    this.table = table;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V valueOrNull(Object value) {
+    return (V) value;
+  }
+
+  @Override
+  public V getElement(K k) {
+    return get(k);
+  }
+
+  @Override
+  public ClaroMap<K, V> set(K k, V v) {
+    this.table.put(k, v);
+    return this;
+  }
+
+  @Override
+  public int length() {
+    return this.table.size;
+  }
+
+  @Override
+  public int size() {
+    return this.table.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.table.size == 0;
+  }
+
+  @Override
+  public V get(Object key) {
+    return valueOrNull(this.table.get(key));
+  }
+
+  @Override
+  public V getOrDefault(Object key, V defaultValue) {
+    V res = get(key);
+    return res == null ? defaultValue : res;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return this.table.findSlot(key) >= 0;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    for (Object v : this.table.values) {
+      if (v != null && v.equals(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public V put(K key, V value) {
+    return valueOrNull(this.table.put(key, value));
+  }
+
+  @Override
+  public void putAll(Map<? extends K, ? extends V> m) {
+    this.table.ensureCapacity(this.table.size + m.size());
+    for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+      this.table.put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    V prev = get(key);
+    return prev == null ? put(key, value) : prev;
+  }
+
+  @Override
+  public V remove(Object key) {
+    return valueOrNull(this.table.remove(key));
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    Object curr = this.table.get(key);
+    if (curr != null && curr.equals(value)) {
+      this.table.remove(key);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean replace(K key, V oldValue, V newValue) {
+    Object curr = this.table.get(key);
+    if (curr != null && curr.equals(oldValue)) {
+      this.table.put(key, newValue);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public V replace(K key, V value) {
+    return containsKey(key) ? put(key, value) : null;
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    Objects.requireNonNull(mappingFunction);
+    V curr = get(key);
+    if (curr == null) {
+      curr = mappingFunction.apply(key);
+      if (curr != null) {
+        put(key, curr);
+      }
+    }
+    return curr;
+  }
+
+  @Override
+  public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+    Objects.requireNonNull(remappingFunction);
+    V curr = get(key);
+    if (curr == null) {
+      return null;
+    }
+    V res = remappingFunction.apply(key, curr);
+    if (res == null) {
+      remove(key);
+    } else {
+      put(key, res);
+    }
+    return res;
+  }
+
+  @Override
+  public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+    Objects.requireNonNull(remappingFunction);
+    V res = remappingFunction.apply(key, get(key));
+    if (res == null) {
+      remove(key);
+    } else {
+      put(key, res);
+    }
+    return res;
+  }
+
+  @Override
+  public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+    Objects.requireNonNull(remappingFunction);
+    V curr = get(key);
+    V res = curr == null ? value : remappingFunction.apply(curr, value);
+    if (res == null) {
+      remove(key);
+    } else {
+      put(key, res);
+    }
+    return res;
+  }
+
+  @Override
+  public void clear() {
+    this.table.clear();
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    Object[] values = this.table.values;
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        action.accept(this.table.keyAt(i), valueOrNull(values[i]));
+      }
+    }
+  }
+
+  @Override
+  public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+    Objects.requireNonNull(function);
+    Object[] values = this.table.values;
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        values[i] = Objects.requireNonNull(function.apply(this.table.keyAt(i), valueOrNull(values[i])));
+      }
+    }
+  }
+
+  @Override
+  public Object clone() {
+    // Deliberately not calling super.clone() as HashMap's impl would re-insert every entry into its own table.
+    return new ClaroOpenAddressingMap<K, V>((Types.MapType) getClaroType(), this.table.copy());
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return new AbstractSet<K>() {
+      @Override
+      public Iterator<K> iterator() {
+        return new TableIterator<K>() {
+          @Override
+          K current() {
+            return this.cursor.key();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return ClaroOpenAddressingMap.this.table.size;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return containsKey(o);
+      }
+
+      @Override
+      public boolean remove(Object o) {
+        return ClaroOpenAddressingMap.this.table.remove(o) != null;
+      }
+
+      @Override
+      public void clear() {
+        ClaroOpenAddressingMap.this.clear();
+      }
+    };
+  }
+
+  @Override
+  public java.util.Collection<V> values() {
+    return new AbstractCollection<V>() {
+      @Override
+      public Iterator<V> iterator() {
+        return new TableIterator<V>() {
+          @Override
+          V current() {
+            return valueOrNull(this.cursor.value());
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return ClaroOpenAddressingMap.this.table.size;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return containsValue(o);
+      }
+
+      @Override
+      public void clear() {
+        ClaroOpenAddressingMap.this.clear();
+      }
+    };
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new AbstractSet<Map.Entry<K, V>>() {
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator() {
+        return new TableIterator<Map.Entry<K, V>>() {
+          @Override
+          Map.Entry<K, V> current() {
+            return new WriteThroughEntry(this.cursor.key(), valueOrNull(this.cursor.value()));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return ClaroOpenAddressingMap.this.table.size;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        if (!(o instanceof Map.Entry)) {
+          return false;
+        }
+        Object value = ClaroOpenAddressingMap.this.table.get(((Map.Entry<?, ?>) o).getKey());
+        return value != null && value.equals(((Map.Entry<?, ?>) o).getValue());
+      }
+
+      @Override
+      public boolean remove(Object o) {
+        return o instanceof Map.Entry
+               && ClaroOpenAddressingMap.this.remove(((Map.Entry<?, ?>) o).getKey(), ((Map.Entry<?, ?>) o).getValue());
+      }
+
+      @Override
+      public void clear() {
+        ClaroOpenAddressingMap.this.clear();
+      }
+    };
+  }
+
+  private abstract class TableIterator<E> implements Iterator<E> {
+    final OpenAddressingTable<K>.Cursor cursor = ClaroOpenAddressingMap.this.table.cursor();
+
+    abstract E current();
+
+    @Override
+    public boolean hasNext() {
+      return this.cursor.hasNext();
+    }
+
+    @Override
+    public E next() {
+      this.cursor.advance();
+      return current();
+    }
+
+    @Override
+    public void remove() {
+      this.cursor.remove();
+    }
+  }
+
+  private final class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V> {
+    WriteThroughEntry(K key, V value) {
+      super(key, value);
+    }
+
+    @Override
+    public V setValue(V value) {
+      // Overwriting an existing key's value is never a structural modification, so this is safe mid-iteration.
+      ClaroOpenAddressingMap.this.table.put(getKey(), value);
+      return super.setValue(value);
+    }
+  }
+}
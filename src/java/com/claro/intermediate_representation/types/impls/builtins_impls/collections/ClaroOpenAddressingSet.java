@@ -0,0 +1,136 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.collections;
+
+import com.claro.intermediate_representation.types.Types;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * A ClaroSet whose elements live in an OpenAddressingTable keyed on unboxed `int`/`long`/`string` elements, rather than
+ * in the HashMap that HashSet wraps. Use ClaroSet.forSetType() rather than constructing this directly.
+ * <p>
+ * This still extends ClaroSet (and therefore HashSet) so that generated code and the stdlib's inline-Java can continue
+ * treating it as a plain ClaroSet. As a result, *every* HashSet method that would touch HashSet's own (always-empty)
+ * backing map MUST be overridden here.
+ */
+public final class ClaroOpenAddressingSet<V> extends ClaroSet<V> {
+  // The table needs some non-null value to mark each occupied slot.
+  private static final Object PRESENT = Boolean.TRUE;
+
+  private final OpenAddressingTable<V> table;
+
+  ClaroOpenAddressingSet(Types.SetType claroType, OpenAddressingTable<V> table) {
+    super(claroType);
+    this.table = table;
+  }
+
+  @Override
+  public int length() {
+    return this.table.size;
+  }
+
+  @Override
+  public ClaroSet<V> add(Collection<? extends V> c) {
+    this.table.ensureCapacity(this.table.size + c.size());
+    for (V v : c) {
+      this.table.put(v, PRESENT);
+    }
+    return this;
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends V> c) {
+    int prevSize = this.table.size;
+    add(c);
+    return this.table.size != prevSize;
+  }
+
+  @Override
+  public int size() {
+    return this.table.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.table.size == 0;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return this.table.findSlot(o) >= 0;
+  }
+
+  @Override
+  public boolean add(V v) {
+    return this.table.put(v, PRESENT) == null;
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    return this.table.remove(o) != null;
+  }
+
+  @Override
+  public void clear() {
+    this.table.clear();
+  }
+
+  @Override
+  public Iterator<V> iterator() {
+    OpenAddressingTable<V>.Cursor cursor = this.table.cursor();
+    return new Iterator<V>() {
+      @Override
+      public boolean hasNext() {
+        return cursor.hasNext();
+      }
+
+      @Override
+      public V next() {
+        cursor.advance();
+        return cursor.key();
+      }
+
+      @Override
+      public void remove() {
+        cursor.remove();
+      }
+    };
+  }
+
+  // HashSet's impls read its own backing map directly, so these must walk the table instead. Anything that copies a set
+  // (e.g. `new ArrayList<>(set)`, ImmutableSet.copyOf(set)) goes through here.
+  @Override
+  public Object[] toArray() {
+    return toArray(new Object[this.table.size]);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T[] toArray(T[] a) {
+    int size = this.table.size;
+    T[] res = a.length >= size ? a : (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+    OpenAddressingTable<V>.Cursor cursor = this.table.cursor();
+    for (int i = 0; cursor.hasNext(); i++) {
+      cursor.advance();
+      res[i] = (T) cursor.key();
+    }
+    if (res.length > size) {
+      res[size] = null;
+    }
+    return res;
+  }
+
+  @Override
+  public Spliterator<V> spliterator() {
+    return Spliterators.spliterator(this, Spliterator.DISTINCT);
+  }
+
+  @Override
+  public Object clone() {
+    // Deliberately not calling super.clone() as HashSet's impl would clone its own (unused) backing map.
+    return new ClaroOpenAddressingSet<V>((Types.SetType) getClaroType(), this.table.copy());
+  }
+}
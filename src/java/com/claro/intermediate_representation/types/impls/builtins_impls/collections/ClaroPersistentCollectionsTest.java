@@ -0,0 +1,256 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.collections;
+
+import com.claro.intermediate_representation.types.Types;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * ClaroPersistentMap/ClaroPersistentSet extend HashMap/HashSet while leaving HashMap/HashSet's own backing table empty,
+ * so any inherited method that reads that table directly would silently see an empty collection. This exercises the
+ * full Map/Set API (including default methods and streams) against a plain HashMap/HashSet holding the same contents,
+ * as derived through a sequence of with()/without() calls, in order to catch any method left un-overridden.
+ */
+public class ClaroPersistentCollectionsTest {
+  // "Aa" and "BB" have the same hashCode(), so these exercise the trie's handling of full hash collisions.
+  private static final String COLLIDING_KEY = "Aa";
+  private static final String OTHER_COLLIDING_KEY = "BB";
+
+  public static void main(String... args) {
+    testPersistentMap();
+    testPersistentSet();
+    System.out.println("PASSED");
+  }
+
+  private static void testPersistentMap() {
+    ClaroMap<String, Integer> initial = new ClaroMap<>(Types.MapType.forKeyValueTypes(Types.STRING, Types.INTEGER));
+    HashMap<String, Integer> expected = new HashMap<>();
+    for (int i = 0; i < 50; i++) {
+      initial.set("k" + i, i);
+      expected.put("k" + i, i);
+    }
+    ClaroPersistentMap<String, Integer> map = ClaroPersistentMap.forMap(initial);
+    checkMap(map, expected);
+
+    for (int i = 50; i < 200; i++) {
+      map = map.with("k" + i, i);
+      expected.put("k" + i, i);
+    }
+    map = map.with(COLLIDING_KEY, -1).with(OTHER_COLLIDING_KEY, -2).with("k7", 700);
+    expected.put(COLLIDING_KEY, -1);
+    expected.put(OTHER_COLLIDING_KEY, -2);
+    expected.put("k7", 700);
+    checkMap(map, expected);
+
+    ClaroPersistentMap<String, Integer> beforeRemovals = map;
+    HashMap<String, Integer> expectedBeforeRemovals = new HashMap<>(expected);
+    for (int i = 0; i < 200; i += 3) {
+      map = map.without("k" + i);
+      expected.remove("k" + i);
+    }
+    map = map.without(COLLIDING_KEY).without("not a key");
+    expected.remove(COLLIDING_KEY);
+    checkMap(map, expected);
+    // Deriving new maps must never disturb the maps they were derived from.
+    checkMap(beforeRemovals, expectedBeforeRemovals);
+
+    for (String k : new ArrayList<>(expected.keySet())) {
+      map = map.without(k);
+    }
+    checkMap(map, new HashMap<>());
+  }
+
+  private static void checkMap(ClaroPersistentMap<String, Integer> map, HashMap<String, Integer> expected) {
+    check(map.size() == expected.size(), "size() " + map.size() + " != " + expected.size());
+    check(map.length() == expected.size(), "length() " + map.length() + " != " + expected.size());
+    check(map.isEmpty() == expected.isEmpty(), "isEmpty()");
+
+    for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+      check(entry.getValue().equals(map.get(entry.getKey())), "get(" + entry.getKey() + ")");
+      check(entry.getValue().equals(map.getElement(entry.getKey())), "getElement(" + entry.getKey() + ")");
+      check(entry.getValue().equals(map.getOrDefault(entry.getKey(), 0)), "getOrDefault(" + entry.getKey() + ")");
+      check(map.containsKey(entry.getKey()), "containsKey(" + entry.getKey() + ")");
+      check(map.containsValue(entry.getValue()), "containsValue(" + entry.getValue() + ")");
+      check(map.entrySet().contains(new AbstractMap.SimpleEntry<>(entry)), "entrySet().contains(" + entry + ")");
+    }
+    check(map.get("missing") == null, "get() of a missing key");
+    check(map.getOrDefault("missing", -99) == -99, "getOrDefault() of a missing key");
+    check(!map.containsKey("missing"), "containsKey() of a missing key");
+    check(!map.containsValue(Integer.MIN_VALUE), "containsValue() of a missing value");
+    check(!map.entrySet().contains(new AbstractMap.SimpleEntry<>("missing", 1)), "entrySet().contains() of a missing key");
+
+    // Equality must hold in both directions, since HashMap's equals() only goes through the other map's public API.
+    check(map.equals(expected), "equals(HashMap)");
+    check(expected.equals(map), "HashMap.equals()");
+    check(map.hashCode() == expected.hashCode(), "hashCode()");
+    check(map.keySet().equals(expected.keySet()), "keySet()");
+    check(expected.keySet().equals(map.keySet()), "HashMap.keySet().equals()");
+    check(map.entrySet().equals(expected.entrySet()), "entrySet()");
+    check(map.entrySet().hashCode() == expected.entrySet().hashCode(), "entrySet().hashCode()");
+    check(new ArrayList<>(map.values()).size() == expected.size(), "values().size()");
+    check(
+        new HashSet<>(map.values()).equals(new HashSet<>(expected.values())),
+        "values()"
+    );
+    check(map.clone().equals(expected), "clone()");
+    check(new HashMap<>(map).equals(expected), "new HashMap<>(map)");
+    check(ImmutableMap.copyOf(map).equals(expected), "ImmutableMap.copyOf(map)");
+
+    HashMap<String, Integer> viaForEach = new HashMap<>();
+    map.forEach(viaForEach::put);
+    check(viaForEach.equals(expected), "forEach()");
+    check(
+        map.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)).equals(expected),
+        "entrySet().stream()"
+    );
+    check(
+        map.keySet().parallelStream().collect(Collectors.toSet()).equals(expected.keySet()),
+        "keySet().parallelStream()"
+    );
+    check(
+        map.values().stream().mapToLong(Integer::longValue).sum() ==
+        expected.values().stream().mapToLong(Integer::longValue).sum(),
+        "values().stream()"
+    );
+    check(map.stream().count() == expected.size(), "ClaroMap.stream()");
+    check(Arrays.asList(map.keySet().toArray()).containsAll(expected.keySet()), "keySet().toArray()");
+
+    checkImmutable(m -> m.put("k", 1), map, "put()");
+    checkImmutable(m -> m.set("k", 1), map, "set()");
+    checkImmutable(m -> m.putAll(ImmutableMap.of("k", 1)), map, "putAll()");
+    checkImmutable(m -> m.putIfAbsent("k", 1), map, "putIfAbsent()");
+    checkImmutable(m -> m.remove("k0"), map, "remove()");
+    checkImmutable(m -> m.remove("k1", 1), map, "remove(k, v)");
+    checkImmutable(m -> m.replace("k1", 2), map, "replace()");
+    checkImmutable(m -> m.replace("k1", 1, 2), map, "replace(k, old, new)");
+    checkImmutable(m -> m.computeIfAbsent("k", k -> 1), map, "computeIfAbsent()");
+    checkImmutable(m -> m.computeIfPresent("k1", (k, v) -> 1), map, "computeIfPresent()");
+    checkImmutable(m -> m.compute("k", (k, v) -> 1), map, "compute()");
+    checkImmutable(m -> m.merge("k", 1, Integer::sum), map, "merge()");
+    checkImmutable(m -> m.replaceAll((k, v) -> v), map, "replaceAll()");
+    checkImmutable(Map::clear, map, "clear()");
+    if (!expected.isEmpty()) {
+      checkImmutable(m -> m.keySet().removeIf(k -> true), map, "keySet().removeIf()");
+      checkImmutable(m -> m.values().removeIf(v -> true), map, "values().removeIf()");
+      checkImmutable(m -> m.entrySet().iterator().next().setValue(1), map, "Entry.setValue()");
+    }
+    check(map.equals(expected), "Failed mutations changed the map.");
+  }
+
+  private static void testPersistentSet() {
+    ClaroSet<String> initial = new ClaroSet<>(Types.SetType.forValueType(Types.STRING));
+    HashSet<String> expected = new HashSet<>();
+    for (int i = 0; i < 50; i++) {
+      initial.add("e" + i);
+      expected.add("e" + i);
+    }
+    ClaroPersistentSet<String> set = ClaroPersistentSet.forSet(initial);
+    checkSet(set, expected);
+
+    for (int i = 50; i < 200; i++) {
+      set = set.with("e" + i);
+      expected.add("e" + i);
+    }
+    set = set.with(COLLIDING_KEY).with(OTHER_COLLIDING_KEY).with("e7");
+    expected.add(COLLIDING_KEY);
+    expected.add(OTHER_COLLIDING_KEY);
+    checkSet(set, expected);
+
+    ClaroPersistentSet<String> beforeRemovals = set;
+    HashSet<String> expectedBeforeRemovals = new HashSet<>(expected);
+    for (int i = 0; i < 200; i += 3) {
+      set = set.without("e" + i);
+      expected.remove("e" + i);
+    }
+    set = set.without(OTHER_COLLIDING_KEY).without("not an elem");
+    expected.remove(OTHER_COLLIDING_KEY);
+    checkSet(set, expected);
+    // Deriving new sets must never disturb the sets they were derived from.
+    checkSet(beforeRemovals, expectedBeforeRemovals);
+
+    for (String e : new ArrayList<>(expected)) {
+      set = set.without(e);
+    }
+    checkSet(set, new HashSet<>());
+  }
+
+  private static void checkSet(ClaroPersistentSet<String> set, HashSet<String> expected) {
+    check(set.size() == expected.size(), "size() " + set.size() + " != " + expected.size());
+    check(set.length() == expected.size(), "length() " + set.length() + " != " + expected.size());
+    check(set.isEmpty() == expected.isEmpty(), "isEmpty()");
+    for (String e : expected) {
+      check(set.contains(e), "contains(" + e + ")");
+    }
+    check(!set.contains("missing"), "contains() of a missing elem");
+    check(set.containsAll(expected), "containsAll()");
+
+    // Equality must hold in both directions, since HashSet's equals() only goes through the other set's public API.
+    check(set.equals(expected), "equals(HashSet)");
+    check(expected.equals(set), "HashSet.equals()");
+    check(set.hashCode() == expected.hashCode(), "hashCode()");
+    check(set.clone().equals(expected), "clone()");
+    check(new HashSet<>(set).equals(expected), "new HashSet<>(set)");
+    check(new HashSet<>(new ArrayList<>(set)).equals(expected), "new ArrayList<>(set)");
+    check(ImmutableSet.copyOf(set).equals(expected), "ImmutableSet.copyOf(set)");
+    check(new HashSet<>(Arrays.asList(set.toArray())).equals(expected), "toArray()");
+    check(new HashSet<>(Arrays.asList(set.toArray(new String[0]))).equals(expected), "toArray(T[])");
+    check(new HashSet<>(Arrays.asList(set.toArray(String[]::new))).equals(expected), "toArray(IntFunction)");
+    String[] tooBig = set.toArray(new String[expected.size() + 2]);
+    check(tooBig.length == expected.size() + 2 && tooBig[expected.size()] == null, "toArray(T[]) null terminator");
+
+    HashSet<String> viaForEach = new HashSet<>();
+    set.forEach(viaForEach::add);
+    check(viaForEach.equals(expected), "forEach()");
+    check(set.stream().collect(Collectors.toSet()).equals(expected), "stream()");
+    check(set.parallelStream().collect(Collectors.toSet()).equals(expected), "parallelStream()");
+    check(set.stream().filter(e -> e.startsWith("e")).count() ==
+          expected.stream().filter(e -> e.startsWith("e")).count(), "stream().filter()");
+
+    checkImmutable(s -> s.add("e"), set, "add()");
+    checkImmutable(s -> s.add(ImmutableSet.of("e")), set, "add(Collection)");
+    checkImmutable(s -> s.addAll(ImmutableSet.of("e")), set, "addAll()");
+    checkImmutable(s -> s.remove("e1"), set, "remove()");
+    checkImmutable(s -> s.removeIf(e -> true), set, "removeIf()");
+    checkImmutable(Set::clear, set, "clear()");
+    if (!expected.isEmpty()) {
+      checkImmutable(s -> s.removeAll(ImmutableSet.copyOf(expected)), set, "removeAll()");
+      checkImmutable(s -> s.retainAll(ImmutableSet.of()), set, "retainAll()");
+      checkImmutable(
+          s -> {
+            Iterator<String> it = s.iterator();
+            it.next();
+            it.remove();
+          },
+          set,
+          "iterator().remove()"
+      );
+    }
+    check(set.equals(expected), "Failed mutations changed the set.");
+  }
+
+  private static <T> void checkImmutable(Consumer<T> mutation, T collection, String desc) {
+    try {
+      mutation.accept(collection);
+    } catch (UnsupportedOperationException e) {
+      return;
+    }
+    check(false, desc + " should have been rejected on an immutable collection.");
+  }
+
+  private static void check(boolean condition, String failureMessage) {
+    if (!condition) {
+      System.err.println("FAILED: " + failureMessage);
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,294 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.collections;
+
+import com.claro.intermediate_representation.types.Types;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * An immutable ClaroMap stored in a PersistentHashTrie so that maps derived from it via with()/without() share all but
+ * O(log n) of their structure with it, rather than each derived map being a full O(n) copy. This is what backs the
+ * stdlib's `maps::withEntry()`/`maps::withoutKey()`, and so is only ever used for immutable map types.
+ * <p>
+ * This still extends ClaroMap (and therefore HashMap) so that generated code and the stdlib's inline-Java can continue
+ * treating it as a plain ClaroMap. As a result, *every* HashMap method that would touch HashMap's own (always-empty)
+ * table MUST be overridden here. Claro's type system already rules out mutating an immutable map, so every mutator
+ * simply throws.
+ * <p>
+ * ClaroPersistentCollectionsTest compares every Map method (default methods included) against a plain HashMap.
+ */
+public final class ClaroPersistentMap<K, V> extends ClaroMap<K, V> {
+  private final PersistentHashTrie trie;
+
+  private ClaroPersistentMap(Types.MapType claroType, PersistentHashTrie trie) {
+    super(claroType, 0);
+    this.trie = trie;
+  }
+
+  // Only the first derivation from a map that isn't already persistent pays for an O(n) copy, every later derivation
+  // from the result is O(log n).
+  public static <K, V> ClaroPersistentMap<K, V> forMap(ClaroMap<K, V> from) {
+    if (from instanceof ClaroPersistentMap) {
+      return (ClaroPersistentMap<K, V>) from;
+    }
+    PersistentHashTrie[] trie = {PersistentHashTrie.EMPTY};
+    from.forEach((k, v) -> trie[0] = trie[0].with(k, v));
+    return new ClaroPersistentMap<>((Types.MapType) from.getClaroType(), trie[0]);
+  }
+
+  public ClaroPersistentMap<K, V> with(K k, V v) {
+    PersistentHashTrie res = this.trie.with(k, v);
+    return res == this.trie ? this : new ClaroPersistentMap<>((Types.MapType) getClaroType(), res);
+  }
+
+  public ClaroPersistentMap<K, V> without(Object k) {
+    PersistentHashTrie res = this.trie.without(k);
+    return res == this.trie ? this : new ClaroPersistentMap<>((Types.MapType) getClaroType(), res);
+  }
+
+  @SuppressWarnings("unchecked")
+  private V valueOrNull(Object value) {
+    return (V) value;
+  }
+
+  private static UnsupportedOperationException immutable() {
+    return new UnsupportedOperationException("Internal Error! Attempted to mutate an immutable map.");
+  }
+
+  @Override
+  public V getElement(K k) {
+    return get(k);
+  }
+
+  @Override
+  public ClaroMap<K, V> set(K k, V v) {
+    throw immutable();
+  }
+
+  @Override
+  public int length() {
+    return this.trie.size;
+  }
+
+  @Override
+  public int size() {
+    return this.trie.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.trie.size == 0;
+  }
+
+  @Override
+  public V get(Object key) {
+    return valueOrNull(this.trie.get(key));
+  }
+
+  @Override
+  public V getOrDefault(Object key, V defaultValue) {
+    V res = get(key);
+    return res == null ? defaultValue : res;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return this.trie.get(key) != null;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    PersistentHashTrie.Cursor cursor = this.trie.cursor();
+    while (cursor.hasNext()) {
+      cursor.advance();
+      if (cursor.value().equals(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public V put(K key, V value) {
+    throw immutable();
+  }
+
+  @Override
+  public void putAll(Map<? extends K, ? extends V> m) {
+    throw immutable();
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    throw immutable();
+  }
+
+  @Override
+  public V remove(Object key) {
+    throw immutable();
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    throw immutable();
+  }
+
+  @Override
+  public boolean replace(K key, V oldValue, V newValue) {
+    throw immutable();
+  }
+
+  @Override
+  public V replace(K key, V value) {
+    throw immutable();
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    throw immutable();
+  }
+
+  @Override
+  public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+    throw immutable();
+  }
+
+  @Override
+  public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+    throw immutable();
+  }
+
+  @Override
+  public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+    throw immutable();
+  }
+
+  @Override
+  public void clear() {
+    throw immutable();
+  }
+
+  @Override
+  public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+    throw immutable();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    this.trie.forEach((k, v) -> action.accept((K) k, (V) v));
+  }
+
+  @Override
+  public Object clone() {
+    // Deliberately not calling super.clone() as HashMap's impl would re-insert every entry into its own table. The trie
+    // is immutable, so the clone is free to share all of it.
+    return new ClaroPersistentMap<K, V>((Types.MapType) getClaroType(), this.trie);
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return new AbstractSet<K>() {
+      @Override
+      public Iterator<K> iterator() {
+        return new TrieIterator<K>() {
+          @Override
+          @SuppressWarnings("unchecked")
+          K current() {
+            return (K) this.cursor.key();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return ClaroPersistentMap.this.trie.size;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return containsKey(o);
+      }
+    };
+  }
+
+  @Override
+  public Collection<V> values() {
+    return new AbstractCollection<V>() {
+      @Override
+      public Iterator<V> iterator() {
+        return new TrieIterator<V>() {
+          @Override
+          V current() {
+            return valueOrNull(this.cursor.value());
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return ClaroPersistentMap.this.trie.size;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return containsValue(o);
+      }
+    };
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new AbstractSet<Map.Entry<K, V>>() {
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator() {
+        return new TrieIterator<Map.Entry<K, V>>() {
+          @Override
+          @SuppressWarnings("unchecked")
+          Map.Entry<K, V> current() {
+            return new AbstractMap.SimpleImmutableEntry<>((K) this.cursor.key(), valueOrNull(this.cursor.value()));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return ClaroPersistentMap.this.trie.size;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        if (!(o instanceof Map.Entry)) {
+          return false;
+        }
+        Object value = ClaroPersistentMap.this.trie.get(((Map.Entry<?, ?>) o).getKey());
+        return value != null && value.equals(((Map.Entry<?, ?>) o).getValue());
+      }
+    };
+  }
+
+  private abstract class TrieIterator<E> implements Iterator<E> {
+    final PersistentHashTrie.Cursor cursor = ClaroPersistentMap.this.trie.cursor();
+
+    abstract E current();
+
+    @Override
+    public boolean hasNext() {
+      return this.cursor.hasNext();
+    }
+
+    @Override
+    public E next() {
+      this.cursor.advance();
+      return current();
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.collections;
+
+import com.claro.intermediate_representation.types.Types;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+
+/**
+ * An immutable ClaroSet stored in a PersistentHashTrie so that sets derived from it via with()/without() share all but
+ * O(log n) of their structure with it, rather than each derived set being a full O(n) copy. This is what backs the
+ * stdlib's `sets::withElem()`/`sets::withoutElem()`, and so is only ever used for immutable set types.
+ * <p>
+ * This still extends ClaroSet (and therefore HashSet) so that generated code and the stdlib's inline-Java can continue
+ * treating it as a plain ClaroSet. As a result, *every* HashSet method that would touch HashSet's own (always-empty)
+ * backing map MUST be overridden here. Claro's type system already rules out mutating an immutable set, so every
+ * mutator simply throws.
+ * <p>
+ * Any override missing from here should show up as a mismatch with HashSet in ClaroPersistentCollectionsTest.
+ */
+public final class ClaroPersistentSet<V> extends ClaroSet<V> {
+  // The trie needs some non-null value to mark each present element.
+  private static final Object PRESENT = Boolean.TRUE;
+
+  private final PersistentHashTrie trie;
+
+  private ClaroPersistentSet(Types.SetType claroType, PersistentHashTrie trie) {
+    super(claroType);
+    this.trie = trie;
+  }
+
+  // Only the first derivation from a set that isn't already persistent pays for an O(n) copy, every later derivation
+  // from the result is O(log n).
+  public static <V> ClaroPersistentSet<V> forSet(ClaroSet<V> from) {
+    if (from instanceof ClaroPersistentSet) {
+      return (ClaroPersistentSet<V>) from;
+    }
+    PersistentHashTrie trie = PersistentHashTrie.EMPTY;
+    for (V v : from) {
+      trie = trie.with(v, PRESENT);
+    }
+    return new ClaroPersistentSet<>((Types.SetType) from.getClaroType(), trie);
+  }
+
+  public ClaroPersistentSet<V> with(V v) {
+    PersistentHashTrie res = this.trie.with(v, PRESENT);
+    return res == this.trie ? this : new ClaroPersistentSet<>((Types.SetType) getClaroType(), res);
+  }
+
+  public ClaroPersistentSet<V> without(Object v) {
+    PersistentHashTrie res = this.trie.without(v);
+    return res == this.trie ? this : new ClaroPersistentSet<>((Types.SetType) getClaroType(), res);
+  }
+
+  private static UnsupportedOperationException immutable() {
+    return new UnsupportedOperationException("Internal Error! Attempted to mutate an immutable set.");
+  }
+
+  @Override
+  public int length() {
+    return this.trie.size;
+  }
+
+  @Override
+  public ClaroSet<V> add(Collection<? extends V> c) {
+    throw immutable();
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends V> c) {
+    throw immutable();
+  }
+
+  @Override
+  public int size() {
+    return this.trie.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.trie.size == 0;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return this.trie.get(o) != null;
+  }
+
+  @Override
+  public boolean add(V v) {
+    throw immutable();
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    throw immutable();
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super V> filter) {
+    throw immutable();
+  }
+
+  @Override
+  public void clear() {
+    throw immutable();
+  }
+
+  @Override
+  public Iterator<V> iterator() {
+    PersistentHashTrie.Cursor cursor = this.trie.cursor();
+    return new Iterator<V>() {
+      @Override
+      public boolean hasNext() {
+        return cursor.hasNext();
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public V next() {
+        cursor.advance();
+        return (V) cursor.key();
+      }
+    };
+  }
+
+  // HashSet's impls read its own backing map directly, so these must walk the trie instead. Anything that copies a set
+  // (e.g. `new ArrayList<>(set)`, ImmutableSet.copyOf(set)) goes through here.
+  @Override
+  public Object[] toArray() {
+    return toArray(new Object[this.trie.size]);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T[] toArray(T[] a) {
+    int size = this.trie.size;
+    T[] res = a.length >= size ? a : (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+    PersistentHashTrie.Cursor cursor = this.trie.cursor();
+    for (int i = 0; cursor.hasNext(); i++) {
+      cursor.advance();
+      res[i] = (T) cursor.key();
+    }
+    if (res.length > size) {
+      res[size] = null;
+    }
+    return res;
+  }
+
+  @Override
+  public Spliterator<V> spliterator() {
+    return Spliterators.spliterator(this, Spliterator.DISTINCT | Spliterator.IMMUTABLE);
+  }
+
+  @Override
+  public Object clone() {
+    // Deliberately not calling super.clone() as HashSet's impl would clone its own (unused) backing map. The trie is
+    // immutable, so the clone is free to share all of it.
+    return new ClaroPersistentSet<V>((Types.SetType) getClaroType(), this.trie);
+  }
+}
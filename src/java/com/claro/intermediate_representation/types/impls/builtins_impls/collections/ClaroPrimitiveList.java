@@ -0,0 +1,468 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.collections;
+
+import com.claro.intermediate_representation.types.Types;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Base class for the ClaroList impls that are backed by a primitive array instead of an array of boxed references.
+ * <p>
+ * These still extend ClaroList (and therefore ArrayList) so that every single place that the generated code or the
+ * stdlib's inline-Java already treats a `[int]` as a `ClaroList<Integer>` keeps working unchanged. The price of that is
+ * that *every* ArrayList method that would otherwise touch ArrayList's own (always-empty) backing array MUST be
+ * overridden here. If you ever add a method here, double check the JDK's ArrayList impl to make sure it's covered.
+ * <p>
+ * The only thing that concrete subclasses need to provide is access to their actual primitive storage. All of the
+ * element shifting is done generically via System.arraycopy() which is happy to operate on primitive arrays.
+ */
+public abstract class ClaroPrimitiveList<T> extends ClaroList<T> {
+  private static final int DEFAULT_CAPACITY = 10;
+
+  protected int size = 0;
+
+  protected ClaroPrimitiveList(Types.ListType claroType) {
+    // ArrayList(0) shares a single static empty array, so the inherited storage costs nothing.
+    super(claroType, 0);
+  }
+
+  /****************************************************************************************************************/
+  // Storage hooks implemented by each primitive specialization.
+  /****************************************************************************************************************/
+
+  // The primitive array itself. Only ever used for System.arraycopy() so it's fine that it's untyped here.
+  protected abstract Object storage();
+
+  protected abstract int capacity();
+
+  // Must preserve the first `size` elements.
+  protected abstract void resizeStorage(int newCapacity);
+
+  protected abstract T boxedAt(int i);
+
+  // Unboxes the given value into storage at the given index. Claro has no null, so unboxing is always safe.
+  protected abstract void storeBoxed(int i, T value);
+
+  // Compares the element at index i to the given value w/o boxing the stored element.
+  protected abstract boolean elementEquals(int i, Object o);
+
+  // Must match the hashCode() of the boxed element so that this List's hashCode() agrees w/ any other List's.
+  protected abstract int elementHashCode(int i);
+
+  // Sorts the given range by the natural ordering of the boxed type.
+  protected abstract void sortRange(int fromInclusive, int toExclusive);
+
+  // Called on a freshly clone()'d instance that still shares storage with the original.
+  protected abstract void detachStorage();
+
+  /****************************************************************************************************************/
+  // Helpers for the subclasses' unboxed fast paths.
+  /****************************************************************************************************************/
+
+  protected final void checkIndex(int i) {
+    if (i >= this.size) {
+      throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + this.size);
+    }
+  }
+
+  private void checkPositionIndex(int i) {
+    if (i < 0 || i > this.size) {
+      throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + this.size);
+    }
+  }
+
+  // Ensures there's room for `additional` more elements, returning the index where the first of them should be placed.
+  protected final int reserve(int additional) {
+    int minCapacity = this.size + additional;
+    int capacity = this.capacity();
+    if (minCapacity > capacity) {
+      this.resizeStorage(Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, capacity + (capacity >> 1))));
+    }
+    this.modCount++;
+    return this.size;
+  }
+
+  // Opens a gap of `count` slots starting at index i, leaving `size` already updated.
+  private void openGap(int i, int count) {
+    this.reserve(count);
+    System.arraycopy(this.storage(), i, this.storage(), i + count, this.size - i);
+    this.size += count;
+  }
+
+  /****************************************************************************************************************/
+  // ArrayList overrides.
+  /****************************************************************************************************************/
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  @Override
+  public T get(int i) {
+    checkIndex(i);
+    return boxedAt(i);
+  }
+
+  @Override
+  public T getElement(int i) {
+    checkIndex(i);
+    return boxedAt(i);
+  }
+
+  @Override
+  public int length() {
+    return this.size;
+  }
+
+  @Override
+  public T set(int i, T value) {
+    checkIndex(i);
+    T prev = boxedAt(i);
+    storeBoxed(i, value);
+    return prev;
+  }
+
+  @Override
+  public boolean add(T value) {
+    storeBoxed(reserve(1), value);
+    this.size++;
+    return true;
+  }
+
+  @Override
+  public void add(int i, T value) {
+    checkPositionIndex(i);
+    openGap(i, 1);
+    storeBoxed(i, value);
+  }
+
+  @Override
+  public boolean addAll(java.util.Collection<? extends T> c) {
+    return addAll(this.size, c);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public boolean addAll(int i, java.util.Collection<? extends T> c) {
+    checkPositionIndex(i);
+    int count = c.size();
+    if (count == 0) {
+      return false;
+    }
+    if (c.getClass() == this.getClass()) {
+      // Same specialization, so the whole thing is just a pair of array copies w/o ever boxing anything. Note that it's
+      // important to grab the source storage *after* opening the gap in case `c == this`.
+      ClaroPrimitiveList<T> other = (ClaroPrimitiveList<T>) c;
+      openGap(i, count);
+      Object src = other.storage();
+      if (other == this) {
+        // The gap was opened in the middle of the list itself, so the original elements are now split around it.
+        System.arraycopy(src, 0, src, i, i);
+        System.arraycopy(src, i + count, src, 2 * i, count - i);
+      } else {
+        System.arraycopy(src, 0, this.storage(), i, count);
+      }
+      return true;
+    }
+    Object[] toAdd = c.toArray();
+    openGap(i, toAdd.length);
+    for (Object o : toAdd) {
+      storeBoxed(i++, (T) o);
+    }
+    return true;
+  }
+
+  @Override
+  public T remove(int i) {
+    checkIndex(i);
+    T prev = boxedAt(i);
+    removeRange(i, i + 1);
+    return prev;
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    int i = indexOf(o);
+    if (i == -1) {
+      return false;
+    }
+    removeRange(i, i + 1);
+    return true;
+  }
+
+  @Override
+  protected void removeRange(int fromInclusive, int toExclusive) {
+    if (fromInclusive > toExclusive) {
+      throw new IndexOutOfBoundsException("From Index: " + fromInclusive + " > To Index: " + toExclusive);
+    }
+    System.arraycopy(this.storage(), toExclusive, this.storage(), fromInclusive, this.size - toExclusive);
+    this.size -= toExclusive - fromInclusive;
+    this.modCount++;
+  }
+
+  @Override
+  public void clear() {
+    this.size = 0;
+    this.modCount++;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return indexOf(o) >= 0;
+  }
+
+  @Override
+  public int indexOf(Object o) {
+    for (int i = 0; i < this.size; i++) {
+      if (elementEquals(i, o)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int lastIndexOf(Object o) {
+    for (int i = this.size - 1; i >= 0; i--) {
+      if (elementEquals(i, o)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public boolean removeAll(java.util.Collection<?> c) {
+    Objects.requireNonNull(c);
+    return removeIf(c::contains);
+  }
+
+  @Override
+  public boolean retainAll(java.util.Collection<?> c) {
+    Objects.requireNonNull(c);
+    return removeIf(e -> !c.contains(e));
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super T> filter) {
+    Objects.requireNonNull(filter);
+    Object storage = this.storage();
+    int kept = 0;
+    for (int i = 0; i < this.size; i++) {
+      if (!filter.test(boxedAt(i))) {
+        if (kept != i) {
+          System.arraycopy(storage, i, storage, kept, 1);
+        }
+        kept++;
+      }
+    }
+    boolean removedAny = kept != this.size;
+    if (removedAny) {
+      this.size = kept;
+      this.modCount++;
+    }
+    return removedAny;
+  }
+
+  @Override
+  public void replaceAll(UnaryOperator<T> operator) {
+    Objects.requireNonNull(operator);
+    int expectedModCount = this.modCount;
+    for (int i = 0; i < this.size; i++) {
+      storeBoxed(i, operator.apply(boxedAt(i)));
+    }
+    if (this.modCount != expectedModCount) {
+      throw new ConcurrentModificationException();
+    }
+  }
+
+  @Override
+  public void forEach(Consumer<? super T> action) {
+    Objects.requireNonNull(action);
+    int expectedModCount = this.modCount;
+    for (int i = 0; i < this.size && this.modCount == expectedModCount; i++) {
+      action.accept(boxedAt(i));
+    }
+    if (this.modCount != expectedModCount) {
+      throw new ConcurrentModificationException();
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void sort(Comparator<? super T> c) {
+    int expectedModCount = this.modCount;
+    if (c == null) {
+      sortRange(0, this.size);
+    } else {
+      Object[] boxed = toArray();
+      Arrays.sort((T[]) boxed, c);
+      for (int i = 0; i < boxed.length; i++) {
+        storeBoxed(i, (T) boxed[i]);
+      }
+    }
+    if (this.modCount != expectedModCount) {
+      throw new ConcurrentModificationException();
+    }
+    this.modCount++;
+  }
+
+  @Override
+  public Object[] toArray() {
+    Object[] res = new Object[this.size];
+    for (int i = 0; i < this.size; i++) {
+      res[i] = boxedAt(i);
+    }
+    return res;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <A> A[] toArray(A[] a) {
+    if (a.length < this.size) {
+      a = (A[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), this.size);
+    }
+    for (int i = 0; i < this.size; i++) {
+      a[i] = (A) boxedAt(i);
+    }
+    if (a.length > this.size) {
+      a[this.size] = null;
+    }
+    return a;
+  }
+
+  @Override
+  public void ensureCapacity(int minCapacity) {
+    if (minCapacity > this.capacity()) {
+      this.modCount++;
+      this.resizeStorage(minCapacity);
+    }
+  }
+
+  @Override
+  public void trimToSize() {
+    if (this.size < this.capacity()) {
+      this.modCount++;
+      this.resizeStorage(this.size);
+    }
+  }
+
+  // Iteration and sub-list views all go through this view so that they're defined purely in terms of get/set/add/remove
+  // on this list, exactly as AbstractList does it. Lazily created so that lists that are never iterated don't pay for it.
+  private transient List<T> view;
+
+  private List<T> view() {
+    if (this.view == null) {
+      this.view = new View();
+    }
+    return this.view;
+  }
+
+  private final class View extends AbstractList<T> {
+    @Override
+    public T get(int i) {
+      return ClaroPrimitiveList.this.get(i);
+    }
+
+    @Override
+    public T set(int i, T value) {
+      return ClaroPrimitiveList.this.set(i, value);
+    }
+
+    @Override
+    public void add(int i, T value) {
+      ClaroPrimitiveList.this.add(i, value);
+    }
+
+    @Override
+    public T remove(int i) {
+      return ClaroPrimitiveList.this.remove(i);
+    }
+
+    @Override
+    public int size() {
+      return ClaroPrimitiveList.this.size;
+    }
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return this.view().iterator();
+  }
+
+  @Override
+  public ListIterator<T> listIterator() {
+    return this.view().listIterator();
+  }
+
+  @Override
+  public ListIterator<T> listIterator(int i) {
+    return this.view().listIterator(i);
+  }
+
+  @Override
+  public List<T> subList(int fromInclusive, int toExclusive) {
+    return this.view().subList(fromInclusive, toExclusive);
+  }
+
+  @Override
+  public Spliterator<T> spliterator() {
+    return Spliterators.spliterator(this, Spliterator.ORDERED);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof List)) {
+      return false;
+    }
+    List<?> other = (List<?>) o;
+    if (other.size() != this.size) {
+      return false;
+    }
+    int i = 0;
+    for (Object otherElem : other) {
+      if (i >= this.size || !elementEquals(i++, otherElem)) {
+        return false;
+      }
+    }
+    return i == this.size;
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    for (int i = 0; i < this.size; i++) {
+      hashCode = 31 * hashCode + elementHashCode(i);
+    }
+    return hashCode;
+  }
+
+  @Override
+  public Object clone() {
+    ClaroPrimitiveList<?> res = (ClaroPrimitiveList<?>) super.clone();
+    res.detachStorage();
+    // The view is bound to the original list, the clone needs its own.
+    res.view = null;
+    return res;
+  }
+}
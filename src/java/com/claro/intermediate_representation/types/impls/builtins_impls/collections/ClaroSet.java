@@ -6,6 +6,7 @@ import com.claro.intermediate_representation.types.impls.builtins_impls.ClaroBui
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class ClaroSet<V> extends HashSet<V> implements ClaroBuiltinTypeImplementation {
@@ -21,6 +22,29 @@ public class ClaroSet<V> extends HashSet<V> implements ClaroBuiltinTypeImplement
     this.claroType = claroType;
   }
 
+  // Prefer these factories over the constructors anywhere that the set's element type isn't statically known to be
+  // unsupported, so that sets of `int`/`long`/`string` consistently get their open-addressing impl.
+  public static <V> ClaroSet<V> forSetType(Types.SetType claroType) {
+    return forSetType(claroType, 0);
+  }
+
+  public static <V> ClaroSet<V> forSetType(Types.SetType claroType, int initialSize) {
+    Optional<OpenAddressingTable<V>> table =
+        OpenAddressingTable.forKeyType(
+            claroType.parameterizedTypeArgs().get(Types.SetType.PARAMETERIZED_TYPE), initialSize);
+    if (table.isPresent()) {
+      return new ClaroOpenAddressingSet<>(claroType, table.get());
+    }
+    return new ClaroSet<>(claroType);
+  }
+
+  // Deliberately raw, exactly like the `new ClaroSet(...)` calls that it replaced in generated code, since codegen'd
+  // (nested) copies can't always spell out their element types to javac.
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public static ClaroSet forSetType(Types.SetType claroType, Collection from) {
+    return forSetType(claroType, from.size()).add(from);
+  }
+
   public int length() {
     return super.size();
   }
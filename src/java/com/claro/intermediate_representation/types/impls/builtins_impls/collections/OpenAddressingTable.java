@@ -0,0 +1,538 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.collections;
+
+import com.claro.intermediate_representation.types.Type;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Linear-probing hash table keyed directly on unboxed keys, backing the specialized ClaroMap and ClaroSet impls for
+ * `int`, `long` and `string` keys. There are no per-entry Node objects, just parallel key and value arrays.
+ * <p>
+ * Slot occupancy is tracked by the values array itself (Claro has no null, so a null value always means an empty slot)
+ * and removal uses backward-shift deletion so that probe sequences never have to skip over tombstones.
+ * <p>
+ * NOTE: Subclasses must NOT use field initializers for their key storage, since allocateKeys() is called from this
+ * class's constructor before subclass field initializers would run (and they'd clobber the allocated arrays).
+ */
+abstract class OpenAddressingTable<K> {
+  private static final int MIN_CAPACITY = 8;
+  // Linear probing degrades quickly as the table fills, so trade a bit of space to keep probe sequences short.
+  private static final int MAX_LOAD_PERCENT = 50;
+
+  Object[] values;
+  int mask;
+  int size;
+  int modCount;
+
+  OpenAddressingTable(int expectedSize) {
+    allocate(capacityFor(expectedSize));
+  }
+
+  static <K> Optional<OpenAddressingTable<K>> forKeyType(Type keyType, int expectedSize) {
+    OpenAddressingTable<?> res;
+    switch (keyType.baseType()) {
+      case INTEGER:
+        res = new IntKeys(expectedSize);
+        break;
+      case LONG:
+        res = new LongKeys(expectedSize);
+        break;
+      case STRING:
+        res = new StringKeys(expectedSize);
+        break;
+      default:
+        return Optional.empty();
+    }
+    @SuppressWarnings("unchecked") // The key type is exactly what was just switched on.
+    OpenAddressingTable<K> typedRes = (OpenAddressingTable<K>) res;
+    return Optional.of(typedRes);
+  }
+
+  private static int capacityFor(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while ((long) capacity * MAX_LOAD_PERCENT / 100 < expectedSize) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  private void allocate(int capacity) {
+    this.values = new Object[capacity];
+    this.mask = capacity - 1;
+    allocateKeys(capacity);
+  }
+
+  /****************************************************************************************************************/
+  // Key storage hooks implemented by each key specialization.
+  /****************************************************************************************************************/
+
+  abstract void allocateKeys(int capacity);
+
+  abstract Object keyStorage();
+
+  abstract K keyAt(int slot);
+
+  // The (already mixed) hash of the key currently stored in the given slot.
+  abstract int hashAt(int slot);
+
+  // Returns the slot holding the given key, or -1 if it's absent (including if it's not even the right type of key).
+  abstract int findSlot(Object key);
+
+  // Returns the slot already holding the given key, or else claims the first empty slot in its probe sequence for the
+  // key and returns its bitwise complement. Callers MUST immediately fill the value for a newly claimed slot.
+  abstract int claimSlot(K key);
+
+  abstract void moveKey(int from, int to);
+
+  // Only needed for keys that are references, so that removed keys aren't kept reachable.
+  abstract void clearKey(int slot);
+
+  // Places the key found at the given slot of the given *old* key storage into this (freshly allocated) table.
+  abstract void reinsert(Object oldKeys, int oldSlot, Object value);
+
+  abstract OpenAddressingTable<K> copy();
+
+  static int mix(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /****************************************************************************************************************/
+  // Table operations.
+  /****************************************************************************************************************/
+
+  final Object get(Object key) {
+    int slot = findSlot(key);
+    return slot < 0 ? null : this.values[slot];
+  }
+
+  // Returns the previous value, or null if the key is new.
+  final Object put(K key, Object value) {
+    if (value == null) {
+      throw new NullPointerException("Internal Compiler Error! Claro values are never null.");
+    }
+    int slot = claimSlot(key);
+    if (slot >= 0) {
+      Object prev = this.values[slot];
+      this.values[slot] = value;
+      return prev;
+    }
+    this.values[~slot] = value;
+    this.modCount++;
+    if (++this.size * 100L > (long) this.values.length * MAX_LOAD_PERCENT) {
+      resize(this.values.length << 1);
+    }
+    return null;
+  }
+
+  // Returns the removed value, or null if the key was absent.
+  final Object remove(Object key) {
+    int slot = findSlot(key);
+    return slot < 0 ? null : removeSlot(slot, null);
+  }
+
+  final void clear() {
+    if (this.size > 0) {
+      java.util.Arrays.fill(this.values, null);
+      for (int i = 0; i < this.values.length; i++) {
+        clearKey(i);
+      }
+      this.size = 0;
+      this.modCount++;
+    }
+  }
+
+  final void ensureCapacity(int expectedSize) {
+    int capacity = capacityFor(expectedSize);
+    if (capacity > this.values.length) {
+      resize(capacity);
+    }
+  }
+
+  private void resize(int newCapacity) {
+    Object[] oldValues = this.values;
+    Object oldKeys = keyStorage();
+    allocate(newCapacity);
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != null) {
+        reinsert(oldKeys, i, oldValues[i]);
+      }
+    }
+  }
+
+  // Backward-shift deletion. If a cursor is given, then the removal is happening at that cursor's current slot, and any
+  // entry that gets shifted from the not-yet-visited part of the table into the already-visited part is handed off to
+  // the cursor so that it still gets visited.
+  private Object removeSlot(int slot, Cursor cursor) {
+    Object removed = this.values[slot];
+    int hole = slot;
+    for (int next = (hole + 1) & this.mask; this.values[next] != null; next = (next + 1) & this.mask) {
+      int ideal = hashAt(next) & this.mask;
+      // The entry at `next` can only fill the hole if its probe sequence starts at or before the hole.
+      if (((next - ideal) & this.mask) >= ((next - hole) & this.mask)) {
+        if (cursor != null && next < slot && hole >= slot) {
+          cursor.recordWrapped(keyAt(next), this.values[next]);
+        }
+        moveKey(next, hole);
+        this.values[hole] = this.values[next];
+        hole = next;
+      }
+    }
+    this.values[hole] = null;
+    clearKey(hole);
+    this.size--;
+    this.modCount++;
+    return removed;
+  }
+
+  final Cursor cursor() {
+    return new Cursor();
+  }
+
+  /**
+   * Walks the table from the highest slot down. Backward-shift deletion only ever moves entries towards lower slots, so
+   * removing the current entry can only disturb already-visited slots, with the one exception of entries that wrap
+   * around from the start of the table which are tracked separately and visited at the very end.
+   */
+  final class Cursor {
+    private int nextSlot = values.length - 1;
+    private int currentSlot = -1;
+    private K currentKey;
+    private Object currentValue;
+    private boolean canRemove = false;
+    private ArrayList<K> wrappedKeys;
+    private ArrayList<Object> wrappedValues;
+    private int wrappedPos = 0;
+    private int expectedModCount = modCount;
+
+    boolean hasNext() {
+      checkForComodification();
+      while (this.nextSlot >= 0 && values[this.nextSlot] == null) {
+        this.nextSlot--;
+      }
+      return this.nextSlot >= 0 || (this.wrappedKeys != null && this.wrappedPos < this.wrappedKeys.size());
+    }
+
+    void advance() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (this.nextSlot >= 0) {
+        this.currentSlot = this.nextSlot--;
+        this.currentKey = keyAt(this.currentSlot);
+        this.currentValue = values[this.currentSlot];
+      } else {
+        this.currentSlot = -1;
+        this.currentKey = this.wrappedKeys.get(this.wrappedPos);
+        this.currentValue = this.wrappedValues.get(this.wrappedPos++);
+      }
+      this.canRemove = true;
+    }
+
+    K key() {
+      return this.currentKey;
+    }
+
+    Object value() {
+      return this.currentValue;
+    }
+
+    void remove() {
+      if (!this.canRemove) {
+        throw new IllegalStateException();
+      }
+      checkForComodification();
+      if (this.currentSlot >= 0) {
+        removeSlot(this.currentSlot, this);
+      } else {
+        // Everything left to visit is in the wrapped list by now, so shifting entries around is harmless.
+        OpenAddressingTable.this.remove(this.currentKey);
+      }
+      this.canRemove = false;
+      this.expectedModCount = modCount;
+    }
+
+    private void recordWrapped(K key, Object value) {
+      if (this.wrappedKeys == null) {
+        this.wrappedKeys = new ArrayList<>();
+        this.wrappedValues = new ArrayList<>();
+      }
+      this.wrappedKeys.add(key);
+      this.wrappedValues.add(value);
+    }
+
+    private void checkForComodification() {
+      if (modCount != this.expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+    }
+  }
+
+  /****************************************************************************************************************/
+  // Key specializations.
+  /****************************************************************************************************************/
+
+  static final class IntKeys extends OpenAddressingTable<Integer> {
+    private int[] keys;
+
+    IntKeys(int expectedSize) {
+      super(expectedSize);
+    }
+
+    @Override
+    void allocateKeys(int capacity) {
+      this.keys = new int[capacity];
+    }
+
+    @Override
+    Object keyStorage() {
+      return this.keys;
+    }
+
+    @Override
+    Integer keyAt(int slot) {
+      return this.keys[slot];
+    }
+
+    @Override
+    int hashAt(int slot) {
+      return mix(this.keys[slot]);
+    }
+
+    @Override
+    int findSlot(Object key) {
+      return key instanceof Integer ? findSlot((int) (Integer) key) : -1;
+    }
+
+    int findSlot(int key) {
+      for (int slot = mix(key) & this.mask; this.values[slot] != null; slot = (slot + 1) & this.mask) {
+        if (this.keys[slot] == key) {
+          return slot;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    int claimSlot(Integer boxedKey) {
+      int key = boxedKey;
+      int slot = mix(key) & this.mask;
+      for (; this.values[slot] != null; slot = (slot + 1) & this.mask) {
+        if (this.keys[slot] == key) {
+          return slot;
+        }
+      }
+      this.keys[slot] = key;
+      return ~slot;
+    }
+
+    @Override
+    void moveKey(int from, int to) {
+      this.keys[to] = this.keys[from];
+    }
+
+    @Override
+    void clearKey(int slot) {
+      // Nothing to release for primitive keys.
+    }
+
+    @Override
+    void reinsert(Object oldKeys, int oldSlot, Object value) {
+      int key = ((int[]) oldKeys)[oldSlot];
+      int slot = mix(key) & this.mask;
+      while (this.values[slot] != null) {
+        slot = (slot + 1) & this.mask;
+      }
+      this.keys[slot] = key;
+      this.values[slot] = value;
+    }
+
+    @Override
+    IntKeys copy() {
+      IntKeys res = new IntKeys(0);
+      res.keys = this.keys.clone();
+      res.values = this.values.clone();
+      res.mask = this.mask;
+      res.size = this.size;
+      return res;
+    }
+  }
+
+  static final class LongKeys extends OpenAddressingTable<Long> {
+    private long[] keys;
+
+    LongKeys(int expectedSize) {
+      super(expectedSize);
+    }
+
+    private static int mixLong(long key) {
+      return mix((int) (key ^ (key >>> 32)));
+    }
+
+    @Override
+    void allocateKeys(int capacity) {
+      this.keys = new long[capacity];
+    }
+
+    @Override
+    Object keyStorage() {
+      return this.keys;
+    }
+
+    @Override
+    Long keyAt(int slot) {
+      return this.keys[slot];
+    }
+
+    @Override
+    int hashAt(int slot) {
+      return mixLong(this.keys[slot]);
+    }
+
+    @Override
+    int findSlot(Object key) {
+      return key instanceof Long ? findSlot((long) (Long) key) : -1;
+    }
+
+    int findSlot(long key) {
+      for (int slot = mixLong(key) & this.mask; this.values[slot] != null; slot = (slot + 1) & this.mask) {
+        if (this.keys[slot] == key) {
+          return slot;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    int claimSlot(Long boxedKey) {
+      long key = boxedKey;
+      int slot = mixLong(key) & this.mask;
+      for (; this.values[slot] != null; slot = (slot + 1) & this.mask) {
+        if (this.keys[slot] == key) {
+          return slot;
+        }
+      }
+      this.keys[slot] = key;
+      return ~slot;
+    }
+
+    @Override
+    void moveKey(int from, int to) {
+      this.keys[to] = this.keys[from];
+    }
+
+    @Override
+    void clearKey(int slot) {
+      // Nothing to release for primitive keys.
+    }
+
+    @Override
+    void reinsert(Object oldKeys, int oldSlot, Object value) {
+      long key = ((long[]) oldKeys)[oldSlot];
+      int slot = mixLong(key) & this.mask;
+      while (this.values[slot] != null) {
+        slot = (slot + 1) & this.mask;
+      }
+      this.keys[slot] = key;
+      this.values[slot] = value;
+    }
+
+    @Override
+    LongKeys copy() {
+      LongKeys res = new LongKeys(0);
+      res.keys = this.keys.clone();
+      res.values = this.values.clone();
+      res.mask = this.mask;
+      res.size = this.size;
+      return res;
+    }
+  }
+
+  // Strings are already references, but String caches its own hashCode, so this still saves the Node per entry.
+  static final class StringKeys extends OpenAddressingTable<String> {
+    private String[] keys;
+
+    StringKeys(int expectedSize) {
+      super(expectedSize);
+    }
+
+    @Override
+    void allocateKeys(int capacity) {
+      this.keys = new String[capacity];
+    }
+
+    @Override
+    Object keyStorage() {
+      return this.keys;
+    }
+
+    @Override
+    String keyAt(int slot) {
+      return this.keys[slot];
+    }
+
+    @Override
+    int hashAt(int slot) {
+      return mix(this.keys[slot].hashCode());
+    }
+
+    @Override
+    int findSlot(Object key) {
+      if (!(key instanceof String)) {
+        return -1;
+      }
+      for (int slot = mix(key.hashCode()) & this.mask; this.values[slot] != null; slot = (slot + 1) & this.mask) {
+        if (key.equals(this.keys[slot])) {
+          return slot;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    int claimSlot(String key) {
+      int slot = mix(key.hashCode()) & this.mask;
+      for (; this.values[slot] != null; slot = (slot + 1) & this.mask) {
+        if (key.equals(this.keys[slot])) {
+          return slot;
+        }
+      }
+      this.keys[slot] = key;
+      return ~slot;
+    }
+
+    @Override
+    void moveKey(int from, int to) {
+      this.keys[to] = this.keys[from];
+    }
+
+    @Override
+    void clearKey(int slot) {
+      this.keys[slot] = null;
+    }
+
+    @Override
+    void reinsert(Object oldKeys, int oldSlot, Object value) {
+      String key = ((String[]) oldKeys)[oldSlot];
+      int slot = mix(key.hashCode()) & this.mask;
+      while (this.values[slot] != null) {
+        slot = (slot + 1) & this.mask;
+      }
+      this.keys[slot] = key;
+      this.values[slot] = value;
+    }
+
+    @Override
+    StringKeys copy() {
+      StringKeys res = new StringKeys(0);
+      res.keys = this.keys.clone();
+      res.values = this.values.clone();
+      res.mask = this.mask;
+      res.size = this.size;
+      return res;
+    }
+  }
+}
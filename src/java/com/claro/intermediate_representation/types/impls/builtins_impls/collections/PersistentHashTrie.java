@@ -0,0 +1,323 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.collections;
+
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable hash array mapped trie (HAMT). Every update returns a new trie that shares all but the O(log32 n) nodes
+ * along the path to the updated key with the original trie, so that deriving a "modified copy" of some large immutable
+ * map or set never needs to copy the whole thing. Keys and values must be non-null, which Claro values always are.
+ * <p>
+ * This is the storage behind ClaroPersistentMap and ClaroPersistentSet, and isn't meant to be used directly.
+ */
+final class PersistentHashTrie {
+  static final PersistentHashTrie EMPTY = new PersistentHashTrie(null, 0);
+
+  // 32 bit hashes consumed 5 bits at a time can only ever nest 7 BitmapNodes deep, plus a CollisionNode at the bottom.
+  private static final int MAX_DEPTH = 8;
+
+  private final Node root;
+  final int size;
+
+  private PersistentHashTrie(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  Object get(Object key) {
+    return this.root == null ? null : this.root.get(0, hash(key), key);
+  }
+
+  PersistentHashTrie with(Object key, Object value) {
+    boolean[] addedLeaf = {false};
+    Node newRoot = (this.root == null ? BitmapNode.EMPTY : this.root).put(0, hash(key), key, value, addedLeaf);
+    if (newRoot == this.root) {
+      return this;
+    }
+    return new PersistentHashTrie(newRoot, addedLeaf[0] ? this.size + 1 : this.size);
+  }
+
+  PersistentHashTrie without(Object key) {
+    if (this.root == null) {
+      return this;
+    }
+    Node newRoot = this.root.remove(0, hash(key), key);
+    // Nodes are only ever replaced along the path to a key that was actually removed.
+    return newRoot == this.root ? this : new PersistentHashTrie(newRoot, this.size - 1);
+  }
+
+  void forEach(BiConsumer<Object, Object> action) {
+    if (this.root != null) {
+      this.root.forEach(action);
+    }
+  }
+
+  Cursor cursor() {
+    return new Cursor(this.root);
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    // Same spreading as HashMap, so that keys whose hashes only differ in their high bits don't all collide near the
+    // root of the trie.
+    return h ^ (h >>> 16);
+  }
+
+  private static int bitFor(int hash, int shift) {
+    return 1 << ((hash >>> shift) & 31);
+  }
+
+  // Iterates entries in trie order, for use by the persistent collections' Iterators.
+  static final class Cursor {
+    private final Object[][] arrays = new Object[MAX_DEPTH][];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth = -1;
+    private Object nextKey;
+    private Object nextValue;
+    private Object currKey;
+    private Object currValue;
+
+    private Cursor(Node root) {
+      if (root != null) {
+        push(root);
+      }
+      findNext();
+    }
+
+    boolean hasNext() {
+      return this.nextKey != null;
+    }
+
+    void advance() {
+      if (this.nextKey == null) {
+        throw new NoSuchElementException();
+      }
+      this.currKey = this.nextKey;
+      this.currValue = this.nextValue;
+      findNext();
+    }
+
+    Object key() {
+      return this.currKey;
+    }
+
+    Object value() {
+      return this.currValue;
+    }
+
+    private void push(Node node) {
+      this.arrays[++this.depth] = node.array;
+      this.positions[this.depth] = 0;
+    }
+
+    private void findNext() {
+      while (this.depth >= 0) {
+        Object[] array = this.arrays[this.depth];
+        int pos = this.positions[this.depth];
+        if (pos >= array.length) {
+          this.arrays[this.depth--] = null;
+          continue;
+        }
+        this.positions[this.depth] = pos + 2;
+        if (array[pos] == null) {
+          push((Node) array[pos + 1]);
+          continue;
+        }
+        this.nextKey = array[pos];
+        this.nextValue = array[pos + 1];
+        return;
+      }
+      this.nextKey = null;
+      this.nextValue = null;
+    }
+  }
+
+  // Both kinds of node store their contents as a flat array of key/value pairs. In a BitmapNode, a null key marks that
+  // the paired "value" is actually a child Node.
+  private abstract static class Node {
+    final Object[] array;
+
+    Node(Object[] array) {
+      this.array = array;
+    }
+
+    abstract Object get(int shift, int hash, Object key);
+
+    // Returns this same Node if nothing changed.
+    abstract Node put(int shift, int hash, Object key, Object value, boolean[] addedLeaf);
+
+    // Returns this same Node if the key wasn't present, or null if the Node is now empty.
+    abstract Node remove(int shift, int hash, Object key);
+
+    void forEach(BiConsumer<Object, Object> action) {
+      for (int i = 0; i < this.array.length; i += 2) {
+        if (this.array[i] == null) {
+          ((Node) this.array[i + 1]).forEach(action);
+        } else {
+          action.accept(this.array[i], this.array[i + 1]);
+        }
+      }
+    }
+  }
+
+  private static final class BitmapNode extends Node {
+    static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+
+    BitmapNode(int bitmap, Object[] array) {
+      super(array);
+      this.bitmap = bitmap;
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(this.bitmap & (bit - 1));
+    }
+
+    @Override
+    Object get(int shift, int hash, Object key) {
+      int bit = bitFor(hash, shift);
+      if ((this.bitmap & bit) == 0) {
+        return null;
+      }
+      int idx = 2 * index(bit);
+      Object k = this.array[idx];
+      if (k == null) {
+        return ((Node) this.array[idx + 1]).get(shift + 5, hash, key);
+      }
+      return k.equals(key) ? this.array[idx + 1] : null;
+    }
+
+    @Override
+    Node put(int shift, int hash, Object key, Object value, boolean[] addedLeaf) {
+      int bit = bitFor(hash, shift);
+      int idx = 2 * index(bit);
+      if ((this.bitmap & bit) == 0) {
+        Object[] newArray = new Object[this.array.length + 2];
+        System.arraycopy(this.array, 0, newArray, 0, idx);
+        newArray[idx] = key;
+        newArray[idx + 1] = value;
+        System.arraycopy(this.array, idx, newArray, idx + 2, this.array.length - idx);
+        addedLeaf[0] = true;
+        return new BitmapNode(this.bitmap | bit, newArray);
+      }
+      Object k = this.array[idx];
+      Object v = this.array[idx + 1];
+      if (k == null) {
+        Node newChild = ((Node) v).put(shift + 5, hash, key, value, addedLeaf);
+        return newChild == v ? this : new BitmapNode(this.bitmap, cloneAndSet(this.array, idx + 1, newChild));
+      }
+      if (k.equals(key)) {
+        return v == value ? this : new BitmapNode(this.bitmap, cloneAndSet(this.array, idx + 1, value));
+      }
+      // Two distinct keys landed in the same slot, so push them both down into a new child node.
+      addedLeaf[0] = true;
+      Object[] newArray = cloneAndSet(this.array, idx + 1, createNode(shift + 5, k, v, hash, key, value));
+      newArray[idx] = null;
+      return new BitmapNode(this.bitmap, newArray);
+    }
+
+    @Override
+    Node remove(int shift, int hash, Object key) {
+      int bit = bitFor(hash, shift);
+      if ((this.bitmap & bit) == 0) {
+        return this;
+      }
+      int idx = 2 * index(bit);
+      Object k = this.array[idx];
+      Object v = this.array[idx + 1];
+      if (k == null) {
+        Node newChild = ((Node) v).remove(shift + 5, hash, key);
+        if (newChild == v) {
+          return this;
+        }
+        if (newChild != null) {
+          return new BitmapNode(this.bitmap, cloneAndSet(this.array, idx + 1, newChild));
+        }
+      } else if (!k.equals(key)) {
+        return this;
+      }
+      if (this.bitmap == bit) {
+        return null;
+      }
+      return new BitmapNode(this.bitmap ^ bit, removePair(this.array, idx));
+    }
+
+    private static Node createNode(int shift, Object k1, Object v1, int hash2, Object k2, Object v2) {
+      int hash1 = hash(k1);
+      if (hash1 == hash2) {
+        return new CollisionNode(hash1, new Object[]{k1, v1, k2, v2});
+      }
+      boolean[] unused = {false};
+      return EMPTY.put(shift, hash1, k1, v1, unused).put(shift, hash2, k2, v2, unused);
+    }
+  }
+
+  // Holds all of the entries whose keys have the exact same (full 32 bit) hash.
+  private static final class CollisionNode extends Node {
+    private final int hash;
+
+    CollisionNode(int hash, Object[] array) {
+      super(array);
+      this.hash = hash;
+    }
+
+    private int find(Object key) {
+      for (int i = 0; i < this.array.length; i += 2) {
+        if (this.array[i].equals(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object get(int shift, int hash, Object key) {
+      int idx = find(key);
+      return idx < 0 ? null : this.array[idx + 1];
+    }
+
+    @Override
+    Node put(int shift, int hash, Object key, Object value, boolean[] addedLeaf) {
+      if (hash != this.hash) {
+        // Nest this node beneath a BitmapNode so that the new key can branch off from it.
+        return new BitmapNode(bitFor(this.hash, shift), new Object[]{null, this})
+            .put(shift, hash, key, value, addedLeaf);
+      }
+      int idx = find(key);
+      if (idx >= 0) {
+        return this.array[idx + 1] == value
+               ? this
+               : new CollisionNode(this.hash, cloneAndSet(this.array, idx + 1, value));
+      }
+      Object[] newArray = new Object[this.array.length + 2];
+      System.arraycopy(this.array, 0, newArray, 0, this.array.length);
+      newArray[this.array.length] = key;
+      newArray[this.array.length + 1] = value;
+      addedLeaf[0] = true;
+      return new CollisionNode(this.hash, newArray);
+    }
+
+    @Override
+    Node remove(int shift, int hash, Object key) {
+      int idx = find(key);
+      if (idx < 0) {
+        return this;
+      }
+      return this.array.length == 2 ? null : new CollisionNode(this.hash, removePair(this.array, idx));
+    }
+  }
+
+  private static Object[] cloneAndSet(Object[] array, int i, Object value) {
+    Object[] res = array.clone();
+    res[i] = value;
+    return res;
+  }
+
+  private static Object[] removePair(Object[] array, int idx) {
+    Object[] res = new Object[array.length - 2];
+    System.arraycopy(array, 0, res, 0, idx);
+    System.arraycopy(array, idx + 2, res, idx, array.length - idx - 2);
+    return res;
+  }
+}
@@ -0,0 +1,88 @@
+package com.claro.intermediate_representation.types.impls.builtins_impls.http;
+
+import com.claro.intermediate_representation.types.impls.builtins_impls.procedures.ClaroFunction;
+import com.claro.runtime_utilities.ClaroRuntimeUtilities;
+import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufPool;
+import io.activej.csp.AbstractChannelSupplier;
+import io.activej.eventloop.Eventloop;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
+
+/**
+ * Streams an HTTP response body out to the client one chunk at a time, as each chunk is produced by the given Claro
+ * function, so that large response bodies never need to be materialized in the heap as a single string. Each chunk is
+ * encoded directly into a pooled ByteBuf that ActiveJ recycles once it's been written to the socket.
+ * <p>
+ * ActiveJ only asks for the next chunk once the previous one has been written, so a slow client naturally applies
+ * backpressure to the producer. The function is called with the index of each chunk in turn (rather than being some
+ * stateful provider, which Claro's lambdas can't express), and is run on the default Graph Function executor rather
+ * than on the server's event loop so that producing a chunk can never stall other in-flight requests.
+ */
+public final class $ClaroHttpBodyStream extends AbstractChannelSupplier<ByteBuf> {
+  // The function signals the end of the stream by returning anything other than a string (i.e. std::Nothing).
+  private final ClaroFunction<Object> getChunk;
+  // ActiveJ never calls doGet() again until the previous Promise has completed, so this needs no synchronization.
+  private int nextChunkIndex = 0;
+
+  public $ClaroHttpBodyStream(ClaroFunction<Object> getChunk) {
+    this.getChunk = getChunk;
+  }
+
+  @Override
+  protected Promise<ByteBuf> doGet() {
+    // doGet() is always called on the server's event loop, and the returned Promise must be completed there as well.
+    Eventloop eventloop = Eventloop.getCurrentEventloop();
+    SettablePromise<ByteBuf> res = new SettablePromise<>();
+    int chunkIndex = this.nextChunkIndex++;
+    ClaroRuntimeUtilities.DEFAULT_EXECUTOR_SERVICE.execute(
+        () -> {
+          Object chunk;
+          try {
+            chunk = this.getChunk.apply1(chunkIndex);
+          } catch (Throwable e) {
+            eventloop.execute(() -> res.setException(e instanceof Exception ? (Exception) e : new RuntimeException(e)));
+            return;
+          }
+          // A null ByteBuf marks the end of the stream.
+          ByteBuf buf = chunk instanceof String ? encodeUtf8((String) chunk) : null;
+          eventloop.execute(() -> res.set(buf));
+        });
+    return res;
+  }
+
+  // Encodes straight into a pooled ByteBuf rather than going through String.getBytes(), which would allocate and then
+  // copy an intermediate byte[] for every chunk. No UTF-16 char ever takes more than 3 bytes in UTF-8 (surrogate pairs
+  // take 4 bytes for 2 chars), so 3 bytes per char is always enough room.
+  private static ByteBuf encodeUtf8(String chunk) {
+    ByteBuf buf = ByteBufPool.allocate(chunk.length() * 3);
+    byte[] bytes = buf.array();
+    int pos = buf.tail();
+    for (int i = 0; i < chunk.length(); i++) {
+      char c = chunk.charAt(i);
+      if (c < 0x80) {
+        bytes[pos++] = (byte) c;
+      } else if (c < 0x800) {
+        bytes[pos++] = (byte) (0xC0 | (c >> 6));
+        bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c)
+                 && i + 1 < chunk.length()
+                 && Character.isLowSurrogate(chunk.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, chunk.charAt(++i));
+        bytes[pos++] = (byte) (0xF0 | (codePoint >> 18));
+        bytes[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        bytes[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        bytes[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        // Unpaired surrogates are replaced with '?', same as String.getBytes(UTF_8) would do.
+        bytes[pos++] = (byte) '?';
+      } else {
+        bytes[pos++] = (byte) (0xE0 | (c >> 12));
+        bytes[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    buf.moveTail(pos - buf.tail());
+    return buf;
+  }
+}
@@ -6,7 +6,9 @@ import com.claro.intermediate_representation.types.impls.builtins_impls.ClaroBui
 import com.claro.intermediate_representation.types.impls.builtins_impls.procedures.ClaroFunction;
 import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
-import io.activej.http.HttpResponse;
+import io.activej.http.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 @AutoValue
 public abstract class $ClaroHttpResponse implements ClaroBuiltinTypeImplementation {
@@ -48,6 +50,13 @@ public abstract class $ClaroHttpResponse implements ClaroBuiltinTypeImplementati
     return new AutoValue_$ClaroHttpResponse(HttpResponse.ok200().withJson(json));
   }
 
+  public static $ClaroHttpResponse getOk200HttpResponseForJsonStreamImpl(ClaroFunction<Object> getChunk) {
+    return new AutoValue_$ClaroHttpResponse(
+        HttpResponse.ok200()
+            .withHeader(HttpHeaders.CONTENT_TYPE, HttpHeaderValue.ofContentType(ContentType.of(MediaTypes.JSON, UTF_8)))
+            .withBodyStream(new $ClaroHttpBodyStream(getChunk)));
+  }
+
   @Override
   public Type getClaroType() {
     return Types.HTTP_RESPONSE;
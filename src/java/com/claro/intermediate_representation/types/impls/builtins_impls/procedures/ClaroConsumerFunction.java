@@ -7,6 +7,25 @@ public abstract class ClaroConsumerFunction<T> implements ClaroBuiltinTypeImplem
 
   public abstract void apply(Object... args);
 
+  // Fixed-arity entry points that let calls through first-class references skip allocating the varargs array.
+  // Compiler-generated procedures override the one matching their arity, everything else just falls back to the
+  // varargs form. Keep in sync with Types.ProcedureType.MAX_SPECIALIZED_APPLY_ARITY.
+  public void apply1(Object arg0) {
+    apply(arg0);
+  }
+
+  public void apply2(Object arg0, Object arg1) {
+    apply(arg0, arg1);
+  }
+
+  public void apply3(Object arg0, Object arg1, Object arg2) {
+    apply(arg0, arg1, arg2);
+  }
+
+  public void apply4(Object arg0, Object arg1, Object arg2, Object arg3) {
+    apply(arg0, arg1, arg2, arg3);
+  }
+
   @Override
   public abstract Type getClaroType();
 }
@@ -7,6 +7,25 @@ public abstract class ClaroFunction<T> implements ClaroBuiltinTypeImplementation
 
   public abstract T apply(Object... args);
 
+  // Fixed-arity entry points that let calls through first-class references skip allocating the varargs array.
+  // Compiler-generated procedures override the one matching their arity, everything else just falls back to the
+  // varargs form. Keep in sync with Types.ProcedureType.MAX_SPECIALIZED_APPLY_ARITY.
+  public T apply1(Object arg0) {
+    return apply(arg0);
+  }
+
+  public T apply2(Object arg0, Object arg1) {
+    return apply(arg0, arg1);
+  }
+
+  public T apply3(Object arg0, Object arg1, Object arg2) {
+    return apply(arg0, arg1, arg2);
+  }
+
+  public T apply4(Object arg0, Object arg1, Object arg2, Object arg3) {
+    return apply(arg0, arg1, arg2, arg3);
+  }
+
   @Override
   public abstract Type getClaroType();
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.claro.intermediate_representation.types.impls.user_defined_impls;
 
 import com.claro.intermediate_representation.types.Type;
 import com.claro.intermediate_representation.types.Types;
+import com.claro.intermediate_representation.types.impls.TypeTags;
 import com.google.common.collect.ImmutableList;
 
 public class $UserDefinedType<T> extends ClaroUserDefinedTypeImplementation {
@@ -11,7 +12,11 @@ public class $UserDefinedType<T> extends ClaroUserDefinedTypeImplementation {
   private final ImmutableList<Type> parameterizedTypes;
   private final Type wrappedType;
   public final T wrappedValue;
-
+  // Lazily resolved as most values never have their type checked at runtime. Benignly racy since every thread would
+  // resolve the exact same interned instance anyway.
+  private Type claroType;
+  // Lazily resolved and benignly racy for the same reasons.
+  private int typeTag = -1;
 
   public $UserDefinedType(String name, String definingModuleDisambiguator, ImmutableList<Type> parameterizedTypes, Type wrappedType, T wrappedValue) {
     this.name = name;
@@ -23,8 +28,19 @@ public class $UserDefinedType<T> extends ClaroUserDefinedTypeImplementation {
 
   @Override
   public Type getClaroType() {
-    return Types.UserDefinedType.forTypeNameAndParameterizedTypes(
-        this.name, this.definingModuleDisambiguator, this.parameterizedTypes);
+    if (this.claroType == null) {
+      this.claroType = Types.UserDefinedType.internedForTypeNameAndParameterizedTypes(
+          this.name, this.definingModuleDisambiguator, this.parameterizedTypes);
+    }
+    return this.claroType;
+  }
+
+  @Override
+  public int typeTag() {
+    if (this.typeTag < 0) {
+      this.typeTag = TypeTags.forType(getClaroType());
+    }
+    return this.typeTag;
   }
 
   @Override
@@ -8,6 +8,7 @@ import com.google.common.collect.*;
 
 import java.util.HashSet;
 import java.util.Optional;
+import java.util.Stack;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 
@@ -19,7 +20,7 @@ import java.util.function.BiFunction;
 public class InternalStaticStateUtil {
   public static boolean DEP_MODULE_MONOMORPHIZATION_ENABLED = false;
   public static Optional<String> optionalGeneratedClassName = Optional.empty();
-  public static final ImmutableTable.Builder<String, String, Integer>
+  public static ImmutableTable.Builder<String, String, Integer>
       AtomDefinition_CACHE_INDEX_BY_MODULE_AND_ATOM_NAME =
       ImmutableTable.builder();
   public static ImmutableMap<String, TypeProvider> GraphProcedureDefinitionStmt_graphFunctionArgs;
@@ -53,6 +54,10 @@ public class InternalStaticStateUtil {
   public static AtomicReference<BiFunction<ScopedHeap, Boolean, Object>>
       PipeChainStmt_backreferencedPipeChainStageCodegenFn =
       new AtomicReference<>();
+  // Only set for stages whose single backreference will be codegen'd by directly inlining the backreferenced stage's
+  // Expr, so that e.g. a comprehension over another comprehension can fuse the two into a single stream.
+  public static AtomicReference</*Expr*/Object> PipeChainStmt_backreferencedPipeChainStageInlinedExpr =
+      new AtomicReference<>();
 
   public static String ContractDefinitionStmt_currentContractName;
   public static ImmutableList<String> ContractDefinitionStmt_currentContractGenericTypeParamNames;
@@ -82,6 +87,12 @@ public class InternalStaticStateUtil {
   public static String ComprehensionExpr_nestedComprehensionMappedItemName;
   public static HashSet<String> ComprehensionExpr_nestedComprehensionIdentifierReferences = new HashSet<>();
   public static boolean LoopingConstructs_withinLoopingConstructBody = false;
+  // Match stmts may codegen Java `switch` stmts, within which an unlabeled `break` would only exit the `switch` rather
+  // than the loop that a Claro `break` stmt targets. So, during codegen, each loop tracks how many `switch`es were
+  // already open when its body started, and only gets labelled if some `break` within it needs the label.
+  public static int MatchStmt_openJavaSwitchCount = 0;
+  public static Stack<LoopCodegenContext> LoopingConstructs_loopCodegenContexts = new Stack<>();
+  public static long LoopingConstructs_loopLabelCount = 0;
   // Throughout compilation I'll collect a list of all dep module monomorphizations for which codegen will be needed
   // from dep modules.
   public static HashMultimap<String, IPCMessages.MonomorphizationRequest>
@@ -97,8 +108,76 @@ public class InternalStaticStateUtil {
     }
   }
 
+  public static final class LoopCodegenContext {
+    private final String label = "$Loop" + LoopingConstructs_loopLabelCount++;
+    private final int openJavaSwitchCount = MatchStmt_openJavaSwitchCount;
+    private boolean labelReferenced = false;
+  }
+
+  // Must be called just before codegen of a loop's body.
+  public static void enterLoopBodyCodegen() {
+    LoopingConstructs_loopCodegenContexts.push(new LoopCodegenContext());
+  }
+
+  // Must be called just after codegen of a loop's body, returning the label that the loop must be declared with, if any.
+  public static Optional<String> exitLoopBodyCodegen() {
+    LoopCodegenContext loopCodegenContext = LoopingConstructs_loopCodegenContexts.pop();
+    return loopCodegenContext.labelReferenced ? Optional.of(loopCodegenContext.label) : Optional.empty();
+  }
+
+  public static String getBreakStmtCodegen() {
+    LoopCodegenContext loopCodegenContext = LoopingConstructs_loopCodegenContexts.peek();
+    if (MatchStmt_openJavaSwitchCount > loopCodegenContext.openJavaSwitchCount) {
+      loopCodegenContext.labelReferenced = true;
+      return String.format("break %s;\n", loopCodegenContext.label);
+    }
+    return "break;\n";
+  }
+
   public static final HashBasedTable<String, String, Type> HttpServiceDef_endpointProcedureSignatures =
       HashBasedTable.create();
   public static HashSet<String> HttpServiceDef_servicesWithValidEndpointHandlersDefined = Sets.newHashSet();
   public static HashBasedTable<String, String, String> HttpServiceDef_endpointPaths = HashBasedTable.create();
+
+  // Puts every field above back to its initial value, so that a single JVM can run multiple compilations back to back.
+  // Any new field added to this class must also be reset here.
+  public static void reset() {
+    DEP_MODULE_MONOMORPHIZATION_ENABLED = false;
+    optionalGeneratedClassName = Optional.empty();
+    AtomDefinition_CACHE_INDEX_BY_MODULE_AND_ATOM_NAME = ImmutableTable.builder();
+    GraphProcedureDefinitionStmt_graphFunctionArgs = null;
+    GraphProcedureDefinitionStmt_graphFunctionOptionalInjectedKeys = null;
+    GraphProcedureDefinitionStmt_usedGraphNodesNamesSet = new HashSet<>();
+    GraphNodeDefinitionStmt_upstreamGraphNodeReferencesBuilder = ImmutableSet.builder();
+    GraphNodeDefinitionStmt_upstreamGraphNodeProviderReferencesBuilder = ImmutableSet.builder();
+    ProcedureDefinitionStmt_optionalActiveProcedureDefinitionStmt = Optional.empty();
+    ProcedureDefinitionStmt_optionalActiveProcedureResolvedType = Optional.empty();
+    PipeChainStmt_withinPipeChainContext = false;
+    PipeChainStmt_backreferencedPipeChainStageType = null;
+    PipeChainStmt_backreferenceUsagesCount = 0;
+    PipeChainStmt_backreferencedPipeChainStageCodegenFn = new AtomicReference<>();
+    PipeChainStmt_backreferencedPipeChainStageInlinedExpr = new AtomicReference<>();
+    ContractDefinitionStmt_currentContractName = null;
+    ContractDefinitionStmt_currentContractGenericTypeParamNames = null;
+    ContractDefinitionStmt_genericContractImplProceduresCanonicalNames = new HashSet<>();
+    GenericProcedureDefinitionStmt_alreadyCodegenedContractProcedureMonomorphizations = HashBasedTable.create();
+    GenericProcedureDefinitionStmt_monomorphizationsByGenericProcedureCanonName = HashBasedTable.create();
+    GnericProcedureDefinitionStmt_withinGenericProcedureDefinitionTypeValidation = false;
+    GnericProcedureDefinitionStmt_doneWithGenericProcedureTypeValidationPhase = false;
+    LambdaExpr_optionalActiveGenericProcedureDefRequiredContractNamesToGenericArgs = Optional.empty();
+    IfStmt_withinConditionTypeValidation = false;
+    InitializersBlockStmt_initializersByInitializedTypeNameAndModuleDisambiguator = HashBasedTable.create();
+    UnwrappersBlockStmt_unwrappersByUnwrappedTypeNameAndModuleDisambiguator = HashBasedTable.create();
+    ComprehensionExpr_nestedComprehensionCollectionsCount = -1;
+    ComprehensionExpr_nestedComprehensionMappedItemName = null;
+    ComprehensionExpr_nestedComprehensionIdentifierReferences = new HashSet<>();
+    LoopingConstructs_withinLoopingConstructBody = false;
+    MatchStmt_openJavaSwitchCount = 0;
+    LoopingConstructs_loopCodegenContexts = new Stack<>();
+    LoopingConstructs_loopLabelCount = 0;
+    JavaSourceCompilerBackend_depModuleGenericMonomoprhizationsNeeded = HashMultimap.create();
+    HttpServiceDef_endpointProcedureSignatures.clear();
+    HttpServiceDef_servicesWithValidEndpointHandlersDefined = Sets.newHashSet();
+    HttpServiceDef_endpointPaths = HashBasedTable.create();
+  }
 }
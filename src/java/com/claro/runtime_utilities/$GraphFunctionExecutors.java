@@ -0,0 +1,271 @@
+package com.claro.runtime_utilities;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allows individual Graph Functions (including HTTP endpoint handlers) to be bound to their own named executor so that,
+ * for example, a burst of expensive batch Graph Function invocations can't starve latency-sensitive endpoints of
+ * threads. Executors are declared and bound at program startup:
+ * <p>
+ * -Dclaro.graph_executors=batch=forkjoin:4,endpoints=fixed:16,io=virtual
+ * -Dclaro.graph_executor_bindings=buildReport=batch,getUser=endpoints
+ * <p>
+ * where each executor spec is one of `forkjoin[:parallelism]`, `fixed[:threads]`, `virtual` or `direct`, and
+ * parallelism defaults to the number of available processors. A `direct` executor runs nodes inline on whichever thread
+ * schedules them, which is useful for binding cheap HTTP endpoint handlers so that they run to completion directly on
+ * the HTTP server's eventloop without any thread hops. Graph Functions without a binding continue to run on
+ * ClaroRuntimeUtilities.DEFAULT_EXECUTOR_SERVICE, which can be explicitly referenced under the name "default".
+ * <p>
+ * Bindings are keyed on the Graph Function's procedure name exactly as written in the source (or the endpoint's name for
+ * HTTP endpoint handlers). This means that bindings won't be able to target generic Graph Functions once those are
+ * supported, as each monomorphization would be codegen'd under its own mangled procedure name.
+ * <p>
+ * Every executor, including the default one, publishes its queue depth and active task count as a JMX MXBean under
+ * `claro:type=GraphFunctionExecutor,name=<executor name>`. If an MXBean under that name is already registered (e.g. the
+ * program's classes were loaded a second time in the same JVM), the new executor simply goes unpublished. MXBeans are
+ * unregistered again at the end of the program's main method so that they don't keep its classloader reachable.
+ */
+public class $GraphFunctionExecutors {
+  public static final String GRAPH_EXECUTORS_PROPERTY = "claro.graph_executors";
+  public static final String GRAPH_EXECUTOR_BINDINGS_PROPERTY = "claro.graph_executor_bindings";
+  public static final String DEFAULT_EXECUTOR_NAME = "default";
+
+  private static final ImmutableMap<String, String> executorSpecsByName =
+      parseMapProperty(GRAPH_EXECUTORS_PROPERTY);
+  private static final ImmutableMap<String, String> executorNamesByGraphFunction =
+      parseMapProperty(GRAPH_EXECUTOR_BINDINGS_PROPERTY);
+  // Named executors are only actually started once some Graph Function bound to them is first called.
+  private static final ConcurrentHashMap<String, ListeningExecutorService> executorsByName = new ConcurrentHashMap<>();
+  // Only the MXBeans that this copy of the class actually registered, so that it never unregisters another's.
+  private static final Set<ObjectName> registeredMXBeanNames = ConcurrentHashMap.newKeySet();
+
+  static {
+    // Validate everything up front so that misconfiguration fails fast rather than on the first call to some rarely
+    // used Graph Function.
+    executorSpecsByName.values().forEach($GraphFunctionExecutors::parseExecutorSpec);
+    executorNamesByGraphFunction.forEach(
+        (graphFunctionName, executorName) -> {
+          if (!executorName.equals(DEFAULT_EXECUTOR_NAME) && !executorSpecsByName.containsKey(executorName)) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "-D%s binds Graph Function `%s` to undeclared executor `%s`. Declare it in -D%s.",
+                    GRAPH_EXECUTOR_BINDINGS_PROPERTY, graphFunctionName, executorName, GRAPH_EXECUTORS_PROPERTY
+                ));
+          }
+        });
+  }
+
+  // Called once per Graph Function by its generated code, so the returned executor is cached by the caller.
+  public static Executor forGraphFunction(String graphFunctionName) {
+    String executorName = executorNamesByGraphFunction.getOrDefault(graphFunctionName, DEFAULT_EXECUTOR_NAME);
+    if (executorName.equals(DEFAULT_EXECUTOR_NAME)) {
+      return ClaroRuntimeUtilities.DEFAULT_EXECUTOR_SERVICE;
+    }
+    return executorsByName.computeIfAbsent(
+        executorName,
+        name -> instrumented(name, createExecutorService(name, parseExecutorSpec(executorSpecsByName.get(name))))
+    );
+  }
+
+  // Called at the end of the program's main method, after the default executor has been shutdown.
+  public static void shutdownAndAwaitTermination() {
+    executorsByName.values().forEach(ClaroRuntimeUtilities::$shutdownAndAwaitTermination);
+    for (ObjectName mxBeanName : registeredMXBeanNames) {
+      try {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(mxBeanName);
+      } catch (InstanceNotFoundException e) {
+        // Already gone, nothing left to do.
+      } catch (JMException e) {
+        System.err.println("Warning: Unable to unregister metrics " + mxBeanName + ": " + e);
+      }
+    }
+    registeredMXBeanNames.clear();
+  }
+
+  static ListeningExecutorService instrumented(String name, ExecutorService executorService) {
+    InstrumentedExecutorService res = new InstrumentedExecutorService(executorService);
+    try {
+      ObjectName mxBeanName = new ObjectName("claro:type=GraphFunctionExecutor,name=" + ObjectName.quote(name));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(res, mxBeanName);
+      registeredMXBeanNames.add(mxBeanName);
+    } catch (InstanceAlreadyExistsException e) {
+      // Some other copy of this program in this JVM already published metrics under this name, leave it be.
+    } catch (JMException e) {
+      // Metrics are purely informational, not worth failing the program over.
+      System.err.println("Warning: Unable to register metrics for graph function executor `" + name + "`: " + e);
+    }
+    return MoreExecutors.listeningDecorator(res);
+  }
+
+  private static ExecutorService createExecutorService(String name, Map.Entry<String, Integer> spec) {
+    String threadNamePrefix = "claro-" + name + "-graph-function-pool-thread-";
+    AtomicInteger threadNumber = new AtomicInteger(1);
+    switch (spec.getKey()) {
+      case "forkjoin":
+        return new ForkJoinPool(
+            spec.getValue(),
+            pool -> {
+              ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+              t.setName(threadNamePrefix + threadNumber.getAndIncrement());
+              return t;
+            },
+            /*handler=*/null,
+            // Graph Function nodes are independent event-style tasks that are never joined, so FIFO scheduling is
+            // the more appropriate mode.
+            /*asyncMode=*/true
+        );
+      case "fixed":
+        return Executors.newFixedThreadPool(
+            spec.getValue(),
+            r -> {
+              Thread t = new Thread(r, threadNamePrefix + threadNumber.getAndIncrement());
+              t.setDaemon(false);
+              return t;
+            }
+        );
+      case "direct":
+        return MoreExecutors.newDirectExecutorService();
+      case "virtual":
+        return ClaroRuntimeUtilities.createVirtualThreadPerTaskExecutor()
+            .orElseThrow(() -> new IllegalStateException(
+                "Graph function executor `" + name + "` requires running on JDK 21+ for virtual threads."));
+      default:
+        throw new IllegalStateException("Internal Error! Unexpected executor kind: " + spec.getKey());
+    }
+  }
+
+  private static Map.Entry<String, Integer> parseExecutorSpec(String spec) {
+    List<String> parts = Splitter.on(':').trimResults().splitToList(spec);
+    String kind = parts.get(0);
+    boolean takesParallelism = kind.equals("forkjoin") || kind.equals("fixed");
+    if (!(takesParallelism || kind.equals("virtual") || kind.equals("direct"))
+        || parts.size() > (takesParallelism ? 2 : 1)) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid graph function executor spec `%s` in -D%s. Expected one of: forkjoin[:parallelism], " +
+              "fixed[:threads], virtual, direct.", spec, GRAPH_EXECUTORS_PROPERTY));
+    }
+    int parallelism = Runtime.getRuntime().availableProcessors();
+    if (parts.size() > 1) {
+      try {
+        parallelism = Integer.parseInt(parts.get(1));
+      } catch (NumberFormatException e) {
+        parallelism = -1;
+      }
+      if (parallelism <= 0) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid graph function executor spec `%s` in -D%s. Parallelism must be a positive integer.",
+                spec, GRAPH_EXECUTORS_PROPERTY));
+      }
+    }
+    return new AbstractMap.SimpleImmutableEntry<>(kind, parallelism);
+  }
+
+  private static ImmutableMap<String, String> parseMapProperty(String property) {
+    String value = System.getProperty(property, "").trim();
+    if (value.isEmpty()) {
+      return ImmutableMap.of();
+    }
+    return ImmutableMap.copyOf(
+        Splitter.on(',').trimResults().omitEmptyStrings().withKeyValueSeparator(Splitter.on('=').trimResults())
+            .split(value));
+  }
+
+  public interface GraphFunctionExecutorMXBean {
+    // Tasks submitted to the executor that haven't yet started running.
+    int getQueueDepth();
+
+    int getActiveTasks();
+
+    long getCompletedTasks();
+  }
+
+  private static final class InstrumentedExecutorService extends AbstractExecutorService
+      implements GraphFunctionExecutorMXBean {
+    private final ExecutorService delegate;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final AtomicLong completedTasks = new AtomicLong();
+
+    InstrumentedExecutorService(ExecutorService delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      this.queueDepth.incrementAndGet();
+      try {
+        this.delegate.execute(() -> {
+          this.queueDepth.decrementAndGet();
+          this.activeTasks.incrementAndGet();
+          try {
+            command.run();
+          } finally {
+            this.activeTasks.decrementAndGet();
+            this.completedTasks.incrementAndGet();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        this.queueDepth.decrementAndGet();
+        throw e;
+      }
+    }
+
+    @Override
+    public int getQueueDepth() {
+      return this.queueDepth.get();
+    }
+
+    @Override
+    public int getActiveTasks() {
+      return this.activeTasks.get();
+    }
+
+    @Override
+    public long getCompletedTasks() {
+      return this.completedTasks.get();
+    }
+
+    @Override
+    public void shutdown() {
+      this.delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return this.delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return this.delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return this.delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+      return this.delegate.awaitTermination(timeout, unit);
+    }
+  }
+}
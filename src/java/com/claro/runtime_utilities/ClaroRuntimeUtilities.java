@@ -2,52 +2,134 @@ package com.claro.runtime_utilities;
 
 import com.claro.intermediate_representation.types.*;
 import com.claro.intermediate_representation.types.impls.ClaroTypeImplementation;
+import com.claro.intermediate_representation.types.impls.TypeTags;
 import com.claro.intermediate_representation.types.impls.builtins_impls.structs.ClaroStruct;
 import com.claro.intermediate_representation.types.impls.user_defined_impls.$UserDefinedType;
 import com.claro.stdlib.StdLibModuleRegistry;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 public class ClaroRuntimeUtilities {
+  // Programs may opt into running Graph Functions on JDK virtual threads rather than on the default fixed pool of
+  // platform threads by passing `--jvm_flag=-Dclaro.graph_executor=virtual` (or by setting the `graph_executor`
+  // attribute on the claro_binary() target). This is most useful for services whose Graph Functions spend most of their
+  // time waiting on slow downstream calls, as each in-flight node then only holds onto a cheap virtual thread. On a
+  // pre-21 JDK (including the remotejdk_11 runtime that this repo's .bazelrc pins by default) this falls back to the fixed
+  // pool, warning exactly once when this class is initialized at program startup.
+  public static final String GRAPH_EXECUTOR_PROPERTY = "claro.graph_executor";
+  // In virtual thread mode, the number of platform "carrier" threads that virtual threads are actually scheduled onto.
+  // This bounds the parallelism of CPU-bound Graph Function nodes exactly as the fixed pool would. Defaults to the
+  // number of available processors.
+  public static final String GRAPH_EXECUTOR_CARRIER_PARALLELISM_PROPERTY = "claro.graph_executor.carrier_parallelism";
+  // Comprehensions explicitly marked `parallel` are only evaluated on a fork-join parallel stream when iterating over a
+  // list or set of at least this many elements, as splitting up smaller collections costs more than it saves. Tunable via
+  // `--jvm_flag=-Dclaro.parallel_comprehension_threshold=<min size>`. All other comprehensions are always sequential.
+  public static final String PARALLEL_COMPREHENSION_THRESHOLD_PROPERTY = "claro.parallel_comprehension_threshold";
+  private static final int PARALLEL_COMPREHENSION_THRESHOLD =
+      Integer.getInteger(PARALLEL_COMPREHENSION_THRESHOLD_PROPERTY, 1000);
   public static final ListeningExecutorService DEFAULT_EXECUTOR_SERVICE =
-      MoreExecutors.listeningDecorator(
-          Executors.newFixedThreadPool(
-              Runtime.getRuntime().availableProcessors(),
-              // This directly copies the implementation of {@link Executors#defaultThreadFactory} just to override the
-              // name given to threads created by Claro's graph functions since I want users to be able to distinguish
-              // Claro's defaults from anything that they override.
-              new ThreadFactory() {
-                private final ThreadGroup group;
-                private final AtomicInteger threadNumber = new AtomicInteger(1);
+      $GraphFunctionExecutors.instrumented($GraphFunctionExecutors.DEFAULT_EXECUTOR_NAME, createDefaultExecutorService());
 
-                {
-                  SecurityManager s = System.getSecurityManager();
-                  group = (s != null) ? s.getThreadGroup() :
-                          Thread.currentThread().getThreadGroup();
-                }
+  private static ExecutorService createDefaultExecutorService() {
+    String graphExecutor = System.getProperty(GRAPH_EXECUTOR_PROPERTY, "fixed");
+    switch (graphExecutor) {
+      case "fixed":
+        return createFixedGraphFunctionExecutorService();
+      case "virtual":
+        Optional<ExecutorService> virtualThreadExecutor = createVirtualThreadPerTaskExecutor();
+        if (virtualThreadExecutor.isPresent()) {
+          return virtualThreadExecutor.get();
+        }
+        System.err.println(
+            "Warning: -D" + GRAPH_EXECUTOR_PROPERTY + "=virtual requires running on JDK 21+ (currently running on " +
+            System.getProperty("java.version") + "). Falling back to the default fixed thread pool. Run with a JDK 21+ " +
+            "runtime (e.g. `bazel run --java_runtime_version=remotejdk_21 ...`) to use virtual threads.");
+        return createFixedGraphFunctionExecutorService();
+      default:
+        throw new IllegalArgumentException(
+            "Unsupported -D" + GRAPH_EXECUTOR_PROPERTY + "=" + graphExecutor + ". Expected one of: fixed, virtual.");
+    }
+  }
 
-                public Thread newThread(Runnable r) {
-                  String namePrefix = "claro-default-graph-function-pool-thread-";
-                  Thread t = new Thread(group, r,
-                                        namePrefix + threadNumber.getAndIncrement(),
-                                        0
-                  );
-                  if (t.isDaemon()) {
-                    t.setDaemon(false);
-                  }
-                  if (t.getPriority() != Thread.NORM_PRIORITY) {
-                    t.setPriority(Thread.NORM_PRIORITY);
-                  }
-                  return t;
-                }
-              }
+  // Used by generated code as the source of every `parallel` comprehension that iterates over a list or set. Results are
+  // still collected in the iterated collection's order.
+  public static <T> Stream<T> $parallelComprehensionStream(Collection<T> collection) {
+    return collection.size() >= PARALLEL_COMPREHENSION_THRESHOLD ? collection.parallelStream() : collection.stream();
+  }
+
+  // Claro still targets Java 11, so the virtual thread APIs can only be reached reflectively.
+  static Optional<ExecutorService> createVirtualThreadPerTaskExecutor() {
+    // The JDK only reads these properties when the virtual thread scheduler is first initialized, so they must be set
+    // before the first virtual thread is ever created.
+    if (System.getProperty("jdk.virtualThreadScheduler.parallelism") == null) {
+      System.setProperty(
+          "jdk.virtualThreadScheduler.parallelism",
+          System.getProperty(
+              GRAPH_EXECUTOR_CARRIER_PARALLELISM_PROPERTY,
+              String.valueOf(Runtime.getRuntime().availableProcessors())
           )
       );
+    }
+    try {
+      Object virtualThreadBuilder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> virtualThreadBuilderClass = Class.forName("java.lang.Thread$Builder");
+      virtualThreadBuilder =
+          virtualThreadBuilderClass.getMethod("name", String.class, long.class)
+              .invoke(virtualThreadBuilder, "claro-virtual-graph-function-thread-", 1L);
+      ThreadFactory virtualThreadFactory =
+          (ThreadFactory) virtualThreadBuilderClass.getMethod("factory").invoke(virtualThreadBuilder);
+      return Optional.of(
+          (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+              .invoke(null, virtualThreadFactory));
+    } catch (ReflectiveOperationException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static ExecutorService createFixedGraphFunctionExecutorService() {
+    return Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        // This directly copies the implementation of {@link Executors#defaultThreadFactory} just to override the
+        // name given to threads created by Claro's graph functions since I want users to be able to distinguish
+        // Claro's defaults from anything that they override.
+        new ThreadFactory() {
+          private final ThreadGroup group;
+          private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+          {
+            SecurityManager s = System.getSecurityManager();
+            group = (s != null) ? s.getThreadGroup() :
+                    Thread.currentThread().getThreadGroup();
+          }
+
+          public Thread newThread(Runnable r) {
+            String namePrefix = "claro-default-graph-function-pool-thread-";
+            Thread t = new Thread(group, r,
+                                  namePrefix + threadNumber.getAndIncrement(),
+                                  0
+            );
+            if (t.isDaemon()) {
+              t.setDaemon(false);
+            }
+            if (t.getPriority() != Thread.NORM_PRIORITY) {
+              t.setPriority(Thread.NORM_PRIORITY);
+            }
+            return t;
+          }
+        }
+    );
+  }
+
   public static ListeningScheduledExecutorService $SCHEDULED_EXECUTOR_SERVICE = null;
   public static ListeningScheduledExecutorService $getScheduledExecutorService() {
     final int SCHEDULED_THREAD_POOL_SIZE = 1;
@@ -177,6 +259,51 @@ public class ClaroRuntimeUtilities {
     }
   }
 
+  public static int getTypeTag(Object value) {
+    if (value instanceof ClaroTypeImplementation) {
+      return ((ClaroTypeImplementation) value).typeTag();
+    }
+    return TypeTags.forType(getClaroType(value));
+  }
+
+  // Assigns each of the distinct type literals matched by a single match stmt a dense int case tag for its codegen to
+  // `switch` over, indexed by their process-wide TypeTags so that dispatch is an array lookup on the matched value's
+  // type tag.
+  public static final class $TypeTagTable {
+    private final int[] caseTagsByTypeTag;
+
+    // The case tag of each Type is its index in the given list.
+    public $TypeTagTable(ImmutableList<Type> types) {
+      int[] typeTags = types.stream().mapToInt(TypeTags::forType).toArray();
+      this.caseTagsByTypeTag = new int[Arrays.stream(typeTags).max().orElse(-1) + 1];
+      Arrays.fill(this.caseTagsByTypeTag, -1);
+      for (int i = 0; i < typeTags.length; i++) {
+        this.caseTagsByTypeTag[typeTags[i]] = i;
+      }
+    }
+
+    // Returns -1 for any type tag that wasn't matched.
+    public int getCaseTag(int typeTag) {
+      return typeTag < this.caseTagsByTypeTag.length ? this.caseTagsByTypeTag[typeTag] : -1;
+    }
+  }
+
+  // Thrown by fromJson()'s generated parsers to bail out of the entire parse as soon as the JSON is found not to match
+  // the target type. It's purely used for control flow, so a single instance without a stack trace is reused to keep
+  // failed parses cheap.
+  public static final class $JsonParseFailure extends IllegalStateException {
+    public static final $JsonParseFailure INSTANCE = new $JsonParseFailure();
+
+    private $JsonParseFailure() {
+      super("JSON did not match the asserted target type.");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
   public static $UserDefinedType<ClaroStruct> $getErrorParsedJson(Type targetType, String jsonPathError, String jsonString) {
     final Types.StructType parsedJsonStructType =
         Types.StructType.forFieldTypes(
@@ -5,23 +5,26 @@ import com.claro.intermediate_representation.types.Types;
 import com.claro.intermediate_representation.types.impls.builtins_impls.futures.ClaroFuture;
 import com.claro.intermediate_representation.types.impls.builtins_impls.http.$ClaroHttpResponse;
 import com.claro.intermediate_representation.types.impls.builtins_impls.procedures.ClaroConsumerFunction;
-import com.claro.runtime_utilities.ClaroRuntimeUtilities;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.activej.eventloop.Eventloop;
 import io.activej.http.*;
+import io.activej.promise.Promise;
 import io.activej.promise.SettablePromise;
 
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 
 public class $ClaroHttpServer extends $ClaroLauncher {
 
   public static final HttpMethod GET = HttpMethod.GET;
+  public static final String HTTP_SERVER_EVENTLOOPS_PROPERTY = "claro.http_server_eventloops";
   public static boolean silent = false;
 
   public static ClaroConsumerFunction<$ClaroHttpServer> startServerAndAwaitShutdown =
@@ -52,16 +55,41 @@ public class $ClaroHttpServer extends $ClaroLauncher {
 
   public $ClaroHttpServer(AsyncServlet routingServlet, InetSocketAddress serverAddress) {
     super(
-        Eventloop.create(),
-        eventLoop -> AsyncHttpServer.create(eventLoop, routingServlet)
-            .withListenAddresses(ImmutableList.of(serverAddress))
+        getEventloopCount(),
+        eventLoop -> AsyncHttpServer.create(eventLoop, routingServlet),
+        ImmutableList.of(serverAddress)
     );
   }
 
+  // Programs serving many small requests may be bottlenecked on the single eventloop thread's network IO, in which case
+  // they can opt into running one eventloop per core via `--jvm_flag=-Dclaro.http_server_eventloops=cores` (or any
+  // explicit count), or via the `http_server_eventloops` attribute on the claro_binary() target.
+  private static int getEventloopCount() {
+    String eventloops = System.getProperty(HTTP_SERVER_EVENTLOOPS_PROPERTY, "1");
+    if (eventloops.equals("cores")) {
+      return Runtime.getRuntime().availableProcessors();
+    }
+    try {
+      return Integer.parseInt(eventloops);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "Invalid -D" + HTTP_SERVER_EVENTLOOPS_PROPERTY + "=" + eventloops + ". Expected a count or `cores`.");
+    }
+  }
+
   @Override
   protected void run() throws Exception {
     if (!$ClaroHttpServer.silent) {
-      System.out.println("HTTP Server is now available at " + String.join(", ", super.server.getHttpAddresses()));
+      System.out.println(
+          "HTTP Server is now available at " +
+          String.join(
+              ", ",
+              super.listeningServer == super.server
+              ? super.server.getHttpAddresses()
+              : super.listeningServer.getListenAddresses().stream()
+                  .map(a -> String.format("http://%s:%d/", a.getHostString(), a.getPort()))
+                  .collect(ImmutableList.toImmutableList())
+          ));
     }
     awaitShutdown();
   }
@@ -69,11 +97,23 @@ public class $ClaroHttpServer extends $ClaroLauncher {
   public static AsyncServlet getBasicAsyncServlet(
       String endpoint, Function<HttpRequest, ListenableFuture<? extends $ClaroHttpResponse>> endpointHandler) {
     return request -> {
+      ListenableFuture<? extends $ClaroHttpResponse> response = endpointHandler.apply(request);
+      // Handlers whose Graph Functions are bound to the "direct" executor (or whose nodes are all trivially cheap) will
+      // have already completed on this eventloop thread, in which case there's no reason to hop threads at all.
+      if (response.isDone()) {
+        try {
+          return Promise.of(Futures.getDone(response).getHttpResponse());
+        } catch (ExecutionException | CancellationException e) {
+          return Promise.of($ClaroHttpEndpointResultHandler.getErrorHttpResponse(e.getCause() == null ? e : e.getCause()));
+        }
+      }
+      // ActiveJ Promises must only ever be completed on the eventloop that created them, so the eventloop itself is
+      // the executor that the result handler should run on.
       SettablePromise<HttpResponse> promise = new SettablePromise<>();
       Futures.addCallback(
-          endpointHandler.apply(request),
+          response,
           new $ClaroHttpEndpointResultHandler(promise),
-          ClaroRuntimeUtilities.DEFAULT_EXECUTOR_SERVICE
+          Eventloop.getCurrentEventloop()
       );
       return promise;
     };
@@ -108,10 +148,13 @@ class $ClaroHttpEndpointResultHandler implements FutureCallback<$ClaroHttpRespon
 
   @Override
   public void onFailure(Throwable throwable) {
+    promise.set(getErrorHttpResponse(throwable));
+  }
+
+  static HttpResponse getErrorHttpResponse(Throwable throwable) {
     // TODO(steving) Long term, I must determine some more resilient scheme for handling errors.
-    promise.set(
-        HttpResponse.ofCode(500)
-            .withPlainText(
-                "Unhandled Runtime Exception in Http Endpoint Handler!\n" + throwable));
+    return HttpResponse.ofCode(500)
+        .withPlainText(
+            "Unhandled Runtime Exception in Http Endpoint Handler!\n" + throwable);
   }
 }
@@ -1,21 +1,57 @@
 package com.claro.runtime_utilities.http;
 
+import com.google.common.collect.ImmutableList;
 import io.activej.eventloop.Eventloop;
 import io.activej.http.AsyncHttpServer;
+import io.activej.net.AbstractServer;
+import io.activej.net.PrimaryServer;
 
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.function.Function;
 
 abstract class $ClaroLauncher {
   protected final Eventloop eventloop;
+  // The server handling requests on the primary eventloop.
   public final AsyncHttpServer server;
+  // When running with more than one eventloop, the primary eventloop additionally runs a PrimaryServer that accepts all
+  // incoming connections and hands them off round-robin to the AsyncHttpServers running on every eventloop (including
+  // the primary one). Otherwise, the primary eventloop's AsyncHttpServer listens directly.
+  protected final AbstractServer<?> listeningServer;
+  private final ImmutableList<Eventloop> workerEventloops;
+  private final ImmutableList<AsyncHttpServer> workerServers;
   private final CountDownLatch shutdownLatch = new CountDownLatch(1);
   private final CountDownLatch completeLatch = new CountDownLatch(1);
 
-  $ClaroLauncher(Eventloop eventloop, Function<Eventloop, AsyncHttpServer> serverConstructor) {
-    this.eventloop = eventloop;
+  $ClaroLauncher(
+      int eventloopCount,
+      Function<Eventloop, AsyncHttpServer> serverConstructor,
+      ImmutableList<InetSocketAddress> listenAddresses) {
+    this.eventloop = Eventloop.create();
     this.server = serverConstructor.apply(this.eventloop);
+    if (eventloopCount <= 1) {
+      this.workerEventloops = ImmutableList.of();
+      this.workerServers = ImmutableList.of();
+      this.listeningServer = this.server.withListenAddresses(listenAddresses);
+    } else {
+      ImmutableList.Builder<Eventloop> workerEventloops = ImmutableList.builder();
+      ImmutableList.Builder<AsyncHttpServer> workerServers = ImmutableList.builder();
+      for (int i = 1; i < eventloopCount; i++) {
+        Eventloop workerEventloop = Eventloop.create();
+        workerEventloops.add(workerEventloop);
+        workerServers.add(serverConstructor.apply(workerEventloop));
+      }
+      this.workerEventloops = workerEventloops.build();
+      this.workerServers = workerServers.build();
+      this.listeningServer =
+          PrimaryServer.create(
+                  this.eventloop,
+                  ImmutableList.<AsyncHttpServer>builder().add(this.server).addAll(this.workerServers).build()
+              )
+              .withListenAddresses(listenAddresses);
+    }
   }
 
   public final void launch() throws Exception {
@@ -40,6 +76,11 @@ abstract class $ClaroLauncher {
   }
 
   private void startEventLoop() {
+    startEventLoop(this.eventloop);
+    this.workerEventloops.forEach($ClaroLauncher::startEventLoop);
+  }
+
+  private static void startEventLoop(Eventloop eventloop) {
     Executors.defaultThreadFactory().newThread(() -> {
       eventloop.keepAlive(true);
       eventloop.run();
@@ -47,6 +88,11 @@ abstract class $ClaroLauncher {
   }
 
   private void stopEventLoop() {
+    this.workerEventloops.forEach($ClaroLauncher::stopEventLoop);
+    stopEventLoop(this.eventloop);
+  }
+
+  private static void stopEventLoop(Eventloop eventloop) {
     Thread eventloopThread = eventloop.getEventloopThread();
     if (eventloopThread == null) {
       // already stopped
@@ -62,18 +108,47 @@ abstract class $ClaroLauncher {
     }
   }
 
-  private void startServer() {
-    this.eventloop.execute(() -> {
+  private void startServer() throws Exception {
+    if (this.listeningServer != this.server) {
+      // The PrimaryServer only accepts connections, so every server that it hands them off to must already be running
+      // on its own eventloop. Otherwise, they'd never expire idle keep-alive connections, and closing them at shutdown
+      // would be a no-op.
+      ImmutableList.Builder<CompletableFuture<Void>> serversListening = ImmutableList.builder();
+      serversListening.add(startServer(this.eventloop, this.server));
+      for (int i = 0; i < this.workerServers.size(); i++) {
+        serversListening.add(startServer(this.workerEventloops.get(i), this.workerServers.get(i)));
+      }
+      CompletableFuture.allOf(serversListening.build().toArray(new CompletableFuture[0])).get();
+    }
+    startServer(this.eventloop, this.listeningServer).get();
+  }
+
+  private static CompletableFuture<Void> startServer(Eventloop eventloop, AbstractServer<?> server) {
+    CompletableFuture<Void> res = new CompletableFuture<>();
+    eventloop.execute(() -> {
       try {
-        this.server.listen();
+        server.listen();
+        res.complete(null);
       } catch (Exception e) {
-        throw new RuntimeException("Failed to start ActiveJ AsyncHttpServer", e);
+        res.completeExceptionally(new RuntimeException("Failed to start ActiveJ AsyncHttpServer", e));
       }
     });
+    return res;
   }
 
   private void stopServer() {
-    this.eventloop.execute(() -> this.server.close().whenException(
+    stopServer(this.eventloop, this.listeningServer);
+    if (this.listeningServer != this.server) {
+      // The PrimaryServer only stops accepting new connections, each worker server must close its own connections.
+      stopServer(this.eventloop, this.server);
+      for (int i = 0; i < this.workerServers.size(); i++) {
+        stopServer(this.workerEventloops.get(i), this.workerServers.get(i));
+      }
+    }
+  }
+
+  private static void stopServer(Eventloop eventloop, AbstractServer<?> server) {
+    eventloop.execute(() -> server.close().whenException(
         e -> {
           throw new RuntimeException("Exception while stopping ActiveJ AsyncHttpServer", e);
         }
@@ -8,7 +8,11 @@ import com.claro.stdlib.StdLibModuleRegistry;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.SettableFuture;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -18,14 +22,25 @@ import retrofit2.Retrofit;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class $HttpUtil {
 
   private static OkHttpClient OKHTTP_CLIENT = null;
   private static final Map<String, Retrofit> CACHED_RETROFIT_CLIENTS_BY_BASE_URL = Maps.newConcurrentMap();
+  // Base URLs explicitly configured via http::configureHttpClient() get their own dedicated OkHttpClient (and therefore
+  // their own connection pool and dispatcher), everything else shares the default client.
+  private static final Map<String, OkHttpClient> CONFIGURED_OKHTTP_CLIENTS_BY_BASE_URL = Maps.newConcurrentMap();
+  // Reconfiguring a base URL must not disturb HttpClients already handed out for it, which keep sending requests through
+  // the previous OkHttpClient. So those are only shut down along with everything else when the program exits.
+  private static final Queue<OkHttpClient> SUPERSEDED_OKHTTP_CLIENTS = new ConcurrentLinkedQueue<>();
+  private static final Map<String, HttpClientStats> HTTP_CLIENT_STATS_BY_BASE_URL = Maps.newConcurrentMap();
 
-  private static OkHttpClient getOkHttpClient() {
+  private static synchronized OkHttpClient getOkHttpClient() {
     if ($HttpUtil.OKHTTP_CLIENT == null) {
       $HttpUtil.OKHTTP_CLIENT = new OkHttpClient.Builder()
           // TODO(steving) I want to update this to actually allow a user configured timeout and default to 10 OkHttp's
@@ -40,6 +55,44 @@ public class $HttpUtil {
     if ($HttpUtil.OKHTTP_CLIENT != null) {
       $HttpUtil.OKHTTP_CLIENT.dispatcher().executorService().shutdown();
     }
+    CONFIGURED_OKHTTP_CLIENTS_BY_BASE_URL.values()
+        .forEach(client -> client.dispatcher().executorService().shutdown());
+    SUPERSEDED_OKHTTP_CLIENTS.forEach(client -> client.dispatcher().executorService().shutdown());
+  }
+
+  // Only affects HttpClients subsequently requested for this base URL via getHttpClient(). Any HttpClients previously
+  // requested for this base URL are left untouched, including their in-flight requests.
+  public static void configureHttpClientForBaseUrl(
+      String baseUrl,
+      int maxIdleConnections,
+      int keepAliveMillis,
+      int maxRequests,
+      int maxRequestsPerHost,
+      int connectTimeoutMillis,
+      int readTimeoutMillis,
+      int writeTimeoutMillis,
+      int callTimeoutMillis,
+      boolean http2PriorKnowledge) {
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+    OkHttpClient.Builder client =
+        new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMillis, TimeUnit.MILLISECONDS))
+            .dispatcher(dispatcher)
+            .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+            .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+            .writeTimeout(writeTimeoutMillis, TimeUnit.MILLISECONDS)
+            .callTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS);
+    if (http2PriorKnowledge) {
+      // Cleartext HTTP/2 without the HTTP/1.1 upgrade dance, so that all requests multiplex over a single connection.
+      client.protocols(ImmutableList.of(Protocol.H2_PRIOR_KNOWLEDGE));
+    }
+    OkHttpClient prev = CONFIGURED_OKHTTP_CLIENTS_BY_BASE_URL.put(baseUrl, client.build());
+    if (prev != null) {
+      SUPERSEDED_OKHTTP_CLIENTS.add(prev);
+    }
+    CACHED_RETROFIT_CLIENTS_BY_BASE_URL.remove(baseUrl);
   }
 
   public static <T> T getServiceClientForBaseUrl(Class<T> generatedServiceClass, String baseUrl) {
@@ -48,12 +101,55 @@ public class $HttpUtil {
             _baseUrl ->
                 new Retrofit.Builder()
                     .baseUrl(_baseUrl)
-                    .client(getOkHttpClient())
+                    .client(
+                        // Deriving a client via newBuilder() shares the underlying connection pool and dispatcher, so
+                        // this is cheap. It's only done in order to attribute stats to this base URL.
+                        CONFIGURED_OKHTTP_CLIENTS_BY_BASE_URL.getOrDefault(_baseUrl, getOkHttpClient()).newBuilder()
+                            .addInterceptor(getHttpClientStatsForBaseUrl(_baseUrl))
+                            .build())
                     .build()
         )
         .create(generatedServiceClass);
   }
 
+  public static HttpClientStats getHttpClientStatsForBaseUrl(String baseUrl) {
+    return HTTP_CLIENT_STATS_BY_BASE_URL.computeIfAbsent(baseUrl, _baseUrl -> new HttpClientStats());
+  }
+
+  // Latency is measured per request from when it's sent until its response headers have arrived, so it excludes the
+  // time spent reading the response body. A request only counts as in flight over that same window.
+  public static final class HttpClientStats implements Interceptor {
+    public final AtomicLong requests = new AtomicLong();
+    public final AtomicLong failures = new AtomicLong();
+    public final AtomicInteger inFlight = new AtomicInteger();
+    // Accumulated in nanos so that sub-millisecond requests aren't each truncated to zero.
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+    public long getTotalLatencyMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(this.totalLatencyNanos.get());
+    }
+
+    @Override
+    public okhttp3.Response intercept(Chain chain) throws IOException {
+      this.requests.incrementAndGet();
+      this.inFlight.incrementAndGet();
+      long start = System.nanoTime();
+      try {
+        okhttp3.Response res = chain.proceed(chain.request());
+        if (!res.isSuccessful()) {
+          this.failures.incrementAndGet();
+        }
+        return res;
+      } catch (IOException | RuntimeException e) {
+        this.failures.incrementAndGet();
+        throw e;
+      } finally {
+        this.inFlight.decrementAndGet();
+        this.totalLatencyNanos.addAndGet(System.nanoTime() - start);
+      }
+    }
+  }
+
   // TODO(steving) Long term this should really be updated to return the Response itself rather than just the body. It
   //  should just be up to the user how they want to handle the response.
   public static ClaroFuture<Object> executeAsyncHttpRequest(Call<ResponseBody> callAsync) {